@@ -24,6 +24,7 @@ import com.dtolabs.rundeck.core.authorization.providers.Policies;
 
 import javax.security.auth.Subject;
 import java.io.File;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -123,17 +124,14 @@ public class AclsUtil {
         return a.source();
     }
     public static AclRuleSetSource merge(final AclRuleSetSource a, final AclRuleSetSource b){
+        final AclRuleSetMerger merger = new AclRuleSetMerger();
         return new AclRuleSetSource() {
             @Override
             public AclRuleSet getRuleSet() {
-                HashSet<AclRule> aclRules = new HashSet<>();
-                if (a != null) {
-                    aclRules.addAll(a.getRuleSet().getRules());
-                }
-                if (null != b) {
-                    aclRules.addAll(b.getRuleSet().getRules());
-                }
-                return new AclRuleSetImpl(aclRules);
+                return merger.merge(Arrays.asList(
+                        a != null ? a.getRuleSet() : null,
+                        b != null ? b.getRuleSet() : null
+                ));
             }
         };
     }
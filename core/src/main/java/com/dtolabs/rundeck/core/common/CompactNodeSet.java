@@ -0,0 +1,478 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.common;
+
+import java.util.*;
+
+/**
+ * Read-only node set which stores its nodes compactly. Attribute names are kept once in a schema shared by all nodes,
+ * each distinct attribute value is kept once in a dictionary, and each node is a flat array of dictionary codes
+ * indexed by schema position. Identical tag sets are shared between nodes.
+ * <br>
+ * Nodes are sorted by name, as in {@link NodeSetImpl}. The nodes are read-only {@link INodeEntry} instances, and
+ * their attributes and tags cannot be modified.
+ */
+public class CompactNodeSet implements INodeSet {
+    private static final int NO_VALUE = -1;
+    /**
+     * Predefined properties, given fixed schema positions
+     */
+    private static final String[] PROPERTY_KEYS = {
+        NodeEntryImpl.NAME,
+        NodeEntryImpl.HOSTNAME,
+        NodeEntryImpl.USERNAME,
+        NodeEntryImpl.DESCRIPTION,
+        NodeEntryImpl.TAGS,
+        NodeEntryImpl.OS_NAME,
+        NodeEntryImpl.OS_FAMILY,
+        NodeEntryImpl.OS_ARCH,
+        NodeEntryImpl.OS_VERSION,
+    };
+    private static final int NAME_INDEX = 0;
+    private static final int HOSTNAME_INDEX = 1;
+    private static final int USERNAME_INDEX = 2;
+    private static final int DESCRIPTION_INDEX = 3;
+    private static final int OS_NAME_INDEX = 5;
+    private static final int OS_FAMILY_INDEX = 6;
+    private static final int OS_ARCH_INDEX = 7;
+    private static final int OS_VERSION_INDEX = 8;
+
+    private final String[] keys;
+    private final Map<String, Integer> keyIndex;
+    private final String[] dictionary;
+    private final String[] names;
+    private final Entry[] entries;
+
+    private CompactNodeSet(
+        final String[] keys,
+        final Map<String, Integer> keyIndex,
+        final String[] dictionary,
+        final String[] names,
+        final Entry[] entries
+    )
+    {
+        this.keys = keys;
+        this.keyIndex = keyIndex;
+        this.dictionary = dictionary;
+        this.names = names;
+        this.entries = entries;
+    }
+
+    /**
+     * Create a compact copy of a node set
+     *
+     * @param nodeSet node set
+     *
+     * @return compact node set, or null if the input is null
+     */
+    public static CompactNodeSet create(final INodeSet nodeSet) {
+        if (null == nodeSet) {
+            return null;
+        }
+        if (nodeSet instanceof CompactNodeSet) {
+            return (CompactNodeSet) nodeSet;
+        }
+        final TreeMap<String, INodeEntry> sorted = new TreeMap<>();
+        for (final INodeEntry node : nodeSet.getNodes()) {
+            if (null != node.getNodename()) {
+                sorted.put(node.getNodename(), node);
+            }
+        }
+
+        final Map<String, Integer> keyIndex = new HashMap<>();
+        final List<String> keys = new ArrayList<>();
+        for (final String key : PROPERTY_KEYS) {
+            keyIndex.put(key, keys.size());
+            keys.add(key);
+        }
+        final Map<String, Integer> codes = new HashMap<>();
+        final List<String> dictionary = new ArrayList<>();
+        final Map<Set<String>, Set<String>> tagSets = new HashMap<>();
+
+        final String[] names = new String[sorted.size()];
+        final int[][] nodeCodes = new int[sorted.size()][];
+        final Set<String>[] nodeTags = newSetArray(sorted.size());
+        final String[] projects = new String[sorted.size()];
+        int n = 0;
+        for (final INodeEntry node : sorted.values()) {
+            final Map<String, String> attributes = node.getAttributes();
+            int[] values = new int[keys.size()];
+            int length = 0;
+            if (null != attributes) {
+                for (final Map.Entry<String, String> attr : attributes.entrySet()) {
+                    if (null == attr.getKey() || null == attr.getValue()) {
+                        continue;
+                    }
+                    Integer index = keyIndex.get(attr.getKey());
+                    if (null == index) {
+                        index = keys.size();
+                        keyIndex.put(attr.getKey(), index);
+                        keys.add(attr.getKey());
+                    }
+                    if (index >= values.length) {
+                        final int size = Math.max(index + 1, values.length * 2);
+                        values = Arrays.copyOf(values, size);
+                    }
+                    while (length <= index) {
+                        values[length++] = NO_VALUE;
+                    }
+                    values[index] = encode(attr.getValue(), codes, dictionary);
+                }
+            }
+            //the node name is required, even if it is not an attribute
+            final int nameCode = encode(node.getNodename(), codes, dictionary);
+            values[NAME_INDEX] = nameCode;
+            length = Math.max(length, NAME_INDEX + 1);
+            nodeCodes[n] = values.length == length ? values : Arrays.copyOf(values, length);
+            names[n] = dictionary.get(nameCode);
+            nodeTags[n] = canonicalTags(node.getTags(), codes, dictionary, tagSets);
+            if (null != node.getFrameworkProject()) {
+                projects[n] = dictionary.get(encode(node.getFrameworkProject(), codes, dictionary));
+            }
+            n++;
+        }
+
+        final CompactNodeSet compact = new CompactNodeSet(
+            keys.toArray(new String[0]),
+            keyIndex,
+            dictionary.toArray(new String[0]),
+            names,
+            new Entry[names.length]
+        );
+        for (int i = 0; i < names.length; i++) {
+            compact.entries[i] = new Entry(compact, nodeCodes[i], nodeTags[i], projects[i]);
+        }
+        return compact;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String>[] newSetArray(final int size) {
+        return (Set<String>[]) new Set[size];
+    }
+
+    /**
+     * @return the dictionary code of the value, adding it to the dictionary if necessary
+     */
+    private static int encode(final String value, final Map<String, Integer> codes, final List<String> dictionary) {
+        Integer code = codes.get(value);
+        if (null == code) {
+            code = dictionary.size();
+            codes.put(value, code);
+            dictionary.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * @return an unmodifiable tag set shared by all nodes with the same tags
+     */
+    private static Set<String> canonicalTags(
+        final Set tags,
+        final Map<String, Integer> codes,
+        final List<String> dictionary,
+        final Map<Set<String>, Set<String>> tagSets
+    )
+    {
+        if (null == tags || tags.isEmpty()) {
+            return Collections.emptySet();
+        }
+        final Set<String> set = new HashSet<>();
+        for (final Object tag : tags) {
+            if (null != tag) {
+                set.add(dictionary.get(encode(tag.toString(), codes, dictionary)));
+            }
+        }
+        return tagSets.computeIfAbsent(set, Collections::unmodifiableSet);
+    }
+
+    /**
+     * @return number of distinct attribute names
+     */
+    public int getAttributeNameCount() {
+        return keys.length;
+    }
+
+    /**
+     * @return number of distinct attribute values and tags
+     */
+    public int getDictionarySize() {
+        return dictionary.length;
+    }
+
+    @Override
+    public Collection<INodeEntry> getNodes() {
+        return Collections.<INodeEntry>unmodifiableList(Arrays.asList(entries));
+    }
+
+    @Override
+    public INodeEntry getNode(final String name) {
+        if (null == name) {
+            return null;
+        }
+        final int index = Arrays.binarySearch(names, name);
+        return index >= 0 ? entries[index] : null;
+    }
+
+    @Override
+    public Collection<String> getNodeNames() {
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return Collections.unmodifiableList(Arrays.asList(names)).iterator();
+            }
+
+            @Override
+            public int size() {
+                return names.length;
+            }
+
+            @Override
+            public boolean contains(final Object o) {
+                return o instanceof String && Arrays.binarySearch(names, o) >= 0;
+            }
+        };
+    }
+
+    @Override
+    public Iterator<INodeEntry> iterator() {
+        return getNodes().iterator();
+    }
+
+    @Override
+    public String toString() {
+        return "CompactNodeSet{" +
+               "nodes=" + names.length +
+               ", attributeNames=" + keys.length +
+               ", dictionary=" + dictionary.length +
+               '}';
+    }
+
+    /**
+     * Read-only node stored as dictionary codes for the attribute names of the node set
+     */
+    public static final class Entry implements INodeEntry, INodeDesc {
+        private final CompactNodeSet set;
+        private final int[] codes;
+        private final Set<String> tags;
+        private final String project;
+
+        private Entry(final CompactNodeSet set, final int[] codes, final Set<String> tags, final String project) {
+            this.set = set;
+            this.codes = codes;
+            this.tags = tags;
+            this.project = project;
+        }
+
+        private String value(final int index) {
+            if (index >= codes.length || codes[index] == NO_VALUE) {
+                return null;
+            }
+            return set.dictionary[codes[index]];
+        }
+
+        /**
+         * Get the value for a specific attribute
+         *
+         * @param name attribute name
+         *
+         * @return attribute value, or null if it is not set
+         */
+        public String getAttribute(final String name) {
+            final Integer index = set.keyIndex.get(name);
+            return null != index ? value(index) : null;
+        }
+
+        @Override
+        public String getNodename() {
+            return value(NAME_INDEX);
+        }
+
+        @Override
+        public String getHostname() {
+            return value(HOSTNAME_INDEX);
+        }
+
+        @Override
+        public String getUsername() {
+            return value(USERNAME_INDEX);
+        }
+
+        @Override
+        public String getDescription() {
+            return value(DESCRIPTION_INDEX);
+        }
+
+        @Override
+        public String getOsName() {
+            return value(OS_NAME_INDEX);
+        }
+
+        @Override
+        public String getOsFamily() {
+            return value(OS_FAMILY_INDEX);
+        }
+
+        @Override
+        public String getOsArch() {
+            return value(OS_ARCH_INDEX);
+        }
+
+        @Override
+        public String getOsVersion() {
+            return value(OS_VERSION_INDEX);
+        }
+
+        @Override
+        public String getFrameworkProject() {
+            return project;
+        }
+
+        @Override
+        public Set getTags() {
+            return tags;
+        }
+
+        @Override
+        public Map<String, String> getAttributes() {
+            return new AttributeMap();
+        }
+
+        @Override
+        public boolean containsUserName() {
+            return NodeEntryImpl.containsUserName(getHostname());
+        }
+
+        @Override
+        public boolean containsPort() {
+            return NodeEntryImpl.containsPort(getHostname());
+        }
+
+        @Override
+        public String extractUserName() {
+            final String username = getUsername();
+            if (null != username && !"".equals(username)) {
+                return username;
+            }
+            return NodeEntryImpl.extractUserName(getHostname());
+        }
+
+        @Override
+        public String extractHostname() {
+            return NodeEntryImpl.extractHostname(getHostname());
+        }
+
+        @Override
+        public String extractPort() {
+            return NodeEntryImpl.extractPort(getHostname());
+        }
+
+        @Override
+        public boolean equals(final INodeDesc node) {
+            return getNodename().equals(node.getNodename());
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof INodeBase)) {
+                return false;
+            }
+            return getNodename().equals(((INodeBase) o).getNodename());
+        }
+
+        @Override
+        public int hashCode() {
+            return getNodename().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "CompactNodeSet.Entry{" +
+                   "tags=" + tags +
+                   ", attributes=" + getAttributes() +
+                   ", project='" + project + '\'' +
+                   '}';
+        }
+
+        /**
+         * Unmodifiable view of the attributes
+         */
+        private final class AttributeMap extends AbstractMap<String, String> {
+            @Override
+            public String get(final Object key) {
+                return key instanceof String ? getAttribute((String) key) : null;
+            }
+
+            @Override
+            public boolean containsKey(final Object key) {
+                return null != get(key);
+            }
+
+            @Override
+            public Set<Map.Entry<String, String>> entrySet() {
+                return new AbstractSet<Map.Entry<String, String>>() {
+                    @Override
+                    public Iterator<Map.Entry<String, String>> iterator() {
+                        return new AttributeIterator();
+                    }
+
+                    @Override
+                    public int size() {
+                        int size = 0;
+                        for (final int code : codes) {
+                            if (code != NO_VALUE) {
+                                size++;
+                            }
+                        }
+                        return size;
+                    }
+                };
+            }
+        }
+
+        private final class AttributeIterator implements Iterator<Map.Entry<String, String>> {
+            private int next = advance(0);
+
+            private int advance(int index) {
+                while (index < codes.length && codes[index] == NO_VALUE) {
+                    index++;
+                }
+                return index;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < codes.length;
+            }
+
+            @Override
+            public Map.Entry<String, String> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final Map.Entry<String, String> entry = new AbstractMap.SimpleImmutableEntry<>(
+                    set.keys[next],
+                    set.dictionary[codes[next]]
+                );
+                next = advance(next + 1);
+                return entry;
+            }
+        }
+    }
+}
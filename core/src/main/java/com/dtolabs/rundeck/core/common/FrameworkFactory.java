@@ -145,6 +145,7 @@ public class FrameworkFactory {
 
         NodeSupport iFrameworkNodes = new NodeSupport();
         iFrameworkNodes.setLookup(lookup1);
+        ProjectNodeSupport.configureSourceLoad(lookup1);
 
         //framework
 
@@ -178,6 +179,7 @@ public class FrameworkFactory {
 
         NodeSupport iFrameworkNodes = new NodeSupport();
         iFrameworkNodes.setLookup(lookup1);
+        ProjectNodeSupport.configureSourceLoad(lookup1);
 
         //framework
 
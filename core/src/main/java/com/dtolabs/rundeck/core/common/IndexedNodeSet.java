@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.common;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Node set with a {@link NodeIndex}, used by {@link NodeFilter} to test only the nodes which can match a filter.
+ * The underlying node set must not be modified after the index is built.
+ */
+public class IndexedNodeSet implements INodeSet {
+    private final INodeSet nodeSet;
+    private final NodeIndex index;
+
+    private IndexedNodeSet(final INodeSet nodeSet, final NodeIndex index) {
+        this.nodeSet = nodeSet;
+        this.index = index;
+    }
+
+    /**
+     * @param nodeSet node set
+     *
+     * @return indexed node set, or null if the input is null
+     */
+    public static IndexedNodeSet create(final INodeSet nodeSet) {
+        if (null == nodeSet) {
+            return null;
+        }
+        if (nodeSet instanceof IndexedNodeSet) {
+            return (IndexedNodeSet) nodeSet;
+        }
+        return new IndexedNodeSet(nodeSet, NodeIndex.build(nodeSet));
+    }
+
+    public NodeIndex getIndex() {
+        return index;
+    }
+
+    @Override
+    public Collection<INodeEntry> getNodes() {
+        return nodeSet.getNodes();
+    }
+
+    @Override
+    public INodeEntry getNode(final String name) {
+        return nodeSet.getNode(name);
+    }
+
+    @Override
+    public Collection<String> getNodeNames() {
+        return nodeSet.getNodeNames();
+    }
+
+    @Override
+    public Iterator<INodeEntry> iterator() {
+        return nodeSet.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return "IndexedNodeSet{" + nodeSet + '}';
+    }
+}
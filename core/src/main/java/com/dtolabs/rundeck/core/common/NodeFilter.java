@@ -23,6 +23,13 @@
 */
 package com.dtolabs.rundeck.core.common;
 
+import com.dtolabs.rundeck.core.utils.NodeSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
 /**
  * NodeFilter is ...
  *
@@ -31,11 +38,33 @@ package com.dtolabs.rundeck.core.common;
 public class NodeFilter {
     public static INodeSet filterNodes(final NodesSelector selector, final INodeSet nodeSet) {
         final NodeSetImpl nodeSet1 = new NodeSetImpl();
-        for (final INodeEntry iNodeEntry : nodeSet.getNodes()) {
+        for (final INodeEntry iNodeEntry : candidateNodes(selector, nodeSet)) {
             if(selector.acceptNode(iNodeEntry)) {
                 nodeSet1.putNode(iNodeEntry);
             }
         }
         return nodeSet1;
     }
+
+    /**
+     * @return the nodes to test with the selector, limited to the nodes which can match a {@link NodeSet} filter if
+     * the node set is indexed
+     */
+    private static Collection<INodeEntry> candidateNodes(final NodesSelector selector, final INodeSet nodeSet) {
+        if (!(nodeSet instanceof IndexedNodeSet) || null == selector || selector.getClass() != NodeSet.class) {
+            return nodeSet.getNodes();
+        }
+        final Set<String> names = ((NodeSet) selector).candidateNodeNames(((IndexedNodeSet) nodeSet).getIndex());
+        if (null == names) {
+            return nodeSet.getNodes();
+        }
+        final List<INodeEntry> nodes = new ArrayList<>(names.size());
+        for (final String name : names) {
+            final INodeEntry node = nodeSet.getNode(name);
+            if (null != node) {
+                nodes.add(node);
+            }
+        }
+        return nodes;
+    }
 }
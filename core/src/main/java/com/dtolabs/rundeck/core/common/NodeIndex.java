@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.common;
+
+import com.dtolabs.rundeck.core.utils.NodeSet;
+
+import java.util.*;
+
+/**
+ * Inverted index of a node set, mapping node name, filter properties, tags and attribute values to the names of the
+ * nodes which have them. The index is immutable and reflects the node set at the time it was built.
+ */
+public class NodeIndex {
+    private final Map<String, Map<String, Set<String>>> properties = new HashMap<>();
+    private final Map<String, Set<String>> tags = new HashMap<>();
+    private final Map<String, Map<String, Set<String>>> attributes = new HashMap<>();
+    private final int size;
+
+    private NodeIndex(final int size) {
+        this.size = size;
+    }
+
+    /**
+     * Build an index
+     *
+     * @param nodeSet nodes
+     *
+     * @return new index
+     */
+    public static NodeIndex build(final INodeSet nodeSet) {
+        final Collection<INodeEntry> nodes = nodeSet.getNodes();
+        final NodeIndex index = new NodeIndex(nodes.size());
+        for (final INodeEntry node : nodes) {
+            final String name = node.getNodename();
+            if (null == name) {
+                continue;
+            }
+            index.addProperty(NodeSet.NAME, name, name);
+            index.addProperty(NodeSet.HOSTNAME, node.getHostname(), name);
+            index.addProperty(NodeSet.OS_NAME, node.getOsName(), name);
+            index.addProperty(NodeSet.OS_FAMILY, node.getOsFamily(), name);
+            index.addProperty(NodeSet.OS_ARCH, node.getOsArch(), name);
+            index.addProperty(NodeSet.OS_VERSION, node.getOsVersion(), name);
+            final Set nodeTags = node.getTags();
+            if (null != nodeTags) {
+                for (final Object tag : nodeTags) {
+                    if (tag instanceof String) {
+                        index.tags.computeIfAbsent((String) tag, k -> new HashSet<>()).add(name);
+                    }
+                }
+            }
+            final Map<String, String> nodeAttributes = node.getAttributes();
+            if (null != nodeAttributes) {
+                for (final Map.Entry<String, String> entry : nodeAttributes.entrySet()) {
+                    add(index.attributes, entry.getKey(), entry.getValue(), name);
+                }
+            }
+        }
+        return index;
+    }
+
+    private void addProperty(final String property, final String value, final String name) {
+        add(properties, property, value, name);
+    }
+
+    private static void add(
+            final Map<String, Map<String, Set<String>>> map,
+            final String key,
+            final String value,
+            final String name
+    )
+    {
+        if (null == key || null == value) {
+            return;
+        }
+        map.computeIfAbsent(key, k -> new HashMap<>()).computeIfAbsent(value, k -> new HashSet<>()).add(name);
+    }
+
+    /**
+     * @return number of nodes indexed
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param property filter property name, one of {@link NodeSet#NAME}, {@link NodeSet#HOSTNAME}, or the os
+     *                 properties
+     *
+     * @return map of distinct values of the property to node names, never null
+     */
+    public Map<String, Set<String>> getPropertyValues(final String property) {
+        return Collections.unmodifiableMap(properties.getOrDefault(property, Collections.emptyMap()));
+    }
+
+    /**
+     * @return map of distinct tags to node names, never null
+     */
+    public Map<String, Set<String>> getTagValues() {
+        return Collections.unmodifiableMap(tags);
+    }
+
+    /**
+     * @param attribute attribute name
+     *
+     * @return map of distinct values of the attribute to node names, never null
+     */
+    public Map<String, Set<String>> getAttributeValues(final String attribute) {
+        return Collections.unmodifiableMap(attributes.getOrDefault(attribute, Collections.emptyMap()));
+    }
+}
@@ -29,19 +29,21 @@ import com.dtolabs.shared.resources.ResourceXMLConstants;
 import com.dtolabs.shared.resources.ResourceXMLParser;
 import com.dtolabs.shared.resources.ResourceXMLParserException;
 import com.dtolabs.shared.resources.ResourceXMLReceiver;
+import com.dtolabs.shared.resources.ResourceXMLStreamParser;
 import com.dtolabs.utils.Mapper;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Arrays;
 import java.util.HashSet;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
 /**
- * NodesXmlParser invokes the ResourceXmlParser to collate the Node entries, and sends the parsed nodes to the {@link
- * NodeReceiver} object with the parsed node entities.
+ * NodesXmlParser invokes the ResourceXMLStreamParser to read the Node entries, and sends each parsed node to the {@link
+ * NodeReceiver} object as soon as it is read, so the whole document is never held in memory.
  *
  * @author Greg Schueler <a href="mailto:greg@dtosolutions.com">greg@dtosolutions.com</a>
  * @version $Revision$
@@ -50,6 +52,7 @@ public class NodesXMLParser implements NodeFileParser, ResourceXMLReceiver {
     final File file;
     final InputStream input;
     final NodeReceiver nodeReceiver;
+    private Set<String> parsedNames;
 
     /**
      * Create NodesXmlParser
@@ -85,33 +88,61 @@ public class NodesXMLParser implements NodeFileParser, ResourceXMLReceiver {
     }
 
     /**
-     * Parse the project.xml formatted file and fill in the nodes found
+     * Parse the project.xml formatted file and fill in the nodes found. Each node is sent to the receiver as soon as
+     * it is parsed.
      */
     public void parse() throws NodeFileParserException {
-        final ResourceXMLParser resourceXMLParser;
+        final ResourceXMLStreamParser resourceXMLParser;
         if(null!=file){
-            resourceXMLParser=new ResourceXMLParser(file);
+            resourceXMLParser=new ResourceXMLStreamParser(file);
         }else{
-            resourceXMLParser = new ResourceXMLParser(input);
+            resourceXMLParser = new ResourceXMLStreamParser(input);
         }
-        //parse both node and settings
+        parsedNames = new HashSet<String>();
         resourceXMLParser.setReceiver(this);
-//        long start = System.currentTimeMillis();
         try {
             resourceXMLParser.parse();
         } catch (ResourceXMLParserException e) {
             throw new NodeFileParserException(e);
         } catch (IOException e) {
             throw new NodeFileParserException(e);
+        } finally {
+            parsedNames = null;
         }
-//        System.err.println("parse: " + (System.currentTimeMillis() - start));
     }
 
     public boolean resourceParsed(final ResourceXMLParser.Entity entity) {
+        if (NODE_ENTITY_TAG.equals(entity.getResourceType())) {
+            if (null != parsedNames && !parsedNames.add(entity.getName())) {
+                mergePreviousNode(entity);
+            }
+            putNode(entity);
+        }
         //continue parsing entities until the end
         return true;
     }
 
+    /**
+     * A node defined more than once in the document gets the attributes of the previous definitions which it does
+     * not redefine, if the previous node can be retrieved from the receiver.
+     *
+     * @param entity entity for a repeated node name
+     */
+    private void mergePreviousNode(final ResourceXMLParser.Entity entity) {
+        if (!(nodeReceiver instanceof INodeSet)) {
+            return;
+        }
+        final INodeEntry previous = ((INodeSet) nodeReceiver).getNode(entity.getName());
+        if (null == previous || null == previous.getAttributes()) {
+            return;
+        }
+        for (final Map.Entry<String, String> entry : previous.getAttributes().entrySet()) {
+            if (null == entity.getProperty(entry.getKey()) && null != entry.getValue()) {
+                entity.setProperty(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
     /**
      * Fill the NodeEntryImpl based on the Entity's parsed attributes
      *
@@ -153,20 +184,19 @@ public class NodesXMLParser implements NodeFileParser, ResourceXMLReceiver {
     }
 
     public void resourcesParsed(final ResourceXMLParser.EntitySet entities) {
-        //all entities are parsed, now process the nodes
-        for (final ResourceXMLParser.Entity entity : entities.getEntities()) {
-            if (!NODE_ENTITY_TAG.equals(entity.getResourceType())) {
-                continue;
-            }
+        //nodes are sent to the receiver as each entity is parsed
+    }
 
-            /*
-            * Create a INodeEntry from the parsed entity and put it into the Nodes object
-            */
-            final NodeEntryImpl node = new NodeEntryImpl(entity.getProperty("hostname"), entity.getName());
-            fillNode(entity, node);
-            if (null != nodeReceiver) {
-                nodeReceiver.putNode(node);
-            }
+    /**
+     * Create a INodeEntry from the parsed entity and put it into the Nodes object
+     *
+     * @param entity node entity
+     */
+    private void putNode(final ResourceXMLParser.Entity entity) {
+        final NodeEntryImpl node = new NodeEntryImpl(entity.getProperty("hostname"), entity.getName());
+        fillNode(entity, node);
+        if (null != nodeReceiver) {
+            nodeReceiver.putNode(node);
         }
     }
 }
@@ -24,16 +24,28 @@
 package com.dtolabs.rundeck.core.common;
 
 
-import com.dtolabs.rundeck.core.resources.format.ResourceFormatParser;
-import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.composer.Composer;
 import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.resolver.Resolver;
 
 import java.util.*;
 import java.io.*;
 
 /**
- * NodesYamlParser imports Node data from a YAML formatted input file or datastream.
+ * NodesYamlParser imports Node data from a YAML formatted input file or datastream. Each node entry is sent to the
+ * receiver as soon as it is read, without loading the whole document.
  *
  * @author Greg Schueler <a href="mailto:greg@dtosolutions.com">greg@dtosolutions.com</a>
  */
@@ -64,61 +76,25 @@ public class NodesYamlParser implements NodeFileParser {
         this.nodes = nodes;
     }
 
-    @SuppressWarnings("unchecked")
     public void parse() throws NodeFileParserException {
         if (null == file && null == inputStream) {
             throw new NullPointerException("file or inputStream was not set");
         }
         final Reader reader;
-        final Yaml yaml = new Yaml(new SafeConstructor());
         try {
             if (null != file) {
-                reader = new FileReader(file);
+                reader = new BufferedReader(new FileReader(file));
             } else {
                 reader = new InputStreamReader(inputStream);
             }
             try {
-                for (final Object o : yaml.loadAll(reader)) {
-                    if (o instanceof Map) {
-
-                        //name->{node data} map
-                        final Map<String, Map<String, Object>> map = (Map<String, Map<String, Object>>) o;
-                        for (final Map.Entry<String, Map<String, Object>> entry : map.entrySet()) {
-                            final String nodename = entry.getKey();
-                            if (null == entry.getValue()) {
-                                throw new NodeFileParserException("Empty node entry for: " + nodename);
-                            }
-                            if(!(entry.getValue() instanceof Map)) {
-                                throw new NodeFileParserException(
-                                    "Expected map data for node entry '" + nodename + "', but saw: " + entry.getValue().getClass()
-                                        .getName());
-                            }
-                            final HashMap<String, Object> newmap = new HashMap<String, Object>(entry.getValue());
-                            newmap.put("nodename", nodename);
-                            final NodeEntryImpl iNodeEntry;
-                            try {
-                                iNodeEntry = NodeEntryFactory.createFromMap(newmap);
-                            } catch (IllegalArgumentException e) {
-                                throw new NodeFileParserException(e);
-                            }
-
-                            nodes.putNode(iNodeEntry);
-                        }
-                    } else if (o instanceof Collection) {
-
-                        //list of {node data} maps
-                        final Collection<Map<String, Object>> map = (Collection<Map<String, Object>>) o;
-                        for (final Map<String, Object> nodemap : map) {
-                            final NodeEntryImpl iNodeEntry;
-                            try {
-                                iNodeEntry = NodeEntryFactory.createFromMap(nodemap);
-                            } catch (IllegalArgumentException e) {
-                                throw new NodeFileParserException(e);
-                            }
-                            nodes.putNode(iNodeEntry);
-                        }
-                    }
+                final NodeComposer composer = new NodeComposer(new ParserImpl(new StreamReader(reader)));
+                //each node is constructed and received while the document is composed
+                while (composer.checkNode()) {
+                    composer.getNode();
                 }
+            } catch (NodeComposerException e) {
+                throw e.getCause();
             } finally {
                 reader.close();
             }
@@ -130,4 +106,148 @@ public class NodesYamlParser implements NodeFileParser {
             throw new NodeFileParserException(e);
         }
     }
+
+    /**
+     * Create a node from a name->{node data} map entry
+     */
+    private void parseNodeEntry(final Object key, final Object value) throws NodeFileParserException {
+        final String nodename = String.valueOf(key);
+        if (null == value) {
+            throw new NodeFileParserException("Empty node entry for: " + nodename);
+        }
+        if (!(value instanceof Map)) {
+            throw new NodeFileParserException(
+                "Expected map data for node entry '" + nodename + "', but saw: " + value.getClass().getName()
+            );
+        }
+        @SuppressWarnings("unchecked")
+        final HashMap<String, Object> newmap = new HashMap<String, Object>((Map<String, Object>) value);
+        newmap.put("nodename", nodename);
+        putNode(newmap);
+    }
+
+    /**
+     * Create a node from a {node data} list item
+     */
+    @SuppressWarnings("unchecked")
+    private void parseNodeItem(final Object item) throws NodeFileParserException {
+        if (!(item instanceof Map)) {
+            throw new NodeFileParserException(
+                "Expected map data for node entry, but saw: " + (null != item ? item.getClass().getName() : "null")
+            );
+        }
+        putNode((Map<String, Object>) item);
+    }
+
+    private void putNode(final Map<String, Object> nodemap) throws NodeFileParserException {
+        final NodeEntryImpl iNodeEntry;
+        try {
+            iNodeEntry = NodeEntryFactory.createFromMap(nodemap);
+        } catch (IllegalArgumentException e) {
+            throw new NodeFileParserException(e);
+        }
+        nodes.putNode(iNodeEntry);
+    }
+
+    /**
+     * Carries a parse error out of the composer
+     */
+    private static class NodeComposerException extends RuntimeException {
+        NodeComposerException(final NodeFileParserException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized NodeFileParserException getCause() {
+            return (NodeFileParserException) super.getCause();
+        }
+    }
+
+    /**
+     * Exposes construction of a single YAML node with the safe constructor
+     */
+    private static class NodeConstructor extends SafeConstructor {
+        Object construct(final Node node) {
+            return constructDocument(node);
+        }
+    }
+
+    /**
+     * Composes the YAML documents, but constructs each entry of a top level map or list and sends it to the receiver
+     * instead of adding it to the document, so that only one node entry is held in memory at a time.
+     */
+    private class NodeComposer extends Composer {
+        private final NodeConstructor constructor = new NodeConstructor();
+        private int depth;
+
+        NodeComposer(final Parser parser) {
+            super(parser, new Resolver(), new LoaderOptions());
+        }
+
+        @Override
+        protected Node composeMappingNode(final String anchor) {
+            depth++;
+            try {
+                return super.composeMappingNode(anchor);
+            } finally {
+                depth--;
+            }
+        }
+
+        @Override
+        protected void composeMappingChildren(final List<NodeTuple> children, final MappingNode node) {
+            if (depth > 1) {
+                super.composeMappingChildren(children, node);
+                return;
+            }
+            final Node key = composeKeyNode(node);
+            final Node value = composeValueNode(node);
+            try {
+                parseNodeEntry(constructor.construct(key), constructor.construct(value));
+            } catch (NodeFileParserException e) {
+                throw new NodeComposerException(e);
+            }
+        }
+
+        @Override
+        protected Node composeSequenceNode(final String anchor) {
+            if (depth > 0) {
+                depth++;
+                try {
+                    return super.composeSequenceNode(anchor);
+                } finally {
+                    depth--;
+                }
+            }
+            final SequenceStartEvent startEvent = (SequenceStartEvent) parser.getEvent();
+            depth++;
+            try {
+                while (!parser.checkEvent(Event.ID.SequenceEnd)) {
+                    if (!parser.checkEvent(Event.ID.MappingStart)) {
+                        throw new NodeComposerException(new NodeFileParserException(
+                            "Expected map data for node entry, at " + parser.peekEvent().getStartMark()
+                        ));
+                    }
+                    final MappingStartEvent itemEvent = (MappingStartEvent) parser.peekEvent();
+                    final Node item = composeMappingNode(itemEvent.getAnchor());
+                    try {
+                        parseNodeItem(constructor.construct(item));
+                    } catch (NodeFileParserException e) {
+                        throw new NodeComposerException(e);
+                    }
+                }
+            } finally {
+                depth--;
+            }
+            final Event endEvent = parser.getEvent();
+            return new SequenceNode(
+                Tag.SEQ,
+                true,
+                Collections.<Node>emptyList(),
+                startEvent.getStartMark(),
+                endEvent.getEndMark(),
+                startEvent.getFlowStyle()
+            );
+        }
+    }
 }
@@ -22,6 +22,7 @@ import com.dtolabs.rundeck.core.resources.*;
 import com.dtolabs.rundeck.core.resources.format.*;
 import com.dtolabs.rundeck.core.utils.TextUtils;
 import com.dtolabs.rundeck.plugins.ServiceNameConstants;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.Data;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -33,6 +34,8 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -47,6 +50,39 @@ public class ProjectNodeSupport implements IProjectNodes, Closeable {
     public static final  String RESOURCES_SOURCE_PROP_PREFIX            = "resources.source";
     public static final  String NODE_ENHANCER_PROP_PREFIX               = "nodes.plugin";
     public static final  String PROJECT_RESOURCES_MERGE_NODE_ATTRIBUTES = "project.resources.mergeNodeAttributes";
+    /**
+     * Project property, if false sources are loaded one at a time, default true
+     */
+    public static final  String PROJECT_RESOURCES_LOAD_CONCURRENT       = "project.resources.load.concurrent";
+    /**
+     * Project property, timeout in seconds for loading each source, or 0 for no timeout, default 0. Can be set for a
+     * single source with "resources.source.N.loadTimeout". The timeout starts when the source starts loading, not
+     * while it waits for a thread.
+     */
+    public static final  String PROJECT_RESOURCES_LOAD_TIMEOUT          = "project.resources.load.timeout";
+    public static final  String RESOURCES_SOURCE_LOAD_TIMEOUT_SUFFIX    = "loadTimeout";
+    /**
+     * Framework property, number of threads shared by all projects for loading sources, default 10
+     */
+    public static final  String FRAMEWORK_RESOURCES_LOAD_THREADS        = "framework.resources.load.threads";
+    public static final  int    DEFAULT_RESOURCES_LOAD_THREADS          = 10;
+    /**
+     * Framework property, maximum source loads waiting for a thread, default 100. When full, a source is loaded in
+     * the calling thread.
+     */
+    public static final  String FRAMEWORK_RESOURCES_LOAD_QUEUE_SIZE     = "framework.resources.load.queueSize";
+    public static final  int    DEFAULT_RESOURCES_LOAD_QUEUE_SIZE       = 100;
+
+    private static       ThreadPoolExecutor                                        sourceLoadExecutor;
+    private static       int                                                       sourceLoadThreads      =
+        DEFAULT_RESOURCES_LOAD_THREADS;
+    private static       int                                                       sourceLoadQueueSize    =
+        DEFAULT_RESOURCES_LOAD_QUEUE_SIZE;
+    /**
+     * True in a thread loading a source, nested loads are not run concurrently to avoid exhausting the pool
+     */
+    private static final ThreadLocal<Boolean>                                      inSourceLoad           =
+        ThreadLocal.withInitial(() -> false);
 
     private IRundeckProjectConfig                                                  projectConfig;
     private final Map<String, Throwable>                                           nodesSourceExceptions;
@@ -62,6 +98,28 @@ public class ProjectNodeSupport implements IProjectNodes, Closeable {
     private ResourceModelSourceService                                             resourceModelSourceService;
     private Function<SourceDefinition, CloseableProvider<ResourceModelSource>>     factoryFunction;
     private boolean                                                                sourcesOpened;
+    private volatile SourceLoadListener                                            sourceLoadListener;
+
+    /**
+     * Receives the time taken to load nodes from each source
+     */
+    public static interface SourceLoadListener {
+        /**
+         * @param index         source index
+         * @param type          source type
+         * @param durationNanos time taken to load the nodes
+         */
+        void sourceLoaded(int index, String type, long durationNanos);
+
+        /**
+         * Called when the source timed out and its cached nodes were used instead
+         *
+         * @param index source index
+         * @param type  source type
+         */
+        default void sourceTimedOut(int index, String type) {
+        }
+    }
 
     /**
      * @param projectConfig
@@ -128,66 +186,310 @@ public class ProjectNodeSupport implements IProjectNodes, Closeable {
      */
     @Override
     public INodeSet getNodeSet() {
-        //iterate through sources, and add nodes
+        //load sources, and add nodes in source order
         final NodeSetMerge list = getNodeSetMerge();
         Map<String,Exception> exceptions = Collections.synchronizedMap(new HashMap<>());
-        int index=1;
-
         nodesSourceExceptions.clear();
-        for (final ResourceModelSource nodesSource : getResourceModelSourcesInternal()) {
+        for (final INodeSet nodes : loadNodeSets(getResourceModelSourcesInternal(), exceptions)) {
+            if (null != nodes) {
+                list.addNodeSet(nodes);
+            }
+        }
+        synchronized (nodesSourceExceptions){
+            nodesSourceExceptions.putAll(exceptions);
+        }
+        return list;
+
+    }
+
+    /**
+     * Load the nodes of each source, concurrently unless disabled by project config
+     *
+     * @return nodes for each source in source order, with null for a source without a result
+     */
+    private List<INodeSet> loadNodeSets(
+            final List<LoadedResourceModelSource> sources,
+            final Map<String, Exception> exceptions
+    )
+    {
+        final List<INodeSet> results = new ArrayList<>(sources.size());
+        if (sources.size() < 2 || !isConcurrentLoad() || inSourceLoad.get()) {
+            int index = 1;
+            for (final LoadedResourceModelSource nodesSource : sources) {
+                results.add(loadNodeSet(nodesSource, index++, exceptions));
+            }
+            return results;
+        }
+        final ExecutorService executor = getSourceLoadExecutor();
+        final List<Future<INodeSet>> futures = new ArrayList<>(sources.size());
+        final List<AtomicLong> startTimes = new ArrayList<>(sources.size());
+        int index = 1;
+        for (final LoadedResourceModelSource nodesSource : sources) {
+            final int sourceIndex = index++;
+            final AtomicLong started = new AtomicLong();
+            startTimes.add(started);
+            futures.add(executor.submit(() -> {
+                started.set(System.nanoTime());
+                inSourceLoad.set(true);
+                try {
+                    return loadNodeSet(nodesSource, sourceIndex, exceptions);
+                } finally {
+                    inSourceLoad.remove();
+                }
+            }));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            final LoadedResourceModelSource nodesSource = sources.get(i);
+            final Future<INodeSet> future = futures.get(i);
+            final long timeout = getSourceLoadTimeout(nodesSource.getIndex());
             try {
-                INodeSet nodes = nodesSource.getNodes();
-                if (null == nodes) {
-                    logger.warn("Empty nodes result from [" + nodesSource.toString() + "]");
+                if (timeout > 0) {
+                    results.add(awaitSourceLoad(future, startTimes.get(i), TimeUnit.SECONDS.toNanos(timeout)));
                 } else {
-                    list.addNodeSet(nodes);
+                    results.add(future.get());
                 }
-                if(nodesSource instanceof ResourceModelSourceErrors){
-                    ResourceModelSourceErrors nodeerrors = (ResourceModelSourceErrors) nodesSource;
-                    List<String> modelSourceErrors = nodeerrors.getModelSourceErrors();
-                    if(modelSourceErrors!=null && modelSourceErrors.size()>0){
-
-                        logger.error("Some errors getting nodes from [" +
-                                     nodesSource.toString() +
-                                     "]: " +
-                                     modelSourceErrors);
-                        exceptions.put(
-                                index + ".source",
-                                new ResourceModelSourceException(
-                                        TextUtils.join(
-                                                modelSourceErrors.toArray(new String[0]),
-                                                ';'
-                                        )
-                                )
-                        );
-                    }
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                results.add(loadCachedNodeSet(nodesSource, i + 1, timeout, exceptions));
+            } catch (ExecutionException e) {
+                Throwable cause = null != e.getCause() ? e.getCause() : e;
+                logger.error("Cannot get nodes from [" + nodesSource.toString() + "]: " + cause.getMessage());
+                exceptions.put((i + 1) + ".source", new ResourceModelSourceException(cause.getMessage()));
+                results.add(null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (int j = i; j < futures.size(); j++) {
+                    futures.get(j).cancel(true);
+                    results.add(null);
+                }
+                break;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Wait for the result of a source load, up to the timeout after the load started
+     *
+     * @param future  load result
+     * @param started time the load started, or 0 while it is waiting for a thread
+     * @param timeout timeout in nanoseconds
+     *
+     * @throws TimeoutException if the load did not finish within the timeout after it started
+     */
+    private static INodeSet awaitSourceLoad(final Future<INodeSet> future, final AtomicLong started, final long timeout)
+            throws InterruptedException, ExecutionException, TimeoutException
+    {
+        while (true) {
+            long start = started.get();
+            long remaining = 0 == start ? timeout : start + timeout - System.nanoTime();
+            try {
+                return future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (0 != start || future.isDone()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Load nodes from the source
+     *
+     * @param nodesSource source
+     * @param index       position of the source, used to report errors
+     * @param exceptions  errors
+     *
+     * @return nodes, or null
+     */
+    private INodeSet loadNodeSet(
+            final LoadedResourceModelSource nodesSource,
+            final int index,
+            final Map<String, Exception> exceptions
+    )
+    {
+        final long start = System.nanoTime();
+        try {
+            INodeSet nodes = nodesSource.getNodes();
+            if (null == nodes) {
+                logger.warn("Empty nodes result from [" + nodesSource.toString() + "]");
+            }
+            if(nodesSource instanceof ResourceModelSourceErrors){
+                ResourceModelSourceErrors nodeerrors = (ResourceModelSourceErrors) nodesSource;
+                List<String> modelSourceErrors = nodeerrors.getModelSourceErrors();
+                if(modelSourceErrors!=null && modelSourceErrors.size()>0){
+
+                    logger.error("Some errors getting nodes from [" +
+                                 nodesSource.toString() +
+                                 "]: " +
+                                 modelSourceErrors);
+                    exceptions.put(
+                            index + ".source",
+                            new ResourceModelSourceException(
+                                    TextUtils.join(
+                                            modelSourceErrors.toArray(new String[0]),
+                                            ';'
+                                    )
+                            )
+                    );
                 }
+            }
+            return nodes;
+        } catch (ResourceModelSourceException | RuntimeException e) {
+            logger.error("Cannot get nodes from [" + nodesSource.toString() + "]: " + e.getMessage());
+            logger.debug("Cannot get nodes from [" + nodesSource.toString() + "]: " + e.getMessage(), e);
+            exceptions.put(
+                    index+".source",
+                    new ResourceModelSourceException(
+                            e.getMessage(), e
+                    )
+            );
+        } catch (Throwable e) {
+            logger.error("Cannot get nodes from [" + nodesSource.toString() + "]: " + e.getMessage());
+            logger.debug("Cannot get nodes from [" + nodesSource.toString() + "]: " + e.getMessage(), e);
+            exceptions.put(
+                    index+".source",
+                    new ResourceModelSourceException(
+                            e.getMessage()
+                    )
+            );
+        } finally {
+            SourceLoadListener listener = sourceLoadListener;
+            if (null != listener) {
+                listener.sourceLoaded(nodesSource.getIndex(), nodesSource.getType(), System.nanoTime() - start);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Load the last cached nodes for a source which timed out
+     *
+     * @return cached nodes, or null if the source has no cache
+     */
+    private INodeSet loadCachedNodeSet(
+            final LoadedResourceModelSource nodesSource,
+            final int index,
+            final long timeout,
+            final Map<String, Exception> exceptions
+    )
+    {
+        SourceLoadListener listener = sourceLoadListener;
+        if (null != listener) {
+            listener.sourceTimedOut(nodesSource.getIndex(), nodesSource.getType());
+        }
+        ResourceModelSource source = nodesSource.getSource();
+        String message = "Timed out loading nodes after " + timeout + " seconds";
+        INodeSet nodes = null;
+        if (source instanceof CachingResourceModelSource) {
+            try {
+                nodes = ((CachingResourceModelSource) source).getCache().loadCachedNodes();
+                message += ", using cached nodes";
             } catch (ResourceModelSourceException | RuntimeException e) {
-                logger.error("Cannot get nodes from [" + nodesSource.toString() + "]: " + e.getMessage());
-                logger.debug("Cannot get nodes from [" + nodesSource.toString() + "]: " + e.getMessage(), e);
-                exceptions.put(
-                        index+".source",
-                        new ResourceModelSourceException(
-                                e.getMessage(), e
-                        )
-                );
-            } catch (Throwable e) {
-                logger.error("Cannot get nodes from [" + nodesSource.toString() + "]: " + e.getMessage());
-                logger.debug("Cannot get nodes from [" + nodesSource.toString() + "]: " + e.getMessage(), e);
-                exceptions.put(
-                        index+".source",
-                        new ResourceModelSourceException(
-                                e.getMessage()
-                        )
-                );
+                message += ", cached nodes could not be loaded: " + e.getMessage();
             }
-            index++;
         }
-        synchronized (nodesSourceExceptions){
-            nodesSourceExceptions.putAll(exceptions);
+        logger.error("Cannot get nodes from [" + nodesSource.toString() + "]: " + message);
+        exceptions.put(index + ".source", new ResourceModelSourceException(message));
+        return nodes;
+    }
+
+    private boolean isConcurrentLoad() {
+        return !(projectConfig.hasProperty(PROJECT_RESOURCES_LOAD_CONCURRENT) &&
+                 "false".equals(projectConfig.getProperty(PROJECT_RESOURCES_LOAD_CONCURRENT)));
+    }
+
+    /**
+     * @return timeout in seconds for the source, or 0
+     */
+    private long getSourceLoadTimeout(int index) {
+        String sourceProp = RESOURCES_SOURCE_PROP_PREFIX + "." + index + "." + RESOURCES_SOURCE_LOAD_TIMEOUT_SUFFIX;
+        String value = projectConfig.hasProperty(sourceProp)
+                       ? projectConfig.getProperty(sourceProp)
+                       : projectConfig.hasProperty(PROJECT_RESOURCES_LOAD_TIMEOUT)
+                         ? projectConfig.getProperty(PROJECT_RESOURCES_LOAD_TIMEOUT)
+                         : null;
+        if (null == value) {
+            return 0;
         }
-        return list;
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid source load timeout for source #" + index + ": " + value);
+            return 0;
+        }
+    }
+
+    /**
+     * Configure the pool shared by all projects for loading sources from the framework properties. The thread count
+     * is applied to an existing pool, the queue size only when the pool is created.
+     *
+     * @param frameworkProperties framework properties
+     */
+    public static void configureSourceLoad(final PropertyRetriever frameworkProperties) {
+        synchronized (ProjectNodeSupport.class) {
+            sourceLoadThreads = getIntProperty(
+                    frameworkProperties,
+                    FRAMEWORK_RESOURCES_LOAD_THREADS,
+                    DEFAULT_RESOURCES_LOAD_THREADS
+            );
+            sourceLoadQueueSize = getIntProperty(
+                    frameworkProperties,
+                    FRAMEWORK_RESOURCES_LOAD_QUEUE_SIZE,
+                    DEFAULT_RESOURCES_LOAD_QUEUE_SIZE
+            );
+            if (null != sourceLoadExecutor) {
+                if (sourceLoadThreads > sourceLoadExecutor.getMaximumPoolSize()) {
+                    sourceLoadExecutor.setMaximumPoolSize(sourceLoadThreads);
+                    sourceLoadExecutor.setCorePoolSize(sourceLoadThreads);
+                } else {
+                    sourceLoadExecutor.setCorePoolSize(sourceLoadThreads);
+                    sourceLoadExecutor.setMaximumPoolSize(sourceLoadThreads);
+                }
+            }
+        }
+    }
 
+    private static int getIntProperty(final PropertyRetriever properties, final String name, final int defval) {
+        String value = null != properties ? properties.getProperty(name) : null;
+        if (null == value) {
+            return defval;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid " + name + " value, using default");
+            return defval;
+        }
+    }
+
+    /**
+     * @return pool shared by all projects for loading sources
+     */
+    private static ExecutorService getSourceLoadExecutor() {
+        synchronized (ProjectNodeSupport.class) {
+            if (null == sourceLoadExecutor) {
+                ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                        sourceLoadThreads,
+                        sourceLoadThreads,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<>(sourceLoadQueueSize),
+                        new ThreadFactoryBuilder().setNameFormat("ResourceModelSourceLoader-%d").setDaemon(true).build(),
+                        new ThreadPoolExecutor.CallerRunsPolicy()
+                );
+                executor.allowCoreThreadTimeOut(true);
+                sourceLoadExecutor = executor;
+            }
+            return sourceLoadExecutor;
+        }
+    }
+
+    /**
+     * @param sourceLoadListener listener for source load times, or null
+     */
+    public void setSourceLoadListener(final SourceLoadListener sourceLoadListener) {
+        this.sourceLoadListener = sourceLoadListener;
     }
 
     /**
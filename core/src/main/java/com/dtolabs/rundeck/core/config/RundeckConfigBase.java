@@ -82,6 +82,7 @@ public class RundeckConfigBase {
         RetryConfig finalize;
         RetryConfig status;
         ExecutionLogs logs;
+        Cleanup cleanup;
 
         @Data
         public static class RetryConfig {
@@ -89,6 +90,18 @@ public class RundeckConfigBase {
             Integer retryDelay;
         }
 
+        @Data
+        public static class Cleanup {
+            BulkPurge bulkPurge;
+        }
+
+        @Data
+        public static class BulkPurge {
+            Boolean enabled;
+            Integer chunkSize;
+            Integer rowsPerSecond;
+        }
+
         @Data
         public static class ExecutionLogs {
             String fileStoragePlugin;
@@ -276,6 +289,7 @@ public class RundeckConfigBase {
             Boolean firstLoadAsynch;
             Boolean enabled;
             String spec;
+            Boolean compact;
         }
     }
 
@@ -32,7 +32,6 @@ import com.dtolabs.rundeck.core.utils.Converter;
 import java.io.*;
 import java.util.*;
 import java.util.function.BiFunction;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -46,7 +45,6 @@ public class SharedDataContextUtils {
     public static final String PROPERTY_REF_REGEX = "\\$\\{([^\\s.]+)\\.([^\\s}]+)\\}";
     public static final String PROPERTY_VIEW_REF_REGEX = "\\$\\{([^\\s}]+)\\}";
     public static final Pattern PROPERTY_REF_PATTERN = Pattern.compile(PROPERTY_REF_REGEX);
-    private static final Pattern PROPERTY_VIEW_REF_PATTERN = Pattern.compile(PROPERTY_VIEW_REF_REGEX);
 
 
     /**
@@ -134,36 +132,13 @@ public class SharedDataContextUtils {
         if (null == data || null == input) {
             return input;
         }
-        final Matcher m = PROPERTY_VIEW_REF_PATTERN.matcher(input);
-        final StringBuffer sb = new StringBuffer();
-        ArgumentVarExpander argExpander = new ArgumentVarExpander();
-        while (m.find()) {
-            final String variableRef = m.group(1);
-            String value = argExpander.expandVariable(
-                    data,
-                    currentContext,
-                    viewMap,
-                    variableRef
-            );
-            if (null != value) {
-                if (null != converter) {
-                    value = converter.convert(value);
-                }
-                m.appendReplacement(sb, Matcher.quoteReplacement(value));
-            } else if (failOnUnexpanded) {
-                throw new DataContextUtils.UnresolvedDataReferenceException(input, m.group());
-            } else if (blankIfUnexpanded) {
-                m.appendReplacement(sb, "");
-            } else {
-                value = m.group(0);
-                if (null != converter) {
-                    value = converter.convert(value);
-                }
-                m.appendReplacement(sb, Matcher.quoteReplacement(value));
-            }
-        }
-        m.appendTail(sb);
-        return sb.toString();
+        final ArgumentVarExpander argExpander = new ArgumentVarExpander();
+        return DataReferenceTemplate.forViews(input).render(
+                reference -> argExpander.expandVariable(data, currentContext, viewMap, reference.getKey()),
+                converter,
+                failOnUnexpanded,
+                blankIfUnexpanded
+        );
     }
 
 
@@ -263,13 +238,18 @@ public class SharedDataContextUtils {
         if (null == script) {
             throw new NullPointerException("script cannot be null");
         }
-        replaceTokensInReader(
-                new StringReader(script),
-                dataContext,
-                style,
-                destination, nodeName,blankIfMissing,
-                addBom
+        //the script is tokenized once and rendered for each node
+        ScriptVarExpander scriptVarExpander = new ScriptVarExpander();
+        final Reader replaceTokens = ScriptTokenTemplate.forScript(script).reader(
+                variable -> scriptVarExpander.expandVariable(
+                        dataContext,
+                        ContextView.node(nodeName),
+                        ContextView::nodeStep,
+                        variable
+                ),
+                blankIfMissing
         );
+        ScriptfileUtils.writeScriptFile(null, null, replaceTokens, style, destination, addBom);
     }
 
 
@@ -29,7 +29,6 @@ import org.apache.tools.ant.types.Environment;
 import java.io.*;
 import java.util.*;
 import java.util.function.Predicate;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 
@@ -110,10 +109,9 @@ public class DataContextUtils {
         if (null == script) {
             throw new NullPointerException("script cannot be null");
         }
-        //use ReplaceTokens to replace tokens within the content
-        final Reader read = new StringReader(script);
+        //replace tokens using the template compiled for the content
         final Map<String, String> toks = flattenDataContext(dataContext);
-        final ReplaceTokenReader replaceTokens = new ReplaceTokenReader(read, toks::get, true, '@', '@');
+        final Reader replaceTokens = ScriptTokenTemplate.forScript(script).reader(toks::get, true);
         final File temp;
         if (null != destination) {
             ScriptfileUtils.writeScriptFile(null, null, replaceTokens, style, destination);
@@ -460,32 +458,8 @@ public class DataContextUtils {
         if (null == data || null == input) {
             return input;
         }
-        final Matcher m = SharedDataContextUtils.PROPERTY_REF_PATTERN.matcher(input);
-        final StringBuffer sb = new StringBuffer();
-        while (m.find()) {
-            final String key = m.group(1);
-            final String nm = m.group(2);
-            if (null!=key && null!=nm && null!=data.get(key) && null!= data.get(key).get(nm)) {
-                String value = data.get(key).get(nm);
-                if (null != converter) {
-                    value = converter.convert(value);
-                }
-                m.appendReplacement(sb, Matcher.quoteReplacement(value));
-            }else if (failOnUnexpanded && null != key && null != nm && (null == data.get(key) || null == data.get(key)
-                                                                                                             .get(nm))) {
-                throw new UnresolvedDataReferenceException(input, m.group());
-            }else if(blankIfUnexpanded) {
-                m.appendReplacement(sb, "");
-            } else {
-                String value = m.group(0);
-                if (null != converter) {
-                    value = converter.convert(value);
-                }
-                m.appendReplacement(sb, Matcher.quoteReplacement(value));
-            }
-        }
-        m.appendTail(sb);
-        return sb.toString();
+        return DataReferenceTemplate.forProperties(input)
+                                    .render(data, converter, failOnUnexpanded, blankIfUnexpanded);
     }
 
     /**
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.dispatcher;
+
+import com.dtolabs.rundeck.core.data.SharedDataContextUtils;
+import com.dtolabs.rundeck.core.utils.Converter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A string parsed once into literal text and '${...}' data reference segments, which can be rendered against
+ * different data contexts without scanning the string again. Compiled templates are immutable and cached by input
+ * string.
+ */
+public class DataReferenceTemplate {
+    /**
+     * Maximum total length of cached template strings, for each kind of template
+     */
+    public static final int CACHE_MAX_CHARS = 1024 * 1024;
+    private static final Pattern PROPERTY_VIEW_REF_PATTERN =
+            Pattern.compile(SharedDataContextUtils.PROPERTY_VIEW_REF_REGEX);
+
+    private static final Cache<String, DataReferenceTemplate> propertyTemplates = newCache();
+    private static final Cache<String, DataReferenceTemplate> viewTemplates = newCache();
+
+    private final String input;
+    /**
+     * literal text before each reference, and the trailing text
+     */
+    private final String[] literals;
+    private final Reference[] references;
+
+    /**
+     * A data reference within the template
+     */
+    public static class Reference {
+        private final String text;
+        private final String key;
+        private final String name;
+
+        Reference(final String text, final String key, final String name) {
+            this.text = text;
+            this.key = key;
+            this.name = name;
+        }
+
+        /**
+         * @return the reference text including delimiters
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * @return the context key, or for view references the full variable reference
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return the property name, or null for view references
+         */
+        public String getName() {
+            return name;
+        }
+    }
+
+    private DataReferenceTemplate(final String input, final String[] literals, final Reference[] references) {
+        this.input = input;
+        this.literals = literals;
+        this.references = references;
+    }
+
+    private static Cache<String, DataReferenceTemplate> newCache() {
+        return CacheBuilder.newBuilder()
+                           .maximumWeight(CACHE_MAX_CHARS)
+                           .weigher((String key, DataReferenceTemplate value) -> key.length())
+                           .build();
+    }
+
+    /**
+     * Return the template for references of the form '${key.name}'
+     *
+     * @param input input string
+     *
+     * @return compiled template
+     */
+    public static DataReferenceTemplate forProperties(final String input) {
+        return cached(propertyTemplates, input, SharedDataContextUtils.PROPERTY_REF_PATTERN, false);
+    }
+
+    /**
+     * Return the template for view references of the form '${variable}', where the reference key is the variable
+     *
+     * @param input input string
+     *
+     * @return compiled template
+     */
+    public static DataReferenceTemplate forViews(final String input) {
+        return cached(viewTemplates, input, PROPERTY_VIEW_REF_PATTERN, true);
+    }
+
+    private static DataReferenceTemplate cached(
+            final Cache<String, DataReferenceTemplate> cache,
+            final String input,
+            final Pattern pattern,
+            final boolean view
+    )
+    {
+        if (!input.contains("${")) {
+            return compile(input, pattern, view);
+        }
+        try {
+            return cache.get(input, () -> compile(input, pattern, view));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            return compile(input, pattern, view);
+        }
+    }
+
+    static DataReferenceTemplate compile(final String input, final Pattern pattern, final boolean view) {
+        final List<String> literals = new ArrayList<>();
+        final List<Reference> references = new ArrayList<>();
+        final Matcher m = pattern.matcher(input);
+        int last = 0;
+        while (m.find()) {
+            literals.add(input.substring(last, m.start()));
+            references.add(new Reference(m.group(), m.group(1), view ? null : m.group(2)));
+            last = m.end();
+        }
+        literals.add(input.substring(last));
+        return new DataReferenceTemplate(
+                input,
+                literals.toArray(new String[0]),
+                references.toArray(new Reference[0])
+        );
+    }
+
+    /**
+     * @return the input string
+     */
+    public String getInput() {
+        return input;
+    }
+
+    /**
+     * @return true if the template contains references
+     */
+    public boolean hasReferences() {
+        return references.length > 0;
+    }
+
+    /**
+     * Render the template with '${key.name}' references replaced by values from the data context
+     *
+     * @param data              data context map
+     * @param converter         converter to encode/convert the expanded values
+     * @param failOnUnexpanded  true to fail if a reference is not found
+     * @param blankIfUnexpanded true to use blank if a reference is not found
+     *
+     * @return rendered string
+     */
+    public String render(
+            final Map<String, Map<String, String>> data,
+            final Converter<String, String> converter,
+            final boolean failOnUnexpanded,
+            final boolean blankIfUnexpanded
+    )
+    {
+        return render(
+                reference -> {
+                    final Map<String, String> group = data.get(reference.getKey());
+                    return null != group ? group.get(reference.getName()) : null;
+                },
+                converter,
+                failOnUnexpanded,
+                blankIfUnexpanded
+        );
+    }
+
+    /**
+     * Render the template with references replaced by resolved values
+     *
+     * @param resolver          resolves the value of a reference, or null if it is not found
+     * @param converter         converter to encode/convert the expanded values
+     * @param failOnUnexpanded  true to fail if a reference is not found
+     * @param blankIfUnexpanded true to use blank if a reference is not found
+     *
+     * @return rendered string
+     *
+     * @throws DataContextUtils.UnresolvedDataReferenceException if failOnUnexpanded is true and a reference is not
+     *                                                           found
+     */
+    public String render(
+            final Function<Reference, String> resolver,
+            final Converter<String, String> converter,
+            final boolean failOnUnexpanded,
+            final boolean blankIfUnexpanded
+    )
+    {
+        if (references.length == 0) {
+            return input;
+        }
+        final StringBuilder sb = new StringBuilder(input.length() + 16 * references.length);
+        for (int i = 0; i < references.length; i++) {
+            sb.append(literals[i]);
+            final Reference reference = references[i];
+            String value = resolver.apply(reference);
+            if (null == value) {
+                if (failOnUnexpanded) {
+                    throw new DataContextUtils.UnresolvedDataReferenceException(input, reference.getText());
+                } else if (blankIfUnexpanded) {
+                    continue;
+                }
+                value = reference.getText();
+            }
+            sb.append(null != converter ? converter.convert(value) : value);
+        }
+        sb.append(literals[references.length]);
+        return sb.toString();
+    }
+}
@@ -205,8 +205,9 @@ public class ReplaceTokenReader extends FilterReader {
 
 
     private String substitution(String key) {
-        if (null != resolve(key)) {
-            return resolve(key);
+        final String value = resolve(key);
+        if (null != value) {
+            return value;
         } else if (blankIfMissing) {
             return "";
         } else {
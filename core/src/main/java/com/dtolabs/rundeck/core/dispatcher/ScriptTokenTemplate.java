@@ -0,0 +1,236 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.dispatcher;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Script content parsed once into literal text and '@key@' token segments, using the same tokenization as {@link
+ * ReplaceTokenReader}, which can be rendered for each node without scanning the script again. Compiled templates are
+ * immutable and cached by script content.
+ */
+public class ScriptTokenTemplate {
+    /**
+     * Maximum total length of cached script content
+     */
+    public static final int CACHE_MAX_CHARS = 4 * 1024 * 1024;
+    private static final Cache<String, ScriptTokenTemplate> templates =
+            CacheBuilder.newBuilder()
+                        .maximumWeight(CACHE_MAX_CHARS)
+                        .weigher((String key, ScriptTokenTemplate value) -> key.length())
+                        .build();
+
+    /**
+     * literal text before each token, and the trailing text
+     */
+    private final String[] literals;
+    private final String[] tokens;
+    private final int literalLength;
+
+    private ScriptTokenTemplate(final String[] literals, final String[] tokens) {
+        this.literals = literals;
+        this.tokens = tokens;
+        int length = 0;
+        for (final String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Return the cached template for the script content
+     *
+     * @param script script content
+     *
+     * @return compiled template
+     */
+    public static ScriptTokenTemplate forScript(final String script) {
+        try {
+            return templates.get(script, () -> compile(new StringReader(script)));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw new UncheckedIOException((IOException) e.getCause());
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Parse the content of the reader into a template
+     *
+     * @param reader content
+     *
+     * @return compiled template
+     *
+     * @throws IOException on io error
+     */
+    public static ScriptTokenTemplate compile(final Reader reader) throws IOException {
+        final List<String> literals = new ArrayList<>();
+        final List<String> tokens = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+        //the reader emits the resolved value in place of the token, so record the token and emit nothing
+        final ReplaceTokenReader tokenReader = new ReplaceTokenReader(
+                reader,
+                key -> {
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    tokens.add(key);
+                    return "";
+                },
+                true,
+                ReplaceTokenReader.DEFAULT_TOKEN_START,
+                ReplaceTokenReader.DEFAULT_TOKEN_END
+        );
+        int c;
+        while ((c = tokenReader.read()) != -1) {
+            literal.append((char) c);
+        }
+        literals.add(literal.toString());
+        return new ScriptTokenTemplate(literals.toArray(new String[0]), tokens.toArray(new String[0]));
+    }
+
+    /**
+     * @return number of tokens
+     */
+    public int getTokenCount() {
+        return tokens.length;
+    }
+
+    /**
+     * Render the template as {@link ReplaceTokenReader} would filter the original content
+     *
+     * @param resolver       resolves token values, returns null if not found
+     * @param blankIfMissing true to replace unresolved tokens with blank, otherwise they are retained
+     *
+     * @return rendered content
+     */
+    public String render(final Function<String, String> resolver, final boolean blankIfMissing) {
+        final StringBuilder sb = new StringBuilder(literalLength + 16 * tokens.length);
+        for (int i = 0; i < tokens.length; i++) {
+            sb.append(literals[i]);
+            final String value = resolver.apply(tokens[i]);
+            if (null != value) {
+                sb.append(value);
+            } else if (!blankIfMissing) {
+                sb.append(ReplaceTokenReader.DEFAULT_TOKEN_START)
+                  .append(tokens[i])
+                  .append(ReplaceTokenReader.DEFAULT_TOKEN_END);
+            }
+        }
+        sb.append(literals[tokens.length]);
+        return sb.toString();
+    }
+
+    /**
+     * Return a reader of the rendered content, which resolves each token when it is reached, without rendering the
+     * whole script into memory
+     *
+     * @param resolver       resolves token values, returns null if not found
+     * @param blankIfMissing true to replace unresolved tokens with blank, otherwise they are retained
+     *
+     * @return reader of the rendered content
+     */
+    public Reader reader(final Function<String, String> resolver, final boolean blankIfMissing) {
+        return new TemplateReader(resolver, blankIfMissing);
+    }
+
+    /**
+     * Reads the literal and token segments of the template in order
+     */
+    private class TemplateReader extends Reader {
+        private final Function<String, String> resolver;
+        private final boolean blankIfMissing;
+        /**
+         * index of the next segment, even indexes are literals and odd indexes are tokens
+         */
+        private int segment;
+        private String current = "";
+        private int pos;
+        private boolean closed;
+
+        TemplateReader(final Function<String, String> resolver, final boolean blankIfMissing) {
+            this.resolver = resolver;
+            this.blankIfMissing = blankIfMissing;
+        }
+
+        /**
+         * @return false if there are no more segments
+         */
+        private boolean nextSegment() {
+            while (pos >= current.length()) {
+                if (segment > 2 * tokens.length) {
+                    return false;
+                }
+                final int i = segment / 2;
+                if (segment % 2 == 0) {
+                    current = literals[i];
+                } else {
+                    final String value = resolver.apply(tokens[i]);
+                    if (null != value) {
+                        current = value;
+                    } else if (!blankIfMissing) {
+                        current = ReplaceTokenReader.DEFAULT_TOKEN_START
+                                  + tokens[i]
+                                  + ReplaceTokenReader.DEFAULT_TOKEN_END;
+                    } else {
+                        current = "";
+                    }
+                }
+                segment++;
+                pos = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (off < 0 || len < 0 || off + len > cbuf.length) {
+                throw new IndexOutOfBoundsException();
+            }
+            if (len == 0) {
+                return 0;
+            }
+            int read = 0;
+            while (read < len && nextSegment()) {
+                final int count = Math.min(len - read, current.length() - pos);
+                current.getChars(pos, pos + count, cbuf, off + read);
+                pos += count;
+                read += count;
+            }
+            return read > 0 ? read : -1;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
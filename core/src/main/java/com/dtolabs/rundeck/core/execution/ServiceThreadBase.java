@@ -23,16 +23,25 @@
 */
 package com.dtolabs.rundeck.core.execution;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * ServiceThreadBase is ...
  *
  * @author Greg Schueler <a href="mailto:greg@dtosolutions.com">greg@dtosolutions.com</a>
  */
 public class ServiceThreadBase<T> extends Thread implements ServiceContext<T> {
+    private static final Logger LOG = LoggerFactory.getLogger(ServiceThreadBase.class);
     volatile boolean success = false;
     private volatile boolean aborted = false;
     volatile Throwable thrown;
     volatile T resultObject;
+    private final List<Runnable> completionListeners = new ArrayList<>();
+    private boolean complete;
 
     public void abort() {
         if (isAlive()) {
@@ -41,6 +50,48 @@ public class ServiceThreadBase<T> extends Thread implements ServiceContext<T> {
         }
     }
 
+    /**
+     * Add a listener to call once when the thread has finished running, or immediately if it already has. Listeners
+     * are called on the finishing thread, and should not block.
+     *
+     * @param listener listener
+     */
+    public void onComplete(Runnable listener) {
+        synchronized (completionListeners) {
+            if (!complete) {
+                completionListeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    /**
+     * Call the completion listeners, subclasses should call this when the run method finishes
+     */
+    protected void fireComplete() {
+        List<Runnable> listeners;
+        synchronized (completionListeners) {
+            complete = true;
+            listeners = new ArrayList<>(completionListeners);
+            completionListeners.clear();
+        }
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (Throwable e) {
+                LOG.error("Completion listener failed for {}: {}", getContextDescription(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * @return description of what the thread runs, for logging
+     */
+    protected String getContextDescription() {
+        return getName();
+    }
+
     @Override
     public boolean isSuccessful() {
         return success;
@@ -62,6 +62,24 @@ public class WorkflowExecutionServiceThread
     }
 
     public void run() {
+        try {
+            runWithLogging();
+        } finally {
+            fireComplete();
+        }
+    }
+
+    @Override
+    protected String getContextDescription() {
+        String execid = null != context && null != context.getDataContextObject()
+                        ? context.getDataContextObject().resolve("job", "execid")
+                        : null;
+        return null != execid
+               ? "execution " + execid + " in project " + context.getFrameworkProject()
+               : getName();
+    }
+
+    private void runWithLogging() {
         if (null == this.weservice || null == this.weitem || null == context) {
             throw new IllegalStateException("project or execution detail not instantiated");
         }
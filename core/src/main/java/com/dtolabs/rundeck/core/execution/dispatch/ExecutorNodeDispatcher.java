@@ -0,0 +1,453 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.execution.dispatch;
+
+import com.dtolabs.rundeck.core.common.Framework;
+import com.dtolabs.rundeck.core.common.INodeEntry;
+import com.dtolabs.rundeck.core.execution.ExecutionListener;
+import com.dtolabs.rundeck.core.execution.FailedNodesListener;
+import com.dtolabs.rundeck.core.execution.workflow.StepExecutionContext;
+import com.dtolabs.rundeck.core.execution.workflow.steps.StepFailureReason;
+import com.dtolabs.rundeck.core.execution.workflow.steps.node.NodeStepExecutionItem;
+import com.dtolabs.rundeck.core.execution.workflow.steps.node.NodeStepResult;
+import com.dtolabs.rundeck.core.execution.workflow.steps.node.NodeStepResultImpl;
+import com.dtolabs.rundeck.core.utils.ThreadBoundContext;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Parallel node dispatcher using a bounded {@link ExecutorService} instead of an Ant Parallel task. At most
+ * threadCount nodes are running at once, results are reported as each node completes, and when keepgoing is false the
+ * remaining nodes are not started and running nodes are interrupted after the first failure.
+ * <p>
+ * Node tasks run in a pool shared by all dispatches, and each task is bound to the {@link ThreadBoundContext}
+ * components of the execution context, such as the log output of the dispatching thread. The number of running node
+ * tasks of all dispatches is limited by a semaphore of maxThreads permits. A dispatch with no running task may start
+ * one task without a permit, so that nested dispatches cannot wait on each other. The dispatching thread never runs
+ * node tasks itself, so it can handle completions and cancel the remaining nodes while the pool is busy.
+ */
+public class ExecutorNodeDispatcher implements NodeDispatcher {
+    /**
+     * Framework property, if set to "executor" the {@link NodeDispatcherService} uses this dispatcher for parallel
+     * dispatch
+     */
+    public static final String PARALLEL_MODE_PROP = "framework.execution.dispatcher.parallel.mode";
+    public static final String PARALLEL_MODE_EXECUTOR = "executor";
+    /**
+     * Framework property, if true use virtual threads when supported by the Java runtime
+     */
+    public static final String VIRTUAL_THREADS_PROP = "framework.execution.dispatcher.parallel.virtualThreads";
+    /**
+     * Framework property, maximum number of node tasks running in the shared pool, read when the pool is created
+     */
+    public static final String MAX_THREADS_PROP = "framework.execution.dispatcher.parallel.maxThreads";
+    public static final int DEFAULT_MAX_THREADS = 256;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutorNodeDispatcher.class);
+    /**
+     * Time to wait for a completion before trying again to get a permit
+     */
+    private static final long PERMIT_RETRY_MILLIS = 100;
+    private static ExecutorService sharedExecutor;
+    private static Semaphore sharedPermits;
+
+    private final Framework framework;
+    private final NodeDispatchMetrics metrics = NodeDispatchMetrics.getInstance();
+
+    public ExecutorNodeDispatcher(Framework framework) {
+        this.framework = framework;
+    }
+
+    public DispatcherResult dispatch(final StepExecutionContext context, final NodeStepExecutionItem item)
+            throws DispatcherException
+    {
+        return dispatch(context, item, null);
+    }
+
+    public DispatcherResult dispatch(final StepExecutionContext context, final Dispatchable item)
+            throws DispatcherException
+    {
+        return dispatch(context, null, item);
+    }
+
+    /**
+     * Completion of a node task
+     */
+    private static class Outcome {
+        final NodeTask task;
+        final NodeStepResult result;
+        final Throwable error;
+        final long durationNanos;
+
+        Outcome(NodeTask task, NodeStepResult result, Throwable error, long durationNanos) {
+            this.task = task;
+            this.result = result;
+            this.error = error;
+            this.durationNanos = durationNanos;
+        }
+
+        boolean isSuccess() {
+            return null == error && null != result && result.isSuccess();
+        }
+    }
+
+    /**
+     * Task for one node. The task is either started by a worker thread or withdrawn by the dispatcher, whichever
+     * claims it first, so that every submitted task produces exactly one outcome or is withdrawn.
+     */
+    private class NodeTask implements Runnable {
+        final INodeEntry node;
+        final Callable<NodeStepResult> tocall;
+        final BlockingQueue<Outcome> completed;
+        /**
+         * permit held by the task, or null
+         */
+        final Semaphore permits;
+        final long submitted = System.nanoTime();
+        final AtomicBoolean claimed = new AtomicBoolean();
+        volatile boolean cancelled;
+        Future<?> future;
+
+        NodeTask(
+                INodeEntry node,
+                Callable<NodeStepResult> tocall,
+                BlockingQueue<Outcome> completed,
+                Semaphore permits
+        )
+        {
+            this.node = node;
+            this.tocall = tocall;
+            this.completed = completed;
+            this.permits = permits;
+        }
+
+        private void releasePermit() {
+            if (null != permits) {
+                permits.release();
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            long start = System.nanoTime();
+            metrics.started(start - submitted);
+            NodeStepResult result = null;
+            Throwable error = null;
+            try {
+                result = tocall.call();
+            } catch (Throwable t) {
+                error = t;
+            }
+            Outcome outcome = new Outcome(this, result, error, System.nanoTime() - start);
+            metrics.finished(outcome.durationNanos, outcome.isSuccess());
+            releasePermit();
+            completed.add(outcome);
+        }
+
+        /**
+         * Withdraw the task if not started, otherwise interrupt it
+         *
+         * @return true if the task was withdrawn and will not produce an outcome
+         */
+        boolean cancel() {
+            cancelled = true;
+            if (claimed.compareAndSet(false, true)) {
+                future.cancel(false);
+                metrics.unqueued(1);
+                releasePermit();
+                return true;
+            }
+            future.cancel(true);
+            return false;
+        }
+    }
+
+    public DispatcherResult dispatch(
+            final StepExecutionContext context,
+            final NodeStepExecutionItem item,
+            final Dispatchable toDispatch
+    ) throws DispatcherException
+    {
+        final boolean keepgoing = context.isKeepgoing();
+        final int threadCount = Math.max(1, context.getThreadCount());
+        final ExecutionListener listener = context.getExecutionListener();
+        final FailedNodesListener failedListener = listener.getFailedNodesListener();
+
+        listener.log(
+                3,
+                "preparing for parallel execution...(keepgoing? " + keepgoing + ", threads: " + threadCount + ")"
+        );
+        final Map<String, NodeStepResult> resultMap = new ConcurrentHashMap<>();
+        final Map<String, NodeStepResult> failureMap = new ConcurrentHashMap<>();
+
+        //reorder based on configured rank property and order
+        final String rankProperty =
+                null != context.getNodeRankAttribute() ? context.getNodeRankAttribute() : "nodename";
+        final INodeEntryComparator comparator = new INodeEntryComparator(rankProperty);
+        final TreeSet<INodeEntry> orderedNodes = new TreeSet<>(
+                context.isNodeRankOrderAscending() ? comparator : Collections.reverseOrder(comparator)
+        );
+        orderedNodes.addAll(context.filteredNodes().getNodes());
+
+        final HashSet<String> nodeNames = new HashSet<>();
+        for (INodeEntry node : orderedNodes) {
+            nodeNames.add(node.getNodename());
+        }
+        if (null != failedListener) {
+            failedListener.matchedNodes(nodeNames);
+        }
+        listener.log(3, "parallel dispatch to nodes: " + nodeNames);
+
+        final Deque<INodeEntry> pending = new ArrayDeque<>(orderedNodes);
+        final BlockingQueue<Outcome> completed = new LinkedBlockingQueue<>();
+        final List<NodeTask> running = new ArrayList<>();
+        final ExecutorService virtualExecutor = isVirtualThreadsEnabled() ? newVirtualThreadExecutor() : null;
+        final ExecutorService executor = null != virtualExecutor ? virtualExecutor : getSharedExecutor();
+        final Semaphore permits = null != virtualExecutor ? null : sharedPermits;
+        final Collection<ThreadBoundContext> threadContexts = context.componentsForType(ThreadBoundContext.class);
+        metrics.queued(pending.size());
+
+        boolean failed = false;
+        Outcome unexpected = null;
+        int inFlight = 0;
+        try {
+            while (!pending.isEmpty() || inFlight > 0) {
+                boolean waitingForPermit = false;
+                while (!failed && inFlight < threadCount && !pending.isEmpty()) {
+                    Semaphore permit = null;
+                    if (null != permits) {
+                        if (permits.tryAcquire()) {
+                            permit = permits;
+                        } else if (inFlight > 0) {
+                            waitingForPermit = true;
+                            break;
+                        }
+                    }
+                    final INodeEntry node = pending.poll();
+                    final Callable<NodeStepResult> tocall;
+                    if (null != item) {
+                        tocall = new ParallelNodeDispatcher.ExecNodeStepCallable(
+                                context,
+                                item,
+                                resultMap,
+                                node,
+                                failureMap,
+                                framework
+                        );
+                    } else {
+                        tocall = () -> dispatchNode(context, toDispatch, node, resultMap, failureMap);
+                    }
+                    listener.log(3, "Create task for node: " + node.getNodename());
+                    final NodeTask task = new NodeTask(node, tocall, completed, permit);
+                    running.add(task);
+                    task.future = executor.submit(ThreadBoundContext.bindAll(threadContexts, task));
+                    inFlight++;
+                }
+                if (failed && !pending.isEmpty()) {
+                    metrics.unqueued(pending.size());
+                    logNotStarted(listener, pending);
+                    pending.clear();
+                }
+                if (inFlight < 1) {
+                    break;
+                }
+                Outcome outcome = waitingForPermit
+                                  ? completed.poll(PERMIT_RETRY_MILLIS, TimeUnit.MILLISECONDS)
+                                  : completed.take();
+                if (null == outcome) {
+                    continue;
+                }
+                inFlight--;
+                running.remove(outcome.task);
+                reportOutcome(listener, outcome, resultMap, failureMap);
+                if (!outcome.isSuccess() && !keepgoing && !failed) {
+                    failed = true;
+                    List<NodeTask> withdrawn = cancelAll(running);
+                    inFlight -= withdrawn.size();
+                    running.removeAll(withdrawn);
+                    logNotStarted(listener, withdrawn.stream().map(t -> t.node).collect(Collectors.toList()));
+                }
+                if (null != outcome.error && !outcome.task.cancelled && null == unexpected) {
+                    unexpected = outcome;
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelAll(running);
+            metrics.unqueued(pending.size());
+            Thread.currentThread().interrupt();
+            throw new DispatcherException(e);
+        } finally {
+            if (null != virtualExecutor) {
+                virtualExecutor.shutdownNow();
+            }
+        }
+
+        if (null != unexpected) {
+            listener.log(0, "Parallel node dispatch failed: " + unexpected.error.getMessage());
+            if (!keepgoing) {
+                throw new DispatcherException(unexpected.error);
+            }
+        }
+        //evaluate the failed nodes
+        if (failureMap.size() > 0) {
+            if (null != failedListener) {
+                failedListener.nodesFailed(failureMap);
+            }
+            return new DispatcherResultImpl(failureMap, false);
+        } else if (null != failedListener && nodeNames.isEmpty()) {
+            failedListener.nodesSucceeded();
+        }
+        final boolean status = null == unexpected;
+        return new DispatcherResultImpl(resultMap, status, "Parallel dispatch: (" + status + ") " + resultMap);
+    }
+
+    private static NodeStepResult dispatchNode(
+            final StepExecutionContext context,
+            final Dispatchable toDispatch,
+            final INodeEntry node,
+            final Map<String, NodeStepResult> resultMap,
+            final Map<String, NodeStepResult> failureMap
+    )
+    {
+        final NodeStepResult result = toDispatch.dispatch(context, node);
+        resultMap.put(node.getNodename(), result);
+        if (!result.isSuccess()) {
+            failureMap.put(node.getNodename(), result);
+        }
+        return result;
+    }
+
+    /**
+     * Log the outcome of a node, and record a failed result for a node task which did not return a result
+     */
+    private static void reportOutcome(
+            final ExecutionListener listener,
+            final Outcome outcome,
+            final Map<String, NodeStepResult> resultMap,
+            final Map<String, NodeStepResult> failureMap
+    )
+    {
+        final INodeEntry node = outcome.task.node;
+        long millis = TimeUnit.NANOSECONDS.toMillis(outcome.durationNanos);
+        if (outcome.isSuccess()) {
+            listener.log(3, "Dispatch succeeded on node: " + node.getNodename() + " (" + millis + "ms)");
+            return;
+        }
+        if (null == outcome.error) {
+            listener.log(3, "Dispatch failed on node: " + node.getNodename() + " (" + millis + "ms)");
+            return;
+        }
+        final NodeStepResult result;
+        if (outcome.task.cancelled) {
+            listener.log(1, "Dispatch interrupted on node: " + node.getNodename() + " (" + millis + "ms)");
+            result = new NodeStepResultImpl(
+                    outcome.error,
+                    StepFailureReason.Interrupted,
+                    "Interrupted after a failure on another node",
+                    node
+            );
+        } else {
+            listener.log(
+                    0,
+                    "Dispatch failed on node: " + node.getNodename() + ": " + outcome.error.getMessage() +
+                    " (" + millis + "ms)"
+            );
+            result = new NodeStepResultImpl(outcome.error, StepFailureReason.Unknown, outcome.error.getMessage(), node);
+        }
+        resultMap.putIfAbsent(node.getNodename(), result);
+        failureMap.putIfAbsent(node.getNodename(), result);
+    }
+
+    private static void logNotStarted(final ExecutionListener listener, final Collection<INodeEntry> nodes) {
+        if (nodes.isEmpty()) {
+            return;
+        }
+        List<String> names = new ArrayList<>();
+        for (INodeEntry node : nodes) {
+            names.add(node.getNodename());
+        }
+        listener.log(1, "Not dispatched to nodes after a failure: " + names);
+    }
+
+    /**
+     * @return tasks withdrawn before starting
+     */
+    private static List<NodeTask> cancelAll(final List<NodeTask> running) {
+        List<NodeTask> withdrawn = new ArrayList<>();
+        for (NodeTask task : running) {
+            if (task.cancel()) {
+                withdrawn.add(task);
+            }
+        }
+        return withdrawn;
+    }
+
+    /**
+     * @return pool shared by all dispatches. Threads are created on demand and the number of running tasks is bounded
+     * by {@link #sharedPermits}, so a submitted task never waits in a queue or runs on the submitting thread
+     */
+    private ExecutorService getSharedExecutor() {
+        synchronized (ExecutorNodeDispatcher.class) {
+            if (null == sharedExecutor) {
+                int threads = DEFAULT_MAX_THREADS;
+                if (null != framework && framework.getPropertyLookup().hasProperty(MAX_THREADS_PROP)) {
+                    try {
+                        threads = Integer.parseInt(framework.getPropertyLookup().getProperty(MAX_THREADS_PROP).trim());
+                    } catch (NumberFormatException e) {
+                        LOG.warn("Invalid " + MAX_THREADS_PROP + " value, using default");
+                    }
+                }
+                sharedPermits = new Semaphore(Math.max(1, threads));
+                sharedExecutor = new ThreadPoolExecutor(
+                        0,
+                        Integer.MAX_VALUE,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new SynchronousQueue<>(),
+                        new ThreadFactoryBuilder().setNameFormat("node-dispatch-%d").setDaemon(true).build()
+                );
+            }
+            return sharedExecutor;
+        }
+    }
+
+    private boolean isVirtualThreadsEnabled() {
+        return null != framework
+               && framework.getPropertyLookup().hasProperty(VIRTUAL_THREADS_PROP)
+               && Boolean.parseBoolean(framework.getPropertyLookup().getProperty(VIRTUAL_THREADS_PROP));
+    }
+
+    /**
+     * @return virtual thread per task executor, or null if the runtime does not support it
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
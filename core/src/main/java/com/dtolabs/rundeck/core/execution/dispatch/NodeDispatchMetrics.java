@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.execution.dispatch;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters for node dispatch done by {@link ExecutorNodeDispatcher}, shared by all executions
+ */
+public class NodeDispatchMetrics {
+    private static final NodeDispatchMetrics INSTANCE = new NodeDispatchMetrics();
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong queueWaitNanos = new AtomicLong();
+    private final AtomicLong runNanos = new AtomicLong();
+
+    public static NodeDispatchMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    void queued(int count) {
+        queued.addAndGet(count);
+    }
+
+    void started(long waitNanos) {
+        queued.decrementAndGet();
+        active.incrementAndGet();
+        queueWaitNanos.addAndGet(waitNanos);
+    }
+
+    void unqueued(int count) {
+        queued.addAndGet(-count);
+    }
+
+    void finished(long durationNanos, boolean success) {
+        active.decrementAndGet();
+        completed.incrementAndGet();
+        if (!success) {
+            failed.incrementAndGet();
+        }
+        runNanos.addAndGet(durationNanos);
+    }
+
+    /**
+     * @return number of nodes waiting to be dispatched
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * @return number of nodes currently running
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * @return total number of nodes completed
+     */
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    /**
+     * @return total number of nodes failed
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * @return mean time in milliseconds a node waited before it started
+     */
+    public double getMeanQueueWaitMillis() {
+        return mean(queueWaitNanos.get());
+    }
+
+    /**
+     * @return mean time in milliseconds a node took to run
+     */
+    public double getMeanRunMillis() {
+        return mean(runNanos.get());
+    }
+
+    private double mean(long totalNanos) {
+        long count = completed.get();
+        return count > 0 ? (double) TimeUnit.NANOSECONDS.toMicros(totalNanos) / 1000d / count : 0d;
+    }
+}
@@ -42,6 +42,7 @@ public class NodeDispatcherService extends BaseProviderRegistryService<NodeDispa
     public NodeDispatcherService(Framework framework) {
         super(framework);
         registry.put("parallel", ParallelNodeDispatcher.class);
+        registry.put("parallel-executor", ExecutorNodeDispatcher.class);
         registry.put("sequential", SequentialNodeDispatcher.class);
         registry.put("orchestrator", OrchestratorNodeDispatcher.class);
     }
@@ -52,12 +53,19 @@ public class NodeDispatcherService extends BaseProviderRegistryService<NodeDispa
             return providerOfType("orchestrator");
         }
         if (context.getThreadCount() > 1 && context.getNodes().getNodeNames().size() > 1) {
-            return providerOfType("parallel");
+            return providerOfType(isExecutorParallelMode() ? "parallel-executor" : "parallel");
         }else{
             return providerOfType("sequential");
         }
     }
 
+    private boolean isExecutorParallelMode() {
+        return framework.getPropertyLookup().hasProperty(ExecutorNodeDispatcher.PARALLEL_MODE_PROP)
+               && ExecutorNodeDispatcher.PARALLEL_MODE_EXECUTOR.equals(
+                framework.getPropertyLookup().getProperty(ExecutorNodeDispatcher.PARALLEL_MODE_PROP)
+        );
+    }
+
     public static NodeDispatcherService getInstanceForFramework(Framework framework) {
         if (null == framework.getService(SERVICE_NAME)) {
             final NodeDispatcherService service = new NodeDispatcherService(framework);
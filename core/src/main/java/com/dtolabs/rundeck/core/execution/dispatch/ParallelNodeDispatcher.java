@@ -192,14 +192,14 @@ public class ParallelNodeDispatcher implements NodeDispatcher {
     static class ExecNodeStepCallable implements Callable<NodeStepResult>{
         final StepExecutionContext context;
         final NodeStepExecutionItem item;
-        final HashMap<String, NodeStepResult> resultMap;
+        final Map<String, NodeStepResult> resultMap;
         final INodeEntry node;
         final Map<String, NodeStepResult> failureMap;
         final Framework framework;
 
         ExecNodeStepCallable(StepExecutionContext context,
                              NodeStepExecutionItem item,
-                             HashMap<String, NodeStepResult> resultMap,
+                             Map<String, NodeStepResult> resultMap,
                              INodeEntry node,
                              Map<String, NodeStepResult> failureMap,
                              Framework framework) {
@@ -28,6 +28,7 @@ import com.dtolabs.rundeck.core.execution.workflow.steps.StepExecutionResult;
 import com.dtolabs.rundeck.core.execution.workflow.steps.node.NodeStepExecutionItem;
 import com.dtolabs.rundeck.core.execution.workflow.steps.node.NodeStepResult;
 import com.dtolabs.rundeck.core.utils.Pair;
+import com.dtolabs.rundeck.core.utils.ThreadBoundContext;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -41,13 +42,19 @@ import java.util.Map;
  * @author greg
  * @since 5/11/17
  */
-public class ContextManager extends NoopWorkflowExecutionListener implements Contextual, WorkflowExecutionListener {
+public class ContextManager extends NoopWorkflowExecutionListener
+        implements Contextual, WorkflowExecutionListener, ThreadBoundContext
+{
     /**
      * Uses a thread local context stack, inherited by sub threads.
      */
     private StepContextWorkflowExecutionListener<INodeEntry, StepContextId> stepContext = new
             StepContextWorkflowExecutionListener<>();
 
+    @Override
+    public Runnable bindTask(final Runnable task) {
+        return stepContext.bindTask(task);
+    }
 
     @Override
     public void beginExecuteNodeStep(
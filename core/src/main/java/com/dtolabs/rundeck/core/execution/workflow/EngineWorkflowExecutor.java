@@ -32,8 +32,10 @@ import com.dtolabs.rundeck.core.execution.workflow.steps.StepExecutionResult;
 import com.dtolabs.rundeck.core.execution.workflow.steps.StepExecutionResultImpl;
 import com.dtolabs.rundeck.core.execution.workflow.steps.StepFailureReason;
 import com.dtolabs.rundeck.core.rules.*;
+import com.dtolabs.rundeck.core.utils.IPropertyLookup;
 import com.dtolabs.rundeck.plugins.ServiceNameConstants;
 import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.Getter;
 import lombok.Setter;
 import org.slf4j.Logger;
@@ -41,6 +43,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Supplier;
 
@@ -100,6 +103,11 @@ public class EngineWorkflowExecutor extends BaseWorkflowExecutor {
     public static final String STEP_CONTROL_SKIP_KEY = "step.#.skip";
     public static final String STEP_CONTROL_START = "start";
     public static final String STEP_DATA_RESULT_KEY_PREFIX = "step.#.result.";
+    /**
+     * Framework property, number of threads running the operation completion callbacks of a workflow
+     */
+    public static final String CALLBACK_THREADS_PROP = "framework.workflow.engine.callbackThreads";
+    public static final int DEFAULT_CALLBACK_THREADS = 2;
     @Getter @Setter private Supplier<WorkflowSystemBuilder> workflowSystemBuilderSupplier;
 
     public EngineWorkflowExecutor(final IFramework framework) {
@@ -207,6 +215,7 @@ public class EngineWorkflowExecutor extends BaseWorkflowExecutor {
         WorkflowStrategy strategyForWorkflow;
         WorkflowStatusResult workflowResult = null;
         Exception exception = null;
+        ExecutorService callbackExecutor = null;
         try {
             strategyForWorkflow = setupWorkflowStrategy(executionContext, item, workflow, getFramework());
 
@@ -243,10 +252,12 @@ public class EngineWorkflowExecutor extends BaseWorkflowExecutor {
 
             executionContext.useAllComponentsOfType(WorkflowSystemEventListener.class, list::add);
 
+            callbackExecutor = createCallbackExecutor();
             WorkflowSystem<Map<String, String>> workflowEngine = buildWorkflowSystem(
                     state,
                     ruleEngine,
                     strategyForWorkflow.getThreadCount(),
+                    callbackExecutor,
                     getWorkflowSystemBuilderSupplier(),
                     list
             );
@@ -323,6 +334,10 @@ public class EngineWorkflowExecutor extends BaseWorkflowExecutor {
                 logDebug.log("No matched nodes");
                 workflowResult = workflowResult(true, null, ControlBehavior.Continue, sharedContext);
             }
+        } finally {
+            if (null != callbackExecutor) {
+                callbackExecutor.shutdown();
+            }
         }
         final Exception fexception = exception;
 
@@ -377,6 +392,7 @@ public class EngineWorkflowExecutor extends BaseWorkflowExecutor {
             final MutableStateObj state,
             final RuleEngine ruleEngine,
             final int wfThreadcount,
+            final ExecutorService callbackExecutor,
             final Supplier<WorkflowSystemBuilder> workflowSystemBuilder,
             final List<WorkflowSystemEventListener> workflowSystemEventListeners
     )
@@ -387,11 +403,32 @@ public class EngineWorkflowExecutor extends BaseWorkflowExecutor {
                                                     ? Executors.newFixedThreadPool(wfThreadcount)
                                                     : Executors.newCachedThreadPool()
                                     )
+                                    .manager(callbackExecutor)
                                     .state(state)
                                     .listeners(workflowSystemEventListeners)
                                     .build();
     }
 
+    /**
+     * @return bounded pool for the operation completion callbacks of one workflow, sized by {@link
+     * #CALLBACK_THREADS_PROP}
+     */
+    private ExecutorService createCallbackExecutor() {
+        int threads = DEFAULT_CALLBACK_THREADS;
+        IPropertyLookup lookup = null != getFramework() ? getFramework().getPropertyLookup() : null;
+        if (null != lookup && lookup.hasProperty(CALLBACK_THREADS_PROP)) {
+            try {
+                threads = Integer.parseInt(lookup.getProperty(CALLBACK_THREADS_PROP).trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid " + CALLBACK_THREADS_PROP + " value, using default");
+            }
+        }
+        return Executors.newFixedThreadPool(
+                Math.max(1, threads),
+                new ThreadFactoryBuilder().setNameFormat("WorkflowEngine-callback-%d").setDaemon(true).build()
+        );
+    }
+
     private static void addUnknownStepFailure(
             final StepExecutionContext executionContext,
             final Map<Integer, StepExecutionResult> stepFailures,
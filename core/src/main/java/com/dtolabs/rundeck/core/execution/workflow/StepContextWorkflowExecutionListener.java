@@ -20,6 +20,7 @@ import com.dtolabs.rundeck.core.utils.NullablePairImpl;
 import com.dtolabs.rundeck.core.utils.Pair;
 import com.dtolabs.rundeck.core.utils.PairImpl;
 import com.dtolabs.rundeck.core.utils.Pairs;
+import com.dtolabs.rundeck.core.utils.ThreadBoundContext;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,7 +29,7 @@ import java.util.List;
  * Listens to step and node context changes, and maintains thread-local step+node context
  */
 public class StepContextWorkflowExecutionListener<NODE, STEP> implements StepNodeContextListener<NODE, STEP>,
-        StepNodeContext<NODE, STEP> {
+        StepNodeContext<NODE, STEP>, ThreadBoundContext {
 
     public class ctxPair extends NullablePairImpl<STEP, NODE> implements Pair<STEP,NODE> {
         ctxPair(STEP first, NODE second) {
@@ -43,6 +44,20 @@ public class StepContextWorkflowExecutionListener<NODE, STEP> implements StepNod
     private InheritableThreadLocal<ContextStack<ctxPair>> contextStack = new
             InheritableThreadLocal<>();
 
+    /**
+     * Bind a task to the step and node context of the current thread
+     *
+     * @param task task
+     *
+     * @return bound task
+     */
+    @Override
+    public Runnable bindTask(final Runnable task) {
+        Runnable bound = ThreadBoundContext.bindValue(contextStack, contextStack.get(), task);
+        bound = ThreadBoundContext.bindValue(localNode, localNode.get(), bound);
+        return ThreadBoundContext.bindValue(localStep, localStep.get(), bound);
+    }
+
     public void beginContext() {
         STEP info = localStep.get();
         NODE node = localNode.get();
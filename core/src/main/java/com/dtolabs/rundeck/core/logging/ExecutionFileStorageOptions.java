@@ -43,4 +43,12 @@ public interface ExecutionFileStorageOptions {
     default boolean getPartialStoreSupported() {
         return false;
     }
+
+    /**
+     * @return true if complete log and state files can be stored in the block compressed format, which is then
+     * retrieved as-is
+     */
+    default boolean getBlockCompressedStoreSupported() {
+        return false;
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.logging;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.function.Predicate;
+
+/**
+ * A log reader which can use an index of the log to open the stream at a specific entry, instead of scanning from the
+ * start of the log. Readers without an available index must still support these methods, but may do so by scanning.
+ */
+public interface IndexedStreamingLogReader extends ReverseSeekingStreamingLogReader {
+    /**
+     * @return true if an index is available for the log
+     */
+    boolean isIndexed();
+
+    /**
+     * Open the stream at the given log entry number
+     *
+     * @param line entry number, starting at 0
+     *
+     * @throws IOException if an io error occurs
+     */
+    void openStreamFromLine(long line) throws IOException;
+
+    /**
+     * Open the stream at the first log entry with a time at or after the given date
+     *
+     * @param time date
+     *
+     * @throws IOException if an io error occurs
+     */
+    void openStreamFromTime(Date time) throws IOException;
+
+    /**
+     * Open the stream at or before the first log entry matching both the node and step context. Earlier entries are
+     * skipped, but later entries are not filtered.
+     *
+     * @param node    node name, or null for any node
+     * @param stepctx step context predicate, or null for any step
+     *
+     * @throws IOException if an io error occurs
+     */
+    void openStreamFromFirstMatch(String node, Predicate<String> stepctx) throws IOException;
+}
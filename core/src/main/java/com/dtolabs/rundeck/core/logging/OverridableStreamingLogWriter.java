@@ -17,6 +17,7 @@
 package com.dtolabs.rundeck.core.logging;
 
 import com.dtolabs.rundeck.core.execution.workflow.ContextStack;
+import com.dtolabs.rundeck.core.utils.ThreadBoundContext;
 
 import java.io.IOException;
 import java.util.Optional;
@@ -26,7 +27,7 @@ import java.util.Optional;
  * @author greg
  * @since 5/10/17
  */
-public class OverridableStreamingLogWriter extends FilterStreamingLogWriter {
+public class OverridableStreamingLogWriter extends FilterStreamingLogWriter implements ThreadBoundContext {
     private final InheritableThreadLocal<ContextStack<Optional<StreamingLogWriter>>> override = new
             InheritableThreadLocal<ContextStack<Optional<StreamingLogWriter>>>() {
                 @Override
@@ -74,6 +75,18 @@ public class OverridableStreamingLogWriter extends FilterStreamingLogWriter {
         super.close();
     }
 
+    /**
+     * Bind a task to a copy of the override stack of the current thread
+     *
+     * @param task task
+     *
+     * @return bound task
+     */
+    @Override
+    public Runnable bindTask(final Runnable task) {
+        return ThreadBoundContext.bindValue(override, new ContextStack<>(override.get().stack()), task);
+    }
+
     public StreamingLogWriter getOverride() {
         if (override.get().size() > 0) {
             return override.get().peek().orElse(null);
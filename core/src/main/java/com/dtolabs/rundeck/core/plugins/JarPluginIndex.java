@@ -0,0 +1,393 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.plugins;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarInputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Persistent index of jar plugin files, holding the manifest attributes and declared providers of each file, so that
+ * plugins can be listed without copying the jars or creating class loaders.
+ * <p>
+ * Entries are keyed by the SHA-256 checksum of the jar, and each entry is stored in its own file in the index
+ * directory. Validity is not stored, it is checked from the manifest attributes on each request, since it depends on
+ * the running Rundeck version. The checksum of a path is only recomputed when its size or modification time changes.
+ * </p>
+ */
+public class JarPluginIndex {
+    static Logger log = LoggerFactory.getLogger(JarPluginIndex.class.getName());
+    public static final String INDEX_DIR_NAME = "jar-plugin-index";
+    public static final String ENTRY_FILE_SUFFIX = ".json";
+    public static final int INDEX_VERSION = 2;
+    private static final ObjectMapper mapper =
+            new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final File indexDir;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, FileStat> checksums = new ConcurrentHashMap<>();
+
+    /**
+     * Create an index stored in the directory
+     *
+     * @param indexDir index directory
+     */
+    public JarPluginIndex(final File indexDir) {
+        this.indexDir = indexDir;
+    }
+
+    /**
+     * @return the index directory
+     */
+    public File getIndexDir() {
+        return indexDir;
+    }
+
+    /**
+     * Indexed content of a plugin jar
+     */
+    public static class Entry {
+        private int version;
+        private String checksum;
+        private Map<String, String> attributes;
+        private List<Provider> providers;
+
+        public int getVersion() {
+            return version;
+        }
+
+        public void setVersion(final int version) {
+            this.version = version;
+        }
+
+        public String getChecksum() {
+            return checksum;
+        }
+
+        public void setChecksum(final String checksum) {
+            this.checksum = checksum;
+        }
+
+        /**
+         * @return main manifest attributes, or null if the jar has no manifest
+         */
+        public Map<String, String> getAttributes() {
+            return attributes;
+        }
+
+        public void setAttributes(final Map<String, String> attributes) {
+            this.attributes = attributes;
+        }
+
+        /**
+         * @return providers declared by the jar classes, or null if they have not been loaded
+         */
+        public List<Provider> getProviders() {
+            return providers;
+        }
+
+        public void setProviders(final List<Provider> providers) {
+            this.providers = providers;
+        }
+
+        /**
+         * @return the main attributes, or null
+         */
+        public Attributes mainAttributes() {
+            if (null == attributes) {
+                return null;
+            }
+            final Attributes mainAttributes = new Attributes();
+            for (final Map.Entry<String, String> attr : attributes.entrySet()) {
+                mainAttributes.putValue(attr.getKey(), attr.getValue());
+            }
+            return mainAttributes;
+        }
+    }
+
+    /**
+     * Provider declared by a class in the jar
+     */
+    public static class Provider {
+        private String service;
+        private String name;
+        private String classname;
+
+        public Provider() {
+        }
+
+        public Provider(final String service, final String name, final String classname) {
+            this.service = service;
+            this.name = name;
+            this.classname = classname;
+        }
+
+        public String getService() {
+            return service;
+        }
+
+        public void setService(final String service) {
+            this.service = service;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        public String getClassname() {
+            return classname;
+        }
+
+        public void setClassname(final String classname) {
+            this.classname = classname;
+        }
+
+        public ProviderIdent toIdent() {
+            return new ProviderIdent(service, name);
+        }
+    }
+
+    /**
+     * Size and modification time of a file when its checksum was computed
+     */
+    private static class FileStat {
+        final long length;
+        final long lastModified;
+        final String checksum;
+
+        FileStat(final long length, final long lastModified, final String checksum) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+        }
+    }
+
+    /**
+     * Return the entry for the file, reading the manifest and adding it to the index if the file content is not
+     * indexed
+     *
+     * @param file jar file
+     *
+     * @return entry
+     */
+    public synchronized Entry entryFor(final File file) {
+        final String checksum = checksumFor(file);
+        if (null != checksum) {
+            final Entry existing = entries.containsKey(checksum) ? entries.get(checksum) : read(checksum);
+            if (null != existing) {
+                entries.put(checksum, existing);
+                return existing;
+            }
+        }
+        final Entry entry = new Entry();
+        entry.setVersion(INDEX_VERSION);
+        entry.setChecksum(checksum);
+        final Attributes mainAttributes = readMainAttributes(file);
+        if (null != mainAttributes) {
+            final Map<String, String> attributes = new TreeMap<>();
+            for (final Map.Entry<Object, Object> attr : mainAttributes.entrySet()) {
+                attributes.put(attr.getKey().toString(), String.valueOf(attr.getValue()));
+            }
+            entry.setAttributes(attributes);
+        }
+        if (null != checksum) {
+            entries.put(checksum, entry);
+            write(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Return true if the file has a valid jar plugin manifest for this Rundeck version
+     *
+     * @param file jar file
+     */
+    public boolean isValid(final File file) {
+        final Attributes mainAttributes = entryFor(file).mainAttributes();
+        if (null == mainAttributes) {
+            return false;
+        }
+        try {
+            JarPluginProviderLoader.validateJarManifest(mainAttributes);
+            return true;
+        } catch (JarPluginProviderLoader.InvalidManifestException e) {
+            log.error(file.getAbsolutePath() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Record the providers declared by the file
+     *
+     * @param entry     entry returned for the file
+     * @param providers providers
+     */
+    public synchronized void putProviders(final Entry entry, final List<Provider> providers) {
+        entry.setProviders(new ArrayList<>(providers));
+        if (null != entry.getChecksum() && entries.get(entry.getChecksum()) == entry) {
+            write(entry);
+        }
+    }
+
+    /**
+     * Remove stored entries which do not match any of the files
+     *
+     * @param files current plugin files
+     */
+    public synchronized void retain(final Collection<File> files) {
+        final Set<String> keep = new HashSet<>();
+        for (final File file : files) {
+            final String checksum = checksumFor(file);
+            if (null != checksum) {
+                keep.add(checksum);
+            }
+        }
+        entries.keySet().retainAll(keep);
+        final File[] stored = null != indexDir ? indexDir.listFiles() : null;
+        if (null == stored) {
+            return;
+        }
+        for (final File file : stored) {
+            final String name = file.getName();
+            if (name.endsWith(ENTRY_FILE_SUFFIX)
+                && !keep.contains(name.substring(0, name.length() - ENTRY_FILE_SUFFIX.length()))
+                && !file.delete()) {
+                log.warn("Unable to remove plugin index entry: " + file);
+            }
+        }
+    }
+
+    /**
+     * @return number of entries read or added
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return checksum for the file, computed again only if the size or modification time changed, or null if it
+     * could not be read
+     */
+    private String checksumFor(final File file) {
+        final String key = file.getAbsolutePath();
+        final long length = file.length();
+        final long lastModified = file.lastModified();
+        final FileStat stat = checksums.get(key);
+        if (null != stat && stat.length == length && stat.lastModified == lastModified) {
+            return stat.checksum;
+        }
+        final String checksum = checksum(file);
+        if (null != checksum) {
+            checksums.put(key, new FileStat(length, lastModified, checksum));
+        } else {
+            checksums.remove(key);
+        }
+        return checksum;
+    }
+
+    private File entryFile(final String checksum) {
+        return new File(indexDir, checksum + ENTRY_FILE_SUFFIX);
+    }
+
+    /**
+     * @return the stored entry, or null if it is missing, unreadable, or from another index version
+     */
+    private Entry read(final String checksum) {
+        if (null == indexDir) {
+            return null;
+        }
+        final File file = entryFile(checksum);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            final Entry entry = mapper.readValue(file, Entry.class);
+            if (entry.getVersion() == INDEX_VERSION && checksum.equals(entry.getChecksum())) {
+                return entry;
+            }
+        } catch (IOException e) {
+            log.warn("Unable to read plugin index entry, it will be rebuilt: " + file + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Write only the file for the entry
+     */
+    private void write(final Entry entry) {
+        if (null == indexDir) {
+            return;
+        }
+        if (!indexDir.isDirectory() && !indexDir.mkdirs()) {
+            log.warn("Unable to create dir for plugin index: " + indexDir);
+            return;
+        }
+        final File file = entryFile(entry.getChecksum());
+        final File temp = new File(indexDir, file.getName() + ".tmp");
+        try {
+            mapper.writeValue(temp, entry);
+            Files.move(
+                    temp.toPath(),
+                    file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE
+            );
+        } catch (IOException e) {
+            log.warn("Unable to write plugin index entry: " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static Attributes readMainAttributes(final File file) {
+        try (final JarInputStream jarInputStream = new JarInputStream(new FileInputStream(file))) {
+            final Manifest manifest = jarInputStream.getManifest();
+            return null != manifest ? manifest.getMainAttributes() : null;
+        } catch (IOException e) {
+            log.error(file.getAbsolutePath() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return SHA-256 checksum of the file as hex, or null if it could not be read
+     */
+    static String checksum(final File file) {
+        try (final InputStream in = new FileInputStream(file)) {
+            return DigestUtils.sha256Hex(in);
+        } catch (IOException e) {
+            log.warn("Unable to compute checksum: " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -103,6 +103,8 @@ public class JarPluginProviderLoader implements ProviderLoader,
     @SuppressWarnings("rawtypes")
     private Map<ProviderIdent, Class> pluginProviderDefs = new HashMap<ProviderIdent, Class>();
     private AtomicInteger loadCount = new AtomicInteger();
+    private final JarPluginIndex index;
+    private JarPluginIndex.Entry indexEntry;
 
     public JarPluginProviderLoader(final File pluginJar, final File pluginJarCacheDirectory, final File cachedir) {
         this(pluginJar, pluginJarCacheDirectory, cachedir, true);
@@ -110,6 +112,15 @@ public class JarPluginProviderLoader implements ProviderLoader,
 
     public JarPluginProviderLoader(final File pluginJar, final File pluginJarCacheDirectory, final File cachedir,
             final boolean loadLibsFirst) {
+        this(pluginJar, pluginJarCacheDirectory, cachedir, loadLibsFirst, null);
+    }
+
+    /**
+     * @param index index used for the manifest and provider list, so the jar is only copied and loaded when a
+     *              provider is loaded, or null
+     */
+    public JarPluginProviderLoader(final File pluginJar, final File pluginJarCacheDirectory, final File cachedir,
+            final boolean loadLibsFirst, final JarPluginIndex index) {
         if (null == pluginJar) {
             throw new NullPointerException("Expected non-null plugin jar argument.");
         }
@@ -123,6 +134,17 @@ public class JarPluginProviderLoader implements ProviderLoader,
         this.pluginJarCacheDirectory = pluginJarCacheDirectory;
         this.cachedir = cachedir;
         this.loadLibsFirst = loadLibsFirst;
+        this.index = index;
+    }
+
+    /**
+     * @return the index entry for the jar, or null if there is no index
+     */
+    private synchronized JarPluginIndex.Entry getIndexEntry() {
+        if (null == indexEntry && null != index) {
+            indexEntry = index.entryFor(pluginJar);
+        }
+        return indexEntry;
     }
 
     @Override
@@ -175,7 +197,8 @@ public class JarPluginProviderLoader implements ProviderLoader,
         debug("loadInstance for " + ident + ": " + pluginJar);
 
         if (null == pluginProviderDefs.get(ident)) {
-            final String[] strings = getClassnames();
+            final String indexed = getIndexedClassname(ident);
+            final String[] strings = null != indexed ? new String[]{indexed} : getClassnames();
             for (final String classname : strings) {
                 final Class<?> cls;
                 try {
@@ -273,7 +296,8 @@ public class JarPluginProviderLoader implements ProviderLoader,
      */
     private Attributes getMainAttributes() {
         if (null == mainAttributes) {
-            mainAttributes = getJarMainAttributes(pluginJar);
+            final JarPluginIndex.Entry entry = getIndexEntry();
+            mainAttributes = null != entry ? entry.mainAttributes() : getJarMainAttributes(pluginJar);
             String pluginName = mainAttributes.getValue(RUNDECK_PLUGIN_NAME);
             if(pluginName == null) {
                 //Fallback to something that will rarely change
@@ -573,30 +597,62 @@ public class JarPluginProviderLoader implements ProviderLoader,
      * Return true if the file has a class that provides the ident.
      */
     public synchronized boolean isLoaderFor(final ProviderIdent ident) {
-        final String[] strings = getClassnames();
-        for (final String classname : strings) {
-            try {
-                if (matchesProviderDeclaration(ident, loadClass(classname))) {
-                    return true;
-                }
-            } catch (PluginException e) {
-                e.printStackTrace();
-            }
-        }
-        return false;
+        return listProviders().contains(ident);
     }
 
     public synchronized List<ProviderIdent> listProviders() {
         final ArrayList<ProviderIdent> providerIdents = new ArrayList<ProviderIdent>();
+        for (final JarPluginIndex.Provider provider : getProviderDeclarations()) {
+            providerIdents.add(provider.toIdent());
+        }
+        return providerIdents;
+    }
+
+    /**
+     * @return the classname for the provider from the index, or null
+     */
+    private String getIndexedClassname(final ProviderIdent ident) {
+        final JarPluginIndex.Entry entry = getIndexEntry();
+        if (null == entry || null == entry.getProviders()) {
+            return null;
+        }
+        for (final JarPluginIndex.Provider provider : entry.getProviders()) {
+            if (provider.toIdent().equals(ident)) {
+                return provider.getClassname();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return the providers declared by the classes in the jar, from the index if available, otherwise by loading
+     * the classes. The index is updated if all classes could be loaded.
+     */
+    private List<JarPluginIndex.Provider> getProviderDeclarations() {
+        final JarPluginIndex.Entry entry = getIndexEntry();
+        if (null != entry && null != entry.getProviders()) {
+            return entry.getProviders();
+        }
+        final List<JarPluginIndex.Provider> providers = new ArrayList<>();
         final String[] strings = getClassnames();
+        if (null == strings) {
+            return providers;
+        }
+        boolean complete = true;
         for (final String classname : strings) {
             try {
-                providerIdents.add(getProviderDeclaration(loadClass(classname)));
+                final ProviderIdent ident = getProviderDeclaration(loadClass(classname));
+                providers.add(new JarPluginIndex.Provider(ident.getService(), ident.getProviderName(), classname));
             } catch (PluginException e) {
-                e.printStackTrace();
+                complete = false;
+                log.warn("Unable to load provider class " + classname + " from " + pluginJar + ": "
+                         + e.getMessage(), e);
             }
         }
-        return providerIdents;
+        if (null != entry && complete) {
+            index.putProviders(entry, providers);
+        }
+        return providers;
     }
 
 
@@ -787,7 +843,17 @@ public class JarPluginProviderLoader implements ProviderLoader,
      * @return true if plugin libs load first is set
      */
     static boolean getLoadLocalLibsFirstForFile(final File file) {
-        Attributes attributes = loadMainAttributes(file);
+        return getLoadLocalLibsFirst(loadMainAttributes(file));
+    }
+
+    /**
+     * Return true if the jar attributes declare it should load local dependency classes first.
+     *
+     * @param attributes main manifest attributes
+     *
+     * @return true if plugin libs load first is set
+     */
+    static boolean getLoadLocalLibsFirst(final Attributes attributes) {
         if (null == attributes) {
             return false;
         }
@@ -904,7 +970,7 @@ public class JarPluginProviderLoader implements ProviderLoader,
                     debug("expire classLoaders for: " + cachedJar);
                     classLoader.close();
                 } catch (IOException e) {
-                    e.printStackTrace();
+                    log.warn("Unable to close class loader for " + cachedJar + ": " + e.getMessage(), e);
                 }
             }
             //remove cache files
@@ -30,6 +30,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.util.Arrays;
+import java.util.jar.Attributes;
 
 /**
  * JarPluginScanner scans for java Jar plugins in the extensions dir.
@@ -48,6 +50,7 @@ public class JarPluginScanner extends DirPluginScanner {
 
     final File cachedir;
     final File pluginJarCacheDirectory;
+    final JarPluginIndex index;
 
     public JarPluginScanner(
             final PluginDirProvider pluginDirProvider,
@@ -64,17 +67,44 @@ public class JarPluginScanner extends DirPluginScanner {
             log.warn("Could not delete plugin jar cache");
         }
         log.info(String.format("Deleting plugin lib dependency directory at %s", this.cachedir));
-        if (this.cachedir.exists() && !FileUtils.deleteDir(this.cachedir)) {
+        final File indexDir = new File(this.cachedir, JarPluginIndex.INDEX_DIR_NAME);
+        if (!deleteCacheDirContents(this.cachedir, indexDir)) {
             log.warn("Could not delete plugin lib dependency directory");
         }
         
         // Create the directories
         this.cachedir.mkdirs();
         this.pluginJarCacheDirectory.mkdirs();
+        this.index = new JarPluginIndex(indexDir);
+        if (null != extdir && extdir.isDirectory()) {
+            final File[] files = extdir.listFiles(getFileFilter());
+            if (null != files) {
+                index.retain(Arrays.asList(files));
+            }
+        }
+    }
+
+    /**
+     * Delete the contents of the cache dir, retaining the plugin index
+     *
+     * @return false if a file could not be deleted
+     */
+    private static boolean deleteCacheDirContents(final File cachedir, final File indexDir) {
+        final File[] files = cachedir.listFiles();
+        if (null == files) {
+            return true;
+        }
+        boolean deleted = true;
+        for (final File file : files) {
+            if (!file.equals(indexDir)) {
+                deleted &= file.isDirectory() ? FileUtils.deleteDir(file) : file.delete();
+            }
+        }
+        return deleted;
     }
 
     public boolean isValidPluginFile(final File file) {
-        return JarPluginProviderLoader.isValidJarPlugin(file);
+        return index.isValid(file);
     }
 
     public FileFilter getFileFilter() {
@@ -90,11 +120,12 @@ public class JarPluginScanner extends DirPluginScanner {
             log.debug("create JarFileProviderLoader: " + file);
         }
         return new JarPluginProviderLoader(file, pluginJarCacheDirectory, cachedir,
-                JarPluginProviderLoader.getLoadLocalLibsFirstForFile(file));
+                JarPluginProviderLoader.getLoadLocalLibsFirst(index.entryFor(file).mainAttributes()), index);
     }
 
     @Override
     protected String getVersionForFile(final File file) {
-        return JarPluginProviderLoader.getVersionForFile(file);
+        final Attributes attributes = index.entryFor(file).mainAttributes();
+        return null != attributes ? attributes.getValue(JarPluginProviderLoader.RUNDECK_PLUGIN_FILE_VERSION) : null;
     }
 }
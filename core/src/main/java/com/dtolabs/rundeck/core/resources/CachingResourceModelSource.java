@@ -65,6 +65,13 @@ public class CachingResourceModelSource extends ExceptionCatchingResourceModelSo
         this.type = type;
     }
 
+    /**
+     * @return the cache
+     */
+    public ResourceModelSourceCache getCache() {
+        return cache;
+    }
+
     @Override
     INodeSet returnResultNodes(INodeSet nodes) throws ResourceModelSourceException {
         if (null != nodes && type.isStoreType()) {
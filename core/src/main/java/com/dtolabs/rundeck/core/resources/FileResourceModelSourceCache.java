@@ -22,6 +22,8 @@ import com.dtolabs.rundeck.core.resources.format.*;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 /**
  * A Resource Model source that caches results in a file, in case an error is thrown.
@@ -38,19 +40,40 @@ public class FileResourceModelSourceCache implements ResourceModelSourceCache {
         this.fileResourceModelSource = fileResourceModelSource;
     }
 
+    /**
+     * Writes the nodes to a temp file which replaces the cache file, so that the cache can be read while it is being
+     * stored
+     */
     @Override
     public void storeNodesInCache(INodeSet nodes) throws ResourceModelSourceException {
+        File tempFile = null;
         try {
-            FileOutputStream fileOutputStream = new FileOutputStream(cacheFile);
+            tempFile = File.createTempFile(cacheFile.getName(), ".tmp", cacheFile.getAbsoluteFile().getParentFile());
+            FileOutputStream fileOutputStream = new FileOutputStream(tempFile);
             try {
                 generator.generateDocument(nodes, fileOutputStream);
             } finally {
                 fileOutputStream.close();
             }
+            try {
+                Files.move(
+                        tempFile.toPath(),
+                        cacheFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE
+                );
+            } catch (IOException e) {
+                Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            tempFile = null;
         } catch (ResourceFormatGeneratorException e) {
             throw new ResourceModelSourceException("Failed to generate cache file: " + e.getLocalizedMessage(), e);
         } catch (IOException e) {
             throw new ResourceModelSourceException("Failed to generate cache file: " + e.getLocalizedMessage(), e);
+        } finally {
+            if (null != tempFile && tempFile.exists() && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
         }
     }
 
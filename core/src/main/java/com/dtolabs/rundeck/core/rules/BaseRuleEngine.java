@@ -1,29 +1,53 @@
 package com.dtolabs.rundeck.core.rules;
 
 
-import java.util.HashSet;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Stream;
 
 /**
- * Basic rules engine
+ * Basic rules engine. Rules are indexed by the state keys they read and set, so that {@link #evaluateRules(StateObj,
+ * Set)} only evaluates rules affected by the changed keys. Rules which do not declare their keys are always evaluated.
  */
 public class BaseRuleEngine implements RuleEngine {
     private Set<Rule> ruleSet;
+    private final Map<String, Set<Rule>> rulesByKey = new HashMap<>();
+    private final Set<Rule> unkeyedRules = new HashSet<>();
+    /**
+     * Rules added since the last evaluation
+     */
+    private final Set<Rule> unevaluatedRules = new HashSet<>();
 
     public BaseRuleEngine(final Set<Rule> ruleSet) {
         this.ruleSet = new HashSet<>(ruleSet);
+        this.ruleSet.forEach(this::index);
     }
 
     @Override
     public Set<Rule> getRuleSet() {
-        return ruleSet;
+        return Collections.unmodifiableSet(ruleSet);
     }
 
     @Override
-    public void addRule(final Rule rule) {
-        ruleSet.add(rule);
+    public synchronized void addRule(final Rule rule) {
+        if (ruleSet.add(rule)) {
+            index(rule);
+        }
+    }
+
+    private void index(final Rule rule) {
+        unevaluatedRules.add(rule);
+        Set<String> inputKeys = rule.getInputKeys();
+        Set<String> outputKeys = rule.getOutputKeys();
+        if (null == inputKeys || null == outputKeys) {
+            unkeyedRules.add(rule);
+            return;
+        }
+        for (String key : inputKeys) {
+            rulesByKey.computeIfAbsent(key, k -> new HashSet<>()).add(rule);
+        }
+        for (String key : outputKeys) {
+            rulesByKey.computeIfAbsent(key, k -> new HashSet<>()).add(rule);
+        }
     }
 
     /**
@@ -34,17 +58,47 @@ public class BaseRuleEngine implements RuleEngine {
      * @return accrued state changes from matching rules
      */
     @Override
-    public StateObj evaluateRules(final StateObj state) {
+    public synchronized StateObj evaluateRules(final StateObj state) {
+        unevaluatedRules.clear();
+        return evaluate(ruleSet, state);
+    }
+
+    /**
+     * Evaluate the rules which read or set any of the changed keys, rules which do not declare their keys, and rules
+     * added since the last evaluation
+     *
+     * @param state       input state
+     * @param changedKeys keys changed in the state since the previous evaluation
+     *
+     * @return accrued state changes from matching rules
+     */
+    @Override
+    public synchronized StateObj evaluateRules(final StateObj state, final Set<String> changedKeys) {
+        Set<Rule> candidates = new HashSet<>(unkeyedRules);
+        candidates.addAll(unevaluatedRules);
+        unevaluatedRules.clear();
+        if (null != changedKeys) {
+            for (String key : changedKeys) {
+                Set<Rule> rules = rulesByKey.get(key);
+                if (null != rules) {
+                    candidates.addAll(rules);
+                }
+            }
+        }
+        return evaluate(candidates, state);
+    }
+
+    private static StateObj evaluate(final Set<Rule> rules, final StateObj state) {
         MutableStateObj dataState = States.mutable();
-        getRuleSet().stream()
-                    //filter rules that apply given the state
-                    .filter(i -> i.test(state))
-                    //evaluate the applicable rules
-                    .map(input -> Optional.ofNullable(input.evaluate(state)))
-                    //exclude empty results
-                    .flatMap(o -> o.map(Stream::of).orElseGet(Stream::empty))
-                    //update the state with each result
-                    .forEach(dataState::updateState);
+        rules.stream()
+             //filter rules that apply given the state
+             .filter(i -> i.test(state))
+             //evaluate the applicable rules
+             .map(input -> Optional.ofNullable(input.evaluate(state)))
+             //exclude empty results
+             .flatMap(o -> o.map(Stream::of).orElseGet(Stream::empty))
+             //update the state with each result
+             .forEach(dataState::updateState);
         return dataState;
     }
 
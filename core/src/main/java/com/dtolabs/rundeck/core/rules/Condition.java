@@ -2,6 +2,9 @@ package com.dtolabs.rundeck.core.rules;
 
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.StreamSupport;
 
@@ -9,13 +12,35 @@ import java.util.stream.StreamSupport;
  * A predicate of a state
  */
 public interface Condition extends Predicate<StateObj> {
+    /**
+     * @return the state keys this condition reads, or null if it may read any key
+     */
+    default Set<String> getInputKeys() {
+        return null;
+    }
+
     static Condition with(Predicate<StateObj> pred) {
+        return with(pred, null);
+    }
+
+    /**
+     * @param pred      predicate
+     * @param inputKeys state keys the predicate reads, or null if it may read any key
+     *
+     * @return condition
+     */
+    static Condition with(Predicate<StateObj> pred, Set<String> inputKeys) {
         return new Condition() {
             @Override
             public boolean test(final StateObj input) {
                 return pred.test(input);
             }
 
+            @Override
+            public Set<String> getInputKeys() {
+                return inputKeys;
+            }
+
             @Override
             public String toString() {
                 return pred.toString();
@@ -23,21 +48,53 @@ public interface Condition extends Predicate<StateObj> {
         };
     }
 
+    /**
+     * @param conditions conditions
+     *
+     * @return union of the input keys of the conditions, or null if any condition may read any key
+     */
+    static Set<String> inputKeys(final Iterable<? extends Condition> conditions) {
+        Set<String> keys = new HashSet<>();
+        for (Condition condition : conditions) {
+            Set<String> inputKeys = condition.getInputKeys();
+            if (null == inputKeys) {
+                return null;
+            }
+            keys.addAll(inputKeys);
+        }
+        return Collections.unmodifiableSet(keys);
+    }
+
+    /**
+     * @param keys keys, null values are ignored
+     *
+     * @return set of the keys
+     */
+    static Set<String> keys(final String... keys) {
+        Set<String> set = new HashSet<>();
+        for (String key : keys) {
+            if (null != key) {
+                set.add(key);
+            }
+        }
+        return Collections.unmodifiableSet(set);
+    }
+
     @Override
     default Condition negate() {
-        return Condition.with(t -> !test(t));
+        return Condition.with(t -> !test(t), getInputKeys());
     }
 
     public static Condition not(final Condition condition) {
-        return Condition.with(condition.negate());
+        return condition.negate();
     }
 
     public static Condition and(final Condition condition1, final Condition condition2) {
-        return Condition.with(condition1.and(condition2));
+        return Condition.with(condition1.and(condition2), inputKeys(Arrays.asList(condition1, condition2)));
     }
 
     public static Condition and(final Condition... conditions) {
-        return Condition.with(andAll(conditions));
+        return Condition.with(andAll(conditions), inputKeys(Arrays.asList(conditions)));
     }
 
     static Predicate<StateObj> andAll(final Condition[] conditions) {
@@ -45,7 +102,7 @@ public interface Condition extends Predicate<StateObj> {
     }
 
     public static Condition and(final Iterable<Condition> conditions) {
-        return Condition.with(andAll(conditions));
+        return Condition.with(andAll(conditions), inputKeys(conditions));
     }
 
     static Predicate<StateObj> andAll(final Iterable<Condition> conditions) {
@@ -57,14 +114,14 @@ public interface Condition extends Predicate<StateObj> {
     }
 
     public static Condition or(final Condition condition1, final Condition condition2) {
-        return Condition.with(condition1.or(condition2));
+        return Condition.with(condition1.or(condition2), inputKeys(Arrays.asList(condition1, condition2)));
     }
 
     public static Condition or(final Condition... conditions) {
-        return Condition.with(orAll(Arrays.asList(conditions)));
+        return Condition.with(orAll(Arrays.asList(conditions)), inputKeys(Arrays.asList(conditions)));
     }
 
     public static Condition or(final Iterable<Condition> conditions) {
-        return Condition.with(orAll(conditions));
+        return Condition.with(orAll(conditions), inputKeys(conditions));
     }
 }
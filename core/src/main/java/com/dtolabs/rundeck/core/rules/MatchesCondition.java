@@ -1,6 +1,7 @@
 package com.dtolabs.rundeck.core.rules;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
@@ -40,6 +41,17 @@ public class MatchesCondition extends KeyValueEqualsCondition {
         return false;
     }
 
+    @Override
+    public Set<String> getInputKeys() {
+        if (null != keyPattern) {
+            return null;
+        }
+        if (null != valuePattern) {
+            return Condition.keys(getKey());
+        }
+        return super.getInputKeys();
+    }
+
     private boolean match(final String key, final Pattern pattern, final String equalsString) {
         if (null != pattern) {
             return pattern.matcher(key).matches();
@@ -1,5 +1,6 @@
 package com.dtolabs.rundeck.core.rules;
 
+import java.util.Set;
 
 public class NumericGreaterThanCondition implements Condition {
     private String key;
@@ -27,6 +28,11 @@ public class NumericGreaterThanCondition implements Condition {
         return fObject>fValue;
     }
 
+    @Override
+    public Set<String> getInputKeys() {
+        return Condition.keys(key, value);
+    }
+
     @Override
     public String toString() {
         return "(" + value + " > '" + key + '\'' + ")";
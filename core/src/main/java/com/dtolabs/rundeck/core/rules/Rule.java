@@ -1,5 +1,6 @@
 package com.dtolabs.rundeck.core.rules;
 
+import java.util.Set;
 
 /**
  * Defines a condition and a new state based on the old state
@@ -11,4 +12,11 @@ public interface Rule extends Condition {
      * @return new state entries if the condition is successful
      */
     StateObj evaluate(StateObj stateObj);
+
+    /**
+     * @return the state keys this rule may set, or null if unknown
+     */
+    default Set<String> getOutputKeys() {
+        return null;
+    }
 }
@@ -26,4 +26,17 @@ public interface RuleEngine {
      * @return generated output states
      */
     StateObj evaluateRules(StateObj state);
+
+    /**
+     * Evaluate the rules which may be affected by changes to the given keys since the previous evaluation. The default
+     * implementation evaluates all rules.
+     *
+     * @param state       input state
+     * @param changedKeys keys changed in the state since the previous evaluation
+     *
+     * @return generated output states
+     */
+    default StateObj evaluateRules(StateObj state, Set<String> changedKeys) {
+        return evaluateRules(state);
+    }
 }
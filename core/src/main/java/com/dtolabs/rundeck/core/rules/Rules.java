@@ -53,6 +53,11 @@ public class Rules {
                 return input.hasState(state);
             }
 
+            @Override
+            public Set<String> getInputKeys() {
+                return Collections.unmodifiableSet(new HashSet<>(state.getState().keySet()));
+            }
+
             @Override
             public String toString() {
                 return "(State equals: " + state + ")";
@@ -154,12 +159,24 @@ public class Rules {
             throw new NullPointerException("conditions must not be null");
         }
         final StateObj newstate = States.state(results);
+        final Set<String> inputKeys = Condition.inputKeys(conditions);
+        final Set<String> outputKeys = Collections.unmodifiableSet(new HashSet<>(newstate.getState().keySet()));
         return new Rule() {
             @Override
             public boolean test(final StateObj input) {
                 return applyConditions(input, conditions, true);
             }
 
+            @Override
+            public Set<String> getInputKeys() {
+                return inputKeys;
+            }
+
+            @Override
+            public Set<String> getOutputKeys() {
+                return outputKeys;
+            }
+
             @Override
             public StateObj evaluate(final StateObj stateObj) {
                 if (test(stateObj)) {
@@ -204,6 +221,53 @@ public class Rules {
 
     }
 
+    /**
+     * Update the state by evaluating the rules affected by the changed keys, and applying state changes. Rules affected
+     * by the changes made by rules are evaluated until no further changes occur.
+     *
+     * @param ruleEngine  rule engine
+     * @param state       state, already containing the changes
+     * @param changedKeys keys changed in the state since the previous update
+     *
+     * @return true if state was modified by the rules
+     */
+    public static boolean update(RuleEngine ruleEngine, MutableStateObj state, Set<String> changedKeys) {
+        boolean modified = false;
+        Set<String> changed = changedKeys;
+        //each pass must change the state, so the rule count bounds the passes for well formed rules
+        int passes = ruleEngine.getRuleSet().size() + 1;
+        for (int i = 0; i < passes; i++) {
+            StateObj newState = ruleEngine.evaluateRules(state, changed);
+            changed = changedKeys(state, newState.getState());
+            if (changed.isEmpty()) {
+                break;
+            }
+            state.updateState(newState);
+            modified = true;
+        }
+        return modified;
+    }
+
+    /**
+     * @param state   current state
+     * @param changes changes to apply
+     *
+     * @return the keys in the changes which have a different value in the state
+     */
+    public static Set<String> changedKeys(StateObj state, Map<String, String> changes) {
+        Set<String> changed = new HashSet<>();
+        if (null == changes) {
+            return changed;
+        }
+        Map<String, String> current = state.getState();
+        for (Map.Entry<String, String> entry : changes.entrySet()) {
+            if (!Objects.equals(entry.getValue(), current.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        return changed;
+    }
+
     public static java.util.function.Predicate<? super Rule> ruleApplies(final StateObj state) {
         return input -> input.test(state);
     }
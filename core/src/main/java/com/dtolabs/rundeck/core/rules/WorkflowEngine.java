@@ -53,36 +53,33 @@ public class WorkflowEngine
             final ExecutorService executor
 
     )
+    {
+        this(ruleEngine, state, executor, null);
+    }
+
+    /**
+     * Create engine
+     *
+     * @param ruleEngine rule engine to process state changes via rules
+     * @param state      initial state
+     * @param executor   executor to process operations, which should be multithreaded to process operations
+     *                   concurrently
+     * @param manager    executor to run operation completion callbacks, owned by the caller and not shut down by the
+     *                   engine, or null to run callbacks in the thread completing the operation
+     */
+    public WorkflowEngine(
+            final RuleEngine ruleEngine,
+            final MutableStateObj state,
+            final ExecutorService executor,
+            final ExecutorService manager
+    )
     {
         this.ruleEngine = ruleEngine;
         this.state = state;
         executorService = MoreExecutors.listeningDecorator(executor);
-        manager = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool());
-    }
-
-
-    static class Sleeper {
-        private long orig = 250;
-        private long mult = 2;
-        private long max = 5000L;
-        private long time = orig;
-        private TimeUnit unit = TimeUnit.MILLISECONDS;
-
-        long time() {
-            return time;
-        }
-
-        void backoff() {
-            time = Math.min(time * mult, max);
-        }
-
-        void reset() {
-            time = orig;
-        }
-
-        TimeUnit unit() {
-            return unit;
-        }
+        this.manager = null != manager
+                       ? MoreExecutors.listeningDecorator(manager)
+                       : MoreExecutors.newDirectExecutorService();
     }
 
     @Override
@@ -125,10 +122,9 @@ public class WorkflowEngine
             Thread.currentThread().interrupt();
         }
 
-        manager.shutdown();
         try {
-            if (!manager.awaitTermination(5, TimeUnit.MINUTES)) {
-                manager.shutdownNow();
+            if (!processor.awaitCallbacks(5, TimeUnit.MINUTES)) {
+                logger.warn("Timed out waiting for workflow operation callbacks to complete");
             }
         } catch (InterruptedException ignored) {
             Thread.currentThread().interrupt();
@@ -159,9 +155,11 @@ public class WorkflowEngine
         );
 
         Map<String, String> newState = change.getState();
+        Set<String> changedKeys = Rules.changedKeys(getState(), newState);
         boolean update = getState().updateState(newState);
 
-        update |= Rules.update(getRuleEngine(), getState());
+        //only rules affected by the changed keys need to be evaluated
+        update |= Rules.update(getRuleEngine(), getState(), changedKeys);
         event(
                 WorkflowSystemEventType.DidProcessStateChange,
                 String.format(
@@ -13,6 +13,7 @@ public class WorkflowEngineBuilder implements WorkflowSystemBuilder {
     private RuleEngine engine;
     private MutableStateObj state;
     private Supplier<ExecutorService> executor;
+    private ExecutorService manager;
     private List<WorkflowSystemEventListener> listeners = new ArrayList<>();
 
     public static WorkflowEngineBuilder builder(WorkflowEngineBuilder source) {
@@ -20,6 +21,7 @@ public class WorkflowEngineBuilder implements WorkflowSystemBuilder {
         workflowSystemBuilder.engine = source.engine;
         workflowSystemBuilder.state = source.state;
         workflowSystemBuilder.executor = source.executor;
+        workflowSystemBuilder.manager = source.manager;
         workflowSystemBuilder.listeners = new ArrayList<>(source.listeners);
         return workflowSystemBuilder;
     }
@@ -47,6 +49,12 @@ public class WorkflowEngineBuilder implements WorkflowSystemBuilder {
         return this;
     }
 
+    @Override
+    public WorkflowEngineBuilder manager(ExecutorService manager) {
+        this.manager = manager;
+        return this;
+    }
+
     @Override
     public WorkflowEngineBuilder listener(WorkflowSystemEventListener listener) {
         this.listeners.add(listener);
@@ -64,7 +72,7 @@ public class WorkflowEngineBuilder implements WorkflowSystemBuilder {
         if (null == engine || null == state || null == executor) {
             throw new IllegalArgumentException();
         }
-        WorkflowEngine workflowEngine = new WorkflowEngine(engine, state, executor.get());
+        WorkflowEngine workflowEngine = new WorkflowEngine(engine, state, executor.get(), manager);
         workflowEngine.setListeners(listeners);
         return workflowEngine;
     }
@@ -61,7 +61,16 @@ class WorkflowEngineOperationsProcessor<DAT, RES extends WorkflowSystem.Operatio
 
     private final List<ListenableFuture<RES>> futures = new ArrayList<>();
 
-    private WorkflowEngine.Sleeper sleeper = new WorkflowEngine.Sleeper();
+    /**
+     * Queued when the last in process operation finishes, to wake the processor to detect the end of changes
+     */
+    private final WorkflowSystem.OperationCompleted<DAT> wakeup =
+            WorkflowEngine.dummyResult(new DataState(), "wakeup", true);
+
+    /**
+     * Tracks operation callbacks submitted to the manager
+     */
+    private final Phaser callbacks = new Phaser(1);
     private boolean
             endStateBreak =
             Boolean.parseBoolean(System.getProperty("WorkflowEngineOperationsProcessor.endStateBreak", "false"));
@@ -134,7 +143,7 @@ class WorkflowEngineOperationsProcessor<DAT, RES extends WorkflowSystem.Operatio
                     if (Thread.currentThread().isInterrupted()) {
                         break;
                     }
-                    //no changes within sleep time, try again
+                    //no state changes, wait for more
                     continue;
                 }
 
@@ -211,7 +220,9 @@ class WorkflowEngineOperationsProcessor<DAT, RES extends WorkflowSystem.Operatio
         List<WorkflowSystem.OperationCompleted<DAT>> changes = new ArrayList<>();
         WorkflowSystem.OperationCompleted<DAT> task = stateChangeQueue.poll();
         while (task != null && task.getNewState() != null) {
-            changes.add(task);
+            if (task != wakeup) {
+                changes.add(task);
+            }
             task = stateChangeQueue.poll();
         }
         return changes;
@@ -265,7 +276,40 @@ class WorkflowEngineOperationsProcessor<DAT, RES extends WorkflowSystem.Operatio
             );
             final ListenableFuture<RES> submit = beginOperation(inputData, operation);
             FutureCallback<RES> callback = new OperationFutureCallback(eventHandler, operation, resultConsumer);
-            Futures.addCallback(submit, callback, manager);
+            Futures.addCallback(submit, callback, this::executeCallback);
+        }
+    }
+
+    private void executeCallback(final Runnable command) {
+        callbacks.register();
+        try {
+            manager.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    callbacks.arriveAndDeregister();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            callbacks.arriveAndDeregister();
+            throw e;
+        }
+    }
+
+    /**
+     * Wait for operation callbacks to complete, after processing has finished
+     *
+     * @param timeout time to wait
+     * @param unit    unit
+     * @return true if all callbacks completed, false if the timeout elapsed
+     * @throws InterruptedException if interrupted
+     */
+    boolean awaitCallbacks(final long timeout, final TimeUnit unit) throws InterruptedException {
+        try {
+            callbacks.awaitAdvanceInterruptibly(callbacks.arrive(), timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
         }
     }
 
@@ -336,6 +380,10 @@ class WorkflowEngineOperationsProcessor<DAT, RES extends WorkflowSystem.Operatio
     private void finishedOperation(final WorkflowSystem.OperationCompleted<DAT> e, final OP operation) {
         stateChangeQueue.add(e);
         inProcess.remove(operation);
+        if (inProcess.isEmpty()) {
+            //the processor may have consumed the result before the operation was removed
+            stateChangeQueue.add(wakeup);
+        }
     }
 
     private <D, T extends WorkflowSystem.OperationCompleted<D>, X extends WorkflowSystem.Operation<D, T>>
@@ -355,20 +403,21 @@ class WorkflowEngineOperationsProcessor<DAT, RES extends WorkflowSystem.Operatio
     }
 
     /**
-     * Sleep for some time until changes are available on the queue, if any are found then consume remaining return all
-     * results
+     * Wait until changes are available on the queue, if any are found then consume remaining return all results. The
+     * queue receives a result whenever an operation finishes or is skipped, and a wakeup when no operations remain in
+     * process.
      *
-     * @return list of
-     * @throws InterruptedException during sleep
+     * @return list of changes, empty if no state changes were received
+     * @throws InterruptedException while waiting
      */
     private List<WorkflowSystem.OperationCompleted<DAT>> waitForChanges() throws InterruptedException {
         List<WorkflowSystem.OperationCompleted<DAT>> results = new ArrayList<>();
-        WorkflowSystem.OperationCompleted<DAT> take = stateChangeQueue.poll(sleeper.time(), sleeper.unit());
-        if (null == take || take.getNewState().getState().isEmpty()) {
-            sleeper.backoff();
+        if (detectNoMoreChanges()) {
+            return results;
+        }
+        WorkflowSystem.OperationCompleted<DAT> take = stateChangeQueue.take();
+        if (take == wakeup || take.getNewState().getState().isEmpty()) {
             return results;
-        } else {
-            sleeper.reset();
         }
 
         results.add(take);
@@ -386,9 +435,11 @@ class WorkflowEngineOperationsProcessor<DAT, RES extends WorkflowSystem.Operatio
                            String.format("saw state changes: %s", changes), changes
         );
 
+        Set<String> changedKeys = Rules.changedKeys(workflowEngine.getState(), changes);
         workflowEngine.getState().updateState(changes);
 
-        boolean update = Rules.update(workflowEngine.getRuleEngine(), workflowEngine.getState());
+        //only rules affected by the changed keys need to be evaluated
+        boolean update = Rules.update(workflowEngine.getRuleEngine(), workflowEngine.getState(), changedKeys);
         eventHandler.event(
                 WorkflowSystemEventType.DidProcessStateChange,
                 String.format(
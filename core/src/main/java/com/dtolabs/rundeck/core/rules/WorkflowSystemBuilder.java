@@ -15,6 +15,12 @@ public interface WorkflowSystemBuilder {
 
     WorkflowSystemBuilder executor(Supplier<ExecutorService> executor);
 
+    /**
+     * @param manager executor for operation completion callbacks, owned by the caller, or null to run callbacks in the
+     *                operation threads
+     */
+    WorkflowSystemBuilder manager(ExecutorService manager);
+
     WorkflowSystemBuilder listener(WorkflowSystemEventListener listener);
 
     WorkflowSystemBuilder listeners(List<WorkflowSystemEventListener> listeners);
@@ -17,12 +17,16 @@
 package com.dtolabs.rundeck.core.utils;
 
 import com.dtolabs.rundeck.core.common.INodeEntry;
+import com.dtolabs.rundeck.core.common.NodeIndex;
 import com.dtolabs.rundeck.core.common.NodesSelector;
 import com.dtolabs.rundeck.core.common.SelectorUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.commons.lang.StringUtils;
 
 import java.io.File;
 import java.util.*;
+import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 
@@ -41,6 +45,12 @@ public class NodeSet  implements NodesSelector {
 
     private String singleNodeName;
     public static final String DEFAULT_FILTER_KEY = "name";
+    private static final int PATTERN_CACHE_LIMIT = 1000;
+    /**
+     * Compiled filter patterns, the most recently used are kept. An empty value caches an invalid pattern.
+     */
+    private static final Cache<String, Optional<Pattern>> PATTERNS =
+            CacheBuilder.newBuilder().maximumSize(PATTERN_CACHE_LIMIT).build();
 
     /**
      * default constructor
@@ -93,6 +103,34 @@ public class NodeSet  implements NodesSelector {
     public boolean acceptNode(final INodeEntry entry) {
         return !shouldExclude(entry);
     }
+
+    /**
+     * Determine the nodes which can be accepted by this filter, using the index to evaluate each include selector
+     * once per distinct value instead of once per node. Nodes in the result must still be tested with {@link
+     * #acceptNode(INodeEntry)}.
+     *
+     * @param index node index
+     *
+     * @return names of nodes which may be accepted, or null if any node may be accepted
+     */
+    public Set<String> candidateNodeNames(final NodeIndex index) {
+        if (null != getSingleNodeName()) {
+            return Collections.singleton(getSingleNodeName());
+        }
+        if (null == includes || includes.isBlank()) {
+            return null;
+        }
+        if (null != excludes && !excludes.isBlank() && includes.isDominant()) {
+            //nodes not matching the exclude filter are accepted
+            return null;
+        }
+        try {
+            return includes.candidateNodeNames(index);
+        } catch (PatternSyntaxException e) {
+            //invalid explicit regex, let node matching report it
+            return null;
+        }
+    }
     /**
      * @return a new Node Selector that will apply the include/exclude filters if they are set, otherwise
      * it only includes the node with the given nodename
@@ -360,16 +398,148 @@ public class NodeSet  implements NodesSelector {
         //see if inputSelector is wrapped in '/' chars
         String testregex = inputSelector;
         if (testregex.length()>=2 && testregex.indexOf('/') == 0 && testregex.lastIndexOf('/') == testregex.length() - 1) {
-            testregex = inputSelector.substring(1, inputSelector.length() - 1);
-            return item.matches(testregex.trim());
+            testregex = inputSelector.substring(1, inputSelector.length() - 1).trim();
+            Pattern pattern = compilePattern(testregex);
+            if (null == pattern) {
+                //throws the PatternSyntaxException
+                return item.matches(testregex);
+            }
+            return pattern.matcher(item).matches();
         }
-        boolean match = false;
-        try {
-            match = item.matches(inputSelector.trim());
-        } catch (PatternSyntaxException e) {
+        String trimmed = inputSelector.trim();
+        Pattern pattern = compilePattern(trimmed);
+        boolean match = null != pattern && pattern.matcher(item).matches();
+        return match || trimmed.equals(item);
+    }
+
+    /**
+     * @return the compiled pattern, or null if the regex is invalid
+     * @param regex regular expression
+     */
+    private static Pattern compilePattern(final String regex) {
+        Optional<Pattern> pattern = PATTERNS.getIfPresent(regex);
+        if (null == pattern) {
+            Pattern compiled = null;
+            try {
+                compiled = Pattern.compile(regex);
+            } catch (PatternSyntaxException e) {
+                //cached as empty: a "/regex/" selector then reports the syntax error, and any other selector
+                //falls back to literal matching
+            }
+            pattern = Optional.ofNullable(compiled);
+            PATTERNS.put(regex, pattern);
+        }
+        return pattern.orElse(null);
+    }
+
+    /**
+     * @return true if the selector contains no regular expression syntax, so that it only matches equal values
+     * @param selector selector
+     */
+    private static boolean isLiteral(final String selector) {
+        for (int i = 0; i < selector.length(); i++) {
+            if ("\\.[]{}()*+?^$|/".indexOf(selector.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return names of nodes with a value matching the selector, as for {@link #matchesInput(String, String)}
+     * @param inputSelector selector
+     * @param values        distinct values mapped to node names
+     */
+    static Set<String> matchingNodes(final String inputSelector, final Map<String, Set<String>> values) {
+        Set<String> result = new HashSet<>();
+        if (isLiteral(inputSelector)) {
+            addAll(result, values.get(inputSelector.trim()));
+            for (String part : inputSelector.split(",")) {
+                addAll(result, values.get(part));
+            }
+            return result;
+        }
+        for (Map.Entry<String, Set<String>> entry : values.entrySet()) {
+            if (matchesInput(inputSelector, entry.getKey())) {
+                result.addAll(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return names of nodes with a tag set matching the selector, as for {@link #matchesInputSet(String,
+     * Collection)}
+     * @param inputSelector selector
+     * @param tags          distinct tags mapped to node names
+     */
+    static Set<String> matchingTagNodes(final String inputSelector, final Map<String, Set<String>> tags) {
+        if (inputSelector.contains("+") || inputSelector.contains(",")) {
+            Set<String> result = new HashSet<>();
+            for (String clause : new HashSet<>(Arrays.asList(inputSelector.split(",")))) {
+                Set<String> clauseNodes = null;
+                for (String tag : new HashSet<>(Arrays.asList(clause.split("\\+")))) {
+                    Set<String> tagNodes = new HashSet<>();
+                    if (isLiteral(tag)) {
+                        addAll(tagNodes, tags.get(tag.trim()));
+                    } else {
+                        for (Map.Entry<String, Set<String>> entry : tags.entrySet()) {
+                            if (entry.getKey().equals(tag.trim()) || matchRegexOrEquals(tag, entry.getKey())) {
+                                tagNodes.addAll(entry.getValue());
+                            }
+                        }
+                    }
+                    clauseNodes = intersect(clauseNodes, tagNodes);
+                }
+                if (null == clauseNodes) {
+                    //empty clause matches any tagged node
+                    for (Set<String> tagNodes : tags.values()) {
+                        result.addAll(tagNodes);
+                    }
+                }
+                addAll(result, clauseNodes);
+            }
+            return result;
+        }
+        Set<String> result = new HashSet<>();
+        addAll(result, tags.get(inputSelector));
+        if (isLiteral(inputSelector)) {
+            addAll(result, tags.get(inputSelector.trim()));
+            return result;
+        }
+        for (Map.Entry<String, Set<String>> entry : tags.entrySet()) {
+            if (matchRegexOrEquals(inputSelector, entry.getKey())) {
+                result.addAll(entry.getValue());
+            }
+        }
+        return result;
+    }
 
+    private static void addAll(final Set<String> result, final Set<String> values) {
+        if (null != values) {
+            result.addAll(values);
         }
-        return match || inputSelector.trim().equals(item);
+    }
+
+    /**
+     * @return intersection of the sets, a null set is not a restriction
+     */
+    private static Set<String> intersect(final Set<String> a, final Set<String> b) {
+        if (null == a) {
+            return b;
+        }
+        if (null == b) {
+            return a;
+        }
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        Set<String> result = new HashSet<>();
+        for (String name : smaller) {
+            if (larger.contains(name)) {
+                result.add(name);
+            }
+        }
+        return result;
     }
 
     /**
@@ -707,6 +877,42 @@ public class NodeSet  implements NodesSelector {
             return isBlank(selector) || matchesInputSet(selector, set);
         }
 
+        /**
+         * @return names of the indexed nodes which match this selector, or null if no selector is set
+         * @param index node index
+         */
+        public Set<String> candidateNodeNames(final NodeIndex index) {
+            Set<String> result = null;
+            result = intersect(result, propertyNodes(hostname, HOSTNAME, index));
+            result = intersect(result, propertyNodes(name, NAME, index));
+            if (!isBlank(tags)) {
+                result = intersect(result, matchingTagNodes(tags, index.getTagValues()));
+            }
+            result = intersect(result, propertyNodes(osfamily, OS_FAMILY, index));
+            result = intersect(result, propertyNodes(osarch, OS_ARCH, index));
+            result = intersect(result, propertyNodes(osname, OS_NAME, index));
+            result = intersect(result, propertyNodes(osversion, OS_VERSION, index));
+            if (!isBlank(getAttributesMap())) {
+                for (Map.Entry<String, String> entry : getAttributesMap().entrySet()) {
+                    if (null == entry.getValue()) {
+                        return Collections.emptySet();
+                    }
+                    result = intersect(
+                            result,
+                            matchingNodes(entry.getValue(), index.getAttributeValues(entry.getKey()))
+                    );
+                }
+            }
+            return result;
+        }
+
+        private Set<String> propertyNodes(final String selector, final String property, final NodeIndex index) {
+            if (isBlank(selector)) {
+                return null;
+            }
+            return matchingNodes(selector, index.getPropertyValues(property));
+        }
+
         public boolean matches(INodeEntry entry) {
             return !isBlank() && matchOrBlank(hostname, entry.getHostname()) &&
                    matchOrBlank(name, entry.getNodename()) &&
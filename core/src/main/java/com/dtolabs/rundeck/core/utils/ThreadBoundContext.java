@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.utils;
+
+import java.util.Collection;
+
+/**
+ * State bound to the current thread, such as a thread local output stream or log context. Threads started by the
+ * current thread inherit the state, but a task run by a pooled thread has to be bound to it with {@link
+ * #bindTask(Runnable)}. Contexts are attached to an execution context as components of this type.
+ */
+public interface ThreadBoundContext {
+    /**
+     * Bind a task to the state of the current thread. When run by another thread, the task sets the state in that
+     * thread and removes it when done. When run by the current thread, the task runs unchanged.
+     *
+     * @param task task
+     *
+     * @return bound task
+     */
+    Runnable bindTask(Runnable task);
+
+    /**
+     * Bind a task to the state of the current thread for all of the contexts
+     *
+     * @param contexts contexts, may be null
+     * @param task     task
+     *
+     * @return bound task
+     */
+    static Runnable bindAll(final Collection<? extends ThreadBoundContext> contexts, final Runnable task) {
+        Runnable bound = task;
+        if (null != contexts) {
+            for (ThreadBoundContext context : contexts) {
+                bound = context.bindTask(bound);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Bind a task to a value of a thread local
+     *
+     * @param local thread local
+     * @param value value for the thread running the task, or null to remove the value
+     * @param task  task
+     * @param <T>   value type
+     *
+     * @return bound task, which removes the value when done
+     */
+    static <T> Runnable bindValue(final ThreadLocal<T> local, final T value, final Runnable task) {
+        final Thread origin = Thread.currentThread();
+        return () -> {
+            if (Thread.currentThread() == origin) {
+                task.run();
+                return;
+            }
+            if (null != value) {
+                local.set(value);
+            } else {
+                local.remove();
+            }
+            try {
+                task.run();
+            } finally {
+                local.remove();
+            }
+        };
+    }
+}
@@ -30,6 +30,7 @@ import java.util.function.Function;
  */
 public class ThreadBoundLogOutputStream<D, T extends LogBuffer<D>>
         extends OutputStream
+        implements ThreadBoundContext
 {
     private Consumer<D> logger;
     private ThreadLocal<Holder<T>> buffer = new ThreadLocal<>();
@@ -88,6 +89,20 @@ public class ThreadBoundLogOutputStream<D, T extends LogBuffer<D>>
         return manager;
     }
 
+    /**
+     * Bind a task to the buffer manager and charset of the current thread, the task creates its own event buffer
+     *
+     * @param task task
+     *
+     * @return bound task
+     */
+    @Override
+    public Runnable bindTask(final Runnable task) {
+        Runnable bound = ThreadBoundContext.bindValue(buffer, null, task);
+        bound = ThreadBoundContext.bindValue(charset, charset.get(), bound);
+        return ThreadBoundContext.bindValue(manager, manager.get(), bound);
+    }
+
     /**
      * If no manager is set, install one, otherwise return the existing one
      * @return
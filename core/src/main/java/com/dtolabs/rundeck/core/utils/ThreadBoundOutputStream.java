@@ -62,7 +62,7 @@ import java.io.PrintStream;
  * @author Greg Schueler <a href="mailto:greg@dtosolutions.com">greg@dtosolutions.com</a>
  * @version $Revision: 452 $
  */
-public class ThreadBoundOutputStream extends FilterOutputStream {
+public class ThreadBoundOutputStream extends FilterOutputStream implements ThreadBoundContext {
 
     private InheritableThreadLocal<OutputStream> inheritOutputStream = new InheritableThreadLocal<OutputStream>();
 
@@ -91,6 +91,23 @@ public class ThreadBoundOutputStream extends FilterOutputStream {
         inheritOutputStream.set(stream);
     }
 
+    /**
+     * Bind a task to the stream installed for the current thread, and to the thread bound state of that stream
+     *
+     * @param task task
+     *
+     * @return bound task
+     */
+    @Override
+    public Runnable bindTask(final Runnable task) {
+        final OutputStream stream = inheritOutputStream.get();
+        Runnable bound = task;
+        if (stream instanceof ThreadBoundContext) {
+            bound = ((ThreadBoundContext) stream).bindTask(bound);
+        }
+        return ThreadBoundContext.bindValue(inheritOutputStream, stream, bound);
+    }
+
     /**
      * Remove the custom stream for the current thread.
      * @return thread bound OutputStream or null if none exists
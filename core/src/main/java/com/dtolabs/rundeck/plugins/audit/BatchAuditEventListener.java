@@ -0,0 +1,23 @@
+package com.dtolabs.rundeck.plugins.audit;
+
+import com.dtolabs.rundeck.core.audit.AuditEvent;
+
+import java.util.List;
+
+/**
+ * Audit event listener which receives events in batches.
+ * <p>
+ * Listeners implementing this interface have {@link #onEvents(List)} called instead of the single event methods of
+ * {@link AuditEventListener}.
+ * </p>
+ */
+public interface BatchAuditEventListener
+    extends AuditEventListener {
+
+  /**
+   * Called with a batch of events fired by the system, in the order they were queued.
+   *
+   * @param events The event descriptors, not empty.
+   */
+  void onEvents(List<AuditEvent> events);
+}
@@ -26,4 +26,10 @@ import java.util.List;
 public interface WebhookEventPlugin {
     default List<String> getRequestHeadersToCopy() {return new ArrayList<>(); };
     WebhookResponder onEvent(WebhookEventContext context, WebhookData data) throws WebhookEventException;
+
+    /**
+     * @return true if a configured instance can be reused for multiple events, including concurrent events,
+     * otherwise a new instance is configured for each event
+     */
+    default boolean isReusable() { return false; }
 }
@@ -31,7 +31,7 @@ package com.dtolabs.shared.resources;
  * @author Greg Schueler <a href="mailto:greg@dtosolutions.com">greg@dtosolutions.com</a>
  * @version $Revision$
  */
-public interface ResourceXMLReceiver {
+public interface ResourceXMLReceiver extends ResourceXMLStreamReceiver {
     /**
      * Called after an individual resource is parsed, returns false if parsing should stop, or true to continue.
      * @param entity entity
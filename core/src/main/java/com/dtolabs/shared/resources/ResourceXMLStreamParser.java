@@ -0,0 +1,230 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.shared.resources;
+
+import static com.dtolabs.shared.resources.ResourceXMLConstants.*;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.*;
+
+/**
+ * ResourceXMLStreamParser parses a resources.xml formatted file with StAX, and passes each <code>node</code> entity to
+ * the receiver as soon as the element has been read. Unlike {@link ResourceXMLParser} no document or entity set is
+ * kept in memory, so the memory used does not grow with the number of nodes.
+ * <br>
+ * Entities with the same name are not merged, each definition is passed to the receiver. The DTD is not loaded, and
+ * external entities are not resolved.
+ */
+public class ResourceXMLStreamParser {
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    private final File file;
+    private final InputStream input;
+    private ResourceXMLStreamReceiver receiver;
+
+    /**
+     * Constructor for the ResourceXMLStreamParser
+     *
+     * @param file source file
+     */
+    public ResourceXMLStreamParser(final File file) {
+        this.file = file;
+        this.input = null;
+    }
+
+    /**
+     * Constructor for the ResourceXMLStreamParser
+     *
+     * @param input source stream, which is not closed by the parser
+     */
+    public ResourceXMLStreamParser(final InputStream input) {
+        this.file = null;
+        this.input = input;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * Parse the document, passing each entity to the configured receiver
+     *
+     * @throws ResourceXMLParserException parse error
+     * @throws java.io.IOException io error
+     */
+    public void parse() throws ResourceXMLParserException, IOException {
+        final InputStream in = null != file ? new BufferedInputStream(new FileInputStream(file)) : input;
+        try {
+            final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                parseDocument(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new ResourceXMLParserException(e);
+        } finally {
+            if (null != file) {
+                in.close();
+            }
+        }
+    }
+
+    private void parseDocument(final XMLStreamReader reader)
+        throws XMLStreamException, ResourceXMLParserException
+    {
+        if (nextElement(reader) != XMLStreamConstants.START_ELEMENT) {
+            throw new ResourceXMLParserException("Document has no root element");
+        }
+        //entities are the direct children of the root element
+        while (nextElement(reader) == XMLStreamConstants.START_ELEMENT) {
+            if (!NODE_ENTITY_TAG.equals(reader.getLocalName())) {
+                skipElement(reader);
+                continue;
+            }
+            final ResourceXMLParser.Entity ent = parseEnt(reader);
+            if (null != receiver && !receiver.resourceParsed(ent)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Parse the entity at the current start element, leaving the reader at its end element
+     */
+    private ResourceXMLParser.Entity parseEnt(final XMLStreamReader reader)
+        throws XMLStreamException, ResourceXMLParserException
+    {
+        final String name = reader.getAttributeValue(null, COMMON_NAME);
+        if (null == name) {
+            throw new ResourceXMLParserException("@" + COMMON_NAME + " required: " + reportErrorLocation(reader));
+        }
+        final ResourceXMLParser.Entity ent = new ResourceXMLParser.Entity();
+        ent.setName(name);
+        ent.setResourceType(reader.getLocalName());
+        //load all element attributes as properties
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            ent.setProperty(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+        }
+        //load all sub elements called "attribute" as properties
+        while (nextElement(reader) == XMLStreamConstants.START_ELEMENT) {
+            if (!ATTRIBUTE_TAG.equals(reader.getLocalName())) {
+                skipElement(reader);
+                continue;
+            }
+            final String attrname = reader.getAttributeValue(null, ATTRIBUTE_NAME_ATTR);
+            if (null == attrname) {
+                throw new ResourceXMLParserException(
+                    ATTRIBUTE_TAG + " element has no '" + ATTRIBUTE_NAME_ATTR + "' attribute: "
+                    + reportErrorLocation(reader));
+            }
+            final String attrvalue = reader.getAttributeValue(null, ATTRIBUTE_VALUE_ATTR);
+            if (null != attrvalue) {
+                skipElement(reader);
+                ent.setProperty(attrname, attrvalue);
+            } else {
+                //look for text content
+                ent.setProperty(attrname, readText(reader));
+            }
+        }
+        return ent;
+    }
+
+    /**
+     * Move to the next start or end element, ignoring any other content
+     *
+     * @return the event type, or END_DOCUMENT at the end of the input
+     */
+    private static int nextElement(final XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT || event == XMLStreamConstants.END_ELEMENT) {
+                return event;
+            }
+        }
+        return XMLStreamConstants.END_DOCUMENT;
+    }
+
+    /**
+     * Read the text content of the element at the current start element, leaving the reader at its end element
+     */
+    private static String readText(final XMLStreamReader reader) throws XMLStreamException {
+        final StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (depth == 1 && (event == XMLStreamConstants.CHARACTERS
+                                      || event == XMLStreamConstants.CDATA
+                                      || event == XMLStreamConstants.SPACE)) {
+                text.append(reader.getText());
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Skip the element at the current start element, leaving the reader at its end element
+     */
+    private static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static String reportErrorLocation(final XMLStreamReader reader) {
+        final Location location = reader.getLocation();
+        return "at line " + location.getLineNumber() + ", column " + location.getColumnNumber();
+    }
+
+    /**
+     * Return the receiver
+     *
+     * @return the receiver
+     */
+    public ResourceXMLStreamReceiver getReceiver() {
+        return receiver;
+    }
+
+    /**
+     * Set the receiver to use.  It will be invoked to receive each {@link
+     * com.dtolabs.shared.resources.ResourceXMLParser.Entity} during the {@link #parse()} method, and can govern
+     * whether parsing should continue or not.
+     *
+     * @param receiver the new receiver
+     */
+    public void setReceiver(final ResourceXMLStreamReceiver receiver) {
+        this.receiver = receiver;
+    }
+}
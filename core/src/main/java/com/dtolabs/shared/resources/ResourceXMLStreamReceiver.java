@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.shared.resources;
+
+/**
+ * Receives each entity from {@link ResourceXMLStreamParser} as soon as it is parsed. If the {@link
+ * #resourceParsed(com.dtolabs.shared.resources.ResourceXMLParser.Entity)} method returns "false", then parsing will
+ * cease at this point.
+ */
+public interface ResourceXMLStreamReceiver {
+    /**
+     * Called after an individual resource is parsed, returns false if parsing should stop, or true to continue.
+     *
+     * @param entity entity
+     *
+     * @return true if parsing should continue
+     */
+    boolean resourceParsed(ResourceXMLParser.Entity entity);
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.common
+
+import com.dtolabs.rundeck.core.utils.NodeSet
+import spock.lang.Requires
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class CompactNodeSetSpec extends Specification {
+    static final List<String> ENVIRONMENTS = ['dev', 'qa', 'stage', 'prod']
+    static final List<String> REGIONS = ['us-east-1', 'us-west-2', 'eu-west-1', 'ap-south-1']
+
+    /**
+     * Nodes with 40 attributes each, using new string instances as a parser would
+     */
+    static NodeSetImpl createProject(int count) {
+        def nodes = new NodeSetImpl()
+        for (int i = 0; i < count; i++) {
+            def node = new NodeEntryImpl(new String("node${i}.example.com"), new String("node${i}"))
+            node.osFamily = new String('unix')
+            node.osName = new String('Linux')
+            node.osArch = new String('amd64')
+            node.osVersion = new String("5.${i % 4}")
+            node.username = new String('rundeck')
+            node.description = new String("Node group ${i % 20}")
+            node.tags = new HashSet(["group${i % 10}".toString(), 'web', ENVIRONMENTS[i % 4]])
+            node.setAttribute(new String('environment'), new String(ENVIRONMENTS[i % 4]))
+            node.setAttribute(new String('region'), new String(REGIONS[i % 4]))
+            for (int a = 0; a < 31; a++) {
+                node.setAttribute(
+                        new String("attr${a}"),
+                        new String(a < 25 ? "value${(i + a) % 8}" : "unique${i}-${a}")
+                )
+            }
+            nodes.putNode(node)
+        }
+        nodes
+    }
+
+    def "compact nodes match the source nodes"() {
+        given:
+        def nodes = createProject(100)
+
+        when:
+        def compact = CompactNodeSet.create(nodes)
+
+        then:
+        compact.nodeNames as List == nodes.nodeNames as List
+        compact.nodes*.nodename == nodes.nodes*.nodename
+        compact.nodeNames.contains('node42')
+        !compact.nodeNames.contains('missing')
+        compact.getNode('missing') == null
+        nodes.nodes.every { INodeEntry node ->
+            def entry = compact.getNode(node.nodename)
+            entry.attributes == node.attributes &&
+            entry.tags == node.tags &&
+            entry.hostname == node.hostname &&
+            entry.username == node.username &&
+            entry.description == node.description &&
+            entry.osFamily == node.osFamily &&
+            entry.osName == node.osName &&
+            entry.osArch == node.osArch &&
+            entry.osVersion == node.osVersion &&
+            entry == node &&
+            entry.hashCode() == node.hashCode()
+        }
+        compact.attributeNameCount == 42
+    }
+
+    def "repeated values and tag sets are shared"() {
+        given:
+        def nodes = createProject(100)
+
+        when:
+        def compact = CompactNodeSet.create(nodes)
+
+        then:
+        compact.getNode('node1').attributes.region.is(compact.getNode('node5').attributes.region)
+        compact.getNode('node1').tags.is(compact.getNode('node41').tags)
+        compact.getNode('node1').osFamily.is(compact.getNode('node2').osFamily)
+    }
+
+    @Unroll
+    def "host details from hostname #hostname"() {
+        given:
+        def node = new NodeEntryImpl(hostname, 'node1')
+        node.username = username
+
+        when:
+        def entry = CompactNodeSet.create(NodeSetImpl.singleNodeSet(node)).getNode('node1')
+
+        then:
+        entry.extractUserName() == node.extractUserName()
+        entry.extractHostname() == node.extractHostname()
+        entry.extractPort() == node.extractPort()
+        entry.containsUserName() == node.containsUserName()
+        entry.containsPort() == node.containsPort()
+
+        where:
+        hostname                | username
+        'host1'                 | null
+        'user1@host1'           | null
+        'user1@host1:2022'      | 'user2'
+        'host1:22'              | ''
+    }
+
+    def "node missing optional properties"() {
+        given:
+        def node = new NodeEntryImpl('node1')
+        node.setFrameworkProject('proj1')
+
+        when:
+        def entry = CompactNodeSet.create(NodeSetImpl.singleNodeSet(node)).getNode('node1')
+
+        then:
+        entry.attributes == [nodename: 'node1']
+        entry.hostname == null
+        entry.osFamily == null
+        entry.tags.isEmpty()
+        entry.frameworkProject == 'proj1'
+    }
+
+    def "nodes are read-only"() {
+        given:
+        def entry = CompactNodeSet.create(createProject(1)).getNode('node0')
+
+        when:
+        entry.attributes.put('a', 'b')
+
+        then:
+        thrown(UnsupportedOperationException)
+
+        when:
+        entry.tags.add('x')
+
+        then:
+        thrown(UnsupportedOperationException)
+    }
+
+    @Unroll
+    def "filter on compact nodes matches filter on source nodes #filter"() {
+        given:
+        def nodes = createProject(200)
+        def compact = IndexedNodeSet.create(CompactNodeSet.create(nodes))
+
+        expect:
+        NodeFilter.filterNodes(NodeSet.fromFilter(filter), compact).nodeNames as List ==
+        NodeFilter.filterNodes(NodeSet.fromFilter(filter), nodes).nodeNames as List
+
+        where:
+        filter << [
+                'node1',
+                'tags: group3+prod',
+                'environment: qa region: eu-west-1',
+                'os-version: 5.1 !tags: group1',
+                'attr30: unique7-30',
+        ]
+    }
+
+    /**
+     * Measures the heap used by 50k nodes with 40 attributes each, in a NodeSetImpl and in a CompactNodeSet, and checks
+     * the compact set uses at most half the heap. Set the RUNDECK_NODES_MEMORY_BENCHMARK environment variable to run it.
+     */
+    @Requires({ env['RUNDECK_NODES_MEMORY_BENCHMARK'] })
+    def "memory used by a synthetic project"() {
+        given:
+        long base = usedHeap()
+        def nodes = createProject(50000)
+        long plain = usedHeap() - base
+
+        when:
+        def compact = CompactNodeSet.create(nodes)
+        nodes = null
+        long compacted = usedHeap() - base
+
+        then:
+        compact.nodes.size() == 50000
+        compacted * 2 < plain
+    }
+
+    static long usedHeap() {
+        def runtime = Runtime.runtime
+        5.times {
+            System.gc()
+            Thread.sleep(50)
+        }
+        runtime.totalMemory() - runtime.freeMemory()
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.common
+
+import com.dtolabs.rundeck.core.utils.NodeSet
+import spock.lang.Requires
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.regex.PatternSyntaxException
+
+class NodeFilterSpec extends Specification {
+
+    static NodeSetImpl createNodes(int count) {
+        def nodes = new NodeSetImpl()
+        for (int i = 0; i < count; i++) {
+            def node = new NodeEntryImpl('node' + i)
+            node.hostname = "host${i}.${i % 2 ? 'east' : 'west'}.example.com"
+            node.osFamily = i % 3 ? 'unix' : 'windows'
+            node.osName = i % 3 ? 'Linux' : 'Windows Server'
+            node.osArch = i % 4 ? 'amd64' : 'arm64'
+            node.osVersion = (i % 5).toString()
+            def tags = new HashSet(['all', 'group' + (i % 10)])
+            if (i % 7 == 0) {
+                tags << 'db'
+            }
+            if (i % 11 == 0) {
+                tags << 'web'
+            }
+            node.tags = tags
+            node.setAttribute('env', i % 2 ? 'prod' : 'dev')
+            node.setAttribute('rack', 'r' + (i % 25))
+            if (i % 13 == 0) {
+                node.setAttribute('role', 'cache')
+            }
+            nodes.putNode(node)
+        }
+        nodes
+    }
+
+    @Unroll
+    def "indexed filter matches unindexed filter #filter"() {
+        given:
+        def nodes = createNodes(300)
+        def indexed = IndexedNodeSet.create(nodes)
+
+        when:
+        def expected = NodeFilter.filterNodes(NodeSet.fromFilter(filter), nodes)
+        def result = NodeFilter.filterNodes(NodeSet.fromFilter(filter), indexed)
+
+        then:
+        result.nodeNames == expected.nodeNames
+
+        where:
+        filter << [
+                'node1',
+                'node1 node2 node3',
+                'name: node1,node20,missing',
+                'name: node1.*',
+                'name: /node1[0-9]/',
+                'hostname: host7.east.example.com',
+                'hostname: .*east.*',
+                'tags: db',
+                'tags: db+web',
+                'tags: db,web',
+                'tags: db+group0,web+group1',
+                'tags: gr.*3',
+                'tags: +',
+                'tags: db+',
+                'tags: missing',
+                'osFamily: windows',
+                'os-family: windows',
+                'os-family: windows tags: web',
+                'os-name: Windows Server',
+                'os-arch: arm.*',
+                'os-version: 1,2',
+                'env: prod',
+                'env: prod rack: r1',
+                'env: prod rack: r1.',
+                'role: cache',
+                'role: .*',
+                'env: prod !tags: db',
+                '!tags: db',
+                '!env: prod',
+                'tags: web !rack: r0',
+                'name: node1[',
+                '.*',
+        ]
+    }
+
+    def "dominant include is not limited by index"() {
+        given:
+        def nodes = createNodes(100)
+        def indexed = IndexedNodeSet.create(nodes)
+        def filter = NodeSet.fromFilter('tags: db !env: prod')
+        filter.include.dominant = true
+
+        when:
+        def expected = NodeFilter.filterNodes(filter, nodes)
+        def result = NodeFilter.filterNodes(filter, indexed)
+
+        then:
+        result.nodeNames == expected.nodeNames
+        filter.candidateNodeNames(indexed.index) == null
+    }
+
+    def "candidate nodes use the index"() {
+        given:
+        def indexed = IndexedNodeSet.create(createNodes(1000))
+
+        expect:
+        NodeSet.fromFilter('tags: db+web').candidateNodeNames(indexed.index).size() == 13
+        NodeSet.fromFilter('name: node5,node6').candidateNodeNames(indexed.index) == ['node5', 'node6'] as Set
+        NodeSet.fromFilter('env: dev rack: r0').candidateNodeNames(indexed.index).size() == 20
+        NodeSet.fromFilter('!env: dev').candidateNodeNames(indexed.index) == null
+        new NodeSet('node3').candidateNodeNames(indexed.index) == ['node3'] as Set
+    }
+
+    def "invalid explicit regex is still thrown"() {
+        given:
+        def indexed = IndexedNodeSet.create(createNodes(10))
+
+        when:
+        NodeFilter.filterNodes(NodeSet.fromFilter('name: /node[/'), indexed)
+
+        then:
+        thrown(PatternSyntaxException)
+    }
+
+    /**
+     * Filters 40k nodes with and without the index, and checks that filtering with the index is faster.
+     * Set the RUNDECK_NODES_FILTER_BENCHMARK environment variable to run it.
+     */
+    @Requires({ env['RUNDECK_NODES_FILTER_BENCHMARK'] })
+    def "benchmark filter with and without index"() {
+        given:
+        def nodes = createNodes(40000)
+        def indexed = IndexedNodeSet.create(nodes)
+        def filters = ['tags: db+web', 'name: node123', 'env: prod rack: r1 os-family: unix', 'hostname: host1.*']
+
+        when:
+        long start = System.nanoTime()
+        def expected = filters.collect { NodeFilter.filterNodes(NodeSet.fromFilter(it), nodes).nodeNames }
+        long scanNanos = System.nanoTime() - start
+        start = System.nanoTime()
+        def result = filters.collect { NodeFilter.filterNodes(NodeSet.fromFilter(it), indexed).nodeNames }
+        long indexedNanos = System.nanoTime() - start
+
+        then:
+        result == expected
+        indexedNanos < scanNanos
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.common
+
+import spock.lang.Requires
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class NodesStreamParserSpec extends Specification {
+    static final int BENCHMARK_NODES = 100000
+
+    File tempDir = File.createTempDir()
+
+    def cleanup() {
+        tempDir.deleteDir()
+    }
+
+    static class CountingReceiver implements NodeReceiver {
+        int count
+        long maxUsedHeap
+
+        @Override
+        void putNode(final INodeEntry iNodeEntry) {
+            count++
+            if (count % 10000 == 0) {
+                //collect first so only retained memory is counted
+                def runtime = Runtime.runtime
+                System.gc()
+                maxUsedHeap = Math.max(maxUsedHeap, runtime.totalMemory() - runtime.freeMemory())
+            }
+        }
+    }
+
+    def "xml nodes are received before the end of the document"() {
+        given:
+        def xml = '''<project>
+  <node name="a" hostname="h1"/>
+  <node name="b" hostname="h2">'''
+        def nodes = []
+
+        when:
+        new NodesXMLParser(new ByteArrayInputStream(xml.bytes), { nodes << it } as NodeReceiver).parse()
+
+        then:
+        thrown(NodeFileParserException)
+        nodes*.nodename == ['a']
+    }
+
+    def "xml node attributes and attribute elements are parsed"() {
+        given:
+        def xml = '''<?xml version="1.0" encoding="UTF-8"?>
+<!DOCTYPE project PUBLIC "-//DTO Labs Inc.//DTD Resources Document 1.0//EN" "project.dtd">
+<project>
+  <setting name="x" type="y"/>
+  <node name="a" hostname="h1" tags="t1, t2" custom="c1" description="x &amp; y">
+    <attribute name="extra" value="e1"/>
+    <attribute name="text"><![CDATA[some <text>]]></attribute>
+  </node>
+</project>'''
+        def nodes = new NodeSetImpl()
+
+        when:
+        new NodesXMLParser(new ByteArrayInputStream(xml.bytes), nodes).parse()
+
+        then:
+        nodes.nodeNames as List == ['a']
+        with(nodes.getNode('a')) {
+            hostname == 'h1'
+            tags == ['t1', 't2'] as Set
+            description == 'x & y'
+            attributes.custom == 'c1'
+            attributes.extra == 'e1'
+            attributes.text == 'some <text>'
+        }
+    }
+
+    def "xml node defined twice is merged in a node set"() {
+        given:
+        def xml = '''<project>
+  <node name="a" hostname="h1" custom="c1" other="o1"/>
+  <node name="b" hostname="h2"/>
+  <node name="a" osFamily="unix" custom="c2"/>
+</project>'''
+        def nodes = new NodeSetImpl()
+
+        when:
+        new NodesXMLParser(new ByteArrayInputStream(xml.bytes), nodes).parse()
+
+        then:
+        nodes.nodeNames.size() == 2
+        with(nodes.getNode('a')) {
+            hostname == 'h1'
+            osFamily == 'unix'
+            attributes.custom == 'c2'
+            attributes.other == 'o1'
+        }
+    }
+
+    def "yaml nodes are received before the end of the document"() {
+        given:
+        def yaml = '''a:
+  hostname: h1
+b:
+  hostname: [h2
+'''
+        def nodes = []
+
+        when:
+        new NodesYamlParser(new ByteArrayInputStream(yaml.bytes), { nodes << it } as NodeReceiver).parse()
+
+        then:
+        thrown(NodeFileParserException)
+        nodes*.nodename == ['a']
+    }
+
+    def "yaml documents with node maps and lists are parsed"() {
+        given:
+        def yaml = '''a:
+  hostname: h1
+  tags: [x, y]
+b: &bnode
+  hostname: h2
+  <<: {osFamily: unix}
+c: *bnode
+---
+- nodename: d
+  hostname: h4
+- nodename: e
+  list: [1, 2]
+'''
+        def nodes = new NodeSetImpl()
+
+        when:
+        new NodesYamlParser(new ByteArrayInputStream(yaml.bytes), nodes).parse()
+
+        then:
+        nodes.nodeNames as List == ['a', 'b', 'c', 'd', 'e']
+        nodes.getNode('a').tags == ['x', 'y'] as Set
+        nodes.getNode('b').osFamily == 'unix'
+        nodes.getNode('c').hostname == 'h2'
+        nodes.getNode('e').attributes.list == '[1, 2]'
+    }
+
+    @Unroll
+    def "yaml invalid node entry #yaml"() {
+        when:
+        new NodesYamlParser(new ByteArrayInputStream(yaml.bytes), new NodeSetImpl()).parse()
+
+        then:
+        NodeFileParserException e = thrown()
+        e.message.contains(message)
+
+        where:
+        yaml        | message
+        'a: \n'     | 'Empty node entry for: a'
+        'a: b\n'    | "Expected map data for node entry 'a'"
+        '- foo\n'   | 'Expected map data for node entry'
+    }
+
+    /**
+     * Parses a generated document of 100k nodes without keeping the nodes, and checks the heap retained while parsing
+     * stays below the size of the document, which a parser building the whole document in memory would exceed. Set the RUNDECK_NODES_PARSER_BENCHMARK environment variable to run it.
+     */
+    @Requires({ env['RUNDECK_NODES_PARSER_BENCHMARK'] })
+    @Unroll
+    def "benchmark #format parser with #count nodes"() {
+        given:
+        def file = new File(tempDir, "nodes.${format}")
+        file.withWriter('UTF-8') { writer ->
+            if (format == 'xml') {
+                writer.write('<project>\n')
+                count.times { i ->
+                    writer.write(
+                            "  <node name=\"node${i}\" hostname=\"node${i}.example.com\" username=\"user\"" +
+                            " osFamily=\"unix\" osName=\"Linux\" tags=\"tag${i % 10}, web\" rack=\"r${i % 40}\"/>\n"
+                    )
+                }
+                writer.write('</project>\n')
+            } else {
+                count.times { i ->
+                    writer.write(
+                            "node${i}:\n  hostname: node${i}.example.com\n  username: user\n" +
+                            "  osFamily: unix\n  osName: Linux\n  tags: 'tag${i % 10}, web'\n  rack: r${i % 40}\n"
+                    )
+                }
+            }
+        }
+        def receiver = new CountingReceiver()
+        def runtime = Runtime.runtime
+        System.gc()
+        long baseHeap = runtime.totalMemory() - runtime.freeMemory()
+
+        when:
+        def parser = format == 'xml' ? new NodesXMLParser(file, receiver) : new NodesYamlParser(file, receiver)
+        parser.parse()
+
+        then:
+        receiver.count == count
+        receiver.maxUsedHeap - baseHeap < file.length()
+
+        where:
+        format | count
+        'xml'  | BENCHMARK_NODES
+        'yaml' | BENCHMARK_NODES
+    }
+}
@@ -16,15 +16,19 @@
 
 package com.dtolabs.rundeck.core.common
 
+import com.dtolabs.rundeck.core.plugins.Closeables
 import com.dtolabs.rundeck.core.plugins.ExtPluginConfiguration
 import com.dtolabs.rundeck.core.plugins.PluginConfiguration
 import com.dtolabs.rundeck.core.plugins.SimplePluginConfiguration
+import com.dtolabs.rundeck.core.resources.ResourceModelSource
 import com.dtolabs.rundeck.core.resources.ResourceModelSourceService
 import com.dtolabs.rundeck.core.resources.format.ResourceFormatGeneratorService
 import com.dtolabs.rundeck.core.tools.AbstractBaseTest
 import com.dtolabs.rundeck.core.utils.FileUtils
 import spock.lang.Specification
 
+import java.util.concurrent.CopyOnWriteArrayList
+
 class ProjectNodeSupportSpec extends Specification {
     static final String PROJECT_NAME = 'ProjectNodeSupportSpec'
     Framework framework
@@ -127,6 +131,153 @@ class ProjectNodeSupportSpec extends Specification {
         result2.nodeNames.size() == 1
     }
 
+    private ProjectNodeSupport createSupport(Map props, Map<String, Closure<INodeSet>> sources) {
+        Map allProps = ['framework.var.dir': directory.absolutePath] + props
+        def config = Mock(IRundeckProjectConfig) {
+            getName() >> PROJECT_NAME
+            getProperties() >> (allProps as Properties)
+            hasProperty(_) >> { String key -> allProps.containsKey(key) }
+            getProperty(_) >> { String key -> allProps[key] }
+            getConfigLastModifiedTime() >> new Date()
+        }
+        def factory = { ProjectNodeSupport.SourceDefinition defe ->
+            Closeables.closeableProvider({ sources[defe.type].call() } as ResourceModelSource)
+        }
+        new ProjectNodeSupport(
+            config,
+            new ResourceFormatGeneratorService(framework),
+            new ResourceModelSourceService(framework),
+            factory
+        )
+    }
+
+    private static INodeSet nodes(String source, String... names) {
+        def nodeSet = new NodeSetImpl()
+        names.each {
+            def node = new NodeEntryImpl(it)
+            node.setAttribute('source', source)
+            nodeSet.putNode(node)
+        }
+        nodeSet
+    }
+
+    def "sources load concurrently and merge in source order"() {
+        given:
+        def support = createSupport(
+            [
+                'resources.source.1.type': 'slow1',
+                'resources.source.2.type': 'slow2',
+            ],
+            [
+                slow1: { Thread.sleep(500); nodes('slow1', 'a', 'b') },
+                slow2: { Thread.sleep(500); nodes('slow2', 'b', 'c') },
+            ]
+        )
+        def loads = new CopyOnWriteArrayList()
+        support.sourceLoadListener = { int index, String type, long duration ->
+            loads << type
+        } as ProjectNodeSupport.SourceLoadListener
+
+        when:
+        long start = System.currentTimeMillis()
+        def result = support.getNodeSet()
+        long duration = System.currentTimeMillis() - start
+
+        then:
+        duration < 950
+        result.nodeNames as List == ['a', 'b', 'c']
+        result.getNode('b').attributes.source == 'slow2'
+        loads.sort() == ['slow1', 'slow2']
+        support.resourceModelSourceExceptions.isEmpty()
+    }
+
+    def "timed out source uses its cached nodes"() {
+        given:
+        boolean slow = false
+        def support = createSupport(
+            [
+                'resources.source.1.type'       : 'remote',
+                'resources.source.1.loadTimeout': '1',
+                'resources.source.2.type'       : 'local',
+            ],
+            [
+                remote: {
+                    if (slow) {
+                        Thread.sleep(5000)
+                        return nodes('remote', 'new')
+                    }
+                    nodes('remote', 'cached')
+                },
+                local : { nodes('local', 'x') },
+            ]
+        )
+        def timeouts = []
+        support.sourceLoadListener = new ProjectNodeSupport.SourceLoadListener() {
+            @Override
+            void sourceLoaded(int index, String type, long durationNanos) {
+            }
+
+            @Override
+            void sourceTimedOut(int index, String type) {
+                timeouts << index
+            }
+        }
+
+        when:
+        def first = support.getNodeSet()
+        slow = true
+        long start = System.currentTimeMillis()
+        def second = support.getNodeSet()
+        long duration = System.currentTimeMillis() - start
+
+        then:
+        first.nodeNames as List == ['cached', 'x']
+        second.nodeNames as List == ['cached', 'x']
+        duration < 3000
+        timeouts == [1]
+        support.resourceModelSourceExceptionsMap['1.source'].message.contains('using cached nodes')
+    }
+
+    def "source load timeout starts when the source starts loading"() {
+        given:
+        ProjectNodeSupport.configureSourceLoad({ String name ->
+            name == ProjectNodeSupport.FRAMEWORK_RESOURCES_LOAD_THREADS ? '1' : null
+        } as PropertyRetriever)
+        def support = createSupport(
+            [
+                'resources.source.1.type'       : 'slow',
+                'resources.source.2.type'       : 'quick',
+                'resources.source.2.loadTimeout': '1',
+            ],
+            [
+                slow : { Thread.sleep(1500); nodes('slow', 'a') },
+                quick: { nodes('quick', 'b') },
+            ]
+        )
+        def timeouts = []
+        support.sourceLoadListener = new ProjectNodeSupport.SourceLoadListener() {
+            @Override
+            void sourceLoaded(int index, String type, long durationNanos) {
+            }
+
+            @Override
+            void sourceTimedOut(int index, String type) {
+                timeouts << index
+            }
+        }
+
+        when:
+        def result = support.getNodeSet()
+
+        then:
+        result.nodeNames as List == ['a', 'b']
+        timeouts == []
+        support.resourceModelSourceExceptions.isEmpty()
+
+        cleanup:
+        ProjectNodeSupport.configureSourceLoad(null)
+    }
+
     def "serialize plugin config"() {
         given:
             def prefix = "test1.abc"
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.dispatcher
+
+import com.dtolabs.rundeck.core.utils.Converter
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.function.Function
+
+class DataReferenceTemplateSpec extends Specification {
+    static final Map<String, Map<String, String>> DATA = [node: [name: 'node1', path: '$1\\x'], option: [a: 'b']]
+
+    @Unroll
+    def "property template renders '#input' with blank #blank"() {
+        expect:
+        DataReferenceTemplate.forProperties(input).render(DATA, null, false, blank) == expected
+
+        where:
+        input                                 | blank | expected
+        'plain'                               | false | 'plain'
+        '${node.name}'                        | false | 'node1'
+        'a ${node.name} b ${option.a}${x.y}c' | false | 'a node1 b b${x.y}c'
+        'a ${node.name} b ${option.a}${x.y}c' | true  | 'a node1 b bc'
+        'path ${node.path}'                   | false | 'path $1\\x'
+        '${node} ${ node.name} ${node.name'   | true  | '${node} ${ node.name} ${node.name'
+    }
+
+    def "converter applies to values and unexpanded references"() {
+        given:
+        def converter = { it.toUpperCase() } as Converter<String, String>
+
+        expect:
+        DataReferenceTemplate.forProperties('x ${node.name} ${x.y}').render(DATA, converter, false, false) ==
+        'x NODE1 ${X.Y}'
+    }
+
+    def "unexpanded reference fails when required"() {
+        when:
+        DataReferenceTemplate.forProperties('x ${node.name} ${x.y}').render(DATA, null, true, false)
+
+        then:
+        DataContextUtils.UnresolvedDataReferenceException e = thrown()
+        e.template == 'x ${node.name} ${x.y}'
+        e.referenceName == '${x.y}'
+    }
+
+    def "view template resolves the whole variable reference"() {
+        given:
+        def refs = []
+        Function<DataReferenceTemplate.Reference, String> resolver = {
+            refs << it.key
+            it.key == 'node.name@node2' ? 'node2' : null
+        }
+
+        when:
+        def result = DataReferenceTemplate.forViews('a ${node.name@node2} ${1:data.x}').render(
+                resolver,
+                null,
+                false,
+                false
+        )
+
+        then:
+        result == 'a node2 ${1:data.x}'
+        refs == ['node.name@node2', '1:data.x']
+    }
+
+    def "compiled template is reused for the same input"() {
+        expect:
+        DataReferenceTemplate.forProperties('a ${node.name}').is(DataReferenceTemplate.forProperties('a ${node.name}'))
+        DataReferenceTemplate.forProperties('a ${node.name}').hasReferences()
+        !DataReferenceTemplate.forProperties('plain').hasReferences()
+    }
+
+    @Unroll
+    def "script template matches token reader for '#script'"() {
+        given:
+        Function<String, String> resolver = { [('node.name'): 'node1', a: '@'][it] }
+
+        expect:
+        ScriptTokenTemplate.forScript(script).render(resolver, blank) ==
+        new ReplaceTokenReader(new StringReader(script), resolver, blank, '@' as char, '@' as char).text
+        ScriptTokenTemplate.forScript(script).reader(resolver, blank).text ==
+        new ReplaceTokenReader(new StringReader(script), resolver, blank, '@' as char, '@' as char).text
+
+        where:
+        [script, blank] << [
+                [
+                        'plain',
+                        'echo @node.name@',
+                        'a@a@@node.name@b @missing@ @x y@',
+                        'user@@host @@ @node.name',
+                        '@node.name@\n@a@\r\nend@',
+                ],
+                [true, false]
+        ].combinations()
+    }
+
+    def "script template renders each node"() {
+        given:
+        def template = ScriptTokenTemplate.forScript('echo @node.name@ @option.a@')
+
+        when:
+        def results = ['n1', 'n2'].collect { node ->
+            template.render({ [('node.name'): node, ('option.a'): 'b'][it] } as Function<String, String>, true)
+        }
+
+        then:
+        template.tokenCount == 2
+        results == ['echo n1 b', 'echo n2 b']
+    }
+
+    def "script template reader resolves tokens as they are read"() {
+        given:
+        def resolved = []
+        def reader = ScriptTokenTemplate.forScript('echo @node.name@ and @option.a@').reader(
+                { resolved << it; it.toUpperCase() } as Function<String, String>,
+                true
+        )
+        def buf = new char[6]
+
+        when:
+        def count = reader.read(buf)
+
+        then:
+        count == 6
+        new String(buf) == 'echo N'
+        resolved == ['node.name']
+
+        when:
+        def rest = reader.text
+
+        then:
+        rest == 'ODE.NAME and OPTION.A'
+        resolved == ['node.name', 'option.a']
+    }
+}
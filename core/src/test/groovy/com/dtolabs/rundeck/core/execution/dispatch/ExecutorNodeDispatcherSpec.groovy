@@ -0,0 +1,262 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.execution.dispatch
+
+import com.dtolabs.rundeck.core.common.Framework
+import com.dtolabs.rundeck.core.common.INodeEntry
+import com.dtolabs.rundeck.core.common.NodeEntryImpl
+import com.dtolabs.rundeck.core.common.NodeSetImpl
+import com.dtolabs.rundeck.core.execution.ExecutionContext
+import com.dtolabs.rundeck.core.execution.ExecutionListener
+import com.dtolabs.rundeck.core.execution.FailedNodesListener
+import com.dtolabs.rundeck.core.execution.workflow.StepExecutionContext
+import com.dtolabs.rundeck.core.execution.workflow.steps.StepFailureReason
+import com.dtolabs.rundeck.core.execution.workflow.steps.node.NodeStepResult
+import com.dtolabs.rundeck.core.execution.workflow.steps.node.NodeStepResultImpl
+import com.dtolabs.rundeck.core.tools.AbstractBaseTest
+import com.dtolabs.rundeck.core.utils.ThreadBoundContext
+import com.dtolabs.rundeck.core.utils.ThreadBoundOutputStream
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicInteger
+
+class ExecutorNodeDispatcherSpec extends Specification {
+    Framework framework
+
+    def setup() {
+        framework = AbstractBaseTest.createTestFramework()
+    }
+
+    private StepExecutionContext context(int nodeCount, int threads, boolean keepgoing, FailedNodesListener failed) {
+        context(nodeCount, threads, keepgoing, Mock(ExecutionListener) { getFailedNodesListener() >> failed }, [])
+    }
+
+    private StepExecutionContext context(
+            int nodeCount,
+            int threads,
+            boolean keepgoing,
+            ExecutionListener listener,
+            List<ThreadBoundContext> threadContexts
+    )
+    {
+        def nodeSet = new NodeSetImpl()
+        nodeCount.times { nodeSet.putNode(new NodeEntryImpl("node${it}".toString())) }
+        Mock(StepExecutionContext) {
+            getNodes() >> nodeSet
+            filteredNodes() >> nodeSet
+            getThreadCount() >> threads
+            isKeepgoing() >> keepgoing
+            isNodeRankOrderAscending() >> true
+            getExecutionListener() >> listener
+            componentsForType(ThreadBoundContext) >> threadContexts
+        }
+    }
+
+    def "dispatch to all nodes with bounded concurrency"() {
+        given:
+        def dispatcher = new ExecutorNodeDispatcher(framework)
+        def running = new AtomicInteger()
+        def maxRunning = new AtomicInteger()
+        def failed = Mock(FailedNodesListener)
+        def toDispatch = new Dispatchable() {
+            @Override
+            NodeStepResult dispatch(ExecutionContext ctx, INodeEntry node) {
+                int now = running.incrementAndGet()
+                maxRunning.accumulateAndGet(now, { a, b -> Math.max(a, b) })
+                Thread.sleep(20)
+                running.decrementAndGet()
+                new NodeStepResultImpl(node)
+            }
+        }
+
+        when:
+        def result = dispatcher.dispatch(context(10, 3, false, failed), toDispatch)
+
+        then:
+        result.success
+        result.results.size() == 10
+        maxRunning.get() <= 3
+        1 * failed.matchedNodes({ it.size() == 10 })
+        0 * failed.nodesFailed(_)
+    }
+
+    def "keepgoing false stops dispatch after a failure"() {
+        given:
+        def dispatcher = new ExecutorNodeDispatcher(framework)
+        def started = Collections.synchronizedList([])
+        def failed = Mock(FailedNodesListener)
+        def toDispatch = new Dispatchable() {
+            @Override
+            NodeStepResult dispatch(ExecutionContext ctx, INodeEntry node) {
+                started << node.nodename
+                if (node.nodename == 'node0') {
+                    return new NodeStepResultImpl(null, StepFailureReason.Unknown, 'failed', node)
+                }
+                new NodeStepResultImpl(node)
+            }
+        }
+
+        when:
+        def result = dispatcher.dispatch(context(20, 1, false, failed), toDispatch)
+
+        then:
+        !result.success
+        result.results.keySet() == ['node0'] as Set
+        started == ['node0']
+        1 * failed.nodesFailed({ it.keySet() == ['node0'] as Set })
+    }
+
+    def "keepgoing true dispatches all nodes after a failure"() {
+        given:
+        def dispatcher = new ExecutorNodeDispatcher(framework)
+        def failed = Mock(FailedNodesListener)
+        def toDispatch = new Dispatchable() {
+            @Override
+            NodeStepResult dispatch(ExecutionContext ctx, INodeEntry node) {
+                if (node.nodename == 'node1') {
+                    return new NodeStepResultImpl(null, StepFailureReason.Unknown, 'failed', node)
+                }
+                new NodeStepResultImpl(node)
+            }
+        }
+
+        when:
+        def result = dispatcher.dispatch(context(5, 2, true, failed), toDispatch)
+
+        then:
+        !result.success
+        1 * failed.nodesFailed({ it.keySet() == ['node1'] as Set })
+    }
+
+    def "node tasks write to the thread-bound output of the dispatching thread"() {
+        given:
+        def dispatcher = new ExecutorNodeDispatcher(framework)
+        def sink = new ByteArrayOutputStream()
+        def out = new ThreadBoundOutputStream(sink)
+        def toDispatch = new Dispatchable() {
+            @Override
+            NodeStepResult dispatch(ExecutionContext ctx, INodeEntry node) {
+                out.write("${node.nodename}\n".bytes)
+                new NodeStepResultImpl(node)
+            }
+        }
+        def outputs = [new ByteArrayOutputStream(), new ByteArrayOutputStream()]
+
+        when:
+        outputs.each { output ->
+            def thread = new Thread({
+                out.installThreadStream(output)
+                dispatcher.dispatch(context(5, 3, false, Mock(ExecutionListener), [out]), toDispatch)
+            })
+            thread.start()
+            thread.join()
+        }
+
+        then:
+        outputs.every { it.toString().readLines().sort() == (0..4).collect { "node${it}".toString() } }
+        sink.size() == 0
+    }
+
+    def "node tasks do not run on the dispatching thread"() {
+        given:
+        def dispatcher = new ExecutorNodeDispatcher(framework)
+        def threads = Collections.synchronizedSet(new HashSet<Thread>())
+        def toDispatch = new Dispatchable() {
+            @Override
+            NodeStepResult dispatch(ExecutionContext ctx, INodeEntry node) {
+                threads << Thread.currentThread()
+                Thread.sleep(5)
+                new NodeStepResultImpl(node)
+            }
+        }
+
+        when:
+        def result = dispatcher.dispatch(context(20, 8, false, null), toDispatch)
+
+        then:
+        result.success
+        !threads.contains(Thread.currentThread())
+    }
+
+    def "unexpected exception is reported to the listener for the node"() {
+        given:
+        def dispatcher = new ExecutorNodeDispatcher(framework)
+        def failed = Mock(FailedNodesListener)
+        def listener = Mock(ExecutionListener) {
+            getFailedNodesListener() >> failed
+        }
+        def toDispatch = new Dispatchable() {
+            @Override
+            NodeStepResult dispatch(ExecutionContext ctx, INodeEntry node) {
+                if (node.nodename == 'node1') {
+                    throw new IllegalStateException('boom')
+                }
+                new NodeStepResultImpl(node)
+            }
+        }
+
+        when:
+        def result = dispatcher.dispatch(context(3, 1, true, listener, []), toDispatch)
+
+        then:
+        !result.success
+        1 * listener.log(0, { it.startsWith('Dispatch failed on node: node1: boom') })
+        1 * failed.nodesFailed(
+                {
+                    it.keySet() == ['node1'] as Set &&
+                    it.node1.failureReason == StepFailureReason.Unknown &&
+                    it.node1.failureMessage == 'boom'
+                }
+        )
+    }
+
+    def "nodes not started after a failure are reported to the listener"() {
+        given:
+        def dispatcher = new ExecutorNodeDispatcher(framework)
+        def listener = Mock(ExecutionListener)
+        def toDispatch = new Dispatchable() {
+            @Override
+            NodeStepResult dispatch(ExecutionContext ctx, INodeEntry node) {
+                new NodeStepResultImpl(null, StepFailureReason.Unknown, 'failed', node)
+            }
+        }
+
+        when:
+        dispatcher.dispatch(context(3, 1, false, listener, []), toDispatch)
+
+        then:
+        1 * listener.log(1, 'Not dispatched to nodes after a failure: [node1, node2]')
+    }
+
+    def "unexpected exception without keepgoing"() {
+        given:
+        def dispatcher = new ExecutorNodeDispatcher(framework)
+        def toDispatch = new Dispatchable() {
+            @Override
+            NodeStepResult dispatch(ExecutionContext ctx, INodeEntry node) {
+                throw new IllegalStateException('boom')
+            }
+        }
+
+        when:
+        dispatcher.dispatch(context(3, 2, false, null), toDispatch)
+
+        then:
+        DispatcherException e = thrown()
+        e.cause instanceof IllegalStateException
+    }
+}
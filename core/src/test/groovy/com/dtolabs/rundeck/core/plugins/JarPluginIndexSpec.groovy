@@ -0,0 +1,224 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.plugins
+
+import spock.lang.Specification
+
+import java.nio.file.Files
+
+class JarPluginIndexSpec extends Specification {
+    File testCachedir
+    File testPluginJarCacheDirectory
+    File indexDir
+
+    def setup() {
+        testCachedir = Files.createTempDirectory("JarPluginIndexSpec").toFile()
+        testPluginJarCacheDirectory = Files.createTempDirectory("JarPluginIndexSpec-jars").toFile()
+        indexDir = new File(testCachedir, JarPluginIndex.INDEX_DIR_NAME)
+    }
+
+    def cleanup() {
+        testCachedir.deleteDir()
+        testPluginJarCacheDirectory.deleteDir()
+    }
+
+    static File createJar(String version = '1.1', File file = null) {
+        final Class[] classes = [TestJarPluginProviderLoader.testProvider2]
+        TestJarPluginProviderLoader.createTestJar(
+                [
+                        (JarPluginProviderLoader.RUNDECK_PLUGIN_ARCHIVE)     : 'true',
+                        (JarPluginProviderLoader.RUNDECK_PLUGIN_VERSION)     : version,
+                        (JarPluginProviderLoader.RUNDECK_PLUGIN_CLASSNAMES)  : classes*.name.join(','),
+                        (JarPluginProviderLoader.RUNDECK_PLUGIN_FILE_VERSION): '1.0.0',
+                ],
+                file,
+                classes
+        )
+    }
+
+    def "entry is stored in a file named by the checksum"() {
+        given:
+        def jar = createJar()
+        new JarPluginIndex(indexDir).entryFor(jar)
+
+        when:
+        def index = new JarPluginIndex(indexDir)
+        def entry = index.entryFor(jar)
+
+        then:
+        indexDir.listFiles()*.name == [JarPluginIndex.checksum(jar) + '.json']
+        index.isValid(jar)
+        entry.checksum == JarPluginIndex.checksum(jar)
+        entry.mainAttributes().getValue(JarPluginProviderLoader.RUNDECK_PLUGIN_FILE_VERSION) == '1.0.0'
+        entry.providers == null
+    }
+
+    def "validity is checked on each request and not stored"() {
+        given:
+        def jar = createJar('0.9')
+        def index = new JarPluginIndex(indexDir)
+
+        when:
+        def entry = index.entryFor(jar)
+
+        then:
+        !index.isValid(jar)
+        entry.attributes[JarPluginProviderLoader.RUNDECK_PLUGIN_VERSION] == '0.9'
+        !new File(indexDir, entry.checksum + '.json').text.contains('valid')
+    }
+
+    def "entry is found by content when the jar is moved"() {
+        given:
+        def jar = createJar()
+        def index = new JarPluginIndex(indexDir)
+        def entry = index.entryFor(jar)
+        index.putProviders(entry, [new JarPluginIndex.Provider('TestService', 'test2', 'x.Y')])
+        def moved = new File(jar.parentFile, 'moved-' + jar.name)
+        jar.renameTo(moved)
+        moved.setLastModified(moved.lastModified() - 10000)
+
+        when:
+        def result = new JarPluginIndex(indexDir).entryFor(moved)
+
+        then:
+        result.providers*.toIdent() == [new ProviderIdent('TestService', 'test2')]
+
+        cleanup:
+        moved.delete()
+    }
+
+    def "changed content uses a new entry"() {
+        given:
+        def jar = createJar()
+        def index = new JarPluginIndex(indexDir)
+        def entry = index.entryFor(jar)
+        index.putProviders(entry, [new JarPluginIndex.Provider('TestService', 'test2', 'x.Y')])
+        createJar('1.2', jar)
+        jar.setLastModified(jar.lastModified() + 10000)
+
+        when:
+        def result = index.entryFor(jar)
+
+        then:
+        result.checksum != entry.checksum
+        result.providers == null
+        result.attributes[JarPluginProviderLoader.RUNDECK_PLUGIN_VERSION] == '1.2'
+    }
+
+    def "adding a jar writes only its own entry"() {
+        given:
+        def jar1 = createJar()
+        def jar2 = createJar('1.2')
+        def index = new JarPluginIndex(indexDir)
+        def entry1 = index.entryFor(jar1)
+        def file1 = new File(indexDir, entry1.checksum + '.json')
+        file1.setLastModified(10000)
+
+        when:
+        def entry2 = index.entryFor(jar2)
+
+        then:
+        file1.lastModified() == 10000
+        new File(indexDir, entry2.checksum + '.json').isFile()
+    }
+
+    def "entries for removed files are dropped"() {
+        given:
+        def jar1 = createJar()
+        def jar2 = createJar('1.2')
+        def index = new JarPluginIndex(indexDir)
+        def entry1 = index.entryFor(jar1)
+        def entry2 = index.entryFor(jar2)
+
+        when:
+        index.retain([jar2])
+
+        then:
+        index.size() == 1
+        indexDir.listFiles()*.name == [entry2.checksum + '.json']
+        entry1.checksum != entry2.checksum
+    }
+
+    def "loader lists providers from the index without loading the jar"() {
+        given:
+        def service = new JarPluginProviderLoaderSpec.MyTestService()
+        service.name = 'TestService'
+        service.isvalid = true
+        service.createInstance = new TestJarPluginProviderLoader.testProvider2()
+        def jar = createJar()
+        def first = new JarPluginProviderLoader(
+                jar,
+                testPluginJarCacheDirectory,
+                testCachedir,
+                true,
+                new JarPluginIndex(indexDir)
+        )
+        first.listProviders()
+        first.close()
+        def loader = new JarPluginProviderLoader(
+                jar,
+                testPluginJarCacheDirectory,
+                testCachedir,
+                true,
+                new JarPluginIndex(indexDir)
+        )
+
+        when:
+        def providers = loader.listProviders()
+        def isLoader = loader.isLoaderFor(new ProviderIdent('TestService', 'test2'))
+        def version = loader.pluginFileVersion
+        def loadedBefore = loader.cachedJar
+
+        then:
+        providers == [new ProviderIdent('TestService', 'test2')]
+        isLoader
+        !loader.isLoaderFor(new ProviderIdent('TestService', 'test1'))
+        version == '1.0.0'
+        loadedBefore == null
+
+        when:
+        def instance = loader.load(service, 'test2')
+
+        then:
+        instance != null
+        loader.cachedJar != null
+
+        cleanup:
+        loader.close()
+    }
+
+    def "scanner uses the index retained in the cache dir"() {
+        given:
+        def jar = createJar()
+        def scanner = new JarPluginScanner(null, testCachedir, null)
+        scanner.isValidPluginFile(jar)
+        new File(testCachedir, 'other').mkdirs()
+
+        when:
+        def scanner2 = new JarPluginScanner(null, testCachedir, null)
+
+        then:
+        !new File(testCachedir, 'other').exists()
+        indexDir.listFiles().length == 1
+        scanner2.isValidPluginFile(jar)
+        scanner2.index.size() == 1
+        scanner2.getVersionForFile(jar) == '1.0.0'
+
+        cleanup:
+        scanner2.pluginJarCacheDirectory.deleteDir()
+    }
+}
@@ -1,5 +1,6 @@
 package com.dtolabs.rundeck.core.rules
 
+import spock.lang.Requires
 import spock.lang.Specification
 
 /**
@@ -231,4 +232,127 @@ class RulesSpec extends Specification {
         cond.test(States.state(a: '2', b: '1'))
 
     }
+
+    def "condition input keys"() {
+        expect:
+        Rules.equalsCondition('a', 'b').inputKeys == ['a', 'b'] as Set
+        Rules.equalsCondition(States.state(a: 'b', c: 'd')).inputKeys == ['a', 'c'] as Set
+        Rules.matchesCondition('a', false, 'b.*', true).inputKeys == ['a'] as Set
+        Rules.matchesCondition('a.*', true, 'b', false).inputKeys == null
+        Rules.ltCondition('a', '1').inputKeys == ['a', '1'] as Set
+        Condition.and(Rules.equalsCondition('a', 'b'), Rules.equalsCondition('c', 'd')).inputKeys ==
+        ['a', 'b', 'c', 'd'] as Set
+        Condition.or([Rules.equalsCondition('a', 'b'), Condition.with({ true })]).inputKeys == null
+        Condition.not(Rules.equalsCondition('a', 'b')).inputKeys == ['a', 'b'] as Set
+    }
+
+    def "rule input and output keys"() {
+        given:
+        def rule = Rules.conditionsRule(Rules.equalsCondition('a', 'b'), States.state(c: 'd', e: 'f'))
+
+        expect:
+        rule.inputKeys == ['a', 'b'] as Set
+        rule.outputKeys == ['c', 'e'] as Set
+    }
+
+    def "update with changed keys evaluates only affected rules"() {
+        given:
+        int count = 1000
+        def tested = [] as Set
+        def engine = Rules.createEngine()
+        count.times { int i ->
+            def cond = Rules.equalsCondition("step.${i}.completed".toString(), 'true')
+            def counting = Condition.with({ StateObj st -> tested << i; cond.test(st) }, cond.inputKeys)
+            engine.addRule(Rules.conditionsRule(counting, "step.${i + 1}.start".toString(), 'true'))
+        }
+        def state = States.mutable()
+        Rules.update(engine, state, [] as Set)
+        tested.clear()
+
+        when:
+        def changes = ['step.500.completed': 'true']
+        def changed = Rules.changedKeys(state, changes)
+        state.updateState(changes)
+        def result = Rules.update(engine, state, changed)
+
+        then:
+        result
+        state.hasState('step.501.start', 'true')
+        tested == [500] as Set
+    }
+
+    def "update with changed keys evaluates rules affected by rule output"() {
+        given:
+        def engine = Rules.createEngine(
+                [
+                        Rules.conditionsRule(Rules.equalsCondition('a', 'true'), 'b', 'true'),
+                        Rules.conditionsRule(Rules.equalsCondition('b', 'true'), 'c', 'true'),
+                ] as Set
+        )
+        def state = States.mutable()
+        Rules.update(engine, state, [] as Set)
+
+        when:
+        state.updateState('a', 'true')
+        def result = Rules.update(engine, state, ['a'] as Set)
+
+        then:
+        result
+        state.hasState('b', 'true')
+        state.hasState('c', 'true')
+    }
+
+    def "added rules are evaluated without changed keys"() {
+        given:
+        def engine = Rules.createEngine()
+        def state = States.mutable('a', 'true')
+        engine.addRule(Rules.conditionsRule(Rules.equalsCondition('a', 'true'), 'b', 'true'))
+
+        when:
+        def result = Rules.update(engine, state, [] as Set)
+
+        then:
+        result
+        state.hasState('b', 'true')
+    }
+
+    @Requires({ env['RUNDECK_RULES_BENCHMARK'] })
+    def "benchmark 1000 rule chained workflow with changed keys"() {
+        given:
+        int count = 1000
+        def engine = Rules.createEngine()
+        count.times { int i ->
+            engine.addRule(
+                    Rules.conditionsRule(
+                            Rules.equalsCondition("step.${i}.completed".toString(), 'true'),
+                            "step.${i + 1}.start".toString(),
+                            'true'
+                    )
+            )
+        }
+        def fullState = States.mutable()
+        def indexedState = States.mutable()
+        Rules.update(engine, indexedState, [] as Set)
+
+        when:
+        long fullStart = System.nanoTime()
+        count.times { int i ->
+            fullState.updateState("step.${i}.completed".toString(), 'true')
+            Rules.update(engine, fullState)
+        }
+        long fullNanos = System.nanoTime() - fullStart
+        long indexedStart = System.nanoTime()
+        count.times { int i ->
+            def changes = [("step.${i}.completed".toString()): 'true']
+            def changed = Rules.changedKeys(indexedState, changes)
+            indexedState.updateState(changes)
+            Rules.update(engine, indexedState, changed)
+        }
+        long indexedNanos = System.nanoTime() - indexedStart
+
+        then:
+        indexedState.state == fullState.state
+        //full evaluation is quadratic in the number of steps, indexed evaluation is linear
+        indexedNanos * 10 < fullNanos
+    }
 }
@@ -4,10 +4,13 @@ import com.dtolabs.rundeck.core.data.BaseDataContext
 import com.dtolabs.rundeck.core.dispatcher.ContextView
 import com.dtolabs.rundeck.core.dispatcher.DataContextUtils
 import com.dtolabs.rundeck.core.execution.workflow.WFSharedContext
+import spock.lang.Requires
 import spock.lang.Specification
 
 import java.util.concurrent.ExecutorService
 import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 
 /**
  * Created by greg on 5/2/16.
@@ -296,6 +299,75 @@ class WorkflowEngineSpec extends Specification {
         !operations[1].hasRun
     }
 
+    private Set<TestOperation> chainedOperations(int count, List<Integer> order) {
+        (1..count).collect { int i ->
+            new TestOperation(
+                    id: i,
+                    shouldRunClos: {
+                        StateObj st ->
+                            i == 1 ?
+                            st.hasState(Workflows.WORKFLOW_STATE_KEY, Workflows.WORKFLOW_STATE_STARTED) :
+                            st.hasState("step.${i - 1}".toString(), 'done')
+                    },
+                    toCall: {
+                        order << i
+                        //the last step produces no new state
+                        return new TestOpCompleted(
+                                newState: States.state("step.${Math.min(i, count - 1)}".toString(), 'done')
+                        )
+                    }
+            )
+        } as Set
+    }
+
+    def "many sequential operations run in order with callbacks on the caller's executor"() {
+        given:
+        RuleEngine ruleEngine = Rules.createEngine()
+        MutableStateObj state = States.mutable()
+        ExecutorService executor = Executors.newFixedThreadPool(2)
+        def callbacks = new AtomicInteger()
+        ExecutorService pool = Executors.newSingleThreadExecutor()
+        ExecutorService manager = Mock(ExecutorService) {
+            execute(_) >> { Runnable r -> callbacks.incrementAndGet(); pool.execute(r) }
+        }
+        WorkflowEngine engine = new WorkflowEngine(ruleEngine, state, executor, manager)
+        int count = 200
+        List<Integer> order = Collections.synchronizedList([])
+        Set<TestOperation> operations = chainedOperations(count, order)
+
+        when:
+        def result = engine.processOperations(operations, null)
+
+        then:
+        result.size() == count
+        order == (1..count).toList()
+        callbacks.get() == count
+        0 * manager.shutdown()
+        0 * manager.shutdownNow()
+
+        cleanup:
+        pool.shutdown()
+    }
+
+    @Requires({ env['RUNDECK_WORKFLOW_ENGINE_BENCHMARK'] })
+    def "benchmark sequential operations latency"() {
+        given:
+        int count = 200
+        RuleEngine ruleEngine = Rules.createEngine()
+        WorkflowEngine engine = new WorkflowEngine(ruleEngine, States.mutable(), Executors.newFixedThreadPool(2))
+        Set<TestOperation> operations = chainedOperations(count, [])
+
+        when:
+        long start = System.nanoTime()
+        def result = engine.processOperations(operations, null)
+        long perStepMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) / count
+
+        then:
+        result.size() == count
+        //a polling wait between steps took at least 250ms
+        perStepMillis < 25
+    }
+
     def "operation halts workflow"() {
         given:
         RuleEngine ruleEngine = Rules.createEngine()
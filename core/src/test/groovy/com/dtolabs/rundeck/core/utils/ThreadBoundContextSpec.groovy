@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.utils
+
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+class ThreadBoundContextSpec extends Specification {
+
+    def "pooled thread sees the bound value only while running the task"() {
+        given:
+        def local = new InheritableThreadLocal<String>()
+        def executor = Executors.newSingleThreadExecutor()
+
+        when:
+        executor.submit({ local.set('stale') } as Runnable).get()
+        local.set('value')
+        def seen = null
+        executor.submit(ThreadBoundContext.bindValue(local, local.get(), { seen = local.get() } as Runnable)).get()
+        def after = executor.submit({ local.get() } as Callable).get()
+
+        then:
+        seen == 'value'
+        after == null
+
+        cleanup:
+        local.remove()
+        executor.shutdownNow()
+    }
+
+    def "null value removes the value of the pooled thread"() {
+        given:
+        def local = new ThreadLocal<String>()
+        def executor = Executors.newSingleThreadExecutor()
+
+        when:
+        executor.submit({ local.set('stale') } as Runnable).get()
+        def seen = 'unset'
+        executor.submit(ThreadBoundContext.bindValue(local, null, { seen = local.get() } as Runnable)).get()
+
+        then:
+        seen == null
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "task run by the current thread is unchanged"() {
+        given:
+        def local = new ThreadLocal<String>()
+        local.set('value')
+        String seen = null
+
+        when:
+        ThreadBoundContext.bindValue(local, 'other', { seen = local.get() } as Runnable).run()
+
+        then:
+        seen == 'value'
+        local.get() == 'value'
+
+        cleanup:
+        local.remove()
+    }
+
+    def "bind all contexts"() {
+        given:
+        def order = []
+        def contexts = ['a', 'b'].collect { name ->
+            { Runnable task -> { -> order << name; task.run() } as Runnable } as ThreadBoundContext
+        }
+
+        when:
+        ThreadBoundContext.bindAll(contexts, { order << 'task' } as Runnable).run()
+        ThreadBoundContext.bindAll(null, { order << 'alone' } as Runnable).run()
+
+        then:
+        order == ['b', 'a', 'task', 'alone']
+    }
+
+    def "thread-bound output stream is bound to the pooled thread"() {
+        given:
+        def sink = new ByteArrayOutputStream()
+        def output = new ByteArrayOutputStream()
+        def out = new ThreadBoundOutputStream(sink)
+        def executor = Executors.newSingleThreadExecutor()
+
+        when:
+        out.installThreadStream(output)
+        executor.submit(out.bindTask({ out.write('bound'.bytes) } as Runnable)).get()
+        executor.submit({ out.write('unbound'.bytes) } as Runnable).get()
+
+        then:
+        output.toString() == 'bound'
+        sink.toString() == 'unbound'
+
+        cleanup:
+        out.removeThreadStream()
+        executor.shutdownNow()
+    }
+}
@@ -141,6 +141,25 @@ class WebhookController {
         whkdata.contentType = request.contentType
         whkdata.data = request.inputStream
 
+        if(webhookService.asyncEnabled) {
+            try {
+                if(!webhookService.acceptWebhook(hook.eventPlugin, hook.pluginConfigurationJson, whkdata, authContext, request)) {
+                    sendJsonError("Webhook event queue is full",503)
+                    return
+                }
+            } catch(WebhookService.BodyTooLargeException tooLarge) {
+                sendJsonError(tooLarge.message,413)
+                return
+            } catch(WebhookEventException wee) {
+                sendJsonError(wee.message)
+                return
+            }
+            response.setStatus(HttpServletResponse.SC_ACCEPTED)
+            def msg = [msg:"Webhook event accepted"]
+            render msg as JSON
+            return
+        }
+
         try {
             def responder = webhookService.processWebhook(hook.eventPlugin, hook.pluginConfigurationJson, whkdata, authContext, request)
             responder.respond(response)
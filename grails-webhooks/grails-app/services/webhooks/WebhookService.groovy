@@ -7,12 +7,14 @@ import com.dtolabs.rundeck.core.config.Features
 import com.dtolabs.rundeck.core.event.EventImpl
 import com.dtolabs.rundeck.core.event.EventQueryImpl
 import com.dtolabs.rundeck.core.event.EventStoreService
+import com.dtolabs.rundeck.core.execution.workflow.steps.FailureReason
 import com.dtolabs.rundeck.core.plugins.ValidatedPlugin
 import com.dtolabs.rundeck.core.plugins.configuration.PluginAdapterUtility
 import com.dtolabs.rundeck.core.plugins.configuration.PluginCustomConfigValidator
 import com.dtolabs.rundeck.core.plugins.configuration.PropertyScope
 import com.dtolabs.rundeck.core.plugins.configuration.Validator
 import com.dtolabs.rundeck.core.webhook.WebhookEventContextImpl
+import com.dtolabs.rundeck.core.webhook.WebhookEventException
 import com.dtolabs.rundeck.plugins.ServiceNameConstants
 import com.dtolabs.rundeck.plugins.descriptions.PluginCustomConfig
 import com.dtolabs.rundeck.plugins.webhook.DefaultWebhookResponder
@@ -20,21 +22,63 @@ import com.dtolabs.rundeck.plugins.webhook.WebhookDataImpl
 import com.dtolabs.rundeck.plugins.webhook.WebhookEventContext
 import com.dtolabs.rundeck.plugins.webhook.WebhookEventPlugin
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.google.common.cache.Cache
+import com.google.common.cache.CacheBuilder
+import com.google.common.util.concurrent.ThreadFactoryBuilder
 import grails.gorm.transactions.Transactional
 import groovy.transform.PackageScope
 import org.rundeck.app.spi.Services
 import org.rundeck.app.spi.SimpleServiceProvider
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.DisposableBean
 
 import javax.servlet.http.HttpServletRequest
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
 
 @Transactional
-class WebhookService {
+class WebhookService implements DisposableBean {
     private static final Logger LOGGER = LoggerFactory.getLogger("org.rundeck.webhook.events")
     private static final ObjectMapper mapper = new ObjectMapper()
     private static final String KEY_STORE_PREFIX = "\${KS:"
     private static final String END_MARKER = "}"
+    static final long DEFAULT_SECURE_VALUE_TTL = 0
+    static final long DEFAULT_ASYNC_MAX_BODY_SIZE = 1024 * 1024
+
+    /**
+     * Parsed plugin configuration for a webhook, and the plugin instance if the plugin can be reused
+     */
+    @PackageScope
+    static class HookPlugin {
+        String pluginName
+        String pluginConfigJson
+        String project
+        Map pluginConfig
+        volatile WebhookEventPlugin plugin
+
+        boolean matches(String pluginName, String pluginConfigJson, String project) {
+            this.pluginName == pluginName &&
+            this.pluginConfigJson == pluginConfigJson &&
+            this.project == project
+        }
+    }
+
+    static enum WebhookFailureReason implements FailureReason {
+        BodyTooLarge
+    }
+
+    /**
+     * The request body is larger than the maximum size for async processing
+     */
+    static class BodyTooLargeException extends WebhookEventException {
+        BodyTooLargeException(String msg) {
+            super(msg, WebhookFailureReason.BodyTooLarge)
+        }
+    }
 
     def rundeckPluginRegistry
     def pluginService
@@ -47,39 +91,237 @@ class WebhookService {
     def storageService
     def gormEventStoreService
     def featureService
+    def configurationService
+
+    private Cache<String, HookPlugin> hookPlugins
+    private Cache<String, String> secureValues
+    private final Map<String, SimpleServiceProvider> eventStoreProviders = new ConcurrentHashMap<>()
+    private ThreadPoolExecutor asyncExecutor
+
+    @Override
+    void destroy() throws Exception {
+        synchronized (this) {
+            if (asyncExecutor) {
+                asyncExecutor.shutdown()
+                asyncExecutor.awaitTermination(
+                        configurationService?.getLong('webhooks.async.shutdownWait', 10000) ?: 0,
+                        TimeUnit.MILLISECONDS
+                )
+                asyncExecutor = null
+            }
+        }
+    }
+
+    /**
+     * @return time in seconds that key store values used in webhook configuration are cached for each user and roles,
+     * or 0 if they are not cached
+     */
+    long getSecureValueTtl() {
+        null != configurationService ?
+        configurationService.getLong('webhooks.secureValueCacheSeconds', DEFAULT_SECURE_VALUE_TTL) :
+        DEFAULT_SECURE_VALUE_TTL
+    }
+
+    /**
+     * @return maximum size in bytes of a request body read for async processing
+     */
+    long getAsyncMaxBodySize() {
+        configurationService?.getLong('webhooks.async.maxBodySize', DEFAULT_ASYNC_MAX_BODY_SIZE) ?: DEFAULT_ASYNC_MAX_BODY_SIZE
+    }
+
+    /**
+     * @return cache of parsed plugin configuration by webhook uuid
+     */
+    @PackageScope
+    synchronized Cache<String, HookPlugin> getHookPlugins() {
+        if (null == hookPlugins) {
+            hookPlugins = CacheBuilder.newBuilder()
+                                      .maximumSize(configurationService?.getLong('webhooks.pluginCache.maxSize', 1000) ?: 1000)
+                                      .build()
+        }
+        hookPlugins
+    }
+
+    private synchronized Cache<String, String> getSecureValues() {
+        if (null == secureValues) {
+            secureValues = CacheBuilder.newBuilder()
+                                       .maximumSize(1000)
+                                       .expireAfterWrite(secureValueTtl, TimeUnit.SECONDS)
+                                       .build()
+        }
+        secureValues
+    }
+
+    /**
+     * @return true if webhook events are accepted and then processed in the background
+     */
+    boolean isAsyncEnabled() {
+        configurationService?.getBoolean('webhooks.async.enabled', false) ?: false
+    }
+
+    private synchronized ThreadPoolExecutor getAsyncExecutor() {
+        if (null == asyncExecutor) {
+            int threads = configurationService?.getInteger('webhooks.async.threads', 4) ?: 4
+            asyncExecutor = new ThreadPoolExecutor(
+                    threads,
+                    threads,
+                    0L,
+                    TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<Runnable>(configurationService?.getInteger('webhooks.async.queueSize', 1000) ?: 1000),
+                    new ThreadFactoryBuilder().setNameFormat('webhook-event-%d').setDaemon(true).build(),
+                    new ThreadPoolExecutor.AbortPolicy()
+            )
+        }
+        asyncExecutor
+    }
+
+    /**
+     * Remove the cached plugin configuration for the webhook
+     * @param uuid webhook uuid
+     */
+    void invalidateHookPlugin(String uuid) {
+        if (uuid) {
+            getHookPlugins().invalidate(uuid)
+        }
+    }
 
     def processWebhook(String pluginName, String pluginConfigJson, WebhookDataImpl data, UserAndRolesAuthContext authContext, HttpServletRequest request) {
         LOGGER.info("processing '" + data.webhook + "' with plugin '" + pluginName + "' triggered by: '" + authContext.username+ "'")
-        Map pluginConfig = pluginConfigJson ? mapper.readValue(pluginConfigJson,HashMap) : [:]
-        replaceSecureOpts(authContext,pluginConfig)
+        WebhookEventPlugin plugin = getHookPlugin(pluginName, pluginConfigJson, data, authContext)
+
+        plugin.requestHeadersToCopy?.each { hdr -> data.headers[hdr] = request.getHeader(hdr)}
+
+        return plugin.onEvent(createEventContext(authContext, data.project),data) ?: new DefaultWebhookResponder()
+    }
+
+    /**
+     * Read the webhook request and queue the event to be processed in the background.
+     * @return true if the event was queued, false if the queue is full
+     * @throws BodyTooLargeException if the request body is larger than the maximum size
+     */
+    boolean acceptWebhook(String pluginName, String pluginConfigJson, WebhookDataImpl data, UserAndRolesAuthContext authContext, HttpServletRequest request) {
+        LOGGER.info("accepting '" + data.webhook + "' with plugin '" + pluginName + "' triggered by: '" + authContext.username+ "'")
+        // the request is not available after the response is sent
+        data.data = new ByteArrayInputStream(readBody(data.data, asyncMaxBodySize))
+        WebhookEventPlugin plugin = getHookPlugin(pluginName, pluginConfigJson, data, authContext)
+
+        plugin.requestHeadersToCopy?.each { hdr -> data.headers[hdr] = request.getHeader(hdr)}
+
+        try {
+            getAsyncExecutor().execute {
+                try {
+                    Webhook.withNewSession {
+                        plugin.onEvent(createEventContext(authContext, data.project), data)
+                    }
+                } catch (Exception e) {
+                    LOGGER.error("processing '" + data.webhook + "' with plugin '" + pluginName + "' failed: " + e.message, e)
+                }
+            }
+            return true
+        } catch (RejectedExecutionException ignored) {
+            LOGGER.warn("webhook event queue is full, rejected '" + data.webhook + "'")
+            return false
+        }
+    }
+
+    /**
+     * Read the stream up to the maximum size
+     * @throws BodyTooLargeException if the stream has more data
+     */
+    private static byte[] readBody(InputStream input, long maxSize) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream()
+        if (null == input) {
+            return out.toByteArray()
+        }
+        byte[] buf = new byte[8192]
+        int len
+        while ((len = input.read(buf)) != -1) {
+            if (out.size() + len > maxSize) {
+                throw new BodyTooLargeException("Webhook request body is larger than the maximum size of ${maxSize} bytes")
+            }
+            out.write(buf, 0, len)
+        }
+        out.toByteArray()
+    }
+
+    /**
+     * Return a configured plugin instance for the event. The parsed configuration is cached while the webhook
+     * configuration is unchanged, and a new plugin instance is created for each event, unless the plugin is reusable
+     * and the configuration does not use key store values.
+     */
+    @PackageScope
+    WebhookEventPlugin getHookPlugin(String pluginName, String pluginConfigJson, WebhookDataImpl data, UserAndRolesAuthContext authContext) {
+        boolean secure = pluginConfigJson?.contains(KEY_STORE_PREFIX)
+        HookPlugin cached = data.webhookUUID ? getHookPlugins().getIfPresent(data.webhookUUID) : null
+        if (!cached?.matches(pluginName, pluginConfigJson, data.project)) {
+            cached = new HookPlugin(
+                    pluginName: pluginName,
+                    pluginConfigJson: pluginConfigJson,
+                    project: data.project,
+                    pluginConfig: pluginConfigJson ? mapper.readValue(pluginConfigJson, HashMap) : [:]
+            )
+            if (data.webhookUUID) {
+                getHookPlugins().put(data.webhookUUID, cached)
+            }
+        }
+        if (null != cached.plugin) {
+            return cached.plugin
+        }
+        Map pluginConfig = (Map) copyConfig(cached.pluginConfig)
+        if (secure) {
+            replaceSecureOpts(authContext, pluginConfig)
+        }
         WebhookEventPlugin plugin = pluginService.configurePlugin(pluginName, WebhookEventPlugin.class, frameworkService.getFrameworkPropertyResolver(data.project,pluginConfig),
                                                                   PropertyScope.Instance).instance
 
         PluginAdapterUtility.setConfig(plugin, pluginConfig)
 
-        plugin.requestHeadersToCopy?.each { hdr -> data.headers[hdr] = request.getHeader(hdr)}
+        if (!secure && plugin.reusable) {
+            cached.plugin = plugin
+        }
+        plugin
+    }
+
+    /**
+     * @return copy of the config value, with nested maps and lists copied
+     */
+    private static Object copyConfig(Object value) {
+        if (value instanceof Map) {
+            return ((Map) value).collectEntries { k, v -> [k, copyConfig(v)] }
+        } else if (value instanceof List) {
+            return ((List) value).collect { copyConfig(it) }
+        }
+        value
+    }
 
+    private WebhookEventContext createEventContext(UserAndRolesAuthContext authContext, String project) {
         Services contextServices = rundeckAuthorizedServicesProvider.getServicesWith(authContext)
 
         if (featureService.featurePresent(Features.EVENT_STORE)) {
-            def scopedStore = gormEventStoreService.scoped(
-                new Evt(projectName: data.project, subsystem: 'webhooks'),
-                new EvtQuery(projectName: data.project, subsystem: 'webhooks')
-            )
             contextServices = contextServices.combine(
-                    new SimpleServiceProvider([(EventStoreService): scopedStore])
+                    eventStoreProviders.computeIfAbsent(project) {
+                        def scopedStore = gormEventStoreService.scoped(
+                            new Evt(projectName: project, subsystem: 'webhooks'),
+                            new EvtQuery(projectName: project, subsystem: 'webhooks')
+                        )
+                        new SimpleServiceProvider([(EventStoreService): scopedStore])
+                    }
             )
         }
 
-        WebhookEventContext context = new WebhookEventContextImpl(contextServices)
+        new WebhookEventContextImpl(contextServices)
+    }
 
-        return plugin.onEvent(context,data) ?: new DefaultWebhookResponder()
+    private static String authCacheKey(UserAndRolesAuthContext authContext) {
+        authContext.username + ':' + (authContext.roles?.sort(false) ?: []).join(',')
     }
 
     @PackageScope
     void replaceSecureOpts(UserAndRolesAuthContext authContext, Map configProps) {
         if(configProps.isEmpty()) return
-        def keystore = storageService.storageTreeWithContext(authContext)
+        def keystore = null
+        String authKey = authCacheKey(authContext)
+        Cache<String, String> cache = secureValueTtl > 0 ? getSecureValues() : null
 
         Stack<Object> items = []
 
@@ -114,8 +356,15 @@ class WebhookService {
                         }
                         String valueToReplace = replaced.substring(startIdx,endIdx+1)
                         String keyPath = valueToReplace.substring(KEY_STORE_PREFIX.length(),valueToReplace.length()-1)
-                        if(keystore.hasPassword(keyPath)) {
-                            String replacementValue = new String(keystore.readPassword(keyPath))
+                        String replacementValue = cache?.getIfPresent(authKey + ':' + keyPath)
+                        if(null == replacementValue) {
+                            if(null == keystore) keystore = storageService.storageTreeWithContext(authContext)
+                            if(keystore.hasPassword(keyPath)) {
+                                replacementValue = new String(keystore.readPassword(keyPath))
+                                cache?.put(authKey + ':' + keyPath, replacementValue)
+                            }
+                        }
+                        if(null != replacementValue) {
                             replaced = replaced.replace(valueToReplace,replacementValue)
                         } else {
                             log.warn("key was not found in key store: ${keyPath}")
@@ -153,6 +402,7 @@ class WebhookService {
             hook = new Webhook()
             hook.uuid = UUID.randomUUID().toString()
         }
+        invalidateHookPlugin(hook.uuid)
         hook.uuid = hookData.uuid ?: hook.uuid
         hook.name = hookData.name ?: hook.name
         hook.project = hookData.project ?: hook.project
@@ -204,6 +454,7 @@ class WebhookService {
 
         if(hook.validate()) {
             hook.save(failOnError:true, flush:true)
+            invalidateHookPlugin(hook.uuid)
             return [msg: "Saved webhook"]
         } else {
             if(!hook.id && hook.authToken){
@@ -249,6 +500,7 @@ class WebhookService {
         String name = hook.name
         try {
             hook.delete()
+            invalidateHookPlugin(hook.uuid)
             rundeckAuthTokenManagerService.deleteToken(authToken)
             return [msg: "Deleted ${name} webhook"]
         } catch(Exception ex) {
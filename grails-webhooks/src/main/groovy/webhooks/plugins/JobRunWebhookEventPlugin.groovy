@@ -67,6 +67,11 @@ class JobRunWebhookEventPlugin implements WebhookEventPlugin {
     @PluginProperty(title="As User", description = "Username to run job as, leave blank for default, requires authorization.")
     String asUser
 
+    @Override
+    boolean isReusable() {
+        true
+    }
+
     @Override
     WebhookResponder onEvent(final WebhookEventContext context, final WebhookData data) throws WebhookEventException {
         log.debug("webhook event: ${data.id} ${data.sender} ${data.contentType} ${data.webhook}")
@@ -32,6 +32,11 @@ import org.slf4j.LoggerFactory
 class LogWebhookEventPlugin implements WebhookEventPlugin {
     private static final Logger LOG = LoggerFactory.getLogger("org.rundeck.webhook.events")
 
+    @Override
+    boolean isReusable() {
+        true
+    }
+
     @Override
     WebhookResponder onEvent(final WebhookEventContext context, final WebhookData data) throws WebhookEventException {
         LOG.info("Log Webhook Event Plugin - Webhook event information:")
@@ -119,8 +119,58 @@ class WebhookControllerSpec extends Specification implements ControllerUnitTest<
         'DELETE'    | 405        | 0
     }
 
+    def "async post is accepted"() {
+        given:
+        controller.rundeckAuthContextProvider = Mock(AuthContextProvider)
+        controller.rundeckAuthContextEvaluator = Mock(AuthContextEvaluator)
+        controller.webhookService = Mock(MockWebhookService)
+
+        when:
+        params.authtoken = "1234"
+        request.method = 'POST'
+        controller.post()
+
+        then:
+        1 * controller.webhookService.getWebhookByToken(_) >> { new Webhook(name:"test",authToken: "1234")}
+        1 * controller.rundeckAuthContextProvider.getAuthContextForSubject(_) >> { new SubjectAuthContext(null, null) }
+        1 * controller.rundeckAuthContextEvaluator.authorizeProjectResourceAny(_,_,_,_) >> { return true }
+        1 * controller.webhookService.isAsyncEnabled() >> true
+        1 * controller.webhookService.acceptWebhook(_,_,_,_,_) >> accepted
+        0 * controller.webhookService.processWebhook(_,_,_,_,_)
+        response.status == statusCode
+        response.text == expectedMsg
+
+        where:
+        accepted | statusCode | expectedMsg
+        true     | 202        | '{"msg":"Webhook event accepted"}'
+        false    | 503        | '{"err":"Webhook event queue is full"}'
+    }
+
+    def "async post with a body that is too large is rejected"() {
+        given:
+        controller.rundeckAuthContextProvider = Mock(AuthContextProvider)
+        controller.rundeckAuthContextEvaluator = Mock(AuthContextEvaluator)
+        controller.webhookService = Mock(MockWebhookService)
+
+        when:
+        params.authtoken = "1234"
+        request.method = 'POST'
+        controller.post()
+
+        then:
+        1 * controller.webhookService.getWebhookByToken(_) >> { new Webhook(name:"test",authToken: "1234")}
+        1 * controller.rundeckAuthContextProvider.getAuthContextForSubject(_) >> { new SubjectAuthContext(null, null) }
+        1 * controller.rundeckAuthContextEvaluator.authorizeProjectResourceAny(_,_,_,_) >> { return true }
+        1 * controller.webhookService.isAsyncEnabled() >> true
+        1 * controller.webhookService.acceptWebhook(_,_,_,_,_) >> { throw new WebhookService.BodyTooLargeException("too large") }
+        response.status == 413
+        response.text == '{"err":"too large"}'
+    }
+
     interface MockWebhookService {
         Webhook getWebhookByToken(String token)
+        boolean isAsyncEnabled()
+        boolean acceptWebhook(String pluginName, String pluginConfigJson, WebhookDataImpl data, UserAndRolesAuthContext context, HttpServletRequest request)
         WebhookResponder processWebhook(String pluginName, String pluginConfigJson, WebhookDataImpl data, UserAndRolesAuthContext context, HttpServletRequest request)
     }
 }
@@ -104,6 +104,73 @@ class WebhookServiceSpec extends Specification implements ServiceUnitTest<Webhoo
         responder instanceof DefaultWebhookResponder
     }
 
+    def "process webhook configures a plugin instance for each event"() {
+        given:
+        def mockUserAuth = Mock(UserAndRolesAuthContext) {
+            getUsername() >> { "webhookUser" }
+            getRoles() >> { ["webhook","test"] }
+        }
+        service.featureService = Mock(FeatureService) {
+            featurePresent(Features.EVENT_STORE) >> false
+        }
+        service.rundeckAuthorizedServicesProvider = Mock(AuthorizedServicesProvider) {
+            getServicesWith(_) >> { Mock(Services)}
+        }
+        service.frameworkService = Mock(MockFrameworkService) {
+            getFrameworkPropertyResolver(_,_) >> { Mock(PropertyResolver) }
+        }
+        service.pluginService = Mock(MockPluginService)
+        def request = Mock(HttpServletRequest)
+        def newData = {
+            new WebhookDataImpl(webhookUUID: "uuid1", webhook: "testhook", project: "proj1", data: new ByteArrayInputStream("x".bytes))
+        }
+
+        when:
+        service.processWebhook("test-webhook-event",'{"a":"b"}',newData(),mockUserAuth,request)
+        service.processWebhook("test-webhook-event",'{"a":"b"}',newData(),mockUserAuth,request)
+
+        then:
+        2 * service.pluginService.configurePlugin("test-webhook-event", _, _,_) >> { new ConfiguredPlugin<WebhookEventPlugin>(new TestWebhookEventPlugin(), [:] ) }
+        service.hookPlugins.getIfPresent("uuid1").pluginConfig == [a: "b"]
+    }
+
+    def "process webhook reuses a reusable plugin until the config changes"() {
+        given:
+        def mockUserAuth = Mock(UserAndRolesAuthContext) {
+            getUsername() >> { "webhookUser" }
+            getRoles() >> { ["webhook","test"] }
+        }
+        service.featureService = Mock(FeatureService) {
+            featurePresent(Features.EVENT_STORE) >> false
+        }
+        service.rundeckAuthorizedServicesProvider = Mock(AuthorizedServicesProvider) {
+            getServicesWith(_) >> { Mock(Services)}
+        }
+        service.frameworkService = Mock(MockFrameworkService) {
+            getFrameworkPropertyResolver(_,_) >> { Mock(PropertyResolver) }
+        }
+        service.pluginService = Mock(MockPluginService)
+        def request = Mock(HttpServletRequest)
+        def newData = {
+            new WebhookDataImpl(webhookUUID: "uuid1", webhook: "testhook", project: "proj1", data: new ByteArrayInputStream("x".bytes))
+        }
+
+        when:
+        service.processWebhook("test-webhook-event","{}",newData(),mockUserAuth,request)
+        service.processWebhook("test-webhook-event","{}",newData(),mockUserAuth,request)
+
+        then:
+        1 * service.pluginService.configurePlugin("test-webhook-event", _, _,_) >> { new ConfiguredPlugin<WebhookEventPlugin>(new ReusableTestWebhookEventPlugin(), [:] ) }
+
+        when:
+        service.processWebhook("test-webhook-event",'{"a":"b"}',newData(),mockUserAuth,request)
+        service.invalidateHookPlugin("uuid1")
+        service.processWebhook("test-webhook-event",'{"a":"b"}',newData(),mockUserAuth,request)
+
+        then:
+        2 * service.pluginService.configurePlugin("test-webhook-event", _, _,_) >> { new ConfiguredPlugin<WebhookEventPlugin>(new ReusableTestWebhookEventPlugin(), [:] ) }
+    }
+
     class TestWebhookEventPlugin implements WebhookEventPlugin {
         WebhookData captured
 
@@ -119,6 +186,37 @@ class WebhookServiceSpec extends Specification implements ServiceUnitTest<Webhoo
         }
     }
 
+    class ReusableTestWebhookEventPlugin implements WebhookEventPlugin {
+        @Override
+        boolean isReusable() {
+            true
+        }
+
+        @Override
+        WebhookResponder onEvent(final WebhookEventContext context, final WebhookData data) throws WebhookEventException {
+            return null
+        }
+    }
+
+    def "accept webhook rejects a body larger than the maximum size"() {
+        given:
+        def mockUserAuth = Mock(UserAndRolesAuthContext) {
+            getUsername() >> { "webhookUser" }
+        }
+        service.configurationService = new Expando(
+                getLong: { key, defval -> key == 'webhooks.async.maxBodySize' ? 4L : defval }
+        )
+        service.pluginService = Mock(MockPluginService)
+        def data = new WebhookDataImpl(webhookUUID: "uuid1", webhook: "testhook", project: "proj1", data: new ByteArrayInputStream("12345".bytes))
+
+        when:
+        service.acceptWebhook("test-webhook-event", "{}", data, mockUserAuth, Mock(HttpServletRequest))
+
+        then:
+        thrown(WebhookService.BodyTooLargeException)
+        0 * service.pluginService.configurePlugin(*_)
+    }
+
     def "save new webhook"() {
         given:
         def mockUserAuth = Mock(UserAndRolesAuthContext) {
@@ -389,6 +487,57 @@ class WebhookServiceSpec extends Specification implements ServiceUnitTest<Webhoo
 
     }
 
+    def "ReplaceSecureOpts caches key store values when configured"() {
+        given:
+        def mockUserAuth = Mock(UserAndRolesAuthContext) {
+            getUsername() >> { "webhookUser" }
+            getRoles() >> { ["webhook","test"] }
+        }
+        service.configurationService = new Expando(
+                getLong: { key, defval -> key == 'webhooks.secureValueCacheSeconds' ? 30L : defval }
+        )
+        def mockStorageTree = Mock(MockStorageTree)
+        service.storageService = Mock(MockStorageService) {
+            storageTreeWithContext(_) >> { mockStorageTree }
+        }
+        def config1 = [prop1: '${KS:keys/proj1/sval}']
+        def config2 = [prop1: '${KS:keys/proj1/sval}']
+
+        when:
+        service.replaceSecureOpts(mockUserAuth,config1)
+        service.replaceSecureOpts(mockUserAuth,config2)
+
+        then:
+        1 * mockStorageTree.hasPassword("keys/proj1/sval") >> true
+        1 * mockStorageTree.readPassword("keys/proj1/sval") >> "password".bytes
+        config1.prop1 == "password"
+        config2.prop1 == "password"
+    }
+
+    def "ReplaceSecureOpts reads key store values each time by default"() {
+        given:
+        def mockUserAuth = Mock(UserAndRolesAuthContext) {
+            getUsername() >> { "webhookUser" }
+            getRoles() >> { ["webhook","test"] }
+        }
+        def mockStorageTree = Mock(MockStorageTree)
+        service.storageService = Mock(MockStorageService) {
+            storageTreeWithContext(_) >> { mockStorageTree }
+        }
+        def config1 = [prop1: '${KS:keys/proj1/sval}']
+        def config2 = [prop1: '${KS:keys/proj1/sval}']
+
+        when:
+        service.replaceSecureOpts(mockUserAuth,config1)
+        service.replaceSecureOpts(mockUserAuth,config2)
+
+        then:
+        2 * mockStorageTree.hasPassword("keys/proj1/sval") >> true
+        2 * mockStorageTree.readPassword("keys/proj1/sval") >> "password".bytes
+        config1.prop1 == "password"
+        config2.prop1 == "password"
+    }
+
     @Unroll
     def "import webhooks regenAuthToken: #regenFlag"() {
         given:
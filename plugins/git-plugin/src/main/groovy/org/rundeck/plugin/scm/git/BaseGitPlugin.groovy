@@ -145,7 +145,11 @@ class BaseGitPlugin {
         }
     }
 
-    def serialize(
+    /**
+     * Serialize the job to its file, if the job version is newer than the version previously serialized
+     * @return true if the file content was changed
+     */
+    boolean serialize(
             final JobExportReference job,
             String format,
             boolean preserveId,
@@ -158,6 +162,7 @@ class BaseGitPlugin {
         }
         AtomicLong counter = fileCounterFor(outfile)
         logger.debug("Start serialize[${Thread.currentThread().name}]...")
+        boolean changed = false
 
         synchronized (counter) {
             //other threads serializing the same job must wait until we complete
@@ -209,7 +214,14 @@ class BaseGitPlugin {
                     }
                     logger.debug("Serialized[${Thread.currentThread().name}] ${job} ${format} to ${outfile}")
 
-                    Files.move(temp.toPath(), outfile.toPath(), StandardCopyOption.REPLACE_EXISTING)
+                    if (outfile.exists() && outfile.length() == temp.length() &&
+                        Arrays.equals(outfile.bytes, temp.bytes)) {
+                        //leave the file untouched, so its git status does not need to be checked again
+                        logger.debug("Unchanged content for ${job} in ${outfile}")
+                    } else {
+                        Files.move(temp.toPath(), outfile.toPath(), StandardCopyOption.REPLACE_EXISTING)
+                        changed = true
+                    }
                 }finally{
                     if(temp.exists()){
                         temp.delete()
@@ -221,6 +233,7 @@ class BaseGitPlugin {
             }
         }
         logger.debug("Done serialize[${Thread.currentThread().name}]...")
+        changed
     }
 
     def serializeTemp(final JobExportReference job, String format, boolean preserveId, boolean useSourceId) {
@@ -59,6 +59,7 @@ class GitExportPlugin extends BaseGitPlugin implements ScmExportPlugin {
     String committerEmail;
     Map<String, GitExportAction> actions = [:]
     Export config
+    private GitExportStatusSnapshot lastStatusSnapshot
 
     GitExportPlugin(Export config) {
         super(config)
@@ -143,12 +144,14 @@ class GitExportPlugin extends BaseGitPlugin implements ScmExportPlugin {
 
     @Override
     void cleanup() {
+        lastStatusSnapshot = null
         git?.close()
         git?.getRepository()?.close()
     }
 
     @Override
     void totalClean(){
+        lastStatusSnapshot = null
         git?.getRepository()?.close()
         File base = new File(config.dir)
         try {
@@ -184,7 +187,7 @@ class GitExportPlugin extends BaseGitPlugin implements ScmExportPlugin {
 
     @Override
     List<String> getDeletedFiles() {
-        Status status = git.status().call()
+        def status = getStatusSnapshot().pathStatus
         def set = new HashSet<String>(status.removed)
         set.addAll(status.missing)
         return set as List
@@ -308,6 +311,7 @@ class GitExportPlugin extends BaseGitPlugin implements ScmExportPlugin {
         switch (event.eventType) {
             case JobChangeEvent.JobChangeEventType.DELETE:
                 origfile.delete()
+                updateStatusSnapshot(relativePath(event.originalJobReference))
                 def status = refreshJobStatus(exportReference, origPath, false)
                 jobStateMap.remove(exportReference.id)
                 resetFileCounterFor(outfile)
@@ -328,16 +332,42 @@ class GitExportPlugin extends BaseGitPlugin implements ScmExportPlugin {
                     getLogger().warn("Could not serialize job: ${t}", t)
                 }
         }
+        updateStatusSnapshot(relativePath(event.originalJobReference), relativePath(exportReference))
         def status = refreshJobStatus(exportReference, origPath, false)
         return createJobStatus(status, jobActionsForStatus(status))
     }
 
+    /**
+     * @return status of the repository, created again if the HEAD commit or the index has changed
+     */
+    synchronized GitExportStatusSnapshot getStatusSnapshot() {
+        if (!lastStatusSnapshot || !lastStatusSnapshot.isCurrent()) {
+            lastStatusSnapshot = GitExportStatusSnapshot.create(git, lastStatusSnapshot)
+        }
+        lastStatusSnapshot
+    }
+
+    /**
+     * Update the status snapshot for paths written or removed by the plugin
+     * @param paths relative paths
+     */
+    void updateStatusSnapshot(String... paths) {
+        def update = paths.findAll { it }.unique()
+        if (!update) {
+            return
+        }
+        def snapshot = getStatusSnapshot()
+        synchronized (snapshot) {
+            def statusb = git.status()
+            update.each { statusb.addPath(it) }
+            snapshot.update(update, statusb.call())
+        }
+    }
+
     private hasJobStatusCached(final JobExportReference job, final String originalPath) {
         def path = relativePath(job)
 
-        def commit = lastCommitForPath(path)
-
-        String ident = createStatusCacheIdent(job, commit)
+        String ident = createStatusCacheIdent(job, getStatusSnapshot().revisionOf(path, originalPath))
 
         if (jobStateMap[job.id] && jobStateMap[job.id].ident == ident) {
             log.debug("hasJobStatusCached(${ident}): FOUND for path $path")
@@ -348,13 +378,15 @@ class GitExportPlugin extends BaseGitPlugin implements ScmExportPlugin {
         null
     }
 
-    private String createStatusCacheIdent(JobRevReference job, RevCommit commit) {
+    /**
+     * @param job job
+     * @param statusRevision revision of the status of the job's paths in the status snapshot
+     */
+    private String createStatusCacheIdent(JobRevReference job, String statusRevision) {
         def ident = job.id + ':' +
                 String.valueOf(job.version) +
                 ':' +
-                (commit ? commit.name : '') +
-                ":" +
-                (getLocalFileForJob(job)?.exists())
+                statusRevision
         ident
     }
 
@@ -365,7 +397,7 @@ class GitExportPlugin extends BaseGitPlugin implements ScmExportPlugin {
         jobStateMap.remove(job.id)
 
         def jobstat = Collections.synchronizedMap([:])
-        def commit = lastCommitForPath(path)
+        def commit = getStatusSnapshot().lastCommitForPath(path)
 
 
         //check if local commit has changed from the stored status
@@ -377,21 +409,20 @@ class GitExportPlugin extends BaseGitPlugin implements ScmExportPlugin {
         }
 
         if (job instanceof JobExportReference && doSerialize) {
-            serialize(job, format, config.exportPreserve, config.exportOriginal)
+            if (serialize(job, format, config.exportPreserve, config.exportOriginal)) {
+                updateStatusSnapshot(path)
+            }
         }
 
-        def statusb = git.status().addPath(path)
-        if (originalPath) {
-            statusb.addPath(originalPath)
-        }
-        Status status = statusb.call()
-//        log.debug(debugStatus(status))
+        def snapshot = getStatusSnapshot()
+        String statusRevision = snapshot.revisionOf(path, originalPath)
+        def status = snapshot.pathStatus
         SynchState synchState = synchStateForStatus(status, commit, path)
         def scmState = scmStateForStatus(status, commit, path)
         log.debug("for new path: commit ${commit}, synch: ${synchState}, scm: ${scmState}")
 
         if (originalPath) {
-            def origCommit = lastCommitForPath(originalPath)
+            def origCommit = snapshot.lastCommitForPath(originalPath)
             SynchState osynchState = synchStateForStatus(status, origCommit, originalPath)
             def oscmState = scmStateForStatus(status, origCommit, originalPath)
             log.debug("for original path: commit ${origCommit}, synch: ${osynchState}, scm: ${oscmState}")
@@ -403,8 +434,7 @@ class GitExportPlugin extends BaseGitPlugin implements ScmExportPlugin {
             }
         }
 
-        def ident = createStatusCacheIdent(job, commit)
-//job.id + ':' + String.valueOf(job.version) + ':' + (commit ? commit.name : '')
+        def ident = createStatusCacheIdent(job, statusRevision)
 
         jobstat['ident'] = ident
         jobstat['id'] = job.id
@@ -424,7 +454,10 @@ class GitExportPlugin extends BaseGitPlugin implements ScmExportPlugin {
     }
 
 
-    private SynchState synchStateForStatus(Status status, RevCommit commit, String path) {
+    /**
+     * @param status git {@link Status} or {@link GitExportStatusSnapshot.PathStatus}
+     */
+    private SynchState synchStateForStatus(status, RevCommit commit, String path) {
         if (path && status.untracked.contains(path) || !path && status.untracked) {
             SynchState.CREATE_NEEDED
         } else if (path && status.uncommittedChanges.contains(path) || !path && status.uncommittedChanges) {
@@ -436,7 +469,10 @@ class GitExportPlugin extends BaseGitPlugin implements ScmExportPlugin {
         }
     }
 
-    def scmStateForStatus(Status status, RevCommit commit, String path) {
+    /**
+     * @param status git {@link Status} or {@link GitExportStatusSnapshot.PathStatus}
+     */
+    def scmStateForStatus(status, RevCommit commit, String path) {
         if (!commit) {
             new File(workingDir, path).exists() ? 'NEW' : 'NOT_FOUND'
         } else if (path in status.added || path in status.untracked) {
@@ -471,7 +507,7 @@ class GitExportPlugin extends BaseGitPlugin implements ScmExportPlugin {
 
         //check if local commit has changed from the stored status
         if(status && status['synch'] == SynchState.CLEAN){
-            def commit = lastCommitForPath(originalPath)
+            def commit = getStatusSnapshot().lastCommitForPath(originalPath)
             def storedCommitId = ((JobScmReference)job).scmImportMetadata?.commitId
             if(storedCommitId != null && commit == null){
                 //force refresh cache
@@ -499,7 +535,7 @@ class GitExportPlugin extends BaseGitPlugin implements ScmExportPlugin {
         def status = hasJobStatusCached(job, originalPath)
         //check if local commit has changed from the stored status
         if(status && status['synch'] == SynchState.CLEAN){
-            def commit = lastCommitForPath(originalPath)
+            def commit = getStatusSnapshot().lastCommitForPath(originalPath)
             def storedCommitId = ((JobScmReference)job).scmImportMetadata?.commitId
             if(storedCommitId != null && commit == null){
                 //force refresh cache
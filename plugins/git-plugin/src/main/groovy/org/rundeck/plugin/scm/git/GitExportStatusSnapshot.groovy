@@ -0,0 +1,356 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.plugin.scm.git
+
+import org.eclipse.jgit.api.Git
+import org.eclipse.jgit.api.Status
+import org.eclipse.jgit.internal.storage.file.FileSnapshot
+import org.eclipse.jgit.lib.Constants
+import org.eclipse.jgit.lib.ObjectId
+import org.eclipse.jgit.lib.Repository
+import org.eclipse.jgit.revwalk.RevCommit
+import org.eclipse.jgit.revwalk.RevWalk
+import org.eclipse.jgit.treewalk.TreeWalk
+import org.eclipse.jgit.treewalk.filter.TreeFilter
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Status of all paths in the export repository, computed with a single git status, so that the status of a job can
+ * be looked up without running git commands. Paths written by the plugin are updated incrementally with {@link
+ * #update(java.util.Collection, org.eclipse.jgit.api.Status)}, and a new snapshot is needed when the HEAD commit or
+ * the index changes, see {@link #isCurrent()}. The status of the paths is replaced as a whole, use {@link
+ * #getPathStatus()} to read several statuses of a path consistently.
+ */
+class GitExportStatusSnapshot {
+    static final Logger log = LoggerFactory.getLogger(GitExportStatusSnapshot)
+
+    final Git git
+    final ObjectId head
+    /**
+     * Index file when created, or null for a bare repository
+     */
+    final FileSnapshot index
+    /**
+     * Revision when created, one more than the revision of the previous snapshot
+     */
+    final long baseRevision
+
+    private volatile PathStatus pathStatus
+
+    /**
+     * Last commit of each path which was looked up, the null key is the last commit of the branch
+     */
+    private final Map<String, RevCommit> commits = Collections.synchronizedMap(new HashMap<String, RevCommit>())
+    /**
+     * Update number when each path was last updated
+     */
+    private final Map<String, Long> pathUpdates = new ConcurrentHashMap<>()
+    private long updates
+
+    private GitExportStatusSnapshot(Git git, ObjectId head, FileSnapshot index, long baseRevision) {
+        this.git = git
+        this.head = head
+        this.index = index
+        this.baseRevision = baseRevision
+    }
+
+    /**
+     * Compute the status of the repository. The last commits of paths from the previous snapshot are kept unless the
+     * paths were changed between the previous and current HEAD commit.
+     * @param git git
+     * @param previous previous snapshot, or null
+     * @return new snapshot
+     */
+    static GitExportStatusSnapshot create(Git git, GitExportStatusSnapshot previous = null) {
+        def repo = git.repository
+        //snapshot the index before the status, so that a concurrent change is seen by isCurrent
+        def snapshot = new GitExportStatusSnapshot(
+                git,
+                repo.resolve(Constants.HEAD),
+                repo.isBare() ? null : FileSnapshot.save(repo.indexFile),
+                previous ? previous.baseRevision + 1 : 0
+        )
+        if (previous && previous.head && snapshot.head) {
+            snapshot.copyCommits(previous)
+        }
+        snapshot.pathStatus = new PathStatus(git.status().call())
+        snapshot
+    }
+
+    private void copyCommits(GitExportStatusSnapshot previous) {
+        Set<String> changedPaths
+        try {
+            changedPaths = previous.head == head ? [] as Set : listChangedPaths(git.repository, previous.head, head)
+        } catch (IOException e) {
+            log.debug("Could not compare ${previous.head.name} to ${head.name}: ${e.message}", e)
+            return
+        }
+        if (null == changedPaths) {
+            return
+        }
+        synchronized (previous.commits) {
+            commits.putAll(previous.commits)
+        }
+        if (previous.head != head) {
+            commits.remove(null)
+            changedPaths.each { commits.remove(it) }
+        }
+    }
+
+    /**
+     * @return paths changed from the old commit to the new commit, or null if the new commit does not descend from the
+     * old commit
+     */
+    private static Set<String> listChangedPaths(Repository repo, ObjectId oldId, ObjectId newId) {
+        def walk = new RevWalk(repo)
+        try {
+            def oldCommit = walk.parseCommit(oldId)
+            def newCommit = walk.parseCommit(newId)
+            if (!walk.isMergedInto(oldCommit, newCommit)) {
+                return null
+            }
+            def paths = new HashSet<String>()
+            def treeWalk = new TreeWalk(repo)
+            try {
+                treeWalk.addTree(oldCommit.tree)
+                treeWalk.addTree(newCommit.tree)
+                treeWalk.recursive = true
+                treeWalk.filter = TreeFilter.ANY_DIFF
+                while (treeWalk.next()) {
+                    paths << treeWalk.pathString
+                }
+            } finally {
+                treeWalk.close()
+            }
+            return paths
+        } finally {
+            walk.close()
+        }
+    }
+
+    /**
+     * @return true if the HEAD commit and the index have not changed since the snapshot was created. An index modified
+     * within the file system timestamp resolution of the snapshot counts as changed
+     */
+    boolean isCurrent() {
+        def repo = git.repository
+        repo.resolve(Constants.HEAD) == head && (null == index || !index.isModified(repo.indexFile))
+    }
+
+    /**
+     * @param paths paths, null values are ignored
+     * @return revision of the status of the paths, which changes when one of the paths is updated or a new snapshot is
+     * created
+     */
+    String revisionOf(String... paths) {
+        def revision = new StringBuilder(String.valueOf(baseRevision))
+        paths.each { path ->
+            if (null != path) {
+                revision.append('.').append(pathUpdates.getOrDefault(path, 0L))
+            }
+        }
+        revision.toString()
+    }
+
+    /**
+     * Replace the status of some paths
+     * @param paths paths to replace
+     * @param status git status for the paths
+     */
+    synchronized void update(Collection<String> paths, Status status) {
+        pathStatus = pathStatus.replace(paths, status)
+        updates++
+        paths.each { pathUpdates.put(it, updates) }
+    }
+
+    /**
+     * @return current status of the paths
+     */
+    PathStatus getPathStatus() {
+        pathStatus
+    }
+
+    Set<String> getAdded() {
+        pathStatus.added
+    }
+
+    Set<String> getChanged() {
+        pathStatus.changed
+    }
+
+    Set<String> getModified() {
+        pathStatus.modified
+    }
+
+    Set<String> getRemoved() {
+        pathStatus.removed
+    }
+
+    Set<String> getMissing() {
+        pathStatus.missing
+    }
+
+    Set<String> getUntracked() {
+        pathStatus.untracked
+    }
+
+    Set<String> getConflicting() {
+        pathStatus.conflicting
+    }
+
+    /**
+     * @return all paths with uncommitted changes, as in {@link Status#getUncommittedChanges()}
+     */
+    Set<String> getUncommittedChanges() {
+        pathStatus.uncommittedChanges
+    }
+
+    boolean isClean() {
+        pathStatus.clean
+    }
+
+    /**
+     * @param path path, or null for the last commit of the branch
+     * @return last commit for the path, or null
+     */
+    RevCommit lastCommitForPath(String path) {
+        synchronized (commits) {
+            if (commits.containsKey(path)) {
+                return commits.get(path)
+            }
+        }
+        def commit = GitUtil.lastCommitForPath(git.repository, git, path)
+        commits.put(path, commit)
+        commit
+    }
+
+    /**
+     * Unmodifiable status of the paths in the repository
+     */
+    static class PathStatus {
+        final Set<String> added
+        final Set<String> changed
+        final Set<String> modified
+        final Set<String> removed
+        final Set<String> missing
+        final Set<String> untracked
+        final Set<String> conflicting
+
+        PathStatus(Status status) {
+            this(
+                    status.added,
+                    status.changed,
+                    status.modified,
+                    status.removed,
+                    status.missing,
+                    status.untracked,
+                    status.conflicting
+            )
+        }
+
+        private PathStatus(
+                Set<String> added,
+                Set<String> changed,
+                Set<String> modified,
+                Set<String> removed,
+                Set<String> missing,
+                Set<String> untracked,
+                Set<String> conflicting
+        ) {
+            this.added = Collections.unmodifiableSet(new HashSet<>(added))
+            this.changed = Collections.unmodifiableSet(new HashSet<>(changed))
+            this.modified = Collections.unmodifiableSet(new HashSet<>(modified))
+            this.removed = Collections.unmodifiableSet(new HashSet<>(removed))
+            this.missing = Collections.unmodifiableSet(new HashSet<>(missing))
+            this.untracked = Collections.unmodifiableSet(new HashSet<>(untracked))
+            this.conflicting = Collections.unmodifiableSet(new HashSet<>(conflicting))
+        }
+
+        /**
+         * @param paths paths to replace
+         * @param status git status for the paths
+         * @return new status with the status of the paths replaced
+         */
+        PathStatus replace(Collection<String> paths, Status status) {
+            new PathStatus(
+                    replacePaths(added, paths, status.added),
+                    replacePaths(changed, paths, status.changed),
+                    replacePaths(modified, paths, status.modified),
+                    replacePaths(removed, paths, status.removed),
+                    replacePaths(missing, paths, status.missing),
+                    replacePaths(untracked, paths, status.untracked),
+                    replacePaths(conflicting, paths, status.conflicting)
+            )
+        }
+
+        private static Set<String> replacePaths(Set<String> current, Collection<String> paths, Set<String> updated) {
+            def result = new HashSet<String>(current)
+            result.removeAll(paths)
+            result.addAll(updated)
+            result
+        }
+
+        /**
+         * @return all paths with uncommitted changes, as in {@link Status#getUncommittedChanges()}
+         */
+        Set<String> getUncommittedChanges() {
+            new UnionSet([added, changed, removed, missing, modified, conflicting])
+        }
+
+        boolean isClean() {
+            getUncommittedChanges().isEmpty() && untracked.isEmpty()
+        }
+    }
+
+    /**
+     * Read only view of several sets
+     */
+    static class UnionSet extends AbstractSet<String> {
+        final List<Set<String>> sets
+
+        UnionSet(final List<Set<String>> sets) {
+            this.sets = sets
+        }
+
+        @Override
+        boolean contains(final Object o) {
+            sets.any { it.contains(o) }
+        }
+
+        @Override
+        boolean isEmpty() {
+            sets.every { it.isEmpty() }
+        }
+
+        @Override
+        Iterator<String> iterator() {
+            def all = new LinkedHashSet<String>()
+            sets.each { all.addAll(it) }
+            Collections.unmodifiableSet(all).iterator()
+        }
+
+        @Override
+        int size() {
+            def all = new HashSet<String>()
+            sets.each { all.addAll(it) }
+            all.size()
+        }
+    }
+}
@@ -233,6 +233,40 @@ class BaseGitPluginSpec extends Specification {
         'yaml' | _
     }
 
+    def "serialize job with unchanged content leaves the file"() {
+        given:
+        Common config = new Common()
+        def base = new BaseGitPlugin(config)
+        base.mapper = Mock(JobFileMapper)
+        def job = Mock(JobExportReference) {
+            getVersion() >> 2L
+        }
+        def outfile = File.createTempFile("BaseGitPluginSpec", "serialize-job.temp")
+        outfile.deleteOnExit()
+        outfile.text = existing
+        outfile.setLastModified(1000L)
+
+        when:
+        def result = base.serialize(job, 'xml', true, false)
+
+        then:
+        1 * base.mapper.fileForJob(_) >> outfile
+        1 * job.getJobSerializer() >> Mock(JobSerializer) {
+            1 * serialize('xml', !null, _, _) >> { args ->
+                args[1].write('data'.bytes)
+            }
+        }
+        result == changed
+        outfile.text == 'data'
+        (outfile.lastModified() == 1000L) == !changed
+
+        where:
+        existing | changed
+        'data'   | false
+        'data2'  | true
+        'dat'    | true
+    }
+
     def "serialize job: cannot create parent dir"() {
         given:
         Common config = new Common()
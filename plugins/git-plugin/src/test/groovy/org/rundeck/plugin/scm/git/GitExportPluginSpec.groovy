@@ -1139,6 +1139,84 @@ class GitExportPluginSpec extends Specification {
         JobChangeEvent.JobChangeEventType.MODIFY | _
     }
 
+    def "job status is read from the status snapshot updated by job changes"() {
+        given:
+
+        def gitdir = new File(tempdir, 'scm')
+        def origindir = new File(tempdir, 'origin')
+        Export config = createTestConfig(gitdir, origindir)
+
+        //create a git dir
+        def git = createGit(origindir)
+        git.close()
+
+        def plugin = new GitExportPlugin(config)
+        plugin.initialize(Mock(ScmOperationContext))
+        def commit = addCommitFile(gitdir, plugin.git, 'blah-xyz.xml', 'blah')
+        //keep the status snapshot current, the index is not racily clean
+        GitExportStatusSnapshotSpec.ageIndex(plugin.git)
+
+        def serializer = Mock(JobSerializer)
+        def jobref = Stub(JobScmReference) {
+            getJobName() >> 'blah'
+            getGroupPath() >> ''
+            getId() >> 'xyz'
+            getVersion() >> 1
+            getJobSerializer() >> serializer
+        }
+        def jobref2 = Stub(JobScmReference) {
+            getJobName() >> 'blah'
+            getGroupPath() >> ''
+            getId() >> 'xyz'
+            getVersion() >> 2
+            getJobSerializer() >> serializer
+        }
+        JobChangeEvent event = Mock(JobChangeEvent) {
+            getOriginalJobReference() >> jobref
+            getJobReference() >> jobref2
+            getEventType() >> JobChangeEvent.JobChangeEventType.MODIFY
+        }
+
+        when:
+        def status1 = plugin.getJobStatus(jobref)
+        def revision1 = plugin.statusSnapshot.revisionOf('blah-xyz.xml')
+        def otherRevision = plugin.statusSnapshot.revisionOf('other-abc.xml')
+        def status2 = plugin.getJobStatus(jobref)
+
+        then:
+        1 * serializer.serialize('xml', _, _, _) >> { args ->
+            args[1].write('blah'.bytes)
+        }
+        status1.synchState == SynchState.CLEAN
+        status1.commit.asMap().commitId == commit.name
+        status2.synchState == SynchState.CLEAN
+        plugin.statusSnapshot.revisionOf('blah-xyz.xml') == revision1
+
+        when:
+        def changed = plugin.jobChanged(event, jobref2)
+        def status3 = plugin.getJobStatus(jobref2)
+
+        then:
+        1 * serializer.serialize('xml', _, _, _) >> { args ->
+            args[1].write('newcontent'.bytes)
+        }
+        changed.synchState == SynchState.EXPORT_NEEDED
+        status3.synchState == SynchState.EXPORT_NEEDED
+        plugin.statusSnapshot.modified == ['blah-xyz.xml'] as Set
+        plugin.statusSnapshot.revisionOf('blah-xyz.xml') != revision1
+        plugin.statusSnapshot.revisionOf('other-abc.xml') == otherRevision
+        plugin.deletedFiles == []
+
+        when:
+        def commit2 = addCommitFile(gitdir, plugin.git, 'blah-xyz.xml', 'newcontent')
+        def status4 = plugin.getJobStatus(jobref2)
+
+        then:
+        0 * serializer.serialize(*_)
+        status4.synchState == SynchState.CLEAN
+        status4.commit.asMap().commitId == commit2.name
+    }
+
     def "job change serializer fails does not overwrite file"() {
         given:
 
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.plugin.scm.git
+
+import org.eclipse.jgit.api.Git
+import org.eclipse.jgit.api.ResetCommand
+import org.eclipse.jgit.lib.PersonIdent
+import org.eclipse.jgit.revwalk.RevCommit
+import org.eclipse.jgit.util.FileUtils
+import org.eclipse.jgit.util.SystemReader
+import spock.lang.Specification
+
+class GitExportStatusSnapshotSpec extends Specification {
+
+    File tempdir
+    Git git
+
+    def setup() {
+        tempdir = File.createTempFile("GitExportStatusSnapshotSpec", "-test")
+        tempdir.delete()
+        SystemReader.setInstance(new TestSystemReader())
+        git = Git.init().setDirectory(tempdir).call()
+    }
+
+    def cleanup() {
+        git?.close()
+        if (tempdir.exists()) {
+            FileUtils.delete(tempdir, FileUtils.RECURSIVE | FileUtils.IGNORE_ERRORS)
+        }
+    }
+
+    void write(String path, String content) {
+        def file = new File(tempdir, path)
+        file.parentFile.mkdirs()
+        file.text = content
+    }
+
+    RevCommit commit(String... paths) {
+        paths.each { git.add().addFilepattern(it).call() }
+        git.commit().setMessage('test commit').setCommitter(new PersonIdent('test user1', 'test@example.com')).call()
+    }
+
+    /**
+     * Move the modification time of the index before the file system timestamp resolution, so that it is not racily
+     * clean
+     */
+    static void ageIndex(Git git) {
+        git.repository.indexFile.setLastModified(System.currentTimeMillis() - 10000)
+    }
+
+    def "status of an empty repository"() {
+        when:
+        def snapshot = GitExportStatusSnapshot.create(git)
+
+        then:
+        snapshot.head == null
+        snapshot.current
+        snapshot.clean
+        snapshot.baseRevision == 0
+        snapshot.lastCommitForPath('a/one.xml') == null
+    }
+
+    def "snapshot is not current after a commit"() {
+        given:
+        def snapshot = GitExportStatusSnapshot.create(git)
+        write('a/one.xml', 'one')
+
+        when:
+        def commit = commit('a/one.xml')
+        ageIndex(git)
+
+        then:
+        !snapshot.current
+        with(GitExportStatusSnapshot.create(git, snapshot)) {
+            current
+            clean
+            baseRevision == 1
+            revisionOf('a/one.xml') != snapshot.revisionOf('a/one.xml')
+            lastCommitForPath('a/one.xml') == commit
+            lastCommitForPath(null) == commit
+        }
+    }
+
+    def "update paths changed in the working directory"() {
+        given:
+        write('a/one.xml', 'one')
+        write('a/two.xml', 'two')
+        commit('a/one.xml', 'a/two.xml')
+        ageIndex(git)
+        def snapshot = GitExportStatusSnapshot.create(git)
+        def pathStatus = snapshot.pathStatus
+        def revision1 = snapshot.revisionOf('a/one.xml')
+        def revision4 = snapshot.revisionOf('a/four.xml')
+
+        when:
+        write('a/one.xml', 'changed')
+        write('a/three.xml', 'three')
+        new File(tempdir, 'a/two.xml').delete()
+        def paths = ['a/one.xml', 'a/two.xml', 'a/three.xml']
+        def status = git.status()
+        paths.each { status.addPath(it) }
+        snapshot.update(paths, status.call())
+
+        then:
+        snapshot.current
+        snapshot.revisionOf('a/one.xml') != revision1
+        snapshot.revisionOf('a/four.xml') == revision4
+        snapshot.revisionOf('a/four.xml', 'a/one.xml') != snapshot.revisionOf('a/four.xml')
+        snapshot.modified == ['a/one.xml'] as Set
+        snapshot.missing == ['a/two.xml'] as Set
+        snapshot.untracked == ['a/three.xml'] as Set
+        snapshot.uncommittedChanges == ['a/one.xml', 'a/two.xml'] as Set
+        'a/one.xml' in snapshot.uncommittedChanges
+        !('a/three.xml' in snapshot.uncommittedChanges)
+        !snapshot.clean
+        !snapshot.pathStatus.is(pathStatus)
+        pathStatus.clean
+    }
+
+    def "snapshot is not current after the index changes within the timestamp resolution"() {
+        given:
+        write('a/one.xml', 'one')
+        commit('a/one.xml')
+        def index = git.repository.indexFile
+        long modified = System.currentTimeMillis()
+        index.setLastModified(modified)
+        def snapshot = GitExportStatusSnapshot.create(git)
+
+        when:
+        write('a/one.xml', 'two')
+        git.add().addFilepattern('a/one.xml').call()
+        index.setLastModified(modified)
+
+        then:
+        !snapshot.current
+        GitExportStatusSnapshot.create(git, snapshot).changed == ['a/one.xml'] as Set
+    }
+
+    def "last commits of unchanged paths are kept after a commit"() {
+        given:
+        write('a/one.xml', 'one')
+        write('a/two.xml', 'two')
+        def commit1 = commit('a/one.xml', 'a/two.xml')
+        def snapshot = GitExportStatusSnapshot.create(git)
+        snapshot.lastCommitForPath('a/one.xml')
+        def lastCommit = snapshot.lastCommitForPath('a/two.xml')
+
+        when:
+        write('a/one.xml', 'changed')
+        def commit2 = commit('a/one.xml')
+        def snapshot2 = GitExportStatusSnapshot.create(git, snapshot)
+
+        then:
+        snapshot2.baseRevision == 1
+        snapshot2.lastCommitForPath('a/two.xml').is(lastCommit)
+        snapshot2.lastCommitForPath('a/one.xml') == commit2
+        snapshot2.lastCommitForPath(null) == commit2
+
+        when:
+        git.reset().setMode(ResetCommand.ResetType.HARD).setRef(commit1.name).call()
+        def snapshot3 = GitExportStatusSnapshot.create(git, snapshot2)
+
+        then:
+        snapshot3.lastCommitForPath('a/one.xml') == commit1
+        !snapshot3.lastCommitForPath('a/two.xml').is(lastCommit)
+        snapshot3.lastCommitForPath('a/two.xml') == commit1
+    }
+}
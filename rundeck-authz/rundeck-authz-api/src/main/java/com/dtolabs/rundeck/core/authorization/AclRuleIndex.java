@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.authorization;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Index of the rules in an {@link AclRuleSet} by the subject they apply to. Rules are indexed by exact username, group
+ * and urn, rules using a regular expression for username or group are kept in a fallback list, and "notBy" rules are
+ * always checked. The narrowed rule list for each subject and environment is memoized, keeping the most recently used
+ * {@value #MAX_MEMOIZED} entries.
+ * <p>
+ * The result of {@link #narrow(AclSubject, Set)} is the same as {@link RuleEvaluator#narrowContext(AclRuleSet,
+ * AclSubject, Set)}, including rule order.
+ */
+public class AclRuleIndex {
+    static final int MAX_MEMOIZED = 10000;
+    private static final Pattern REGEX_META = Pattern.compile("[\\\\^$.|?*+()\\[\\]{}]");
+
+    private final AclRuleSet ruleSet;
+    private final Map<AclRule, Integer> order = new IdentityHashMap<>();
+    private final Map<String, List<AclRule>> byUsername = new HashMap<>();
+    private final Map<String, List<AclRule>> byGroup = new HashMap<>();
+    private final Map<String, List<AclRule>> byUrn = new HashMap<>();
+    private final List<AclRule> regexRules = new ArrayList<>();
+    private final List<AclRule> notByRules = new ArrayList<>();
+    private final Cache<SubjectKey, List<AclRule>> narrowed =
+            CacheBuilder.newBuilder().maximumSize(MAX_MEMOIZED).build();
+
+    public AclRuleIndex(final AclRuleSet ruleSet) {
+        this.ruleSet = ruleSet;
+        int i = 0;
+        for (AclRule rule : ruleSet.getRules()) {
+            order.put(rule, i++);
+            if (!rule.isBy()) {
+                notByRules.add(rule);
+                continue;
+            }
+            boolean regex = false;
+            if (null != rule.getUsername()) {
+                if (isLiteral(rule.getUsername())) {
+                    add(byUsername, rule.getUsername(), rule);
+                } else {
+                    regex = true;
+                }
+            }
+            if (null != rule.getGroup()) {
+                if (isLiteral(rule.getGroup())) {
+                    add(byGroup, rule.getGroup(), rule);
+                } else {
+                    regex = true;
+                }
+            }
+            if (null != rule.getUrn()) {
+                add(byUrn, rule.getUrn(), rule);
+            }
+            if (regex) {
+                regexRules.add(rule);
+            }
+        }
+    }
+
+    /**
+     * @return true if the string matches only itself when used as a regular expression
+     */
+    static boolean isLiteral(final String value) {
+        return !REGEX_META.matcher(value).find();
+    }
+
+    private static void add(final Map<String, List<AclRule>> map, final String key, final AclRule rule) {
+        map.computeIfAbsent(key, k -> new ArrayList<>()).add(rule);
+    }
+
+    /**
+     * @return the rule set that was indexed
+     */
+    public AclRuleSet getRuleSet() {
+        return ruleSet;
+    }
+
+    /**
+     * @param subject     subject
+     * @param environment environment
+     *
+     * @return rules which apply to the subject and environment, in rule set order
+     */
+    public List<AclRule> narrow(final AclSubject subject, final Set<Attribute> environment) {
+        SubjectKey key = new SubjectKey(subject, environment);
+        List<AclRule> result = narrowed.getIfPresent(key);
+        if (null == result) {
+            result = Collections.unmodifiableList(computeNarrowed(subject, environment));
+            narrowed.put(key, result);
+        }
+        return result;
+    }
+
+    private List<AclRule> computeNarrowed(final AclSubject subject, final Set<Attribute> environment) {
+        Set<AclRule> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+        candidates.addAll(notByRules);
+        candidates.addAll(regexRules);
+        String username = subject.getUsername();
+        Set<String> groups = subject.getGroups();
+        if (null != username) {
+            candidates.addAll(byUsername.getOrDefault(username, Collections.emptyList()));
+            candidates.addAll(byUrn.getOrDefault("user:" + username, Collections.emptyList()));
+        }
+        if (null != groups) {
+            for (String group : groups) {
+                candidates.addAll(byGroup.getOrDefault(group, Collections.emptyList()));
+                candidates.addAll(byUrn.getOrDefault("group:" + group, Collections.emptyList()));
+            }
+        }
+        if (null != subject.getUrn()) {
+            candidates.addAll(byUrn.getOrDefault(subject.getUrn(), Collections.emptyList()));
+        }
+        List<AclRule> result = new ArrayList<>();
+        for (AclRule rule : candidates) {
+            if (RuleEvaluator.matchesContexts(rule, subject, environment)) {
+                result.add(rule);
+            }
+        }
+        result.sort(Comparator.comparing(order::get));
+        return result;
+    }
+
+    private static class SubjectKey {
+        private final String username;
+        private final Set<String> groups;
+        private final String urn;
+        private final Set<Attribute> environment;
+
+        SubjectKey(final AclSubject subject, final Set<Attribute> environment) {
+            this.username = subject.getUsername();
+            this.groups = null != subject.getGroups() ? new HashSet<>(subject.getGroups()) : null;
+            this.urn = subject.getUrn();
+            this.environment = null != environment ? new HashSet<>(environment) : null;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SubjectKey)) {
+                return false;
+            }
+            SubjectKey that = (SubjectKey) o;
+            return Objects.equals(username, that.username) &&
+                   Objects.equals(groups, that.groups) &&
+                   Objects.equals(urn, that.urn) &&
+                   Objects.equals(environment, that.environment);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(username, groups, urn, environment);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.core.authorization;
+
+import java.util.*;
+
+/**
+ * Merges rule sets, and returns the same merged instance as long as the input rule set instances are unchanged, so
+ * that the rule set can be indexed once per load by {@link RuleEvaluator}.
+ */
+public class AclRuleSetMerger {
+    private volatile Merged last;
+
+    private static class Merged {
+        final List<AclRuleSet> input;
+        final AclRuleSet result;
+
+        Merged(final List<AclRuleSet> input, final AclRuleSet result) {
+            this.input = input;
+            this.result = result;
+        }
+
+        boolean sameInput(final List<AclRuleSet> other) {
+            if (input.size() != other.size()) {
+                return false;
+            }
+            for (int i = 0; i < input.size(); i++) {
+                if (input.get(i) != other.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @param ruleSets rule sets to merge, may contain null entries
+     *
+     * @return merged rule set
+     */
+    public AclRuleSet merge(final List<AclRuleSet> ruleSets) {
+        Merged merged = last;
+        if (null != merged && merged.sameInput(ruleSets)) {
+            return merged.result;
+        }
+        Set<AclRule> rules = new HashSet<>();
+        for (AclRuleSet ruleSet : ruleSets) {
+            if (null != ruleSet) {
+                rules.addAll(ruleSet.getRules());
+            }
+        }
+        merged = new Merged(new ArrayList<>(ruleSets), new AclRuleSetImpl(rules));
+        last = merged;
+        return merged.result;
+    }
+}
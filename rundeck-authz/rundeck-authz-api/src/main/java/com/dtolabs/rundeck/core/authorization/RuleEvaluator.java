@@ -17,6 +17,8 @@
 package com.dtolabs.rundeck.core.authorization;
 
 import com.dtolabs.rundeck.core.authorization.providers.*;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import javax.security.auth.Subject;
 import java.io.PrintStream;
@@ -37,6 +39,7 @@ public class RuleEvaluator implements AclRuleSetAuthorization {
     final private AclRuleSet rules;
     final private AclRuleSetSource source;
     final private AclSubjectCreator aclSubjectCreator;
+    private volatile AclRuleIndex ruleIndex;
 
     private RuleEvaluator(final AclRuleSetSource ruleSetSource, AclSubjectCreator aclSubjectCreator) {
         this.source = ruleSetSource;
@@ -71,13 +74,38 @@ public class RuleEvaluator implements AclRuleSetAuthorization {
     )
     {
         return evaluate(resource, subject, action, environment, narrowContext(
-                getRuleSet(),
+                getRuleIndex(),
                 aclSubjectCreator.createFrom(subject),
                 environment
                         )
         );
     }
 
+    /**
+     * @return index of the current rule set, rebuilt if the source provides a different rule set
+     */
+    private AclRuleIndex getRuleIndex() {
+        AclRuleSet ruleSet = getRuleSet();
+        AclRuleIndex index = ruleIndex;
+        if (null == index || index.getRuleSet() != ruleSet) {
+            index = new AclRuleIndex(ruleSet);
+            ruleIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * @return rules in the index which apply to the subject and environment
+     */
+    public static List<AclRule> narrowContext(
+            final AclRuleIndex index,
+            final AclSubject subject,
+            final Set<Attribute> environment
+    )
+    {
+        return index.narrow(subject, environment);
+    }
+
     public static List<AclRule> narrowContext(
             final AclRuleSet ruleSet,
             final AclSubject subject,
@@ -156,10 +184,8 @@ public class RuleEvaluator implements AclRuleSetAuthorization {
     }
 
     public static boolean matchesAnyPatterns(final Collection<String> groups, final String patternStr) {
-        final Pattern pattern;
-        try {
-            pattern = Pattern.compile(patternStr);
-        } catch (Exception e) {
+        final Pattern pattern = subjectPattern(patternStr);
+        if (null == pattern) {
             return false;
         }
         for (Object groupName : groups) {
@@ -171,11 +197,34 @@ public class RuleEvaluator implements AclRuleSetAuthorization {
     }
 
     private static boolean matchesPattern(final String username, final String pattern) {
-        try {
-            return Pattern.compile(pattern).matcher(username).matches();
-        } catch (PatternSyntaxException e) {
-            return false;
+        final Pattern compiled = subjectPattern(pattern);
+        return null != compiled && compiled.matcher(username).matches();
+    }
+
+    static final int MAX_SUBJECT_PATTERNS = 10000;
+    /**
+     * Most recently used username and group patterns, an invalid regex is cached as empty
+     */
+    private static final Cache<String, Optional<Pattern>> subjectPatternCache =
+            CacheBuilder.newBuilder().maximumSize(MAX_SUBJECT_PATTERNS).build();
+
+    /**
+     * @return compiled pattern for a username or group regex, or null if it is not valid
+     */
+    private static Pattern subjectPattern(final String pattern) {
+        if (null == pattern) {
+            return null;
+        }
+        Optional<Pattern> compiled = subjectPatternCache.getIfPresent(pattern);
+        if (null == compiled) {
+            try {
+                compiled = Optional.of(Pattern.compile(pattern));
+            } catch (PatternSyntaxException e) {
+                compiled = Optional.empty();
+            }
+            subjectPatternCache.put(pattern, compiled);
         }
+        return compiled.orElse(null);
     }
 
     @Override
@@ -188,7 +237,7 @@ public class RuleEvaluator implements AclRuleSetAuthorization {
     {
         Set<Decision> decisions = new HashSet<Decision>();
         long duration = 0;
-        List<AclRule> matchedRules = narrowContext(getRuleSet(), aclSubjectCreator.createFrom(subject), environment);
+        List<AclRule> matchedRules = narrowContext(getRuleIndex(), aclSubjectCreator.createFrom(subject), environment);
         boolean anyAuthorized = false;
         for (Map<String, String> resource : resources) {
             for (String action : actions) {
@@ -30,6 +30,7 @@ public class Policies implements AclRuleSetSource{
 
     private Iterable<PolicyCollection> cache;
     private ValidationSet validation;
+    private final AclRuleSetMerger merger = new AclRuleSetMerger();
 
     public Policies(final Iterable<PolicyCollection> cache, final ValidationSet validationSet) {
         this.validation=validationSet;
@@ -49,11 +50,11 @@ public class Policies implements AclRuleSetSource{
 
     @Override
     public AclRuleSet getRuleSet() {
-        Set<AclRule> set = new HashSet<>();
+        List<AclRuleSet> sets = new ArrayList<>();
         for (final PolicyCollection f : cache) {
-            set.addAll(f.getRuleSet().getRules());
+            sets.add(f.getRuleSet());
         }
-        return new AclRuleSetImpl(set);
+        return merger.merge(sets);
     }
 
     /**
@@ -32,6 +32,7 @@ import com.dtolabs.rundeck.core.authorization.*;
 public class YamlPolicyCollection implements PolicyCollection {
     private final List<Policy> all = new ArrayList<>();
     private final Set<AclRule> ruleSet = new HashSet<>();
+    private volatile AclRuleSet aclRuleSet;
     String identity;
     final ValidationSet validation;
     /**
@@ -56,7 +57,10 @@ public class YamlPolicyCollection implements PolicyCollection {
 
     @Override
     public AclRuleSet getRuleSet() {
-        return new AclRuleSetImpl(ruleSet);
+        if (null == aclRuleSet) {
+            aclRuleSet = new AclRuleSetImpl(ruleSet);
+        }
+        return aclRuleSet;
     }
 
     static interface YamlSourceLoader<T> extends Closeable {
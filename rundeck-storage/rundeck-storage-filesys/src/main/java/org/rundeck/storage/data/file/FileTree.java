@@ -25,6 +25,7 @@ import java.nio.file.attribute.PosixFilePermission;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 import static org.rundeck.storage.api.StorageException.createException;
 
@@ -89,7 +90,9 @@ public class FileTree<T extends ContentMeta> extends LockingTree<T> implements T
     }
 
     private Resource<T> loadResource(Path path, final boolean requireFile) throws IOException {
-        synchronized (pathSynch(path)) {
+        Lock lock = pathLock(path).readLock();
+        lock.lock();
+        try {
             File datafile = filepathMapper.contentFileForPath(path);
             if (!datafile.exists()) {
                 throw StorageException.readException(path, "Path does not exist: " + path);
@@ -107,6 +110,8 @@ public class FileTree<T extends ContentMeta> extends LockingTree<T> implements T
             } else {
                 return new ContentMetaResource<T>(path, null, directory);
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -200,7 +205,9 @@ public class FileTree<T extends ContentMeta> extends LockingTree<T> implements T
         validatePath(path);
         boolean content = false;
         boolean meta = false;
-        synchronized (pathSynch(path)) {
+        Lock lock = pathLock(path).writeLock();
+        lock.lock();
+        try {
             if (!hasResource(path)) {
                 throw StorageException.deleteException(path, "Resource not found: " + path);
             }
@@ -210,6 +217,8 @@ public class FileTree<T extends ContentMeta> extends LockingTree<T> implements T
             if (filepathMapper.metadataFileFor(path).exists()) {
                 meta = filepathMapper.metadataFileFor(path).delete();
             }
+        } finally {
+            lock.unlock();
         }
         return content && meta;
     }
@@ -223,7 +232,9 @@ public class FileTree<T extends ContentMeta> extends LockingTree<T> implements T
     @Override
     public Resource<T> createResource(Path path, ContentMeta content) {
         validatePath(path);
-        synchronized (pathSynch(path)) {
+        Lock lock = pathLock(path).writeLock();
+        lock.lock();
+        try {
             if (hasResource(path)) {
                 throw StorageException.createException(path, "Resource already exists: " + path);
             }
@@ -233,13 +244,17 @@ public class FileTree<T extends ContentMeta> extends LockingTree<T> implements T
                 throw StorageException.createException(path, "Failed to create resource: " + path + ": " + e.getMessage(),
                         e);
             }
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public Resource<T> updateResource(Path path, ContentMeta content) {
         validatePath(path);
-        synchronized (pathSynch(path)) {
+        Lock lock = pathLock(path).writeLock();
+        lock.lock();
+        try {
             if (!hasResource(path)) {
                 throw StorageException.updateException(path, "Resource does not exist: " + path);
             }
@@ -250,11 +265,15 @@ public class FileTree<T extends ContentMeta> extends LockingTree<T> implements T
                 throw StorageException.updateException(path, "Failed to update resource: " + path + ": " + e.getMessage()
                         , e);
             }
+        } finally {
+            lock.unlock();
         }
     }
 
     long writeContent(Path path, File datafile, File metafile, ContentMeta input) throws IOException {
-        synchronized (pathSynch(path)) {
+        Lock lock = pathLock(path).writeLock();
+        lock.lock();
+        try {
             metadataMapper.writeMetadata(input.getMeta(), metafile);
             if (!datafile.getParentFile().exists()) {
                 datafile.getParentFile().mkdirs();
@@ -265,6 +284,8 @@ public class FileTree<T extends ContentMeta> extends LockingTree<T> implements T
             } finally {
                 out.close();
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -23,19 +23,68 @@ import org.rundeck.storage.api.Tree;
 import org.rundeck.storage.impl.StringToPathTree;
 
 import java.io.*;
-import java.util.WeakHashMap;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
- * LockingTree provides lock objects which can be synchronized for resource access to a particular path.
+ * LockingTree provides read/write locks for resource access to a particular path. Locks are striped: a fixed number
+ * of locks is shared by all paths, so memory use does not grow with the number of paths accessed.
  *
  * @author Greg Schueler <a href="mailto:greg@simplifyops.com">greg@simplifyops.com</a>
  * @since 2014-03-28
  */
 public abstract class LockingTree<T extends ContentMeta> extends StringToPathTree<T> implements Tree<T> {
-    private ConcurrentHashMap<String, Object> locks = new ConcurrentHashMap<String,
-            Object>(new WeakHashMap<String, Object>());
+    /**
+     * Default number of lock stripes
+     */
+    public static final int DEFAULT_LOCK_STRIPES = 1024;
+    private final ReadWriteLock[] locks;
+    private final Object[] monitors;
+
+    protected LockingTree() {
+        this(DEFAULT_LOCK_STRIPES);
+    }
+
+    /**
+     * @param stripes number of locks, rounded up to a power of two
+     */
+    protected LockingTree(int stripes) {
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        locks = new ReadWriteLock[size];
+        monitors = new Object[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+            monitors[i] = new Object();
+        }
+    }
+
+    private int stripe(Path path) {
+        int h = path.getPath().hashCode();
+        h ^= (h >>> 16);
+        return h & (locks.length - 1);
+    }
 
+    /**
+     * Return the read/write lock for the given path. The read lock must not be held when acquiring the write lock.
+     *
+     * @param path path
+     *
+     * @return lock
+     */
+    protected ReadWriteLock pathLock(Path path) {
+        return locks[stripe(path)];
+    }
+
+    /**
+     * @return number of lock stripes
+     */
+    int getLockStripes() {
+        return locks.length;
+    }
 
     /**
      * Return an object that can be synchronized on for the given path.
@@ -43,20 +92,20 @@ public abstract class LockingTree<T extends ContentMeta> extends StringToPathTre
      * @param path path
      *
      * @return synch object
+     * @deprecated use {@link #pathLock(Path)}, synchronizing on this object does not exclude holders of the lock
      */
+    @Deprecated
     protected Object pathSynch(Path path) {
-        Object newref = new Object();
-        Object oldref = locks.putIfAbsent(path.getPath(), newref);
-        return null != oldref ? oldref : newref;
+        return monitors[stripe(path)];
     }
 
     /**
-     * Return a {@link HasInputStream} where all read access to the underlying data is synchronized around the path
+     * Return a {@link HasInputStream} where all read access to the underlying data holds the read lock for the path
      *
      * @param path path
      * @param stream stream
      *
-     * @return synchronized stream access
+     * @return locked stream access
      */
     protected HasInputStream synchStream(final Path path, final HasInputStream stream) {
         return new HasInputStream() {
@@ -69,8 +118,12 @@ public abstract class LockingTree<T extends ContentMeta> extends StringToPathTre
 
             @Override
             public long writeContent(OutputStream outputStream) throws IOException {
-                synchronized (pathSynch(path)) {
+                Lock lock = pathLock(path).readLock();
+                lock.lock();
+                try {
                     return stream.writeContent(outputStream);
+                } finally {
+                    lock.unlock();
                 }
             }
         };
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.storage.data.file
+
+import org.rundeck.storage.api.PathUtil
+import org.rundeck.storage.data.DataUtil
+import spock.lang.Requires
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+class LockingTreeSpecification extends Specification {
+    File testDir
+
+    def setup() {
+        testDir = new File("build/lockingtree-tests")
+        testDir.mkdirs()
+    }
+
+    def cleanup() {
+        testDir.deleteDir()
+    }
+
+    def "lock registry does not grow with paths accessed"() {
+        given:
+        def ft = FileTreeUtil.forRoot(new File(testDir, "root1"), DataUtil.contentFactory())
+
+        when:
+        def locks = (1..5000).collect { ft.pathLock(PathUtil.asPath("keys/path${it}")) } as Set
+
+        then:
+        ft.lockStripes == LockingTree.DEFAULT_LOCK_STRIPES
+        locks.size() <= LockingTree.DEFAULT_LOCK_STRIPES
+        ft.pathLock(PathUtil.asPath('keys/path1')).is(ft.pathLock(PathUtil.asPath('keys/path1')))
+    }
+
+    def "concurrent reads of a path do not exclude each other"() {
+        given:
+        def ft = FileTreeUtil.forRoot(new File(testDir, "root2"), DataUtil.contentFactory())
+        def path = PathUtil.asPath('keys/a')
+        ft.pathLock(path).readLock().lock()
+        def pool = Executors.newSingleThreadExecutor()
+
+        when:
+        def canRead = pool.submit({ tryLock(ft.pathLock(path).readLock()) } as Callable).get()
+        def canWrite = pool.submit({ tryLock(ft.pathLock(path).writeLock()) } as Callable).get()
+
+        then:
+        canRead
+        !canWrite
+
+        cleanup:
+        ft.pathLock(path).readLock().unlock()
+        pool.shutdownNow()
+    }
+
+    static boolean tryLock(lock) {
+        if (lock.tryLock()) {
+            lock.unlock()
+            return true
+        }
+        false
+    }
+
+    /**
+     * Reads and updates keys of the tree from several threads
+     * @return map of the number of reads, writes and torn reads, and the time in milliseconds
+     */
+    static Map<String, Long> runContention(FileTree ft, int keys, int threads, int opsPerThread) {
+        def values = (0..9).collect { ('value' + it) * 1000 }
+        keys.times {
+            ft.createResource("keys/key${it}", DataUtil.withText(values[0], [:], DataUtil.contentFactory()))
+        }
+        def reads = new AtomicLong()
+        def writes = new AtomicLong()
+        def torn = new AtomicLong()
+        def start = new CountDownLatch(1)
+        def pool = Executors.newFixedThreadPool(threads)
+        try {
+            def futures = (1..threads).collect { int t ->
+                pool.submit({
+                    start.await()
+                    def random = new Random(t)
+                    opsPerThread.times {
+                        def path = "keys/key${random.nextInt(keys)}"
+                        if (random.nextInt(10) == 0) {
+                            ft.updateResource(
+                                    path,
+                                    DataUtil.withText(values[random.nextInt(values.size())], [:], DataUtil.contentFactory())
+                            )
+                            writes.incrementAndGet()
+                        } else {
+                            def text = ft.getResource(path).contents.inputStream.text
+                            if (!(text in values)) {
+                                torn.incrementAndGet()
+                            }
+                            reads.incrementAndGet()
+                        }
+                    }
+                } as Callable)
+            }
+            long begin = System.nanoTime()
+            start.countDown()
+            futures*.get(60, TimeUnit.SECONDS)
+            [
+                    reads : reads.get(),
+                    writes: writes.get(),
+                    torn  : torn.get(),
+                    millis: TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin)
+            ]
+        } finally {
+            pool.shutdownNow()
+        }
+    }
+
+    def "file tree get and put under contention"() {
+        given:
+        def ft = FileTreeUtil.forRoot(new File(testDir, "root3"), DataUtil.contentFactory())
+
+        when:
+        def result = runContention(ft, 4, 4, 50)
+
+        then:
+        result.reads + result.writes == 4 * 50
+        result.torn == 0
+    }
+
+    /**
+     * Runs 16 threads reading and updating 8 keys, and checks they complete faster than a single thread running the
+     * same number of operations, so reads of different keys are not serialized.
+     * Set the RUNDECK_STORAGE_FILE_TREE_BENCHMARK environment variable to run it.
+     */
+    @Requires({ env['RUNDECK_STORAGE_FILE_TREE_BENCHMARK'] })
+    def "benchmark file tree get and put under contention"() {
+        given:
+        int keys = 8
+        int threads = 16
+        int opsPerThread = 500
+        def serialTree = FileTreeUtil.forRoot(new File(testDir, "root4"), DataUtil.contentFactory())
+        def concurrentTree = FileTreeUtil.forRoot(new File(testDir, "root5"), DataUtil.contentFactory())
+
+        when:
+        def serial = runContention(serialTree, keys, 1, threads * opsPerThread)
+        def concurrent = runContention(concurrentTree, keys, threads, opsPerThread)
+
+        then:
+        concurrent.reads + concurrent.writes == threads * opsPerThread
+        concurrent.torn == 0
+        concurrent.millis < serial.millis
+    }
+}
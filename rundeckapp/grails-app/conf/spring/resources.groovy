@@ -151,6 +151,7 @@ beans={
                 frameworkService: ref('frameworkService'),
                 metricRegistry:ref('metricRegistry'),
                 executionUtilService:ref('executionUtilService'),
+                executionWatchdogService:ref('executionWatchdogService'),
                 jobSchedulerService:ref('jobSchedulerService'),
                   authContextProvider:ref('rundeckAuthContextProvider'),
                 jobSchedulesService:ref('jobSchedulesService')]
@@ -388,6 +389,14 @@ beans={
         maxPoolSize= (application.config.rundeck?.execution?.logs?.fileStorage?.removeTasks?.poolSize ?: 5)
 
     }
+    //writes queued log output of all executions when write-behind is enabled
+    logFileWriteBehindTaskExecutor(ThreadPoolTaskExecutor) {
+        threadNamePrefix = "LogFileWriteBehind"
+        corePoolSize = (application.config.rundeck?.execution?.logs?.fileStorage?.writeBehind?.poolSize ?: 4)
+        maxPoolSize = (application.config.rundeck?.execution?.logs?.fileStorage?.writeBehind?.poolSize ?: 4)
+        daemon = true
+        waitForTasksToCompleteOnShutdown = true
+    }
     nodeTaskExecutor(SimpleAsyncTaskExecutor,"NodeService-SourceLoader") {
         concurrencyLimit = (application.config.rundeck?.nodeService?.concurrencyLimit ?: 25) //-1 for unbounded
     }
@@ -429,6 +438,8 @@ beans={
 
     auditEventsService(AuditEventsService){
         frameworkService = ref('frameworkService')
+        configurationService = ref('configurationService')
+        metricService = ref('metricService')
     }
 
     scmJobImporter(ScmJobImporter)
@@ -39,6 +39,7 @@ import com.dtolabs.rundeck.app.api.ApiVersions
 class ApiController extends ControllerBase{
     def defaultAction = "invalid"
     def quartzScheduler
+    def executionWatchdogService
     def frameworkService
     AppAuthContextProcessor rundeckAuthContextProcessor
     def apiService
@@ -497,6 +498,9 @@ class ApiController extends ControllerBase{
         long durationTime=ManagementFactory.getRuntimeMXBean().uptime
         Date startupDate = new Date(nowDate.getTime()-durationTime)
         int threadActiveCount=Thread.activeCount()
+        //executions handed to the watchdog run without a scheduler thread
+        int schedulerRunningCount = quartzScheduler.getCurrentlyExecutingJobs().size() +
+                                    (executionWatchdogService?.watchCount ?: 0)
         boolean executionModeActive=configurationService.executionModeActive
 
         def metricsJsonUrl = grailsLinkGenerator.link(uri: "/api/${ApiVersions.API_CURRENT_VERSION}/metrics/metrics?pretty=true", absolute: true)
@@ -561,7 +565,7 @@ class ApiController extends ControllerBase{
                                 total(Runtime.getRuntime().totalMemory())
                             }
                             scheduler{
-                                running(quartzScheduler.getCurrentlyExecutingJobs().size())
+                                running(schedulerRunningCount)
                                 threadPoolSize(quartzScheduler.getMetaData().threadPoolSize)
                             }
                             threads{
@@ -641,7 +645,7 @@ class ApiController extends ControllerBase{
                                 total=(Runtime.getRuntime().totalMemory())
                             }
                             scheduler={
-                                running=(quartzScheduler.getCurrentlyExecutingJobs().size())
+                                running=(schedulerRunningCount)
                                 threadPoolSize=(quartzScheduler.getMetaData().threadPoolSize)
                             }
                             threads={
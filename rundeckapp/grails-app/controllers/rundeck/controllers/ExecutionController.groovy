@@ -17,6 +17,7 @@
 package rundeck.controllers
 
 import com.dtolabs.client.utils.Constants
+import com.dtolabs.rundeck.app.internal.logging.FSStreamingLogReader
 import com.dtolabs.rundeck.app.api.ApiVersions
 import com.dtolabs.rundeck.app.api.jobs.upload.ExecutionFileInfoList
 import com.dtolabs.rundeck.app.api.jobs.upload.JobFileInfo
@@ -29,6 +30,7 @@ import com.dtolabs.rundeck.core.common.PluginDisabledException
 import com.dtolabs.rundeck.core.execution.logstorage.ExecutionFileState
 import com.dtolabs.rundeck.core.execution.workflow.state.StateUtils
 import com.dtolabs.rundeck.core.execution.workflow.state.StepIdentifier
+import com.dtolabs.rundeck.core.logging.IndexedStreamingLogReader
 import com.dtolabs.rundeck.core.logging.LogEvent
 import com.dtolabs.rundeck.core.logging.LogUtil
 import com.dtolabs.rundeck.core.logging.ReverseSeekingStreamingLogReader
@@ -39,6 +41,7 @@ import com.dtolabs.rundeck.plugins.ServiceNameConstants
 import com.dtolabs.rundeck.plugins.logging.LogFilterPlugin
 import com.dtolabs.rundeck.plugins.logs.ContentConverterPlugin
 import grails.converters.JSON
+import groovy.json.JsonOutput
 import groovy.transform.PackageScope
 import org.quartz.JobExecutionContext
 import org.rundeck.app.AppConstants
@@ -50,11 +53,16 @@ import rundeck.Execution
 import rundeck.ScheduledExecution
 import rundeck.services.*
 import rundeck.services.logging.ExecutionLogReader
+import rundeck.services.logging.LogFileFollower
+import rundeck.services.logging.LogTailSink
 import rundeck.services.workflow.StateMapping
 
+import javax.servlet.AsyncEvent
+import javax.servlet.AsyncListener
 import javax.servlet.http.HttpServletResponse
 import java.text.ParseException
 import java.text.SimpleDateFormat
+import java.util.function.Predicate
 /**
 * ExecutionController
 */
@@ -63,6 +71,7 @@ class ExecutionController extends ControllerBase{
     AppAuthContextProcessor rundeckAuthContextProcessor
     ExecutionService executionService
     LoggingService loggingService
+    LogTailService logTailService
     ScheduledExecutionService scheduledExecutionService
     OrchestratorPluginService orchestratorPluginService
     ApiService apiService
@@ -644,6 +653,8 @@ class ExecutionController extends ControllerBase{
                     jexec.getJobDetail().key.getGroup(),
                     true
                 )
+            }else{
+                didCancel = scheduledExecutionService.interruptWatchedExecution(Long.valueOf(params.id))
             }
 
             abortresult.abortstate = ExecutionService.ABORT_ABORTED
@@ -991,6 +1002,168 @@ setTimeout(function(){
         }
         return tailExecutionOutput()
     }
+
+    /**
+     * API: /api/execution/{id}/output/tail, streams log output as server-sent events until the log is complete.
+     * Parameters: offset (or Last-Event-ID header), nodename, stepctx
+     */
+    def apiExecutionOutputTail() {
+        if (!apiService.requireApi(request, response, ApiVersions.V39)) {
+            return
+        }
+        Execution e = Execution.get(params.id)
+        if (!apiService.requireExists(response, e, ['Execution', params.id])) {
+            return
+        }
+        AuthContext authContext = rundeckAuthContextProcessor.getAuthContextForSubjectAndProject(
+                session.subject,
+                e.project
+        )
+        if (!apiService.requireAuthorized(
+                rundeckAuthContextProcessor.authorizeProjectExecutionAny(
+                        authContext,
+                        e,
+                        [AuthConstants.ACTION_READ, AuthConstants.ACTION_VIEW]
+                ),
+                response,
+                [AuthConstants.ACTION_VIEW, "Execution", params.id] as Object[]
+        )) {
+            return
+        }
+        if (params.stepctx && !(params.stepctx ==~ /^(\d+e?(@.+?)?\/?)+$/)) {
+            return apiService.renderErrorFormat(response, [
+                    status: HttpServletResponse.SC_BAD_REQUEST,
+                    code  : 'api.error.parameter.invalid',
+                    args  : [params.stepctx, 'stepctx', "Invalid stepctx filter"]
+            ])
+        }
+        String offsetParam = params.offset ?: request.getHeader('Last-Event-ID')
+        long offset = 0
+        if (offsetParam) {
+            offset = offsetParam.isLong() ? offsetParam.toLong() : -1
+            if (offset < 0) {
+                return apiService.renderErrorFormat(response, [
+                        status: HttpServletResponse.SC_BAD_REQUEST,
+                        code  : 'api.error.parameter.invalid',
+                        args  : [offsetParam, 'offset', 'Not an integer offset']
+                ])
+            }
+        }
+
+        ExecutionLogReader reader = loggingService.getLogReader(e)
+        if (reader?.state != ExecutionFileState.AVAILABLE || !(reader.reader instanceof FSStreamingLogReader)) {
+            //only local log files can be followed, use the output endpoint otherwise
+            return apiService.renderErrorFormat(response, [
+                    status: HttpServletResponse.SC_CONFLICT,
+                    code  : 'api.error.execution.logs.tail.unavailable',
+                    args  : [e.id.toString(), reader?.state?.toString()]
+            ])
+        }
+        FSStreamingLogReader logread = (FSStreamingLogReader) reader.reader
+
+        String nodename = params.nodename
+        boolean stepCtxAllowSub = params.stepctx ? params.stepctx.endsWith('/') : false
+        StepIdentifier stepCtxIdent = params.stepctx ? StateUtils.stepIdentifierFromString(params.stepctx) : null
+        Predicate<String> stepMatcher = stepCtxIdent ? { String ctx ->
+            def evtIdent = ctx ? StateUtils.stepIdentifierFromString(ctx) : null
+            evtIdent != null && StateUtils.isMatchedIdentifier(stepCtxIdent, evtIdent, stepCtxAllowSub)
+        } as Predicate<String> : null
+        Predicate<LogEvent> filter = { LogEvent data ->
+            data.eventType == LogUtil.EVENT_TYPE_LOG &&
+            (!nodename || data.metadata?.node == nodename) &&
+            (!stepMatcher || stepMatcher.test(data.metadata?.stepctx))
+        } as Predicate<LogEvent>
+        if (offset == 0 && (nodename || stepMatcher) && logread.indexed) {
+            //skip directly to the first entry for the node or step
+            logread.openStreamFromFirstMatch(nodename, stepMatcher)
+            offset = logread.offset
+        }
+
+        def async = request.startAsync()
+        async.timeout = configurationService.getInteger('execution.logs.tail.timeoutSeconds', 600) * 1000L
+        response.status = HttpServletResponse.SC_OK
+        response.contentType = 'text/event-stream'
+        response.characterEncoding = 'UTF-8'
+        response.setHeader('Cache-Control', 'no-cache')
+        response.setHeader('X-Accel-Buffering', 'no')
+        PrintWriter out = async.response.writer
+        def sendEvent = { String name, String id, Map data ->
+            if (id) {
+                out.write("id: ${id}\n")
+            }
+            out.write("event: ${name}\ndata: ${JsonOutput.toJson(data)}\n\n")
+            out.flush()
+            if (out.checkError()) {
+                throw new IOException("Client disconnected")
+            }
+        }
+        LogFileFollower follower = null
+        async.addListener(new AsyncListener() {
+            @Override
+            void onComplete(final AsyncEvent event) throws IOException {
+                if (follower) {
+                    logTailService.unfollow(follower)
+                }
+            }
+
+            @Override
+            void onTimeout(final AsyncEvent event) throws IOException {
+                if (follower) {
+                    logTailService.unfollow(follower)
+                }
+                event.asyncContext.complete()
+            }
+
+            @Override
+            void onError(final AsyncEvent event) throws IOException {
+                if (follower) {
+                    logTailService.unfollow(follower)
+                }
+            }
+
+            @Override
+            void onStartAsync(final AsyncEvent event) throws IOException {
+            }
+        }
+        )
+        //commit the response headers
+        out.write(": following execution ${e.id}\n\n")
+        out.flush()
+        follower = logTailService.follow(logread.file, logread, offset, filter, new LogTailSink() {
+            @Override
+            void events(final List<LogEvent> events, final long newoffset) throws IOException {
+                def timeFmt = new SimpleDateFormat("HH:mm:ss")
+                sendEvent('log', newoffset.toString(), [
+                        offset : newoffset.toString(),
+                        entries: events.collect { LogEvent event ->
+                            [
+                                    time         : timeFmt.format(event.datetime),
+                                    absolute_time: event.datetime.toInstant().toString(),
+                                    log          : event.message?.replaceAll(/\r?\n$/, ''),
+                                    level        : event.loglevel.toString(),
+                            ] + (event.metadata ?: [:]).subMap(['user', 'command', 'stepctx', 'node'])
+                        }
+                ])
+            }
+
+            @Override
+            void complete(final long newoffset) throws IOException {
+                sendEvent('complete', newoffset.toString(), [offset: newoffset.toString(), completed: true])
+                async.complete()
+            }
+
+            @Override
+            void heartbeat() throws IOException {
+                out.write(": heartbeat\n\n")
+                out.flush()
+                if (out.checkError()) {
+                    throw new IOException("Client disconnected")
+                }
+            }
+        }
+        )
+    }
+
     static final String invalidXmlPattern = "[^" + "\\u0009\\u000A\\u000D" + "\\u0020-\\uD7FF" +
             "\\uE000-\\uFFFD" + "\\u10000-\\u10FFFF" + "]+";
 
@@ -1446,11 +1619,23 @@ setTimeout(function(){
         def max= 0
         def lastlinesSupported= (ReverseSeekingStreamingLogReader.isInstance(logread))
         def lastlines = params.long('lastlines',0)
+        boolean paramStepCtxIdentAllowSub = params.stepctx? params.stepctx.endsWith('/'):false
+        StepIdentifier paramStepCtxIdent = params.stepctx?StateUtils.stepIdentifierFromString(params.stepctx):null
         if(lastlines && lastlinesSupported){
             def ReverseSeekingStreamingLogReader reversing= (ReverseSeekingStreamingLogReader) logread
             reversing.openStreamFromReverseOffset(lastlines)
             //load only the last X lines of the file, by going to the end and searching backwards for the
             max=lastlines+1
+        }else if (offset == 0 && (params.nodename || paramStepCtxIdent) &&
+                  logread instanceof IndexedStreamingLogReader && logread.indexed) {
+            //skip directly to the first entry for the node or step
+            Predicate<String> stepMatcher = paramStepCtxIdent ? { String ctx ->
+                def evtIdent = ctx ? StateUtils.stepIdentifierFromString(ctx) : null
+                evtIdent != null &&
+                StateUtils.isMatchedIdentifier(paramStepCtxIdent, evtIdent, paramStepCtxIdentAllowSub)
+            } as Predicate<String> : null
+            ((IndexedStreamingLogReader) logread).openStreamFromFirstMatch(params.nodename, stepMatcher)
+            max = Math.max(0,params.int('maxlines',0))
         }else{
             logread.openStream(offset)
             max = Math.max(0,params.int('maxlines',0))
@@ -1463,8 +1648,6 @@ setTimeout(function(){
         }
         def stateoutput = params.stateOutput in [true,'true']
         def stateonly = params.stateOnly in [true,'true']
-        boolean paramStepCtxIdentAllowSub = params.stepctx? params.stepctx.endsWith('/'):false
-        StepIdentifier paramStepCtxIdent = params.stepctx?StateUtils.stepIdentifierFromString(params.stepctx):null
         def filter={ LogEvent data ->
             if (!stateoutput && data.eventType != LogUtil.EVENT_TYPE_LOG) {
                 return false
@@ -1794,6 +1977,10 @@ setTimeout(function(){
     }
     /**
      * API: /api/execution/{id}/state , version 11
+     *
+     * Parameter "since" (version 39, JSON only): "0" returns the full state with the current "sequence" of a running
+     * execution, a later sequence number returns only the steps and node states changed after it, or the full state
+     * if the changes are not available.
      */
     def apiExecutionState(){
         if (!apiService.requireApi(request, response)) {
@@ -1812,9 +1999,26 @@ setTimeout(function(){
             return
         }
 
+        if (params.since && !apiService.requireVersion(request, response, ApiVersions.V39)) {
+            return
+        }
+        if (params.since && response.format != 'xml') {
+            //return only changes since the sequence number, if they are available
+            long since = params.long('since') ?: 0L
+            def changes = since > 0 ? workflowService.requestStateChanges(e, since) : null
+            if (null != changes) {
+                return render(contentType: "application/json", encoding: "UTF-8", text: changes.encodeAsJSON())
+            }
+        }
 
+        //read the sequence number before the state, so that no later changes are missed
+        Long sequence = params.since ? workflowService.getStateSequence(e) : null
         def loader = workflowService.requestState(e)
         def state= loader.workflowState
+        if (null != sequence && state) {
+            //full state, with the sequence number for requesting further changes
+            state = state + [sequence: sequence]
+        }
         if(!loader.workflowState){
             if(loader.state in [ExecutionFileState.WAITING, ExecutionFileState.AVAILABLE_REMOTE,
                                 ExecutionFileState.PENDING_LOCAL, ExecutionFileState.PENDING_REMOTE]) {
@@ -1965,6 +2169,8 @@ setTimeout(function(){
                     jexec.getJobDetail().key.getGroup(),
                     true
                 )
+            }else{
+                didCancel = scheduledExecutionService.interruptWatchedExecution(Long.valueOf(params.id))
             }
 
             abortresult.abortstate = didCancel?ExecutionService.ABORT_ABORTED:ExecutionService.ABORT_PENDING
@@ -81,6 +81,7 @@ class MenuController extends ControllerBase implements ApplicationContextAware{
     def configurationService
     ScmService scmService
     def quartzScheduler
+    def executionWatchdogService
     def ApiService apiService
     ContextACLManager<AppACLContext> aclFileManagerService
     def ApplicationContext applicationContext
@@ -2104,6 +2105,8 @@ class MenuController extends ControllerBase implements ApplicationContextAware{
         def memtotal = Runtime.getRuntime().totalMemory()
         def schedulerRunningCount = quartzScheduler.getCurrentlyExecutingJobs().size()
         def threadPoolSize = quartzScheduler.getMetaData().threadPoolSize
+        //executions handed to the watchdog run without a scheduler thread
+        def watchedExecutionCount = executionWatchdogService?.watchCount ?: 0
         def info = [
             nowDate: nowDate,
             nodeName: nodeName,
@@ -2129,6 +2132,7 @@ class MenuController extends ControllerBase implements ApplicationContextAware{
             memfree: memfree,
             memtotal: memtotal,
             schedulerRunningCount: schedulerRunningCount,
+            watchedExecutionCount: watchedExecutionCount,
             threadPoolSize: threadPoolSize,
             executionModeActive:executionModeActive
         ]
@@ -2181,7 +2185,8 @@ class MenuController extends ControllerBase implements ApplicationContextAware{
             ]],
             ["stats: scheduler":
             [
-                    running: info.schedulerRunningCount,
+                    running: info.schedulerRunningCount + info.watchedExecutionCount,
+                    watched: info.watchedExecutionCount,
                     threadPoolSize:info.threadPoolSize,
                     ratio: (schedulerThreadRatio),
                     'ratio.unit':'ratio',
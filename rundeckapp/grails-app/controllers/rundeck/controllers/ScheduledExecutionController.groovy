@@ -39,7 +39,10 @@ import grails.converters.JSON
 import org.apache.commons.collections.list.TreeList
 import org.apache.commons.httpclient.DefaultHttpMethodRetryHandler
 import org.apache.commons.httpclient.HttpClient
+import org.apache.commons.httpclient.HttpConnectionManager
 import org.apache.commons.httpclient.HttpMethod
+import org.apache.commons.httpclient.HttpState
+import org.apache.commons.httpclient.SimpleHttpConnectionManager
 import org.apache.commons.httpclient.UsernamePasswordCredentials
 import org.apache.commons.httpclient.auth.AuthScope
 import org.apache.commons.httpclient.methods.GetMethod
@@ -731,7 +734,7 @@ class ScheduledExecutionController  extends ControllerBase{
         if (notFoundResponse(scheduledExecution, 'Job', params.id)) {
             return
         }
-        AuthContext authContext = rundeckAuthContextProcessor.getAuthContextForSubjectAndProject(session.subject,scheduledExecution.project)
+        UserAndRolesAuthContext authContext = rundeckAuthContextProcessor.getAuthContextForSubjectAndProject(session.subject,scheduledExecution.project)
         if (unauthorizedResponse(
             rundeckAuthContextProcessor.authorizeProjectJobAny(
                 authContext, scheduledExecution,
@@ -750,7 +753,12 @@ class ScheduledExecutionController  extends ControllerBase{
         if (scheduledExecution.options && scheduledExecution.options.find {it.name == params.option}) {
             Option opt = scheduledExecution.options.find {it.name == params.option}
             if (opt.realValuesUrl) {
-                Map optionRemoteValues = scheduledExecutionService.loadOptionsRemoteValues(scheduledExecution, params, session.user)
+                Map optionRemoteValues = scheduledExecutionService.loadOptionsRemoteValues(
+                        scheduledExecution,
+                        params,
+                        session.user,
+                        authContext.roles
+                )
                 def model = [optionSelect : optionRemoteValues.optionSelect,
                              values       : optionRemoteValues.values,
                              srcUrl       : optionRemoteValues.srcUrl,
@@ -830,27 +838,35 @@ class ScheduledExecutionController  extends ControllerBase{
      * lastModifiedDate: Last-Modified header (Date)
      * contentSHA1: SHA1 hash of the content
      *
+     * For http requests, the result also contains:
+     *
+     * text: the response content
+     * validators: map of 'etag' and 'lastModified' response header values
+     * noStore: true if the response Cache-Control does not allow storing it
+     *
+     * If validators from a previous response are given, a conditional request is made, and if the content is not
+     * modified the result will contain notModified: true and no json.
+     *
      * @param url URL to request
      * @param timeout request timeout in seconds
+     * @param validators 'etag' and 'lastModified' values of a previous response, or null
+     * @param connectionManager shared connection manager, or null to use a new connection for the request
      * @return Map of data, [json: parsed json or null, stats: stats data, error: error message]
      *
      */
-    static Object getRemoteJSON(String url, int timeout, int contimeout, int retry=5,boolean disableRemoteOptionJsonCheck=false){
+    static Object getRemoteJSON(
+            String url,
+            int timeout,
+            int contimeout,
+            int retry=5,
+            boolean disableRemoteOptionJsonCheck=false,
+            Map validators=null,
+            HttpConnectionManager connectionManager=null
+    ){
         logger.debug("getRemoteJSON: "+url+", timeout: "+timeout+", retry: "+retry)
         //attempt to get the URL JSON data
         def stats=[:]
         if(url.startsWith("http:") || url.startsWith("https:")){
-            final HttpClientParams params = new HttpClientParams()
-            params.setConnectionManagerTimeout(timeout*1000L)
-            params.setSoTimeout(timeout*1000)
-            if(contimeout>0){
-                params.setIntParameter('http.connection.timeout',contimeout*1000)
-            }
-            if(retry>0) {
-                def myretryhandler = new DefaultHttpMethodRetryHandler(retry, false)
-                params.setParameter(HttpMethodParams.RETRY_HANDLER, myretryhandler);
-            }
-            def HttpClient client= new HttpClient(params)
             def URL urlo
             def AuthScope authscope=null
             def UsernamePasswordCredentials cred=null
@@ -867,16 +883,41 @@ class ScheduledExecutionController  extends ControllerBase{
             }catch(MalformedURLException e){
                 throw new Exception("Failed to configure base URL for authentication: "+e.getMessage(),e)
             }
+            //credentials are scoped to the request, the connections are shared
+            HttpState state = new HttpState()
             if(doauth){
-                client.getParams().setAuthenticationPreemptive(true);
-                client.getState().setCredentials(authscope,cred)
+                state.setCredentials(authscope,cred)
             }
+            final HttpClientParams params = new HttpClientParams()
+            params.setConnectionManagerTimeout(timeout*1000L)
+            if(contimeout>0){
+                params.setIntParameter('http.connection.timeout',contimeout*1000)
+            }
+            params.setAuthenticationPreemptive(doauth)
+            def HttpClient client = new HttpClient(params, connectionManager ?: new SimpleHttpConnectionManager(true))
             def HttpMethod method = new GetMethod(url)
+            method.getParams().setSoTimeout(timeout*1000)
             method.setFollowRedirects(true)
             method.setRequestHeader("Accept","application/json")
+            if(retry>0) {
+                def myretryhandler = new DefaultHttpMethodRetryHandler(retry, false)
+                method.getParams().setParameter(HttpMethodParams.RETRY_HANDLER, myretryhandler);
+            }
+            if(validators?.etag){
+                method.setRequestHeader("If-None-Match", validators.etag.toString())
+            }
+            if(validators?.lastModified){
+                method.setRequestHeader("If-Modified-Since", validators.lastModified.toString())
+            }
             stats.url = cleanUrl;
             stats.startTime = System.currentTimeMillis();
-            def resultCode = client.executeMethod(method);
+            def resultCode
+            try {
+                resultCode = client.executeMethod(null, method, state);
+            } catch (Exception e) {
+                method.releaseConnection()
+                throw e
+            }
             stats.httpStatusCode = resultCode
             stats.httpStatusText = method.getStatusText()
             stats.finishTime = System.currentTimeMillis()
@@ -892,8 +933,15 @@ class ScheduledExecutionController  extends ControllerBase{
                 stats.lastModifiedDate=""
                 stats.lastModifiedDateTime=""
             }
+            def responseValidators = [
+                    etag        : method.getResponseHeader("ETag")?.getValue(),
+                    lastModified: header?.getValue()
+            ]
             try{
                 def reasonCode = method.getStatusText();
+                if(resultCode==304 && validators){
+                    return [notModified:true,stats:stats,validators:responseValidators]
+                }
                 if(resultCode>=200 && resultCode<=300){
                     def expectedContentType="application/json"
                     def resultType=''
@@ -928,7 +976,14 @@ class ScheduledExecutionController  extends ControllerBase{
                         }else{
                             stats.contentSHA1=""
                         }
-                        return [json:json,stats:stats]
+                        def cacheControl = method.getResponseHeader("Cache-Control")?.getValue()
+                        return [
+                                json      : json,
+                                stats     : stats,
+                                text      : string,
+                                validators: responseValidators,
+                                noStore   : cacheControl?.toLowerCase()?.contains('no-store') ?: false
+                        ]
                     }else{
                         return [error:"Unexpected content type received: "+resultType,stats:stats]
                     }
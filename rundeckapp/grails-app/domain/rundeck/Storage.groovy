@@ -88,14 +88,20 @@ class Storage {
     }
 
     public Map getStorageMeta() {
-        //de-serialize the json
+        return parseStorageMeta(jsonData)
+    }
+
+    /**
+     * de-serialize the json metadata
+     * @param jsonData json encoded metadata
+     */
+    static Map parseStorageMeta(String jsonData) {
         if (null != jsonData) {
             final ObjectMapper mapper = new ObjectMapper()
             return mapper.readValue(jsonData, Map.class)
         } else {
             return null
         }
-
     }
 
     public void setStorageMeta(Map obj) {
@@ -25,6 +25,7 @@ import com.dtolabs.rundeck.app.api.ApiMarshallerRegistrar
 import com.dtolabs.rundeck.core.Constants
 import com.dtolabs.rundeck.core.VersionConstants
 import com.dtolabs.rundeck.core.config.Features
+import com.dtolabs.rundeck.core.execution.dispatch.NodeDispatchMetrics
 import com.dtolabs.rundeck.core.utils.ThreadBoundOutputStream
 import com.dtolabs.rundeck.util.quartz.MetricsSchedulerListener
 import com.fasterxml.jackson.databind.ObjectMapper
@@ -50,6 +51,8 @@ class BootStrap {
     def scheduledExecutionService
     def executionService
     def executionUtilService
+    def executionWatchdogService
+    def notificationService
     def frameworkService
     def workflowService
     def logFileStorageService
@@ -364,10 +367,14 @@ class BootStrap {
                  def size = quartzScheduler.getMetaData().threadPoolSize
 
                 def jobs = quartzScheduler.getCurrentlyExecutingJobs().size()
+                //watched executions have released their scheduler thread
+                def watched = executionWatchdogService.watchCount
                 if( size > jobs ){
-                    com.codahale.metrics.health.HealthCheck.Result.healthy()
+                    com.codahale.metrics.health.HealthCheck.Result.healthy("${jobs + watched} executions running")
                 }  else{
-                    com.codahale.metrics.health.HealthCheck.Result.unhealthy("${jobs}/${size} threads used")
+                    com.codahale.metrics.health.HealthCheck.Result.unhealthy(
+                            "${jobs}/${size} threads used, ${jobs + watched} executions running"
+                    )
                 }
             }
         })
@@ -398,7 +405,36 @@ class BootStrap {
         }))
         //set up some metrics collection for the Quartz scheduler
         metricRegistry.register(MetricRegistry.name("rundeck.scheduler.quartz","runningExecutions"),new CallableGauge<Integer>({
-            quartzScheduler.getCurrentlyExecutingJobs().size()
+            quartzScheduler.getCurrentlyExecutingJobs().size() + executionWatchdogService.watchCount
+        }))
+        metricRegistry.register(MetricRegistry.name("rundeck.execution.watchdog","watchedExecutions"),new CallableGauge<Integer>({
+            executionWatchdogService.watchCount
+        }))
+        metricRegistry.register(MetricRegistry.name("rundeck.notification.dispatch","queueDepth"),new CallableGauge<Integer>({
+            notificationService.dispatchQueueDepth
+        }))
+        metricRegistry.register(MetricRegistry.name("rundeck.notification.dispatch","active"),new CallableGauge<Integer>({
+            notificationService.dispatchActiveCount
+        }))
+        //parallel node dispatch, when using the executor dispatcher
+        def dispatchMetrics = NodeDispatchMetrics.getInstance()
+        metricRegistry.register(MetricRegistry.name("rundeck.execution.dispatch.parallel","queueDepth"),new CallableGauge<Integer>({
+            dispatchMetrics.queueDepth
+        }))
+        metricRegistry.register(MetricRegistry.name("rundeck.execution.dispatch.parallel","activeNodes"),new CallableGauge<Integer>({
+            dispatchMetrics.activeCount
+        }))
+        metricRegistry.register(MetricRegistry.name("rundeck.execution.dispatch.parallel","completedNodes"),new CallableGauge<Long>({
+            dispatchMetrics.completedCount
+        }))
+        metricRegistry.register(MetricRegistry.name("rundeck.execution.dispatch.parallel","failedNodes"),new CallableGauge<Long>({
+            dispatchMetrics.failedCount
+        }))
+        metricRegistry.register(MetricRegistry.name("rundeck.execution.dispatch.parallel","meanQueueWaitMillis"),new CallableGauge<Double>({
+            dispatchMetrics.meanQueueWaitMillis
+        }))
+        metricRegistry.register(MetricRegistry.name("rundeck.execution.dispatch.parallel","meanRunMillis"),new CallableGauge<Double>({
+            dispatchMetrics.meanRunMillis
         }))
         def counter = metricRegistry.counter(MetricRegistry.name("rundeck.scheduler.quartz", "scheduledJobs"))
         quartzScheduler.getListenerManager().addSchedulerListener(new MetricsSchedulerListener(counter))
@@ -23,6 +23,7 @@ import com.dtolabs.rundeck.core.authorization.UserAndRolesAuthContext
 import com.dtolabs.rundeck.core.common.IFramework
 import com.dtolabs.rundeck.core.dispatcher.DataContextUtils
 import com.dtolabs.rundeck.core.dispatcher.ExecutionState
+import com.dtolabs.rundeck.core.execution.ServiceThreadBase
 import com.dtolabs.rundeck.core.execution.WorkflowExecutionServiceThread
 import com.dtolabs.rundeck.core.execution.workflow.WorkflowExecutionResult
 import com.dtolabs.rundeck.core.execution.workflow.steps.node.NodeStepResult
@@ -38,6 +39,7 @@ import rundeck.Execution
 import rundeck.ScheduledExecution
 import rundeck.services.*
 import rundeck.services.execution.ThresholdValue
+import rundeck.services.execution.WatchedExecution
 import rundeck.services.logging.LoggingThreshold
 
 import java.util.concurrent.TimeUnit
@@ -49,6 +51,7 @@ class ExecutionJob implements InterruptableJob {
     public static final long DEFAULT_STATS_RETRY_DELAY = 1000
     public static final int DEFAULT_FINALIZE_RETRY_MAX = 10
     public static final long DEFAULT_FINALIZE_RETRY_DELAY = 5000
+    public static final int KILL_LIMIT = 100
 
     /**
      * max retry count for updating Job stats when execution completes
@@ -69,11 +72,16 @@ class ExecutionJob implements InterruptableJob {
      * millisecond delay between retries to finalize execution state
      */
     long finalizeRetryDelay = DEFAULT_FINALIZE_RETRY_DELAY
-    def boolean wasInterrupted
-    def boolean wasThreshold
-    def boolean wasTimeout
+    volatile boolean wasInterrupted
+    volatile boolean wasThreshold
+    volatile boolean wasTimeout
     GrailsApplication grailsApplication
     Long executionId
+    /**
+     * true if the running execution was handed to the watchdog service, and the Quartz job returned before completion
+     */
+    boolean detached
+    Timer.Context executionTimerContext
     static triggers = {
         /** define no triggers here */
     }
@@ -95,11 +103,14 @@ class ExecutionJob implements InterruptableJob {
         MetricRegistry metricRegistry=context.jobDetail.jobDataMap.get('metricRegistry')
         if(metricRegistry){
             Timer executionTimer=metricRegistry.timer(MetricRegistry.name(ExecutionJob, 'executionTimer'))
-            executionTimer.time {
-                execute_internal(context)
-            }
-        }else{
+            executionTimerContext = executionTimer.time()
+        }
+        try {
             execute_internal(context)
+        } finally {
+            if (!detached) {
+                executionTimerContext?.stop()
+            }
         }
     }
 
@@ -114,7 +125,6 @@ class ExecutionJob implements InterruptableJob {
     }
 
     void execute_internal(JobExecutionContext context) {
-        def boolean success=false
         RunContext initMap
         try{
             initMap= initialize(context,context.jobDetail.jobDataMap)
@@ -145,17 +155,44 @@ class ExecutionJob implements InterruptableJob {
         if (beforeExec == JobScheduleManager.BeforeExecutionBehavior.skip) {
             return
         }
+        ExecutionWatchdogService watchdog = getEntry(
+            context.jobDetail.jobDataMap,
+            'executionWatchdogService',
+            ExecutionWatchdogService
+        )
         RunResult result = null
-        def statusString=null
         try {
             if(!wasInterrupted){
-                result = executeCommand(initMap)
-                success=result.success
-                statusString=Execution.isCustomStatusString(result.result?.statusString)?result.result?.statusString:null
+                if (watchdog?.enabled) {
+                    CheckState state = startCommand(initMap)
+                    if (state) {
+                        //release the Quartz thread, the watchdog checks and finalizes the execution
+                        detached = true
+                        watchdog.watch(new Watched(context, initMap, state))
+                        return
+                    }
+                    result = new RunResult(success: false)
+                } else {
+                    result = executeCommand(initMap)
+                }
             }
         }catch(Throwable t){
             log.error("Failed execution ${initMap.execution.id} : ${t.message?t.message:'no message'}",t)
         }
+        completeExecution(context, initMap, result)
+    }
+
+    /**
+     * Save the execution state and notify the scheduler after the execution completes
+     * @param context job context
+     * @param initMap run context
+     * @param result result, or null if the execution did not run
+     */
+    void completeExecution(JobExecutionContext context, RunContext initMap, RunResult result) {
+        boolean success = result?.success ?: false
+        def statusString = Execution.isCustomStatusString(result?.result?.statusString) ?
+                           result.result.statusString :
+                           null
         saveState(
                 context.jobDetail.jobDataMap,
                 initMap.executionService,
@@ -175,6 +212,69 @@ class ExecutionJob implements InterruptableJob {
     public void interrupt(){
         wasInterrupted=true;
     }
+
+    /**
+     * Execution handed to the watchdog service
+     */
+    @CompileStatic
+    class Watched implements WatchedExecution {
+        final JobExecutionContext context
+        final RunContext runContext
+        final CheckState state
+
+        Watched(JobExecutionContext context, RunContext runContext, CheckState state) {
+            this.context = context
+            this.runContext = runContext
+            this.state = state
+        }
+
+        @Override
+        long getExecutionId() {
+            runContext.execution.id
+        }
+
+        @Override
+        ServiceThreadBase getThread() {
+            state.execmap.thread
+        }
+
+        @Override
+        List<Long> getDueTimes() {
+            List<Long> times = []
+            if (state.timeoutms > 0) {
+                times << state.startTime + state.timeoutms + 1
+            }
+            if (state.avgDurationThreshold > 0) {
+                times << state.startTime + state.avgDurationThreshold + 1
+            }
+            times
+        }
+
+        @Override
+        void check() {
+            checkCommand(runContext, state)
+        }
+
+        @Override
+        void interrupt() {
+            ExecutionJob.this.interrupt()
+        }
+
+        @Override
+        void complete() {
+            RunResult result = null
+            try {
+                result = finishCommand(runContext, state)
+            } catch (Throwable t) {
+                log.error("Failed execution ${runContext.execution.id} : ${t.message ?: 'no message'}", t)
+            }
+            try {
+                completeExecution(context, runContext, result)
+            } finally {
+                executionTimerContext?.stop()
+            }
+        }
+    }
     @CompileStatic
     static class RunContext{
         boolean temp
@@ -346,9 +446,50 @@ class ExecutionJob implements InterruptableJob {
         ExecutionService.AsyncStarted execmap
         WorkflowExecutionResult result
     }
+    /**
+     * State of a running execution, checked periodically until the workflow thread completes
+     */
+    @CompileStatic
+    static class CheckState {
+        ExecutionService.AsyncStarted execmap
+        long startTime
+        long timeoutms
+        long avgDurationThreshold
+        boolean avgNotificationSent
+        boolean stop
+        boolean success = true
+        int killcount
+    }
+
     @CompileStatic
     RunResult executeCommand(RunContext runContext) {
-        def success = true
+        CheckState state = startCommand(runContext)
+        if (!state) {
+            //failed to start
+            return new RunResult(success: false)
+        }
+        def WorkflowExecutionServiceThread thread = state.execmap.thread
+        boolean never=true
+        while (thread.isAlive() || never) {
+            never=false
+            try {
+                thread.join(1000)
+            } catch (InterruptedException e) {
+                //do nada
+            }
+            checkCommand(runContext, state)
+        }
+
+        return finishCommand(runContext, state)
+    }
+
+    /**
+     * Start the execution thread
+     * @param runContext context
+     * @return state to check, or null if the execution did not start
+     */
+    @CompileStatic
+    CheckState startCommand(RunContext runContext) {
         ExecutionService.AsyncStarted execmap
         try {
             execmap = runContext.executionService.executeAsyncBegin(
@@ -365,17 +506,11 @@ class ExecutionJob implements InterruptableJob {
             throw e
         }
         if (!execmap) {
-            //failed to start
-            return new RunResult(success: false)
+            return null
         }
-        def timeoutms = 1000 * runContext.timeout
-        def shouldCheckTimeout = timeoutms > 0
-        long startTime = System.currentTimeMillis()
-        int killcount = 0;
-        def killLimit = 100
-        def WorkflowExecutionServiceThread thread = execmap.thread
-        def Consumer<Long> periodicCheck = execmap.periodicCheck
-        def ThresholdValue threshold = execmap.threshold
+        def state = new CheckState(execmap: execmap)
+        state.timeoutms = 1000 * runContext.timeout
+        state.startTime = System.currentTimeMillis()
         long jobAverageDuration=0
         if(runContext.scheduledExecution){
             ScheduledExecution.withTransaction {
@@ -383,69 +518,78 @@ class ExecutionJob implements InterruptableJob {
             }
         }
 
+        state.avgDurationThreshold = getNotifyAvgDurationThreshold(
+            runContext.scheduledExecution?.notifyAvgDurationThreshold ?: "0",
+            jobAverageDuration,
+            execmap.thread?.context?.dataContext
+        )
+        return state
+    }
 
-        def boolean avgNotificationSent = false
-        def boolean stop=false
-
-
-        def jobAverageDurationFinal = getNotifyAvgDurationThreshold(runContext.scheduledExecution?.notifyAvgDurationThreshold?:"0",
-                                                                    jobAverageDuration,
-                                                                    thread?.context?.dataContext
-                                    )
-
-        def context = execmap?.thread?.context
-        boolean never=true
-        while (thread.isAlive() || never) {
-            never=false
-            try {
-                thread.join(1000)
-            } catch (InterruptedException e) {
-                //do nada
-            }
-            def duration = System.currentTimeMillis() - startTime
-            if(!avgNotificationSent && jobAverageDurationFinal>0){
-                if(duration > jobAverageDurationFinal){
-                    runContext.executionService.avgDurationExceeded(
-                            execmap.scheduledExecution.id,
-                            [
-                                    execution: execmap.execution,
-                                    context:context
-                            ]
-                    )
-                    avgNotificationSent=true
-                }
+    /**
+     * Check a running execution: send the average duration notification, check the timeout and log output threshold,
+     * and abort the thread if interrupted
+     * @param runContext context
+     * @param state state
+     */
+    @CompileStatic
+    void checkCommand(RunContext runContext, CheckState state) {
+        def execmap = state.execmap
+        def WorkflowExecutionServiceThread thread = execmap.thread
+        def ThresholdValue threshold = execmap.threshold
+        def duration = System.currentTimeMillis() - state.startTime
+        if(!state.avgNotificationSent && state.avgDurationThreshold>0){
+            if(duration > state.avgDurationThreshold){
+                runContext.executionService.avgDurationExceeded(
+                        execmap.scheduledExecution.id,
+                        [
+                                execution: execmap.execution,
+                                context:thread?.context
+                        ]
+                )
+                state.avgNotificationSent=true
             }
-            periodicCheck?.accept(duration)
-            if (
-            !wasInterrupted
-                    && !wasTimeout
-                    && shouldCheckTimeout
-                    && duration > timeoutms
-            ) {
-                wasTimeout = true
-                interrupt()
-                success=false
-            }else if(threshold && threshold.isThresholdExceeded()){
-                if(threshold.action == LoggingThreshold.ACTION_HALT) {
-                    wasThreshold = true
-                    success = false
-                    stop = true
-                }
+        }
+        execmap.periodicCheck?.accept(duration)
+        if (
+        !wasInterrupted
+                && !wasTimeout
+                && state.timeoutms > 0
+                && duration > state.timeoutms
+        ) {
+            wasTimeout = true
+            interrupt()
+            state.success=false
+        }else if(threshold && threshold.isThresholdExceeded()){
+            if(threshold.action == LoggingThreshold.ACTION_HALT) {
+                wasThreshold = true
+                state.success = false
+                state.stop = true
             }
-            if (wasInterrupted || stop) {
-                if (killcount < killLimit) {
-                    //send wave after wave
-                    thread.abort()
-                    Thread.yield();
-                    killcount++;
-                } else {
-                    //reached pre-set kill limit, so shut down
-                    thread.stop()
-                }
+        }
+        if (wasInterrupted || state.stop) {
+            if (state.killcount < KILL_LIMIT) {
+                //send wave after wave
+                thread.abort()
+                Thread.yield();
+                state.killcount++;
+            } else {
+                //reached pre-set kill limit, so shut down
+                thread.stop()
             }
         }
+    }
 
-
+    /**
+     * Finalize the execution after the thread has completed
+     * @param runContext context
+     * @param state state
+     * @return result
+     */
+    @CompileStatic
+    RunResult finishCommand(RunContext runContext, CheckState state) {
+        def execmap = state.execmap
+        def WorkflowExecutionServiceThread thread = execmap.thread
         Retried retried = withRetry(
             finalizeRetryMax,
             finalizeRetryDelay,
@@ -460,16 +604,16 @@ class ExecutionJob implements InterruptableJob {
         }
 
         log.debug(
-                "ExecutionJob: execution successful? " + (success && thread.isSuccessful()) +
+                "ExecutionJob: execution successful? " + (state.success && thread.isSuccessful()) +
                         ", interrupted? " +
                         wasInterrupted +
                         ", " +
                         "timeout? " +
                         wasTimeout
-                        +" threshold? "+threshold
+                        +" threshold? "+execmap.threshold
         )
 
-        return new RunResult(success: success && thread.isSuccessful(), execmap: execmap, result: thread.result)
+        return new RunResult(success: state.success && thread.isSuccessful(), execmap: execmap, result: thread.result)
     }
     /**
      * Execute a closure and if a throwable is thrown, retry a specified number of times with intermediate thread sleep
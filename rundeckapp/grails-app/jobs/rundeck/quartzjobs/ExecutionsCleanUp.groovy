@@ -1,5 +1,6 @@
 package rundeck.quartzjobs
 
+import com.dtolabs.rundeck.app.internal.logging.LogFileIndex
 import com.dtolabs.rundeck.app.support.ExecutionQuery
 import org.apache.commons.io.FileUtils
 import org.quartz.InterruptableJob
@@ -10,10 +11,16 @@ import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import rundeck.ExecReport
 import rundeck.Execution
+import rundeck.JobFileRecord
+import rundeck.LogFileStorageRequest
 import rundeck.ReferencedExecution
+import rundeck.Workflow
 import rundeck.services.*
 import rundeck.services.jobs.ResolvedAuthJobService
 
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
 class ExecutionsCleanUp implements InterruptableJob {
     static Logger logger = LoggerFactory.getLogger(ExecutionsCleanUp)
     def boolean wasInterrupted
@@ -30,11 +37,18 @@ class ExecutionsCleanUp implements InterruptableJob {
         String maxDaysToKeep = context.jobDetail.jobDataMap.get('maxDaysToKeep')
         String minimumExecutionToKeep = context.jobDetail.jobDataMap.get('minimumExecutionToKeep')
         String maximumDeletionSize = context.jobDetail.jobDataMap.get('maximumDeletionSize')
+        boolean bulkPurge = context.jobDetail.jobDataMap.get('bulkPurge') as boolean
+        String bulkPurgeChunkSize = context.jobDetail.jobDataMap.get('bulkPurgeChunkSize')
+        String bulkPurgeRowsPerSecond = context.jobDetail.jobDataMap.get('bulkPurgeRowsPerSecond')
 
         logger.info("Cleaner parameters: Project name: ${project}")
         logger.info("Max days to keep: ${maxDaysToKeep}")
         logger.info("Minimum executions to keep: ${minimumExecutionToKeep}")
         logger.info("Maximum size of deletions: ${maximumDeletionSize ?: '500 (default)'}")
+        if (bulkPurge) {
+            logger.info("Bulk purge chunk size: ${bulkPurgeChunkSize ?: '100 (default)'}")
+            logger.info("Bulk purge rows per second: ${bulkPurgeRowsPerSecond ?: 'unlimited'}")
+        }
 
         FrameworkService frameworkService = fetchFrameworkService(context.jobDetail.jobDataMap)
         ExecutionService executionService = fetchExecutionService(context.jobDetail.jobDataMap)
@@ -48,7 +62,17 @@ class ExecutionsCleanUp implements InterruptableJob {
                     minimumExecutionToKeep ? Integer.parseInt(minimumExecutionToKeep) : 0,
                     maximumDeletionSize ? Integer.parseInt(maximumDeletionSize) : 500)
             logger.info("Executions to delete: ${execIdsToExclude.toListString()}")
-            deleteByExecutionList(execIdsToExclude,fileUploadService, logFileStorageService)
+            if (bulkPurge) {
+                purgeByExecutionList(
+                        execIdsToExclude,
+                        bulkPurgeChunkSize ? Integer.parseInt(bulkPurgeChunkSize) : 100,
+                        bulkPurgeRowsPerSecond ? Integer.parseInt(bulkPurgeRowsPerSecond) : 0,
+                        fileUploadService,
+                        logFileStorageService
+                )
+            } else {
+                deleteByExecutionList(execIdsToExclude, fileUploadService, logFileStorageService)
+            }
         }
     }
 
@@ -93,29 +117,7 @@ class ExecutionsCleanUp implements InterruptableJob {
                 rpt.delete()
             }
 
-            def executionFiles = logFileStorageService.getExecutionFiles(e, [], false)
-
-            List<File> files = []
-            def execs = []
-            //aggregate all files to delete
-            execs << e
-            executionFiles.each { ftype, executionFile ->
-
-                def localFile = logFileStorageService.getFileForExecutionFiletype(e, ftype, false, false)
-                if (null != localFile && localFile.exists()) {
-                    files << localFile
-                }
-
-                def partialFile = logFileStorageService.getFileForExecutionFiletype(e, ftype, false, true)
-                if (null != partialFile && partialFile.exists()) {
-                    files << partialFile
-                }
-
-                def resultDeleteRemote = logFileStorageService.removeRemoteLogFile(e, ftype)
-                if(!resultDeleteRemote.started){
-                    logger.debug(resultDeleteRemote.error)
-                }
-            }
+            List<File> files = collectExecutionFiles(e, logFileStorageService)
             //delete all job file records
             fileUploadService.deleteRecordsForExecution(e)
 
@@ -145,6 +147,211 @@ class ExecutionsCleanUp implements InterruptableJob {
         return result
     }
 
+    /**
+     * Find the local log files of the execution, and start removal of its remote log files
+     * @param remoteRemovals if not null, tasks removing the remote log files are added to it instead of started
+     * @return local files to delete
+     */
+    private List<File> collectExecutionFiles(
+            Execution e,
+            LogFileStorageService logFileStorageService,
+            List<Runnable> remoteRemovals = null
+    ) {
+        def executionFiles = logFileStorageService.getExecutionFiles(e, [], false)
+
+        List<File> files = []
+        //aggregate all files to delete
+        executionFiles.each { ftype, executionFile ->
+
+            def localFile = logFileStorageService.getFileForExecutionFiletype(e, ftype, false, false)
+            if (null != localFile && localFile.exists()) {
+                files << localFile
+            }
+            def indexFile = null != localFile ? LogFileIndex.indexFileFor(localFile) : null
+            if (null != indexFile && indexFile.exists()) {
+                files << indexFile
+            }
+
+            def partialFile = logFileStorageService.getFileForExecutionFiletype(e, ftype, false, true)
+            if (null != partialFile && partialFile.exists()) {
+                files << partialFile
+            }
+
+            if (null == remoteRemovals) {
+                def resultDeleteRemote = logFileStorageService.removeRemoteLogFile(e, ftype)
+                if (!resultDeleteRemote.started) {
+                    logger.debug(resultDeleteRemote.error)
+                }
+            }
+        }
+        if (null != remoteRemovals && executionFiles) {
+            def removal = logFileStorageService.prepareRemoteLogFileRemoval(e, executionFiles.keySet())
+            if (removal) {
+                remoteRemovals << removal
+            }
+        }
+        return files
+    }
+
+    /**
+     * Delete the executions in chunks. Each chunk is deleted in one transaction with set-based deletes of the
+     * executions and their reports, references, job file records and log storage requests. Local log files, remote
+     * log files and uploaded files of a chunk are removed in a background thread once the chunk is committed.
+     * @param collectedExecutions execution IDs
+     * @param chunkSize executions per chunk
+     * @param rowsPerSecond maximum executions deleted per second, or 0 for no limit
+     * @return number of executions deleted
+     */
+    private int purgeByExecutionList(
+            List<Long> collectedExecutions,
+            int chunkSize,
+            int rowsPerSecond,
+            FileUploadService fileUploadService,
+            LogFileStorageService logFileStorageService
+    ) {
+        logger.info("Start to purge ${collectedExecutions.size()} executions in chunks of ${chunkSize}")
+        ExecutorService fileRemover = Executors.newSingleThreadExecutor()
+        int successTotal = 0
+        try {
+            for (List<Long> chunk : collectedExecutions.collate(Math.max(1, chunkSize))) {
+                if (wasInterrupted) {
+                    logger.info("Purge interrupted")
+                    break
+                }
+                long start = System.currentTimeMillis()
+                try {
+                    Map purged = Execution.withTransaction {
+                        purgeExecutions(chunk, logFileStorageService)
+                    }
+                    successTotal += purged.count
+                    fileRemover.execute {
+                        removePurgedFiles(
+                                purged.files,
+                                purged.fileReferences,
+                                purged.remoteRemovals,
+                                fileUploadService
+                        )
+                    }
+                } catch (Exception ex) {
+                    logger.error("Failed to purge executions ${chunk}", ex)
+                }
+                long delay = throttleDelay(chunk.size(), rowsPerSecond, System.currentTimeMillis() - start)
+                if (delay > 0) {
+                    try {
+                        Thread.sleep(delay)
+                    } catch (InterruptedException ignored) {
+                        wasInterrupted = true
+                    }
+                }
+            }
+        } finally {
+            fileRemover.shutdown()
+        }
+        logger.info("Deleted ${successTotal} of ${collectedExecutions.size()} executions")
+        if (successTotal < collectedExecutions.size()) {
+            logger.error("Some executions weren't deleted")
+        }
+        return successTotal
+    }
+
+    /**
+     * Delete a chunk of completed executions and their related records, must be called in a transaction
+     * @return map with count: number of executions deleted, files: local files to remove, fileReferences: storage
+     * references of the job file records, remoteRemovals: tasks removing the remote log files
+     */
+    private Map purgeExecutions(List<Long> chunk, LogFileStorageService logFileStorageService) {
+        List<Execution> execs = Execution.findAll(
+                'from Execution e where e.id in (:ids) and e.dateCompleted is not null',
+                [ids: chunk]
+        )
+        if (!execs) {
+            return [count: 0, files: [], fileReferences: [], remoteRemovals: []]
+        }
+        List<Long> ids = execs*.id
+        List<File> files = []
+        List<Runnable> remoteRemovals = []
+        List<Long> workflowIds = []
+        execs.each { Execution e ->
+            files.addAll(collectExecutionFiles(e, logFileStorageService, remoteRemovals))
+            if (e.workflow) {
+                workflowIds << e.workflow.id
+            }
+            e.discard()
+        }
+        List<String> fileReferences = JobFileRecord.executeQuery(
+                'select r.storageReference from JobFileRecord r where r.execution.id in (:ids)',
+                [ids: ids]
+        )
+
+        ReferencedExecution.executeUpdate(
+                'delete from ReferencedExecution r where r.execution.id in (:ids)',
+                [ids: ids]
+        )
+        ExecReport.executeUpdate('delete from ExecReport r where r.jcExecId in (:ids)', [ids: ids*.toString()])
+        JobFileRecord.executeUpdate('delete from JobFileRecord r where r.execution.id in (:ids)', [ids: ids])
+        LogFileStorageRequest.executeUpdate(
+                'delete from LogFileStorageRequest r where r.execution.id in (:ids)',
+                [ids: ids]
+        )
+        //remove references from executions that were a retry of a deleted execution
+        Execution.executeUpdate(
+                'update Execution e set e.retryExecution = null where e.retryExecution.id in (:ids)',
+                [ids: ids]
+        )
+        Execution.executeUpdate('delete from Execution e where e.id in (:ids)', [ids: ids])
+        //workflow steps are in join tables, so workflows are deleted with their cascade
+        if (workflowIds) {
+            Workflow.getAll(workflowIds).each { it?.delete() }
+        }
+        Execution.withSession { it.flush() }
+        logger.debug("Deleted executions: ${ids}")
+        return [count: ids.size(), files: files, fileReferences: fileReferences, remoteRemovals: remoteRemovals]
+    }
+
+    private void removePurgedFiles(
+            List<File> files,
+            List<String> fileReferences,
+            List<Runnable> remoteRemovals,
+            FileUploadService fileUploadService
+    ) {
+        def deletedfiles = 0
+        files.each { file ->
+            if (!FileUtils.deleteQuietly(file)) {
+                logger.warn("Failed to delete file while purging executions: ${file.absolutePath}")
+            } else {
+                deletedfiles++
+            }
+        }
+        fileReferences.each { reference ->
+            try {
+                fileUploadService.deleteRecordFile(reference)
+            } catch (Exception ex) {
+                logger.warn("Failed to delete uploaded file while purging executions: ${reference}", ex)
+            }
+        }
+        remoteRemovals.each { removal ->
+            try {
+                removal.run()
+            } catch (Exception ex) {
+                logger.warn("Failed to delete remote log files while purging executions", ex)
+            }
+        }
+        logger.debug("${deletedfiles} files removed")
+    }
+
+    /**
+     * @param rows rows deleted
+     * @param rowsPerSecond maximum rows per second, or 0 for no limit
+     * @param elapsed milliseconds taken to delete the rows
+     * @return milliseconds to wait before deleting more rows
+     */
+    static long throttleDelay(int rows, int rowsPerSecond, long elapsed) {
+        if (rowsPerSecond <= 0) {
+            return 0
+        }
+        return Math.max(0L, (rows * 1000L).intdiv(rowsPerSecond) - elapsed)
+    }
+
     private List<Long> searchExecutions(FrameworkService frameworkService, ExecutionService executionService, JobSchedulerService jobSchedulerService, String project, Integer maxDaysToKeep,
                                              Integer minimumExecutionToKeep, Integer maximumDeletionSize = 500){
         List collectedExecutions= []
@@ -32,8 +32,6 @@ import org.rundeck.storage.api.StorageException
 import org.rundeck.storage.impl.ResourceBase
 import rundeck.Storage
 
-import java.util.regex.Pattern
-
 /**
  * Implements StoragePlugin and provides DB storage for rundeck resources if configured to be used.
  */
@@ -49,6 +47,58 @@ class DbStorageService implements NamespacedStorage{
                 StorageUtil.withStream(lazyData(storage1), storage1.storageMeta), false)
     }
 
+    /**
+     * Load a resource from a projection of id, dir, name, jsonData and version, the data is loaded when the content is
+     * read
+     */
+    protected static Resource<ResourceMeta> loadResource(Object[] row) {
+        def (Long id, String dir, String name, String jsonData, Long version) = row
+        def path = PathUtil.asPath((dir ? (dir + '/') : '') + name)
+        new ResourceBase(path,
+                StorageUtil.withStream(lazyData(id, version, path), Storage.parseStorageMeta(jsonData)), false)
+    }
+
+    protected static HasInputStream lazyData(Long id, Long version, Path path) {
+        new HasInputStream() {
+            @Override
+            InputStream getInputStream() throws IOException {
+                new ByteArrayInputStream(loadData(id, version, path))
+            }
+
+            @Override
+            long writeContent(OutputStream outputStream) throws IOException {
+                def data = loadData(id, version, path)
+                long len = (long) data.length
+                outputStream.write(data)
+                return len
+            }
+        }
+    }
+
+    /**
+     * Load the data of a resource, if it has not been modified since its metadata was loaded
+     * @param version version of the loaded metadata
+     * @throws IOException if the resource was deleted or modified
+     */
+    protected static byte[] loadData(Long id, Long version, Path path) throws IOException {
+        def row = Storage.withTransaction([readOnly: true]) {
+            Storage.createCriteria().get {
+                eq('id', id)
+                projections {
+                    property('version')
+                    property('data')
+                }
+            }
+        }
+        if (!row) {
+            throw new IOException("Storage content not found: ${path}")
+        }
+        if (row[0] != version) {
+            throw new IOException("Storage content was modified after it was listed: ${path}")
+        }
+        row[1] ?: new byte[0]
+    }
+
     protected static HasInputStream lazyData(Storage storage1) {
         new HasInputStream() {
             @Override
@@ -106,7 +156,20 @@ class DbStorageService implements NamespacedStorage{
     @Override
     @Transactional(readOnly = true)
     boolean hasResource(String ns,Path path) {
-        findResource(ns,path) !=null
+        def dir, name
+        (dir, name) = splitPath(path)
+        Storage.createCriteria().get {
+            if (ns) {
+                eq('namespace', ns)
+            } else {
+                isNull('namespace')
+            }
+            eq('dir', dir)
+            eq('name', name)
+            projections {
+                rowCount()
+            }
+        } > 0
     }
 
     boolean hasResource(String ns,String path) {
@@ -144,7 +207,7 @@ class DbStorageService implements NamespacedStorage{
     @Override
     @Transactional(readOnly = true)
     Resource<ResourceMeta> getPath(String ns,Path path) {
-        Storage found = findResource(ns,path)
+        def found = findResourceMeta(ns,path)
         if(found){
             return loadResource(found)
         }else{
@@ -163,7 +226,7 @@ class DbStorageService implements NamespacedStorage{
     @Override
     @Transactional(readOnly = true)
     Resource<ResourceMeta> getResource(String ns,Path path) {
-        Storage found = findResource(ns,path)
+        def found = findResourceMeta(ns,path)
         if (!found) {
             throw StorageException.readException(path,"Not found")
         }
@@ -187,74 +250,125 @@ class DbStorageService implements NamespacedStorage{
         found
     }
 
+    /**
+     * @return projection of id, dir, name, jsonData and version for the resource, or null
+     */
+    protected Object[] findResourceMeta(String ns, Path path) {
+        def dir, name
+        (dir, name) = splitPath(path)
+        Storage.createCriteria().get {
+            if (ns) {
+                eq('namespace', ns)
+            } else {
+                isNull('namespace')
+            }
+            eq('dir', dir)
+            eq('name', name)
+            projections {
+                property('id')
+                property('dir')
+                property('name')
+                property('jsonData')
+                property('version')
+            }
+        }
+    }
+
     Resource<ResourceMeta> getResource(String ns,String path) {
         return getResource(ns,PathUtil.asPath(path))
     }
 
     @Override
     Set<Resource<ResourceMeta>> listDirectoryResources(String ns,Path path) {
-        Storage.findAllByNamespaceAndDir(ns ?: null,path.path,[sort:'name',order:'desc']).collect{ loadResource(it) }
-    }
-
-    Set<Resource<ResourceMeta>> listDirectoryResources(String ns,String path) {
-        return listDirectoryResources(ns,PathUtil.asPath(path))
-    }
-
-    @Override
-    Set<Resource<ResourceMeta>> listDirectory(String ns,Path path) {
-        def foundset=new HashSet<String>()
-        def c = Storage.createCriteria()
-        def pathkey= path.path ? (path.path + '/') : ''
-        c.list {
-            if(ns){
-                eq('namespace',ns)
-            }else{
+        Storage.createCriteria().list {
+            if (ns) {
+                eq('namespace', ns)
+            } else {
                 isNull('namespace')
             }
-            or {
-                eq('dir', path.path)
-                like('dir', pathkey+'%')
+            eq('dir', path.path)
+            projections {
+                property('id')
+                property('dir')
+                property('name')
+                property('jsonData')
+                property('version')
             }
             order("name", "desc")
-        }.collect {
-            def m= it.dir =~ "^(${Pattern.quote(pathkey)}[^/]+)/?.*"
-            if (it.dir == path.path) {
-                return loadResource(it)
-            } else if (m.matches() && !foundset.contains(m[0][1])) {
-                foundset<<m[0][1]
-                return loadDir(PathUtil.asPath(m[0][1]))
-            }
-            null
-        }.findAll{it}
+        }.collect { loadResource((Object[]) it) }
     }
 
-    Set<Resource<ResourceMeta>> listDirectory(String ns,String path) {
-        return listDirectory(ns,PathUtil.asPath(path))
+    /**
+     * @return immediate subdirectory of the path containing the dir, or null
+     */
+    protected static String subdirFor(String pathkey, String dir) {
+        if (!dir || !dir.startsWith(pathkey) || dir.length() <= pathkey.length()) {
+            return null
+        }
+        int end = dir.indexOf('/', pathkey.length())
+        end > 0 ? dir.substring(0, end) : dir
     }
 
-    @Override
-    Set<Resource<ResourceMeta>> listDirectorySubdirs(String ns,Path path) {
-        def foundset = new HashSet<String>()
-        def c = Storage.createCriteria()
+    /**
+     * List the resources and immediate subdirectories of the path, without loading resource data. Entries are in
+     * descending order of name, each subdirectory at the position of its first resource in that order.
+     * @param resources true to include the resources in the path
+     */
+    protected List<Resource<ResourceMeta>> listEntries(String ns, Path path, boolean resources) {
         def pathkey = path.path ? (path.path + '/') : ''
-        c.list {
+        def subdirs = new HashSet<String>()
+        Storage.createCriteria().list {
             if (ns) {
                 eq('namespace', ns)
             } else {
                 isNull('namespace')
             }
-            like('dir', pathkey + '%')
+            if (resources) {
+                or {
+                    eq('dir', path.path)
+                    like('dir', pathkey + '%')
+                }
+            } else {
+                like('dir', pathkey + '%')
+            }
+            projections {
+                property('id')
+                property('dir')
+                property('name')
+                property('jsonData')
+                property('version')
+            }
             order("name", "desc")
-        }.collect {
-            def m = it.dir =~ "^(${Pattern.quote(pathkey)}[^/]+)/?.*"
-            if (m.matches() && !foundset.contains(m[0][1])) {
-                foundset << m[0][1]
-                return loadDir(PathUtil.asPath(m[0][1]))
+        }.collect { Object[] row ->
+            if (resources && row[1] == path.path) {
+                return loadResource(row)
+            }
+            def subdir = subdirFor(pathkey, (String) row[1])
+            if (subdir && subdirs.add(subdir)) {
+                return loadDir(PathUtil.asPath(subdir))
             }
             null
         }.findAll { it }
     }
 
+    Set<Resource<ResourceMeta>> listDirectoryResources(String ns,String path) {
+        return listDirectoryResources(ns,PathUtil.asPath(path))
+    }
+
+    @Override
+    Set<Resource<ResourceMeta>> listDirectory(String ns,Path path) {
+        new LinkedHashSet<>(listEntries(ns, path, true))
+    }
+
+    Set<Resource<ResourceMeta>> listDirectory(String ns,String path) {
+        return listDirectory(ns,PathUtil.asPath(path))
+    }
+
+    @Override
+    Set<Resource<ResourceMeta>> listDirectorySubdirs(String ns,Path path) {
+        new LinkedHashSet<>(listEntries(ns, path, false))
+    }
+
     Set<Resource<ResourceMeta>> listDirectorySubdirs(String ns,String path) {
         return listDirectorySubdirs(ns,PathUtil.asPath(path))
     }
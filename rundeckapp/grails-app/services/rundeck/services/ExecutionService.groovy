@@ -17,6 +17,7 @@
 package rundeck.services
 
 import com.dtolabs.rundeck.app.api.ApiVersions
+import com.dtolabs.rundeck.app.internal.logging.LogFileIndex
 import com.dtolabs.rundeck.app.internal.logging.LogFlusher
 import com.dtolabs.rundeck.app.internal.workflow.MultiWorkflowExecutionListener
 import com.dtolabs.rundeck.app.support.BaseNodeFilters
@@ -47,6 +48,7 @@ import com.dtolabs.rundeck.core.plugins.JobLifecyclePluginException
 import com.dtolabs.rundeck.core.plugins.PluginConfiguration
 import com.dtolabs.rundeck.core.utils.NodeSet
 import com.dtolabs.rundeck.core.utils.OptsUtil
+import com.dtolabs.rundeck.core.utils.ThreadBoundContext
 import com.dtolabs.rundeck.core.utils.ThreadBoundOutputStream
 import com.dtolabs.rundeck.execution.JobExecutionItem
 import com.dtolabs.rundeck.execution.JobRefCommand
@@ -1172,6 +1174,14 @@ class ExecutionService implements ApplicationContextAware, StepExecutor, NodeSte
                     workflowLogManager,
                     secureOptionNodeDeferred
             )
+            //thread-bound log output and step context, bound to the node dispatch threads of this execution
+            executioncontext = ExecutionContextImpl.builder(executioncontext)
+                                                   .addComponent('sysThreadBoundOut', sysThreadBoundOut, ThreadBoundContext)
+                                                   .addComponent('sysThreadBoundErr', sysThreadBoundErr, ThreadBoundContext)
+                                                   .addComponent('rootLogOverride', rootoverride, ThreadBoundContext)
+                                                   .addComponent('workflowLogOverride', workflowoverride, ThreadBoundContext)
+                                                   .addComponent('contextManager', contextmanager, ThreadBoundContext)
+                                                   .build()
 
             fileUploadService.executionBeforeStart(
                     new ExecutionPrepareEvent(
@@ -1841,6 +1851,10 @@ class ExecutionService implements ApplicationContextAware, StepExecutor, NodeSte
                 if (null != localFile && localFile.exists()) {
                     files << localFile
                 }
+                def indexFile = null != localFile ? LogFileIndex.indexFileFor(localFile) : null
+                if (null != indexFile && indexFile.exists()) {
+                    files << indexFile
+                }
 
                 def partialFile = logFileStorageService.getFileForExecutionFiletype(e, ftype, false, true)
                 if (null != partialFile && partialFile.exists()) {
@@ -2584,7 +2598,12 @@ class ExecutionService implements ApplicationContextAware, StepExecutor, NodeSte
             def defaultoptions=[:]
             options.each {Option opt ->
                 if(null==optparams[opt.name] && opt.enforced && !opt.optionValues){
-                    Map remoteOptions = scheduledExecutionService.loadOptionsRemoteValues(scheduledExecution, [option: opt.name, extra: [option: optparams]], authContext?.username)
+                    Map remoteOptions = scheduledExecutionService.loadOptionsRemoteValues(
+                            scheduledExecution,
+                            [option: opt.name, extra: [option: optparams]],
+                            authContext?.username,
+                            authContext?.roles
+                    )
                     if(!remoteOptions.err && remoteOptions.values){
                         Map selectedOption = remoteOptions.values.find {it instanceof Map && [true, 'true'].contains(it.selected)}
                         if(selectedOption){
@@ -2727,7 +2746,7 @@ class ExecutionService implements ApplicationContextAware, StepExecutor, NodeSte
                 }
                 if(opt.enforced && !(opt.optionValues || opt.optionValuesPluginType)){
                     Map remoteOptions = scheduledExecutionService.loadOptionsRemoteValues(scheduledExecution,
-                            [option: opt.name, extra: [option: optparams]], authContext?.username)
+                            [option: opt.name, extra: [option: optparams]], authContext?.username, authContext?.roles)
                     if(!remoteOptions.err && remoteOptions.values){
                         opt.optionValues = remoteOptions.values.collect { optValue ->
                             if (optValue instanceof Map) {
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rundeck.services
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder
+import org.springframework.beans.factory.DisposableBean
+import org.springframework.beans.factory.InitializingBean
+import rundeck.services.execution.WatchedExecution
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.ScheduledThreadPoolExecutor
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Tracks running executions after the Quartz job which started them has returned. Checks are scheduled on a shared
+ * delay queue: periodically for log checkpoints and output thresholds, exactly at the due times for timeouts and
+ * average duration notifications, and immediately when an abort is requested. When the execution thread completes the
+ * execution is finalized on a separate thread pool.
+ */
+class ExecutionWatchdogService implements InitializingBean, DisposableBean {
+    static transactional = false
+    /**
+     * Prefix of the instance ID used in place of a Quartz fire instance ID for watched executions
+     */
+    public static final String INSTANCE_PREFIX = 'watchdog:'
+    def configurationService
+
+    private final ConcurrentMap<Long, Watch> watches = new ConcurrentHashMap<>()
+    private ScheduledThreadPoolExecutor scheduler
+    private ExecutorService finishExecutor
+    long checkIntervalMillis
+    /**
+     * If true, shutdown waits for watched executions to complete, as Quartz waits for running jobs
+     */
+    boolean waitForExecutions
+
+    /**
+     * Watch state of an execution
+     */
+    static class Watch {
+        final WatchedExecution execution
+        final AtomicBoolean completed = new AtomicBoolean(false)
+        final List<ScheduledFuture> timers = Collections.synchronizedList(new ArrayList<ScheduledFuture>())
+
+        Watch(WatchedExecution execution) {
+            this.execution = execution
+        }
+
+        void cancelTimers() {
+            synchronized (timers) {
+                timers*.cancel(false)
+                timers.clear()
+            }
+        }
+    }
+
+    @Override
+    void afterPropertiesSet() throws Exception {
+        checkIntervalMillis = configurationService?.getLong('execution.watchdog.checkIntervalMillis', 1000) ?: 1000
+        int threads = configurationService?.getInteger('execution.watchdog.threads', 2) ?: 2
+        scheduler = new ScheduledThreadPoolExecutor(
+                threads,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat('ExecutionWatchdog-%d').build()
+        )
+        scheduler.removeOnCancelPolicy = true
+        //checks scheduled for later are dropped at shutdown
+        scheduler.executeExistingDelayedTasksAfterShutdownPolicy = false
+        int finishThreads = configurationService?.getInteger('execution.watchdog.finishThreads', 4) ?: 4
+        def finishPool = new ThreadPoolExecutor(
+                finishThreads,
+                finishThreads,
+                60,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat('ExecutionWatchdog-finish-%d').build()
+        )
+        finishPool.allowCoreThreadTimeOut(true)
+        finishExecutor = finishPool
+        waitForExecutions = configurationService?.getBoolean('execution.watchdog.waitForExecutions', true) ?: false
+    }
+
+    /**
+     * Stop scheduling checks, and wait for running checks and finalizers to complete, up to
+     * rundeck.execution.watchdog.shutdownWait milliseconds.
+     *
+     * Executions handed to the watchdog are no longer Quartz jobs, so Quartz does not wait for them at shutdown. When
+     * rundeck.execution.watchdog.waitForExecutions is true (the default) shutdown first waits for all watched
+     * executions to complete and be finalized, with checks still running, matching Quartz waiting for running jobs.
+     * When false, running executions are left after shutdownWait, and are cleaned up as incomplete at the next startup.
+     */
+    @Override
+    void destroy() throws Exception {
+        if (waitForExecutions) {
+            awaitWatchedExecutions()
+        }
+        long waitMillis = configurationService?.getLong('execution.watchdog.shutdownWait', 10000) ?: 0
+        long deadline = System.currentTimeMillis() + waitMillis
+        scheduler?.shutdown()
+        finishExecutor?.shutdown()
+        try {
+            for (def executor : [scheduler, finishExecutor]) {
+                long remaining = deadline - System.currentTimeMillis()
+                if (executor && !executor.awaitTermination(Math.max(remaining, 0L), TimeUnit.MILLISECONDS)) {
+                    log.warn("Execution watchdog did not stop within ${waitMillis}ms")
+                    executor.shutdownNow()
+                }
+            }
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt()
+            scheduler?.shutdownNow()
+            finishExecutor?.shutdownNow()
+        }
+        watches.clear()
+    }
+
+    private void awaitWatchedExecutions() {
+        if (!watches.isEmpty()) {
+            log.info("Waiting for ${watches.size()} watched executions to complete")
+        }
+        try {
+            while (!watches.isEmpty()) {
+                Thread.sleep(Math.max(10L, Math.min(checkIntervalMillis, 500L)))
+            }
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt()
+        }
+    }
+
+    /**
+     * @return true if Quartz execution jobs should hand running executions to the watchdog
+     */
+    boolean isEnabled() {
+        configurationService?.getBoolean('execution.watchdog.enabled', false) ?: false
+    }
+
+    /**
+     * Start watching a running execution
+     * @param execution execution
+     * @throws IllegalStateException if the execution is already watched
+     */
+    void watch(WatchedExecution execution) {
+        def watch = new Watch(execution)
+        if (watches.putIfAbsent(execution.executionId, watch) != null) {
+            throw new IllegalStateException("Execution ${execution.executionId} is already watched")
+        }
+        watch.timers << scheduler.scheduleWithFixedDelay(
+                { check(watch) } as Runnable,
+                checkIntervalMillis,
+                checkIntervalMillis,
+                TimeUnit.MILLISECONDS
+        )
+        long now = System.currentTimeMillis()
+        execution.dueTimes?.each { Long due ->
+            watch.timers << scheduler.schedule(
+                    { check(watch) } as Runnable,
+                    Math.max(0L, due - now),
+                    TimeUnit.MILLISECONDS
+            )
+        }
+        execution.thread.onComplete({ completed(watch) } as Runnable)
+    }
+
+    private void check(Watch watch) {
+        if (watch.completed.get()) {
+            return
+        }
+        try {
+            synchronized (watch) {
+                watch.execution.check()
+            }
+        } catch (Throwable t) {
+            log.error("Execution ${watch.execution.executionId} check failed: ${t.message}", t)
+        }
+        if (watch.execution.thread.state == Thread.State.TERMINATED) {
+            //thread finished without notifying completion
+            completed(watch)
+        }
+    }
+
+    private void completed(Watch watch) {
+        if (!watch.completed.compareAndSet(false, true)) {
+            return
+        }
+        watch.cancelTimers()
+        finishExecutor.execute {
+            try {
+                //final check after the thread completes
+                synchronized (watch) {
+                    watch.execution.check()
+                }
+                watch.execution.complete()
+            } catch (Throwable t) {
+                log.error("Execution ${watch.execution.executionId} finalize failed: ${t.message}", t)
+            } finally {
+                watches.remove(watch.execution.executionId, watch)
+            }
+        }
+    }
+
+    /**
+     * Request a watched execution to abort. The thread is aborted immediately, and then at each check until it
+     * completes
+     * @param id execution ID
+     * @return true if the execution is watched
+     */
+    boolean abort(Long id) {
+        def watch = id != null ? watches.get(id) : null
+        if (!watch) {
+            return false
+        }
+        watch.execution.interrupt()
+        if (!watch.completed.get()) {
+            scheduler.execute({ check(watch) } as Runnable)
+        }
+        true
+    }
+
+    /**
+     * @param id execution ID
+     * @return true if the execution is watched
+     */
+    boolean isWatching(Long id) {
+        id != null && watches.containsKey(id)
+    }
+
+    /**
+     * @param id execution ID
+     * @return instance ID to use in place of the Quartz fire instance ID, or null if the execution is not watched
+     */
+    String instanceIdFor(Long id) {
+        isWatching(id) ? INSTANCE_PREFIX + id : null
+    }
+
+    /**
+     * @param instanceId instance ID
+     * @return execution ID if the instance ID was returned by {@link #instanceIdFor(Long)}, otherwise null
+     */
+    static Long executionIdForInstance(String instanceId) {
+        if (instanceId?.startsWith(INSTANCE_PREFIX)) {
+            return instanceId.substring(INSTANCE_PREFIX.length()).toLong()
+        }
+        null
+    }
+
+    /**
+     * @return number of watched executions
+     */
+    int getWatchCount() {
+        watches.size()
+    }
+}
@@ -262,13 +262,20 @@ class FileUploadService {
 
 
     def deleteRecord(JobFileRecord record) {
+        deleteRecordFile(record.storageReference)
+        record.delete()
+    }
+
+    /**
+     * Remove the stored file of a record which has been deleted
+     * @param reference storage reference of the record
+     */
+    def deleteRecordFile(String reference) {
         def plugin = getPlugin()
-        def reference = record.storageReference
         if (plugin.hasFile(reference)) {
             plugin.transitionState(reference, FileUploadPlugin.ExternalState.Deleted)
         }
         removeLocalFile(reference)
-        record.delete()
     }
 
     def deleteRecordsForExecution(Execution e) {
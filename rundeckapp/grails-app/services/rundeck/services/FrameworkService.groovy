@@ -375,6 +375,15 @@ class FrameworkService implements ApplicationContextAware, ClusterInfoService {
                             maxDaysToKeep: config.maxDaysToKeep,
                             minimumExecutionToKeep: config.minimumExecutionToKeep,
                             maximumDeletionSize: config.maximumDeletionSize,
+                            bulkPurge: configurationService?.getBoolean('execution.cleanup.bulkPurge.enabled', false),
+                            bulkPurgeChunkSize: configurationService?.getInteger(
+                                    'execution.cleanup.bulkPurge.chunkSize',
+                                    100
+                            ),
+                            bulkPurgeRowsPerSecond: configurationService?.getInteger(
+                                    'execution.cleanup.bulkPurge.rowsPerSecond',
+                                    0
+                            ),
                             project: project,
                             logFileStorageService: logFileStorageService,
                             fileUploadService: fileUploadService,
@@ -17,9 +17,13 @@
 package rundeck.services
 
 import com.codahale.metrics.Counter
+import com.dtolabs.rundeck.app.internal.logging.BlockCompressedLogFile
 import com.dtolabs.rundeck.app.internal.logging.FSStreamingLogReader
 import com.dtolabs.rundeck.app.internal.logging.FSStreamingLogWriter
+import com.dtolabs.rundeck.app.internal.logging.LogFileIndex
+import com.dtolabs.rundeck.app.internal.logging.LogFileIndexWriter
 import com.dtolabs.rundeck.app.internal.logging.RundeckLogFormat
+import com.dtolabs.rundeck.app.internal.logging.WriteBehindOutputStream
 import com.dtolabs.rundeck.app.internal.workflow.PeriodicFileChecker
 import com.dtolabs.rundeck.core.execution.ExecutionNotFound
 import com.dtolabs.rundeck.core.execution.ExecutionReference
@@ -63,6 +67,7 @@ import java.nio.file.StandardCopyOption
 import java.util.concurrent.*
 import java.util.function.Consumer
 import java.util.function.Supplier
+import java.util.zip.Deflater
 
 /**
  * Manage execution file storage retrieve and store requests.
@@ -85,6 +90,13 @@ class LogFileStorageService
                 ApplicationListener<ContextClosedEvent> {
 
     static final RundeckLogFormat rundeckLogFormat = new RundeckLogFormat()
+    /**
+     * File types which are stored block compressed when compression is enabled
+     */
+    static final List<String> COMPRESSED_FILETYPES = [
+            LoggingService.LOG_FILE_FILETYPE,
+            WorkflowService.STATE_FILE_FILETYPE
+    ].asImmutable()
     ExecutionFileStoragePluginProviderService executionFileStoragePluginProviderService
     PluginService pluginService
     def frameworkService
@@ -92,6 +104,7 @@ class LogFileStorageService
     AsyncListenableTaskExecutor logFileStorageTaskExecutor
     TaskScheduler logFileStorageTaskScheduler
     TaskExecutor logFileStorageDeleteRemoteTask
+    TaskExecutor logFileWriteBehindTaskExecutor
     def executorService
     def grailsApplication
     def grailsLinkGenerator
@@ -99,6 +112,7 @@ class LogFileStorageService
     def metricService
     def configurationService
     def jobStateService
+    def logTailService
 
     /**
      * Queue of log storage requests ids, for incomplet requests being resumed
@@ -506,6 +520,76 @@ class LogFileStorageService
     def long getLogstoreCheckpointFilesizeIncrement() {
         configurationService.getFileSize('execution.logs.fileStorage.checkpoint.fileSize.increment', 0)
     }
+    /**
+     * @return whether a sidecar index is written for local log files
+     */
+    boolean getLogstoreIndexEnabled() {
+        configurationService ? configurationService.getBoolean('execution.logs.fileStorage.index.enabled', true) : true
+    }
+
+    /**
+     * @return number of log entries between index checkpoints
+     */
+    int getLogstoreIndexInterval() {
+        configurationService?.getInteger(
+                'execution.logs.fileStorage.index.interval',
+                LogFileIndexWriter.DEFAULT_INTERVAL
+        ) ?: LogFileIndexWriter.DEFAULT_INTERVAL
+    }
+
+    /**
+     * @return whether log files are written by a write-behind writer thread
+     */
+    boolean getLogstoreWriteBehindEnabled() {
+        configurationService?.getBoolean('execution.logs.fileStorage.writeBehind.enabled', false) ?: false
+    }
+
+    /**
+     * @return maximum number of log writes queued by the write-behind writer
+     */
+    int getLogstoreWriteBehindCapacity() {
+        configurationService?.getInteger(
+                'execution.logs.fileStorage.writeBehind.capacity',
+                WriteBehindOutputStream.DEFAULT_CAPACITY
+        ) ?: WriteBehindOutputStream.DEFAULT_CAPACITY
+    }
+
+    /**
+     * @return maximum bytes queued by the write-behind writer
+     */
+    long getLogstoreWriteBehindMemoryLimit() {
+        configurationService?.getFileSize(
+                'execution.logs.fileStorage.writeBehind.memoryLimit',
+                WriteBehindOutputStream.DEFAULT_MEMORY_LIMIT
+        ) ?: WriteBehindOutputStream.DEFAULT_MEMORY_LIMIT
+    }
+
+    /**
+     * @return whether complete log and state files are stored block compressed, if the storage plugin supports it
+     */
+    boolean getLogstoreCompressionEnabled() {
+        configurationService?.getBoolean('execution.logs.fileStorage.compression.enabled', false) ?: false
+    }
+
+    /**
+     * @return uncompressed size of each compressed frame
+     */
+    int getLogstoreCompressionBlockSize() {
+        (int) (configurationService?.getFileSize(
+                'execution.logs.fileStorage.compression.blockSize',
+                BlockCompressedLogFile.DEFAULT_BLOCK_SIZE
+        ) ?: BlockCompressedLogFile.DEFAULT_BLOCK_SIZE)
+    }
+
+    /**
+     * @return deflate compression level
+     */
+    int getLogstoreCompressionLevel() {
+        configurationService ? configurationService.getInteger(
+                'execution.logs.fileStorage.compression.level',
+                Deflater.DEFAULT_COMPRESSION
+        ) : Deflater.DEFAULT_COMPRESSION
+    }
     /**
      * Return the configured plugin name
      * @return
@@ -533,8 +617,34 @@ class LogFileStorageService
                 throw new IllegalStateException("Unable to create directories for storage: " + file)
             }
         }
+        OutputStream output = new FileOutputStream(file)
+        WriteBehindOutputStream writeBehind = null
+        if (logstoreWriteBehindEnabled) {
+            //file writes are performed by the shared writer pool, sizes are counted when events are queued
+            writeBehind = new WriteBehindOutputStream(
+                    output,
+                    logFileWriteBehindTaskExecutor,
+                    logstoreWriteBehindCapacity,
+                    logstoreWriteBehindMemoryLimit
+            )
+            output = writeBehind
+        }
         //stream log events to file, and when closed submit asynch request to store file if needed
-        def writer = new FSStreamingLogWriter(new FileOutputStream(file), defaultMeta, rundeckLogFormat)
+        def writer = new FSStreamingLogWriter(output, defaultMeta, rundeckLogFormat)
+        if (logstoreIndexEnabled) {
+            writer.indexWriter = new LogFileIndexWriter(
+                    new FileOutputStream(LogFileIndex.indexFileFor(file)),
+                    logstoreIndexInterval
+            )
+        }
+        if (logTailService) {
+            //notify followers of the log file when events are written
+            if (writeBehind) {
+                writeBehind.flushListener = logTailService.writeListenerFor(file)
+            } else {
+                writer.writeListener = logTailService.writeListenerFor(file)
+            }
+        }
         if(filesizeWatcher!=null){
             ValueHolder value={->
                 writer.bytesWritten
@@ -1334,6 +1444,16 @@ class LogFileStorageService
         false
     }
 
+    def pluginSupportsCompressedStorage(Object plugin) {
+        if (!pluginSupportsStorage(plugin) || !pluginSupportsRetrieve(plugin)) {
+            return false
+        }
+        if (plugin instanceof ExecutionFileStorageOptions) {
+            return ((ExecutionFileStorageOptions) plugin).blockCompressedStoreSupported
+        }
+        false
+    }
+
     def pluginSupportsPartialRetrieval(Object plugin) {
         if (!pluginSupportsRetrieve(plugin)) {
             return false
@@ -1891,17 +2011,29 @@ class LogFileStorageService
         if(filter) {
             files = files.subMap(filter.findAll{it in files.keySet()})
         }
+        Map<String, File> compressed = [:]
+        if (!partial && logstoreCompressionEnabled && pluginSupportsCompressedStorage(storage)) {
+            //complete files are stored compressed, and retrieved as-is
+            compressed = compressForStorage(files)
+        }
+        Map<String, File> uploads = files.collectEntries { type, file ->
+            [type, compressed[type] ?: file.localFile]
+        }
         def list = [:]
         def List<ExecutionFile> deletions=[]
-        if (storage instanceof ExecutionMultiFileStorage) {
-            list = storeMultiLogFiles(files, storage, ident, partial)
-        } else {
-            files.each { type, file ->
-                def (result, message) = storeSingleLogFile(file.localFile, type, storage, ident, partial)
-                if (!result) {
-                    list[type]=message
+        try {
+            if (storage instanceof ExecutionMultiFileStorage) {
+                list = storeMultiLogFiles(uploads, storage, ident, partial)
+            } else {
+                uploads.each { type, file ->
+                    def (result, message) = storeSingleLogFile(file, type, storage, ident, partial)
+                    if (!result) {
+                        list[type]=message
+                    }
                 }
             }
+        } finally {
+            compressed.values()*.delete()
         }
         if(!list){
             success=true
@@ -1920,15 +2052,48 @@ class LogFileStorageService
         return [success,list]
     }
 
+    /**
+     * Write block compressed copies of complete log and state files to upload to storage. The local files are not
+     * modified.
+     * @param files files by type
+     * @return compressed temp files by type, to delete after storage
+     */
+    private Map<String, File> compressForStorage(Map<String, ExecutionFile> files) {
+        Map<String, File> compressed = [:]
+        files.each { String filetype, ExecutionFile file ->
+            if (!(filetype in COMPRESSED_FILETYPES) || !file.localFile?.isFile() ||
+                BlockCompressedLogFile.isCompressed(file.localFile)) {
+                return
+            }
+            def temp = new File(file.localFile.parentFile, file.localFile.name + '.compress.tmp')
+            try {
+                long length = BlockCompressedLogFile.compress(
+                        file.localFile,
+                        temp,
+                        logstoreCompressionBlockSize,
+                        logstoreCompressionLevel
+                )
+                temp.setLastModified(file.localFile.lastModified())
+                compressed[filetype] = temp
+                log.debug("Compressed ${file.localFile} for storage: ${file.localFile.length()}b to ${length}b")
+            } catch (IOException e) {
+                temp.delete()
+                log.error("Failed to compress file ${file.localFile}, storing it uncompressed: ${e.message}")
+                log.debug("Failed to compress file ${file.localFile}: ${e.message}", e)
+            }
+        }
+        compressed
+    }
+
     /**
      * Store multiple files at once using the multi-file-storage plugin
-     * @param  files files
+     * @param localfiles files to upload by type
      * @param storage plugin
      * @param ident storage request ident
      * @return list of filetypes which were not successful
      */
     private Map<String, String> storeMultiLogFiles(
-            Map<String, ExecutionFile> files,
+            Map<String, File> localfiles,
             ExecutionMultiFileStorage storage,
             String ident,
             boolean partial = false
@@ -1938,14 +2103,12 @@ class LogFileStorageService
 
         Map<String,String> failures = [:]
 
-        Map<String, File> localfiles = files.collectEntries { [it.key, it.value.localFile] }
-
         def request = new MultiFileStorageRequestImpl(files: localfiles, completed: !partial)
 
         storage.storeMultiple(request)
 
         //determine results
-        files.keySet().each { String filetype ->
+        localfiles.keySet().each { String filetype ->
             def succeeded = request.completion[filetype]
             if (!succeeded) {
                 failures[filetype] = request.errors[filetype]?:('No failure message (filetype: ' + filetype + ')')
@@ -2079,6 +2242,33 @@ class LogFileStorageService
         return [started: started, error: errorMessage]
     }
 
+    /**
+     * Configure the storage plugin for the execution, and return a task removing its remote log files. The task
+     * does not use the execution, so it can run after the execution is deleted.
+     * @param execution
+     * @param filetypes file types to remove
+     * @return task removing the remote files, or null if no storage plugin is enabled
+     */
+    Runnable prepareRemoteLogFileRemoval(Execution e, Collection<String> filetypes) {
+        def plugin = getConfiguredPluginForExecution(e, frameworkService.getFrameworkPropertyResolver(e.project))
+        if (!plugin) {
+            return null
+        }
+        List<String> types = new ArrayList<>(filetypes)
+        Long id = e.id
+        return {
+            types.each { filetype ->
+                try {
+                    if (plugin.isAvailable(filetype)) {
+                        plugin.deleteFile(filetype)
+                    }
+                } catch (Exception ex) {
+                    log.warn("removing the remote log file ${filetype} for execution ${id} failed: ${ex.message}")
+                }
+            }
+        } as Runnable
+    }
+
     @Override
     void onApplicationEvent(final ContextClosedEvent event) {
         cleanup()
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rundeck.services
+
+import com.dtolabs.rundeck.app.internal.logging.FSStreamingLogReader
+import com.dtolabs.rundeck.core.logging.LogEvent
+import com.google.common.util.concurrent.ThreadFactoryBuilder
+import org.springframework.beans.factory.DisposableBean
+import org.springframework.beans.factory.InitializingBean
+import rundeck.services.logging.LogFileFollower
+import rundeck.services.logging.LogFileWatcher
+import rundeck.services.logging.LogTailSink
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+import java.util.function.BiFunction
+import java.util.function.Predicate
+
+/**
+ * Follows local execution log files for streaming tail requests. All followers of the same log file share one watcher,
+ * which is notified by the log writer when events are written, and also checks the file periodically for changes made
+ * by another process. Each follower holds its own reader, and reads new events from its last offset when notified.
+ */
+class LogTailService implements InitializingBean, DisposableBean {
+    static transactional = false
+    def configurationService
+
+    private final ConcurrentMap<File, LogFileWatcher> watchers = new ConcurrentHashMap<>()
+    private ScheduledExecutorService watchScheduler
+    private ExecutorService readExecutor
+    long heartbeatMillis
+    int batchSize
+
+    @Override
+    void afterPropertiesSet() throws Exception {
+        int threads = configurationService?.getInteger('execution.logs.tail.threads', 4) ?: 4
+        long checkMillis = configurationService?.getInteger('execution.logs.tail.checkIntervalMillis', 1000) ?: 1000
+        heartbeatMillis = (configurationService?.getInteger('execution.logs.tail.heartbeatSeconds', 15) ?: 15) * 1000L
+        batchSize = configurationService?.getInteger('execution.logs.tail.batchSize', 200) ?: 200
+        readExecutor = Executors.newFixedThreadPool(
+                threads,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat('LogTail-read-%d').build()
+        )
+        watchScheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat('LogTail-watch-%d').build()
+        )
+        watchScheduler.scheduleWithFixedDelay(this.&checkWatchers, checkMillis, checkMillis, TimeUnit.MILLISECONDS)
+    }
+
+    @Override
+    void destroy() throws Exception {
+        watchScheduler?.shutdownNow()
+        readExecutor?.shutdownNow()
+        watchers.values().each { watcher ->
+            watcher.followers.each { it.close() }
+        }
+        watchers.clear()
+    }
+
+    /**
+     * Follow a log file
+     * @param file log file
+     * @param reader reader for the file, owned by the follower
+     * @param offset file offset to start reading from
+     * @param filter event filter, or null
+     * @param sink receives the events
+     * @return follower, close it to stop following
+     */
+    LogFileFollower follow(
+            File file,
+            FSStreamingLogReader reader,
+            long offset,
+            Predicate<LogEvent> filter,
+            LogTailSink sink
+    )
+    {
+        File key = file.absoluteFile
+        def follower = new LogFileFollower(key, reader, offset, filter, sink, batchSize)
+        follower.closeListener = { unfollow(follower) } as Runnable
+        watchers.compute(key, { File f, LogFileWatcher watcher ->
+            watcher = watcher ?: new LogFileWatcher(f)
+            watcher.add(follower)
+            watcher
+        } as BiFunction<File, LogFileWatcher, LogFileWatcher>
+        )
+        //read events already written
+        follower.changed(readExecutor)
+        follower
+    }
+
+    /**
+     * Stop following, and remove the watcher if it has no more followers
+     * @param follower follower
+     */
+    void unfollow(LogFileFollower follower) {
+        watchers.computeIfPresent(follower.file, { File f, LogFileWatcher watcher ->
+            watcher.remove(follower)
+            watcher.isEmpty() ? null : watcher
+        } as BiFunction<File, LogFileWatcher, LogFileWatcher>
+        )
+        if (!follower.closed) {
+            follower.close()
+        }
+    }
+
+    /**
+     * Notify followers that the log file was written
+     * @param file log file
+     */
+    void fileWritten(File file) {
+        watchers.get(file)?.changed(readExecutor)
+    }
+
+    /**
+     * @param file log file
+     * @return listener for a log writer, which notifies followers of the file
+     */
+    Runnable writeListenerFor(File file) {
+        File key = file.absoluteFile
+        return { fileWritten(key) } as Runnable
+    }
+
+    /**
+     * @return number of log files being watched
+     */
+    int getWatcherCount() {
+        watchers.size()
+    }
+
+    /**
+     * @return number of followers of all log files
+     */
+    int getFollowerCount() {
+        (int) watchers.values().sum(0) { it.size() }
+    }
+
+    private void checkWatchers() {
+        long now = System.currentTimeMillis()
+        for (LogFileWatcher watcher : watchers.values()) {
+            try {
+                watcher.check(readExecutor, now, heartbeatMillis)
+            } catch (Exception e) {
+                log.error("Error checking log file ${watcher.file}: ${e}", e)
+            }
+        }
+    }
+}
@@ -57,6 +57,7 @@ class NodeService implements InitializingBean, ProjectConfigurable, IProjectNode
     public static final String PROJECT_NODECACHE_DELAY = 'project.nodeCache.delay'
     public static final String PROJECT_NODECACHE_ENABLED = 'project.nodeCache.enabled'
     public static final String PROJECT_NODECACHE_FIRSTLOAD_SYNCH = 'project.nodeCache.firstLoadSynch'
+    public static final String NODECACHE_COMPACT = 'nodeService.nodeCache.compact'
     static transactional = false
     public static final String DEFAULT_CACHE_SPEC = "refreshInterval=30s"
     def metricService
@@ -250,6 +251,18 @@ class NodeService implements InitializingBean, ProjectConfigurable, IProjectNode
                 }
             }
         )
+        nodeSupport.sourceLoadListener = new ProjectNodeSupport.SourceLoadListener() {
+            @Override
+            void sourceLoaded(int index, String type, long durationNanos) {
+                metricService?.timer(NodeService.name, "project.${project}.source.${index}.loadNodes")?.
+                    update(durationNanos, TimeUnit.NANOSECONDS)
+            }
+
+            @Override
+            void sourceTimedOut(int index, String type) {
+                metricService?.meter(NodeService.name, "project.${project}.source.${index}.timeout")?.mark()
+            }
+        }
 
 
         def preloadedNodes = null
@@ -293,6 +306,7 @@ class NodeService implements InitializingBean, ProjectConfigurable, IProjectNode
                 cacheTime: new Date(),
                 nodeSupport: nodeSupport,
                 doCache: enabled,
+                compactNodes: enabled && configurationService.getBoolean(NODECACHE_COMPACT, false),
                 nodes: preloadedNodes,
                 source: source
         )
@@ -39,32 +39,44 @@ import grails.web.JSONBuilder
 import grails.web.mapping.LinkGenerator
 import groovy.transform.PackageScope
 import groovy.xml.MarkupBuilder
+import com.google.common.util.concurrent.ThreadFactoryBuilder
 import org.apache.commons.codec.binary.Hex
 import org.apache.commons.codec.digest.DigestUtils
 import org.apache.commons.httpclient.Header
 import org.apache.commons.httpclient.HttpClient
 import org.apache.commons.httpclient.HttpMethod
 import org.apache.commons.httpclient.HttpMethodBase
+import org.apache.commons.httpclient.HttpState
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager
 import org.apache.commons.httpclient.UsernamePasswordCredentials
 import org.apache.commons.httpclient.auth.AuthScope
 import org.apache.commons.httpclient.methods.GetMethod
 import org.apache.commons.httpclient.methods.PostMethod
 import org.apache.commons.httpclient.methods.StringRequestEntity
 import org.apache.commons.httpclient.params.HttpClientParams
+import org.apache.commons.httpclient.params.HttpConnectionManagerParams
 import org.rundeck.app.AppConstants
 import org.rundeck.app.spi.RundeckSpiBaseServicesProvider
 import org.rundeck.app.spi.Services
+import org.springframework.beans.factory.DisposableBean
+import org.springframework.beans.factory.InitializingBean
 import org.springframework.context.ApplicationContext
 import org.springframework.context.ApplicationContextAware
 import rundeck.Execution
 import rundeck.Notification
 import rundeck.ScheduledExecution
 import rundeck.User
+import rundeck.services.notification.NotificationDispatcher
 import com.dtolabs.rundeck.core.execution.logstorage.ExecutionFileState
 
 import java.security.MessageDigest
 import java.text.SimpleDateFormat
-import java.util.concurrent.TimeoutException
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ScheduledThreadPoolExecutor
+import java.util.concurrent.TimeUnit
 
 /*
  * NotificationService.java
@@ -74,13 +86,32 @@ import java.util.concurrent.TimeoutException
  * $Id$
  */
 
-public class NotificationService implements ApplicationContextAware{
+public class NotificationService implements ApplicationContextAware, InitializingBean, DisposableBean{
     boolean transactional = false
 
     static final String POST = "post"
     static final String GET = "get"
+    static final int WEBHOOK_TIMEOUT_SECONDS = 15
+    static final long WEBHOOK_IDLE_MILLIS = 60000
+    static final long WEBHOOK_RETRY_MAX_MILLIS = 60000
+
+    /**
+     * Connections for webhook notifications, kept alive and pooled per destination host
+     */
+    private final MultiThreadedHttpConnectionManager webhookConnections = createWebhookConnectionManager()
+    private final HttpClient webhookClient = createWebhookClient(webhookConnections, false)
+    /**
+     * Client for webhook URLs with credentials, sending basic authentication without waiting for a challenge
+     */
+    private final HttpClient webhookAuthClient = createWebhookClient(webhookConnections, true)
+    /**
+     * Runs webhook retries after their delay, so that notification workers do not wait for them, and closes idle
+     * webhook connections periodically
+     */
+    private final ScheduledExecutorService webhookRetries = createWebhookRetryScheduler()
 
     def defaultThreadTO = 120000
+    private NotificationDispatcher dispatcher
     def grailsLinkGenerator
 
     ApplicationContext applicationContext
@@ -96,6 +127,63 @@ public class NotificationService implements ApplicationContextAware{
     OrchestratorPluginService orchestratorPluginService
     def featureService
     def configurationService
+    def metricService
+
+    @Override
+    void afterPropertiesSet() throws Exception {
+        configureWebhookConnections(
+                configurationService?.getInteger('notification.webhook.maxConnectionsPerHost', 4) ?: 4,
+                configurationService?.getInteger('notification.webhook.maxConnections', 50) ?: 50
+        )
+        webhookRetries.scheduleWithFixedDelay(
+                { webhookConnections.closeIdleConnections(WEBHOOK_IDLE_MILLIS) } as Runnable,
+                WEBHOOK_IDLE_MILLIS,
+                WEBHOOK_IDLE_MILLIS,
+                TimeUnit.MILLISECONDS
+        )
+    }
+
+    @Override
+    void destroy() throws Exception {
+        synchronized (this) {
+            dispatcher?.shutdown(configurationService?.getLong('notification.dispatch.shutdownWait', 10000) ?: 0)
+            dispatcher = null
+        }
+        //pending retries are not sent
+        webhookRetries.shutdownNow()
+        webhookConnections.shutdown()
+    }
+
+    /**
+     * @return dispatcher for notifications sent in their own thread, created when first used
+     */
+    synchronized NotificationDispatcher getDispatcher() {
+        if (null == dispatcher) {
+            dispatcher = new NotificationDispatcher(
+                    configurationService?.getInteger('notification.dispatch.threads', 4) ?: 4,
+                    configurationService?.getInteger('notification.dispatch.queueSize', 1000) ?: 1000,
+                    configurationService?.getLong("notification.threadTimeOut", defaultThreadTO) ?: 0
+            )
+            dispatcher.latencyTimer = metricService?.timer(this.class.name, 'notificationDispatchTimer')
+            dispatcher.failureMeter = metricService?.meter(this.class.name, 'notificationDispatchFailureMeter')
+            dispatcher.callerRunsMeter = metricService?.meter(this.class.name, 'notificationDispatchCallerRunsMeter')
+        }
+        dispatcher
+    }
+
+    /**
+     * @return number of notifications queued for dispatch
+     */
+    synchronized int getDispatchQueueDepth() {
+        dispatcher?.queueDepth ?: 0
+    }
+
+    /**
+     * @return number of notifications being sent by the dispatcher
+     */
+    synchronized int getDispatchActiveCount() {
+        dispatcher?.activeCount ?: 0
+    }
 
     def ValidatedPlugin validatePluginConfig(String project, String name, Map config) {
         return pluginService.validatePlugin(name, notificationPluginProviderService,
@@ -167,15 +255,10 @@ public class NotificationService implements ApplicationContextAware{
     void asyncTriggerJobNotification(String trigger, schedId, Map content){
         if(trigger && schedId){
             if(featureService.featurePresent(Features.NOTIFICATIONS_OWN_THREAD)){
-                Thread.start {
-                    Thread notificationThread = new NotificationThread(this, trigger, schedId, content)
-                    notificationThread.start()
-                    notificationThread.join(configurationService.getLong("notification.threadTimeOut", defaultThreadTO))
-                    if (notificationThread.isAlive()) {
-                        notificationThread.interrupt()
-                        throw new TimeoutException()
-                    }
-                }
+                getDispatcher().dispatch(
+                    "${trigger} for job ${schedId}",
+                    new NotificationTask(this, trigger, schedId, content)
+                )
             }else{
                 ScheduledExecution.withNewTransaction {
                     ScheduledExecution scheduledExecution = ScheduledExecution.get(schedId)
@@ -509,17 +592,46 @@ public class NotificationService implements ApplicationContextAware{
                     String method = urlsConfiguration.httpMethod
                     def urlarr = urls.split(",") as List
                     def webhookfailure=false
+                    int attempts = configurationService?.getInteger('notification.webhook.attempts', 3) ?: 1
+                    long retryDelay = configurationService?.getLong('notification.webhook.retryDelay', 1000) ?: 0
+                    long maxRetryTime = configurationService?.getLong(
+                            'notification.webhook.maxRetryTime',
+                            WEBHOOK_RETRY_MAX_MILLIS
+                    ) ?: 0
+                    List<CompletableFuture<Boolean>> results = []
                     urlarr.each{String urlstr->
                         //perform token expansion within URL.
                         String newurlstr=expandWebhookNotificationUrl(urlstr,exec,source,trigger)
                         try{
-                            def result= postDataUrl(newurlstr, n.format,payloadStr, trigger, state, exec.id.toString(), method)
-                            if(!result.success){
-                                webhookfailure=true
-                                log.error("Notification failed [${n.eventTrigger},${state},${exec.id}]; URL ${newurlstr}: ${result.error}")
-                            }else if (log.traceEnabled) {
-                                log.trace("Notification succeeded [${n.eventTrigger},${state},${exec.id}]; URL ${newurlstr}")
+                            //retries are completed by the retry scheduler, after this notification returns
+                            def result = postDataUrlAsync(
+                                newurlstr,
+                                n.format,
+                                payloadStr,
+                                trigger,
+                                state,
+                                exec.id.toString(),
+                                method,
+                                attempts,
+                                2,
+                                retryDelay,
+                                maxRetryTime
+                            ).handle { Map res, Throwable t ->
+                                if (t) {
+                                    log.error("Notification failed [${n.eventTrigger},${state},${exec.id}]; URL ${newurlstr}: " + t.message);
+                                    if (log.traceEnabled) {
+                                        log.trace("Notification failed", t)
+                                    }
+                                    return false
+                                } else if(!res.success){
+                                    log.error("Notification failed [${n.eventTrigger},${state},${exec.id}]; URL ${newurlstr}: ${res.error}")
+                                    return false
+                                }else if (log.traceEnabled) {
+                                    log.trace("Notification succeeded [${n.eventTrigger},${state},${exec.id}]; URL ${newurlstr}")
+                                }
+                                true
                             }
+                            results << result
                         } catch (Throwable t) {
                             webhookfailure=true
                             log.error("Notification failed [${n.eventTrigger},${state},${exec.id}]; URL ${newurlstr}: " + t.message);
@@ -528,7 +640,16 @@ public class NotificationService implements ApplicationContextAware{
                             }
                         }
                     }
-                    didsend=!webhookfailure
+                    CompletableFuture.allOf(results as CompletableFuture[]).whenComplete { ignored, Throwable t ->
+                        if (webhookfailure || results.any { !it.getNow(false) }) {
+                            metricService?.markMeter(this.class.name, 'notificationWebhookFailureMeter')
+                        }
+                    }
+                    //webhooks still being retried are not known to be sent, their result is logged when complete
+                    if (results.any { !it.done }) {
+                        log.debug("Notification pending retry [${n.eventTrigger},${state},${exec.id}]")
+                    }
+                    didsend = !webhookfailure && results.every { it.done && it.getNow(false) }
                 }else if (n.type) {
 
                     def execMap = null
@@ -796,78 +917,181 @@ public class NotificationService implements ApplicationContextAware{
         return srcUrl
     }
 
-    static Map postDataUrl(String url, String format, String payload, String trigger, String status, String id, String httpMethod = POST, rptCount=1, backoff=2){
-        int count=0;
-        int wait=1000;
-        int timeout=15
-        boolean complete=false;
-        def resultCode
-        def resultReason
-        def error
+    private static MultiThreadedHttpConnectionManager createWebhookConnectionManager() {
+        def manager = new MultiThreadedHttpConnectionManager()
+        manager.params.setConnectionTimeout(WEBHOOK_TIMEOUT_SECONDS * 1000)
+        manager.params.setSoTimeout(WEBHOOK_TIMEOUT_SECONDS * 1000)
+        manager.params.setStaleCheckingEnabled(true)
+        manager
+    }
+
+    private static HttpClient createWebhookClient(MultiThreadedHttpConnectionManager manager, boolean preemptive) {
+        final HttpClientParams params = new HttpClientParams()
+        params.setConnectionManagerTimeout(WEBHOOK_TIMEOUT_SECONDS * 1000)
+        params.setSoTimeout(WEBHOOK_TIMEOUT_SECONDS * 1000)
+        params.setAuthenticationPreemptive(preemptive)
+        new HttpClient(params, manager)
+    }
+
+    private static ScheduledExecutorService createWebhookRetryScheduler() {
+        def scheduler = new ScheduledThreadPoolExecutor(
+                2,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat('NotificationService-webhookRetry-%d').build()
+        )
+        scheduler.setRemoveOnCancelPolicy(true)
+        scheduler
+    }
+
+    /**
+     * Set the webhook connection pool size
+     * @param maxPerHost maximum connections to each destination host
+     * @param maxTotal maximum connections
+     */
+    void configureWebhookConnections(int maxPerHost, int maxTotal) {
+        HttpConnectionManagerParams params = webhookConnections.params
+        params.setDefaultMaxConnectionsPerHost(maxPerHost)
+        params.setMaxTotalConnections(maxTotal)
+    }
+
+    /**
+     * Send a webhook notification using the pooled connections, and wait for the result. Failed requests are retried
+     * as in {@link #postDataUrlAsync}.
+     * @return map with success, and error if unsuccessful
+     */
+    Map postDataUrl(
+            String url,
+            String format,
+            String payload,
+            String trigger,
+            String status,
+            String id,
+            String httpMethod = POST,
+            rptCount = 1,
+            backoff = 2,
+            long retryDelay = 1000,
+            long maxRetryMillis = WEBHOOK_RETRY_MAX_MILLIS
+    )
+    {
+        def result = postDataUrlAsync(
+                url,
+                format,
+                payload,
+                trigger,
+                status,
+                id,
+                httpMethod,
+                rptCount,
+                backoff,
+                retryDelay,
+                maxRetryMillis
+        )
+        try {
+            return result.get()
+        } catch (InterruptedException e) {
+            result.cancel(false)
+            Thread.currentThread().interrupt()
+            return [success: false, error: "Interrupted while sending notification: ${trigger} for execution ${id}"]
+        } catch (ExecutionException e) {
+            throw e.cause
+        }
+    }
+
+    /**
+     * Send a webhook notification using the pooled connections. The first attempt is made by the calling thread.
+     * Failed requests are retried with exponential backoff if the request could not be made, or the server responded
+     * with a 5xx or 429 status. Retries are run by a scheduler after their delay, and no retry is started after the
+     * maximum retry time.
+     * @param rptCount maximum attempts
+     * @param backoff multiplier of the delay after each retry
+     * @param retryDelay delay in milliseconds before the first retry
+     * @param maxRetryMillis maximum time in milliseconds after the first attempt to start a retry
+     * @return future map with success, and error if unsuccessful
+     */
+    CompletableFuture<Map> postDataUrlAsync(
+            String url,
+            String format,
+            String payload,
+            String trigger,
+            String status,
+            String id,
+            String httpMethod = POST,
+            rptCount = 1,
+            backoff = 2,
+            long retryDelay = 1000,
+            long maxRetryMillis = WEBHOOK_RETRY_MAX_MILLIS
+    )
+    {
         String contentType = format == "json" ? "application/json" : "text/xml"
         String secureDigest = createSecureDigest(url,trigger,id)
-        for(count=0;count<rptCount;count++){
-            if(count>0){
-                //wait
-                try {
-                    Thread.sleep(wait)
-                } catch (InterruptedException e) {
-                }
-                wait *= backoff
-            }
-            final HttpClientParams params = new HttpClientParams()
-            params.setConnectionManagerTimeout(timeout * 1000)
-            params.setSoTimeout(timeout * 1000)
-            def HttpClient client = new HttpClient(params)
-            def URL urlo
-            def AuthScope authscope=null
-            def UsernamePasswordCredentials cred=null
-            boolean doauth=false
-            try{
-                urlo = new URL(url)
-                if(urlo.userInfo){
-                    doauth = true
-                    authscope = new AuthScope(urlo.host,urlo.port>0? urlo.port:urlo.defaultPort,AuthScope.ANY_REALM,"BASIC")
-                    cred = new UsernamePasswordCredentials(urlo.userInfo)
-                    url = new URL(urlo.protocol, urlo.host, urlo.port, urlo.file).toExternalForm()
-                }
-            }catch(MalformedURLException e){
-                throw new Exception("Failed to configure base URL for authentication: "+e.getMessage(),e)
+        //request state holds the credentials, as the client is shared
+        HttpState state = new HttpState()
+        HttpClient client = webhookClient
+        try{
+            def urlo = new URL(url)
+            if(urlo.userInfo){
+                def authscope = new AuthScope(urlo.host,urlo.port>0? urlo.port:urlo.defaultPort,AuthScope.ANY_REALM,"BASIC")
+                state.setCredentials(authscope, new UsernamePasswordCredentials(urlo.userInfo))
+                client = webhookAuthClient
+                url = new URL(urlo.protocol, urlo.host, urlo.port, urlo.file).toExternalForm()
             }
-            if(doauth){
-                client.getParams().setAuthenticationPreemptive(true);
-                client.getState().setCredentials(authscope,cred)
-            }
-
-            def method = (httpMethod == GET) ? createGetMethod(url) : createPostMethod(url, payload, contentType)
+        }catch(MalformedURLException e){
+            throw new Exception("Failed to configure base URL for authentication: "+e.getMessage(),e)
+        }
 
-            method.setRequestHeader(new Header("X-RunDeck-Notification-Trigger", trigger))
-            method.setRequestHeader(new Header("X-RunDeck-Notification-Execution-ID", id))
-            method.setRequestHeader(new Header("X-RunDeck-Notification-Execution-Status", status))
-            if(secureDigest) method.setRequestHeader(new Header("X-RunDeck-Notification-SHA256-Digest", secureDigest))
+        CompletableFuture<Map> result = new CompletableFuture<>()
+        long deadline = System.currentTimeMillis() + maxRetryMillis
+        Closure attempt
+        attempt = { int count, long wait ->
+            if (result.isDone()) {
+                return
+            }
             try {
-                resultCode = client.executeMethod(method);
-                resultReason = method.getStatusText();
+                def method = (httpMethod == GET) ? createGetMethod(url) : createPostMethod(url, payload, contentType)
+
+                method.setRequestHeader(new Header("X-RunDeck-Notification-Trigger", trigger))
+                method.setRequestHeader(new Header("X-RunDeck-Notification-Execution-ID", id))
+                method.setRequestHeader(new Header("X-RunDeck-Notification-Execution-Status", status))
+                if(secureDigest) method.setRequestHeader(new Header("X-RunDeck-Notification-SHA256-Digest", secureDigest))
+                boolean retryable = true
+                String error
+                try {
+                    def resultCode = client.executeMethod(null, method, state);
+                    def resultReason = method.getStatusText();
 
-                if (resultCode >= 200 && resultCode <= 300) {
-                    complete=true
-                } else {
+                    if (resultCode >= 200 && resultCode <= 300) {
+                        result.complete([success: true])
+                        return
+                    }
                     error="server response: ${resultCode} ${resultReason}"
+                    retryable = resultCode >= 500 || resultCode == 429
+                }catch (Throwable e){
+                    error="Error making request: "+e.message
+                } finally {
+                    method.releaseConnection();
                 }
-            }catch (Throwable e){
-                error="Error making request: "+e.message
-            } finally {
-                method.releaseConnection();
-            }
-            if(complete){
-                break
+                count++
+                if (retryable && count < rptCount && System.currentTimeMillis() + wait <= deadline) {
+                    try {
+                        webhookRetries.schedule(
+                                { attempt(count, wait * backoff) } as Runnable,
+                                wait,
+                                TimeUnit.MILLISECONDS
+                        )
+                        return
+                    } catch (RejectedExecutionException e) {
+                        error += " (retry not scheduled: ${e.message})"
+                    }
+                }
+                result.complete([
+                        success: false,
+                        error  : "Unable to ${httpMethod?.toUpperCase()} notification after ${count} tries: ${trigger} for execution ${id} (${status}): ${error}"
+                ])
+            } catch (Throwable t) {
+                result.completeExceptionally(t)
             }
-
-        }
-        if(!complete){
-            return [success:complete,error:"Unable to ${httpMethod?.toUpperCase()} notification after ${count} tries: ${trigger} for execution ${id} (${status}): ${error}"]
         }
-        return [success:complete]
+        attempt(0, retryDelay)
+        result
     }
 
     static PostMethod createPostMethod(String url, String payload, String contentType){
@@ -936,13 +1160,13 @@ public class NotificationService implements ApplicationContextAware{
     }
 }
 
-class NotificationThread extends Thread {
+class NotificationTask implements Runnable {
     def notificationService
     def trigger
     def schedId
     def content
 
-    NotificationThread(NotificationService notificationService, trigger, schedId, content){
+    NotificationTask(NotificationService notificationService, trigger, schedId, content){
         this.notificationService = notificationService
         this.trigger = trigger
         this.schedId = schedId
@@ -15,6 +15,7 @@
  */
 
 package rundeck.services
+import com.dtolabs.rundeck.app.internal.logging.BlockCompressedLogFile
 import com.dtolabs.rundeck.app.support.BuilderUtil
 import com.dtolabs.rundeck.app.support.ProjectArchiveExportRequest
 import com.dtolabs.rundeck.app.support.ProjectArchiveImportRequest
@@ -188,11 +189,26 @@ class ProjectService implements InitializingBean, ExecutionFileProducer, EventPu
             executionUtilService.exportExecutionXml(exec, writer, logfilepath)
         }
         if (logfile && logfile.isFile()) {
-            zip.file logfilepath, logfile
+            exportExecutionFile(zip, logfilepath, logfile)
         }
         def File statefile = workflowService.getStateFileForExecution(exec)
         if (statefile && statefile.isFile()) {
-            zip.file "state-${exec.id}.state.json", statefile
+            exportExecutionFile(zip, "state-${exec.id}.state.json", statefile)
+        }
+    }
+
+    /**
+     * Add a log or state file to the archive, with the uncompressed content if the local file is block compressed
+     */
+    private static void exportExecutionFile(ZipBuilder zip, String name, File file) {
+        if (BlockCompressedLogFile.isCompressed(file)) {
+            zip.fileStream(name) { OutputStream output ->
+                BlockCompressedLogFile.openInputStream(file).withStream { InputStream input ->
+                    ZipBuilder.copyStream(input, output)
+                }
+            }
+        } else {
+            zip.file name, file
         }
     }
 
@@ -172,6 +172,8 @@ class ScheduledExecutionService implements ApplicationContextAware, Initializing
     def MessageSource messageSource
     PluginService pluginService
     def executionUtilService
+    def executionWatchdogService
+    def remoteOptionCacheService
     FileUploadService fileUploadService
     JobSchedulerService jobSchedulerService
     JobLifecyclePluginService jobLifecyclePluginService
@@ -1269,10 +1271,13 @@ class ScheduledExecutionService implements ApplicationContextAware, Initializing
      *
      * @param se job
      * @param e execution
-     * @return quartz scheduler fire instance Id
+     * @return quartz scheduler fire instance Id, or watchdog instance Id if the execution is watched
      */
     def String findExecutingQuartzJob(ScheduledExecution se, Execution e) {
-        String found = null
+        String found = executionWatchdogService?.instanceIdFor(e.id)
+        if (found) {
+            return found
+        }
         def ident = getJobIdent(se, e)
 
         quartzScheduler.getCurrentlyExecutingJobs().each { def JobExecutionContext jexec ->
@@ -1320,6 +1325,10 @@ class ScheduledExecutionService implements ApplicationContextAware, Initializing
             boolean deleteFromScheduler = false
     )
     {
+        Long watchedId = ExecutionWatchdogService.executionIdForInstance(quartzIntanceId)
+        if (watchedId != null) {
+            return executionWatchdogService?.abort(watchedId) ?: false
+        }
         def didCancel = quartzIntanceId ? quartzScheduler.interrupt(quartzIntanceId) : false
 
         /** If the job has not started yet, it will not be included in currently executing jobs **/
@@ -1333,6 +1342,15 @@ class ScheduledExecutionService implements ApplicationContextAware, Initializing
         return didCancel
     }
 
+    /**
+     * Interrupt an execution watched by the watchdog service
+     * @param id execution id
+     * @return true if the execution was watched
+     */
+    boolean interruptWatchedExecution(Long id) {
+        executionWatchdogService?.abort(id) ?: false
+    }
+
     Map<String, String> getJobIdent(ScheduledExecution se, Execution e){
         Map<String, String> ident
 
@@ -3844,9 +3862,16 @@ class ScheduledExecutionService implements ApplicationContextAware, Initializing
      * Load options values from remote URL
      * @param scheduledExecution
      * @param mapConfig
+     * @param username user requesting the values
+     * @param roles roles of the user, cached values are only shared by users with the same roles
      * @return option remote
      */
-    def Map loadOptionsRemoteValues(ScheduledExecution scheduledExecution, Map mapConfig, def username) {
+    def Map loadOptionsRemoteValues(
+            ScheduledExecution scheduledExecution,
+            Map mapConfig,
+            def username,
+            Collection<String> roles
+    ) {
         //load expand variables in URL source
         Option opt = scheduledExecution.options.find { it.name == mapConfig.option }
         def realUrl = opt.realValuesUrl.toExternalForm()
@@ -3941,7 +3966,16 @@ class ScheduledExecutionService implements ApplicationContextAware, Initializing
             def projectConfig = framework.projectManager.loadProjectConfig(scheduledExecution.project)
             boolean disableRemoteOptionJsonCheck = projectConfig.hasProperty(REMOTE_OPTION_DISABLE_JSON_CHECK)
 
-            remoteResult = ScheduledExecutionController.getRemoteJSON(srcUrl, timeout, contimeout, retryCount, disableRemoteOptionJsonCheck)
+            remoteResult = remoteOptionCacheService.getRemoteJSON(
+                    srcUrl,
+                    scheduledExecution.project,
+                    username?.toString(),
+                    roles,
+                    timeout,
+                    contimeout,
+                    retryCount,
+                    disableRemoteOptionJsonCheck
+            )
             result = remoteResult.json
             if (remoteResult.stats) {
                 remoteStats.putAll(remoteResult.stats)
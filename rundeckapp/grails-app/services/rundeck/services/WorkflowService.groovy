@@ -16,11 +16,13 @@
 
 package rundeck.services
 
+import com.dtolabs.rundeck.app.internal.logging.BlockCompressedLogFile
 import com.dtolabs.rundeck.app.internal.workflow.LogMutableWorkflowState
 import com.dtolabs.rundeck.app.internal.workflow.MutableWorkflowState
 import com.dtolabs.rundeck.app.internal.workflow.MutableWorkflowStateImpl
 import com.dtolabs.rundeck.app.internal.workflow.MutableWorkflowStateListener
 import com.dtolabs.rundeck.app.internal.workflow.MutableWorkflowStepStateImpl
+import com.dtolabs.rundeck.app.internal.workflow.WorkflowStateJournal
 import com.dtolabs.rundeck.app.internal.workflow.WorkflowStateListenerAction
 import com.dtolabs.rundeck.app.internal.workflow.ExceptionHandlingMutableWorkflowState
 import com.dtolabs.rundeck.app.support.ExecutionContext
@@ -74,6 +76,24 @@ class WorkflowService implements ApplicationContextAware,ExecutionFileProducer{
      * in-memory states of executions while executions are running
      */
     Map<Long, WorkflowState> activeStates = new ConcurrentHashMap<>()
+    /**
+     * change journals of executions while executions are running
+     */
+    Map<Long, WorkflowStateJournal> activeJournals = new ConcurrentHashMap<>()
+    /**
+     * most recent mapped state of running executions, with the journal sequence it was mapped at
+     */
+    private Map<Long, MappedState> mappedStates = new ConcurrentHashMap<>()
+
+    private static class MappedState {
+        final long sequence
+        final Map data
+
+        MappedState(long sequence, Map data) {
+            this.sequence = sequence
+            this.data = data
+        }
+    }
     /**
      * initialized in bootstrap
      */
@@ -260,8 +280,16 @@ class WorkflowService implements ApplicationContextAware,ExecutionFileProducer{
 
 
         activeStates.put(id, state)
+        def journal = new WorkflowStateJournal(
+                configurationService?.getInteger(
+                        'workflowService.stateJournal.compactThreshold',
+                        WorkflowStateJournal.DEFAULT_COMPACT_THRESHOLD
+                ) ?: WorkflowStateJournal.DEFAULT_COMPACT_THRESHOLD
+        )
+        activeJournals.put(id, journal)
         def mutablestate = new MutableWorkflowStateListener(state)
-        def chain = [mutablestate]
+        //journal changes after they are applied to the state
+        def chain = [mutablestate, journal]
         def File outfile = getStateFileForExecution(execution)
         chain << new WorkflowStateListenerAction(onWorkflowExecutionStateChanged: {
             ExecutionState executionState, Date timestamp, List<String> nodeSet ->
@@ -306,14 +334,81 @@ class WorkflowService implements ApplicationContextAware,ExecutionFileProducer{
         Map data = serializeStateJson(id, state, file)
         stateCache.put(id, data)
         activeStates.remove(id)
+        activeJournals.remove(id)
+        mappedStates.remove(id)
         log.debug("${id}: execution state.json persisted to file.")
     }
 
     def Map serializeStateJson(Long id, WorkflowState state, File file) {
-        def data = stateMapping.mapOf(id, state)
+        def data = mapState(id, state)
         serializeStateDataJson(id, data, file)
     }
 
+    /**
+     * Map the state of an execution, reusing the previous result for a running execution if its state has not
+     * changed since
+     * @param id execution id
+     * @param state state
+     * @return mapped state, which the caller may modify
+     */
+    Map mapState(Long id, WorkflowState state) {
+        def journal = activeJournals[id]
+        if (!journal) {
+            return stateMapping.mapOf(id, state)
+        }
+        long sequence = journal.sequence
+        def mapped = mappedStates[id]
+        if (mapped && mapped.sequence == sequence) {
+            return (Map) copyMapped(mapped.data)
+        }
+        def data = stateMapping.mapOf(id, state)
+        if (activeJournals.containsKey(id)) {
+            //the cached map is never returned, so it cannot be modified by callers
+            mappedStates.put(id, new MappedState(sequence, data))
+            return (Map) copyMapped(data)
+        }
+        data
+    }
+
+    /**
+     * @param value mapped state value
+     * @return copy of the nested maps and lists of the value
+     */
+    private static Object copyMapped(Object value) {
+        if (value instanceof Map) {
+            Map copy = new LinkedHashMap(value.size())
+            value.each { k, v -> copy.put(k, copyMapped(v)) }
+            return copy
+        } else if (value instanceof List) {
+            return value.collect { copyMapped(it) }
+        }
+        value
+    }
+
+    /**
+     * Return the changes to the state of a running execution since a sequence number
+     * @param e execution
+     * @param since sequence number of the changes already seen by the client
+     * @return map of changed state, or null if the changes are not available and the full state should be used
+     */
+    Map requestStateChanges(Execution e, long since) {
+        def journal = activeJournals[e.id]
+        def state = activeStates[e.id]
+        if (!journal || !state || !journal.isAvailableSince(since)) {
+            return null
+        }
+        long sequence = journal.sequence
+        stateMapping.mapOfChanges(e.id, state, since, sequence, journal.changesSince(since))
+    }
+
+    /**
+     * @param e execution
+     * @return current sequence number of the state changes of a running execution, or null
+     */
+    Long getStateSequence(Execution e) {
+        activeJournals[e.id]?.sequence
+    }
+
     def Map serializeStateDataJson(Long id, Map data, File file) {
         file.withWriter { w ->
             w << data.encodeAsJSON()
@@ -322,7 +417,7 @@ class WorkflowService implements ApplicationContextAware,ExecutionFileProducer{
     }
     def Map deserializeState(File file){
         if(file.canRead()){
-            return JSON.parse(file.text)
+            return JSON.parse(BlockCompressedLogFile.openInputStream(file).text)
         }
         return null
     }
@@ -337,7 +432,7 @@ class WorkflowService implements ApplicationContextAware,ExecutionFileProducer{
         //look for active state
         def state1 = activeStates[e.id]
         if (state1) {
-            def state= stateMapping.mapOf(e.id, state1)
+            def state = mapState(e.id, state1)
             return new WorkflowStateFileLoader(workflowState: state, state: ExecutionFileState.AVAILABLE)
         }
 
@@ -378,7 +473,7 @@ class WorkflowService implements ApplicationContextAware,ExecutionFileProducer{
         //look for active state
         def state1 = activeStates[e.id]
         if (state1) {
-            def state= stateMapping.mapOf(e.id, state1)
+            def state = mapState(e.id, state1)
             state=stateMapping.summarize(new HashMap(state),nodes,selectedOnly,stepStates)
             return new WorkflowStateFileLoader(workflowState: state, state: ExecutionFileState.AVAILABLE)
         }
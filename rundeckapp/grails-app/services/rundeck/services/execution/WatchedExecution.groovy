@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rundeck.services.execution
+
+import com.dtolabs.rundeck.core.execution.ServiceThreadBase
+
+/**
+ * A running execution tracked by the ExecutionWatchdogService
+ */
+interface WatchedExecution {
+    /**
+     * @return execution ID
+     */
+    long getExecutionId()
+
+    /**
+     * @return thread running the execution
+     */
+    ServiceThreadBase getThread()
+
+    /**
+     * @return times in epoch milliseconds when a check is due, e.g. the timeout
+     */
+    List<Long> getDueTimes()
+
+    /**
+     * Check the running execution, and abort the thread if needed. Called periodically, when a due time is reached,
+     * after an abort request, and once after the thread completes.
+     */
+    void check()
+
+    /**
+     * Request the execution to be aborted, at the next check
+     */
+    void interrupt()
+
+    /**
+     * Finalize the execution after the thread has completed
+     */
+    void complete()
+}
@@ -16,15 +16,18 @@
 
 package rundeck.services.logging
 
+import com.dtolabs.rundeck.app.internal.logging.LogFileIndex
 import org.rundeck.app.services.ExecutionFile
 
 class ExecutionFileUtil {
     public static deleteExecutionFilePerPolicy(ExecutionFile file, boolean canRetrieve) {
         if (file.fileDeletePolicy == ExecutionFile.DeletePolicy.ALWAYS) {
             file.localFile.delete()
+            LogFileIndex.indexFileFor(file.localFile).delete()
         } else if (file.fileDeletePolicy == ExecutionFile.DeletePolicy.WHEN_RETRIEVABLE && canRetrieve) {
             //todo: cache/delete after timeout
             file.localFile.deleteOnExit()
+            LogFileIndex.indexFileFor(file.localFile).deleteOnExit()
         }
     }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rundeck.services.logging
+
+import com.dtolabs.rundeck.app.internal.logging.FSStreamingLogReader
+import com.dtolabs.rundeck.core.logging.LogEvent
+import groovy.util.logging.Slf4j
+
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.function.Predicate
+
+/**
+ * Follows a log file for one subscriber. Holds its own reader, and when the file changes reads the new events after
+ * its last offset and sends the matching events to the sink. Reads for the same follower never run concurrently: a
+ * change notified while reading causes another read.
+ */
+@Slf4j
+class LogFileFollower {
+    final File file
+    private final FSStreamingLogReader reader
+    private final Predicate<LogEvent> filter
+    private final LogTailSink sink
+    private final int batchSize
+    private final AtomicBoolean changed = new AtomicBoolean()
+    private final AtomicBoolean heartbeatDue = new AtomicBoolean()
+    private final AtomicBoolean running = new AtomicBoolean()
+    private long offset
+    private boolean opened
+    private volatile boolean closed
+    private volatile long lastSent
+    /**
+     * Called once when the follower is closed
+     */
+    Runnable closeListener
+
+    LogFileFollower(
+            File file,
+            FSStreamingLogReader reader,
+            long offset,
+            Predicate<LogEvent> filter,
+            LogTailSink sink,
+            int batchSize
+    )
+    {
+        this.file = file
+        this.reader = reader
+        this.offset = offset
+        this.filter = filter
+        this.sink = sink
+        this.batchSize = Math.max(1, batchSize)
+        this.lastSent = System.currentTimeMillis()
+    }
+
+    boolean isClosed() {
+        closed
+    }
+
+    /**
+     * The file has changed, read new events using the executor
+     * @param executor executor
+     */
+    void changed(Executor executor) {
+        changed.set(true)
+        schedule(executor)
+    }
+
+    /**
+     * Send a heartbeat if nothing was sent within the interval
+     * @param now current time in milliseconds
+     * @param heartbeatMillis interval
+     * @param executor executor
+     */
+    void checkIdle(long now, long heartbeatMillis, Executor executor) {
+        if (now - lastSent >= heartbeatMillis) {
+            heartbeatDue.set(true)
+            schedule(executor)
+        }
+    }
+
+    private void schedule(Executor executor) {
+        if (!closed && running.compareAndSet(false, true)) {
+            executor.execute { drain(executor) }
+        }
+    }
+
+    private void drain(Executor executor) {
+        try {
+            while (!closed && changed.getAndSet(false)) {
+                readAvailable()
+            }
+            if (!closed && heartbeatDue.getAndSet(false)) {
+                sink.heartbeat()
+                lastSent = System.currentTimeMillis()
+            }
+        } catch (Throwable t) {
+            log.debug("Stop following ${file}: ${t}")
+            close()
+        } finally {
+            running.set(false)
+        }
+        //a change may have been notified after the loop ended
+        if (changed.get() || heartbeatDue.get()) {
+            schedule(executor)
+        }
+    }
+
+    private void readAvailable() throws IOException {
+        reader.reopenStream(offset)
+        opened = true
+        List<LogEvent> batch = []
+        while (!closed && reader.hasNext()) {
+            LogEvent event = reader.next()
+            if (null == filter || filter.test(event)) {
+                batch << event
+            }
+            if (batch.size() >= batchSize) {
+                offset = reader.offset
+                send(batch)
+                batch = []
+            }
+        }
+        offset = reader.offset
+        if (batch) {
+            send(batch)
+        }
+        if (!closed && reader.complete) {
+            sink.complete(offset)
+            close()
+        }
+    }
+
+    private void send(List<LogEvent> batch) {
+        sink.events(batch, offset)
+        lastSent = System.currentTimeMillis()
+    }
+
+    /**
+     * Stop following and close the reader
+     */
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return
+            }
+            closed = true
+        }
+        closeListener?.run()
+        if (opened) {
+            try {
+                reader.close()
+            } catch (IOException e) {
+                log.debug("Error closing reader for ${file}: ${e}")
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rundeck.services.logging
+
+import java.util.concurrent.CopyOnWriteArraySet
+import java.util.concurrent.Executor
+
+/**
+ * Watches a log file on behalf of all of its followers, and notifies them when the file changes
+ */
+class LogFileWatcher {
+    final File file
+    private final Set<LogFileFollower> followers = new CopyOnWriteArraySet<>()
+    private long lastLength = -1
+    private long lastModified = -1
+
+    LogFileWatcher(File file) {
+        this.file = file
+    }
+
+    void add(LogFileFollower follower) {
+        followers.add(follower)
+    }
+
+    void remove(LogFileFollower follower) {
+        followers.remove(follower)
+    }
+
+    boolean isEmpty() {
+        followers.isEmpty()
+    }
+
+    int size() {
+        followers.size()
+    }
+
+    Collection<LogFileFollower> getFollowers() {
+        Collections.unmodifiableSet(followers)
+    }
+
+    /**
+     * Notify all followers of a change
+     * @param executor executor for reading
+     */
+    void changed(Executor executor) {
+        for (LogFileFollower follower : followers) {
+            follower.changed(executor)
+        }
+    }
+
+    /**
+     * Check the file for changes not notified by a writer, such as a file written by another cluster member, and
+     * send heartbeats to idle followers.
+     * @param executor executor for reading
+     * @param now current time in milliseconds
+     * @param heartbeatMillis heartbeat interval
+     */
+    void check(Executor executor, long now, long heartbeatMillis) {
+        long length = file.length()
+        long modified = file.lastModified()
+        if (length != lastLength || modified != lastModified) {
+            lastLength = length
+            lastModified = modified
+            changed(executor)
+        } else {
+            for (LogFileFollower follower : followers) {
+                follower.checkIdle(now, heartbeatMillis, executor)
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rundeck.services.logging
+
+import com.dtolabs.rundeck.core.logging.LogEvent
+
+/**
+ * Receives log events for a follower of a log file. Methods are not called concurrently for the same follower, an
+ * IOException stops the follower.
+ */
+interface LogTailSink {
+    /**
+     * New events were read
+     * @param events events
+     * @param offset file offset after the events
+     */
+    void events(List<LogEvent> events, long offset) throws IOException
+
+    /**
+     * The log file is complete, no more events will be sent
+     * @param offset final file offset
+     */
+    void complete(long offset) throws IOException
+
+    /**
+     * No events were sent for the heartbeat interval
+     */
+    void heartbeat() throws IOException
+}
@@ -16,7 +16,9 @@
 
 package rundeck.services.nodes
 
+import com.dtolabs.rundeck.core.common.CompactNodeSet
 import com.dtolabs.rundeck.core.common.INodeSet
+import com.dtolabs.rundeck.core.common.IndexedNodeSet
 import com.dtolabs.rundeck.core.common.IProjectNodes
 import com.dtolabs.rundeck.core.common.ProjectNodeSupport
 import com.dtolabs.rundeck.core.resources.ResourceModelSource
@@ -30,6 +32,10 @@ class CachedProjectNodes implements IProjectNodes {
     ResourceModelSource source
     INodeSet nodes
     boolean doCache
+    /**
+     * If true, cached nodes are stored in a {@link CompactNodeSet}
+     */
+    boolean compactNodes
     Date cacheTime
 
     List<ReadableProjectNodes> getResourceModelSources() {
@@ -40,8 +46,16 @@ class CachedProjectNodes implements IProjectNodes {
         return doCache?nodes:reloadNodeSet()
     }
 
+    /**
+     * Set the nodes. If they are cached they are indexed for filtering, and compacted if compactNodes is set
+     * @param nodes nodes
+     */
+    void setNodes(INodeSet nodes) {
+        this.nodes = doCache ? IndexedNodeSet.create(compactNodes ? CompactNodeSet.create(nodes) : nodes) : nodes
+    }
+
     INodeSet reloadNodeSet() {
-        nodes = source.getNodes()
+        setNodes(source.getNodes())
         nodes
     }
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rundeck.services.notification
+
+import com.codahale.metrics.Meter
+import com.codahale.metrics.Timer
+import com.google.common.util.concurrent.ThreadFactoryBuilder
+import groovy.transform.CompileStatic
+import groovy.util.logging.Slf4j
+
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.Executors
+import java.util.concurrent.RejectedExecutionHandler
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+/**
+ * Sends notifications on a fixed pool of workers fed by a bounded queue. When the queue is full the notification is
+ * sent on the caller's thread. A notification still running after the timeout has its worker interrupted.
+ */
+@CompileStatic
+@Slf4j
+class NotificationDispatcher {
+    private static final ThreadLocal<Boolean> CALLER_RUNS = new ThreadLocal<>()
+    private final ThreadPoolExecutor executor
+    private final ScheduledExecutorService timeoutScheduler
+    final long timeoutMillis
+    /**
+     * Optional timer of the time from submission until the notification completes
+     */
+    Timer latencyTimer
+    /**
+     * Optional meter of notifications which failed or timed out
+     */
+    Meter failureMeter
+    /**
+     * Optional meter of notifications sent on the caller's thread because the queue was full
+     */
+    Meter callerRunsMeter
+
+    /**
+     * @param threads number of workers
+     * @param queueSize maximum queued notifications
+     * @param timeoutMillis time after which a running notification is interrupted, or 0 for no timeout
+     */
+    NotificationDispatcher(int threads, int queueSize, long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis
+        executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat('NotificationDispatcher-%d').build(),
+                { Runnable r, ThreadPoolExecutor pool ->
+                    callerRunsMeter?.mark()
+                    if (!pool.isShutdown()) {
+                        CALLER_RUNS.set(true)
+                        try {
+                            r.run()
+                        } finally {
+                            CALLER_RUNS.remove()
+                        }
+                    }
+                } as RejectedExecutionHandler
+        )
+        executor.allowCoreThreadTimeOut(true)
+        timeoutScheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat('NotificationDispatcher-timeout-%d').build()
+        )
+    }
+
+    /**
+     * Queue a notification
+     * @param name description for logging
+     * @param task sends the notification
+     */
+    void dispatch(String name, Runnable task) {
+        long submitted = System.nanoTime()
+        executor.execute {
+            Thread worker = Thread.currentThread()
+            Object lock = new Object()
+            boolean[] state = [false, false] as boolean[]
+            ScheduledFuture timeout = null
+            //the caller's thread is not interrupted
+            if (timeoutMillis > 0 && !CALLER_RUNS.get()) {
+                timeout = timeoutScheduler.schedule(
+                        {
+                            synchronized (lock) {
+                                if (!state[0]) {
+                                    state[1] = true
+                                    log.error("Notification ${name} timed out after ${timeoutMillis}ms, interrupting")
+                                    worker.interrupt()
+                                }
+                            }
+                        } as Runnable,
+                        timeoutMillis,
+                        TimeUnit.MILLISECONDS
+                )
+            }
+            try {
+                task.run()
+            } catch (Throwable t) {
+                failureMeter?.mark()
+                log.error("Notification ${name} failed: ${t.message}", t)
+            } finally {
+                timeout?.cancel(false)
+                synchronized (lock) {
+                    state[0] = true
+                    if (state[1]) {
+                        failureMeter?.mark()
+                        //clear the interrupt before the worker runs the next notification
+                        Thread.interrupted()
+                    }
+                }
+                latencyTimer?.update(System.nanoTime() - submitted, TimeUnit.NANOSECONDS)
+            }
+        }
+    }
+
+    /**
+     * @return number of queued notifications
+     */
+    int getQueueDepth() {
+        executor.queue.size()
+    }
+
+    /**
+     * @return number of notifications being sent
+     */
+    int getActiveCount() {
+        executor.activeCount
+    }
+
+    /**
+     * Stop accepting notifications, and wait for queued notifications to be sent
+     * @param waitMillis maximum time to wait
+     */
+    void shutdown(long waitMillis) {
+        executor.shutdown()
+        try {
+            executor.awaitTermination(waitMillis, TimeUnit.MILLISECONDS)
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt()
+        }
+        executor.shutdownNow()
+        timeoutScheduler.shutdownNow()
+    }
+}
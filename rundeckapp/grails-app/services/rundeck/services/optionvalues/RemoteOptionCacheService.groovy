@@ -0,0 +1,325 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rundeck.services.optionvalues
+
+import com.google.common.cache.Cache
+import com.google.common.cache.CacheBuilder
+import com.google.common.util.concurrent.ThreadFactoryBuilder
+import grails.converters.JSON
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager
+import org.apache.commons.httpclient.util.IdleConnectionTimeoutThread
+import org.springframework.beans.factory.DisposableBean
+import org.springframework.beans.factory.InitializingBean
+import rundeck.controllers.ScheduledExecutionController
+
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+/**
+ * Caches remote option values loaded from http URLs, by the expanded URL, the project, and the user and roles.
+ * Requests share one pool of connections.
+ *
+ * Concurrent requests for the same entry share a single fetch. Entries younger than the TTL are used without a
+ * request. Entries within the stale-while-revalidate period after the TTL are used while a background request
+ * refreshes them. Older entries with an ETag or Last-Modified value are revalidated with a conditional request.
+ */
+class RemoteOptionCacheService implements InitializingBean, DisposableBean {
+    static transactional = false
+    public static final String CACHE_HIT = 'HIT'
+    public static final String CACHE_STALE = 'STALE'
+    public static final String CACHE_REVALIDATED = 'REVALIDATED'
+    public static final String CACHE_MISS = 'MISS'
+    static final long IDLE_CONNECTION_MILLIS = 60000
+    def configurationService
+
+    long ttlMillis
+    long staleMillis
+    /**
+     * Fetches remote JSON, arguments and result as for {@link ScheduledExecutionController#getRemoteJSON}
+     */
+    Closure<Map> fetcher = { String url, int timeout, int contimeout, int retry, boolean disableJsonCheck, Map validators ->
+        ScheduledExecutionController.getRemoteJSON(
+                url,
+                timeout,
+                contimeout,
+                retry,
+                disableJsonCheck,
+                validators,
+                connectionManager
+        )
+    }
+
+    private final ConcurrentMap<String, CompletableFuture<Map>> inflight = new ConcurrentHashMap<>()
+    private MultiThreadedHttpConnectionManager connectionManager
+    private IdleConnectionTimeoutThread idleConnectionCloser
+    private Cache<String, Entry> entries
+    private ThreadPoolExecutor refreshExecutor
+
+    /**
+     * Cached response
+     */
+    static class Entry {
+        final String text
+        final Map stats
+        final Map validators
+        final long fetched
+
+        Entry(String text, Map stats, Map validators, long fetched) {
+            this.text = text
+            this.stats = stats
+            this.validators = validators
+            this.fetched = fetched
+        }
+
+        /**
+         * @return result map with newly parsed json
+         */
+        Map result(String cacheStatus, Map requestStats = null) {
+            def resultStats = new HashMap(stats)
+            if (requestStats) {
+                resultStats.putAll(requestStats)
+            } else {
+                long now = System.currentTimeMillis()
+                resultStats.startTime = now
+                resultStats.finishTime = now
+                resultStats.durationTime = 0
+            }
+            resultStats.cacheStatus = cacheStatus
+            [json: JSON.parse(text), stats: resultStats, text: text, validators: validators]
+        }
+    }
+
+    @Override
+    void afterPropertiesSet() throws Exception {
+        ttlMillis = TimeUnit.SECONDS.toMillis(
+                configurationService?.getLong('jobs.options.remoteUrlCache.ttl', 0) ?: 0
+        )
+        staleMillis = TimeUnit.SECONDS.toMillis(
+                configurationService?.getLong('jobs.options.remoteUrlCache.staleWhileRevalidate', 0) ?: 0
+        )
+        int maxEntries = configurationService?.getInteger('jobs.options.remoteUrlCache.maxEntries', 500) ?: 500
+        int threads = configurationService?.getInteger('jobs.options.remoteUrlCache.refreshThreads', 2) ?: 2
+        entries = CacheBuilder.newBuilder().maximumSize(maxEntries).build()
+        refreshExecutor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(maxEntries),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat('RemoteOptionRefresh-%d').build(),
+                new ThreadPoolExecutor.DiscardPolicy()
+        )
+        refreshExecutor.allowCoreThreadTimeOut(true)
+        connectionManager = new MultiThreadedHttpConnectionManager()
+        connectionManager.params.defaultMaxConnectionsPerHost = configurationService?.getInteger(
+                'jobs.options.remoteUrl.maxConnectionsPerHost',
+                10
+        ) ?: 10
+        connectionManager.params.maxTotalConnections = configurationService?.getInteger(
+                'jobs.options.remoteUrl.maxConnections',
+                50
+        ) ?: 50
+        idleConnectionCloser = new IdleConnectionTimeoutThread()
+        idleConnectionCloser.name = 'RemoteOptionIdleConnections'
+        idleConnectionCloser.connectionTimeout = IDLE_CONNECTION_MILLIS
+        idleConnectionCloser.timeoutInterval = IDLE_CONNECTION_MILLIS
+        idleConnectionCloser.addConnectionManager(connectionManager)
+        idleConnectionCloser.start()
+    }
+
+    @Override
+    void destroy() throws Exception {
+        refreshExecutor?.shutdownNow()
+        entries?.invalidateAll()
+        idleConnectionCloser?.shutdown()
+        connectionManager?.shutdown()
+    }
+
+    /**
+     * Load remote option JSON, using the cache for http URLs
+     * @param url expanded URL
+     * @param project project of the job
+     * @param username user requesting the values
+     * @param roles roles of the user
+     * @param timeout request timeout in seconds
+     * @param contimeout connection timeout in seconds
+     * @param retry retry count
+     * @param disableJsonCheck true to skip the content type check
+     * @return result as for {@link ScheduledExecutionController#getRemoteJSON}, with stats.cacheStatus for http URLs
+     */
+    Map getRemoteJSON(
+            String url,
+            String project,
+            String username,
+            Collection<String> roles,
+            int timeout,
+            int contimeout,
+            int retry,
+            boolean disableJsonCheck
+    ) throws Exception {
+        if (!(url.startsWith('http:') || url.startsWith('https:'))) {
+            return fetcher.call(url, timeout, contimeout, retry, disableJsonCheck, null)
+        }
+        def request = new Request(
+                key: cacheKey(url, project, username, roles, disableJsonCheck),
+                url: url,
+                timeout: timeout,
+                contimeout: contimeout,
+                retry: retry,
+                disableJsonCheck: disableJsonCheck
+        )
+        Entry entry = entries.getIfPresent(request.key)
+        if (entry) {
+            long age = System.currentTimeMillis() - entry.fetched
+            if (age < ttlMillis) {
+                return entry.result(CACHE_HIT)
+            }
+            if (age < ttlMillis + staleMillis) {
+                if (!inflight.containsKey(request.key)) {
+                    refreshExecutor.execute { refresh(request) }
+                }
+                return entry.result(CACHE_STALE)
+            }
+        }
+        load(request)
+    }
+
+    /**
+     * @return cache key, values are shared only for the same project, user and roles
+     */
+    static String cacheKey(
+            String url,
+            String project,
+            String username,
+            Collection<String> roles,
+            boolean disableJsonCheck
+    ) {
+        [
+                project ?: '',
+                username ?: '',
+                (roles ?: []).toSorted().join(','),
+                disableJsonCheck,
+                url
+        ].join('\n')
+    }
+
+    /**
+     * Parameters of a fetch
+     */
+    static class Request {
+        String key
+        String url
+        int timeout
+        int contimeout
+        int retry
+        boolean disableJsonCheck
+    }
+
+    private void refresh(Request request) {
+        try {
+            load(request, false)
+        } catch (Exception e) {
+            log.warn("Failed refreshing remote option values: ${e.message}")
+        }
+    }
+
+    /**
+     * Fetch the entry, or wait for a fetch already in progress
+     * @param wait if false, do not wait for a fetch already in progress
+     * @return result, or null if not waiting for a fetch in progress
+     */
+    private Map load(Request request, boolean wait = true) throws Exception {
+        def future = new CompletableFuture<Map>()
+        def existing = inflight.putIfAbsent(request.key, future)
+        if (existing && !wait) {
+            return null
+        }
+        if (existing) {
+            try {
+                Map result = existing.get()
+                //share the response without sharing parsed json
+                return result.text != null ? new Entry(
+                        result.text,
+                        result.stats,
+                        result.validators,
+                        0
+                ).result(result.stats?.cacheStatus?.toString(), result.stats) : result
+            } catch (ExecutionException e) {
+                throw e.cause instanceof Exception ? (Exception) e.cause : e
+            }
+        }
+        try {
+            def result = fetch(request)
+            future.complete(result)
+            return result
+        } catch (Throwable t) {
+            future.completeExceptionally(t)
+            throw t
+        } finally {
+            inflight.remove(request.key, future)
+        }
+    }
+
+    private Map fetch(Request request) {
+        Entry entry = entries.getIfPresent(request.key)
+        Map result = fetcher.call(
+                request.url,
+                request.timeout,
+                request.contimeout,
+                request.retry,
+                request.disableJsonCheck,
+                entry?.validators
+        )
+        long now = System.currentTimeMillis()
+        if (result?.notModified && entry) {
+            def revalidated = new Entry(entry.text, entry.stats, entry.validators, now)
+            entries.put(request.key, revalidated)
+            return revalidated.result(CACHE_REVALIDATED, result.stats)
+        }
+        if (result?.stats) {
+            result.stats.cacheStatus = CACHE_MISS
+        }
+        //without a ttl the entry is only kept for a conditional request
+        boolean reusable = ttlMillis > 0 || staleMillis > 0 ||
+                result?.validators?.etag || result?.validators?.lastModified
+        if (result && !result.error && result.text != null && !result.noStore && reusable) {
+            entries.put(request.key, new Entry(result.text, new HashMap(result.stats), result.validators, now))
+        } else if (result?.noStore) {
+            entries.invalidate(request.key)
+        }
+        result
+    }
+
+    /**
+     * @return number of cached entries
+     */
+    long getCacheSize() {
+        entries.size()
+    }
+
+    /**
+     * Remove all cached entries
+     */
+    void invalidateAll() {
+        entries.invalidateAll()
+    }
+}
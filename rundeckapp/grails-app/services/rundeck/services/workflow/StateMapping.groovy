@@ -16,6 +16,7 @@
 
 package rundeck.services.workflow
 
+import com.dtolabs.rundeck.app.internal.workflow.WorkflowStateJournal
 import com.dtolabs.rundeck.core.execution.workflow.state.ExecutionState
 import com.dtolabs.rundeck.core.execution.workflow.state.StateUtils
 import com.dtolabs.rundeck.core.execution.workflow.state.StepIdentifier
@@ -211,6 +212,93 @@ class StateMapping {
             return step
         }
     }
+    /**
+     * Map only the changed parts of a workflow state
+     * @param id execution id
+     * @param workflowState state
+     * @param since sequence number the changes are after
+     * @param sequence sequence number of the latest change included
+     * @param changes changed parts of the state
+     * @return map containing the workflow level state, and a list of changed steps and node states
+     */
+    def Map mapOfChanges(
+            Long id,
+            WorkflowState workflowState,
+            long since,
+            long sequence,
+            List<WorkflowStateJournal.Change> changes
+    )
+    {
+        def changed = []
+        changes.each { WorkflowStateJournal.Change change ->
+            if (change.stepctx) {
+                def data = stepChangeMapOf(workflowState, change.stepctx, change.node)
+                if (data) {
+                    changed << data
+                }
+            }
+        }
+        [
+                executionId   : id,
+                serverNode    : workflowState.serverNode,
+                since         : since,
+                sequence      : sequence,
+                executionState: workflowState.executionState.toString(),
+                completed     : workflowState.executionState.isCompletedState(),
+                stepCount     : workflowState.stepCount,
+                updateTime    : encodeDate(workflowState.updateTime),
+                startTime     : encodeDate(workflowState.startTime),
+                endTime       : encodeDate(workflowState.endTime),
+                changes       : changed,
+        ]
+    }
+
+    /**
+     * @param workflowState state
+     * @param stepctx step context string
+     * @param node node name, or null for the step state
+     * @return map of the current state of the step or node step, or null if not found
+     */
+    def Map stepChangeMapOf(WorkflowState workflowState, String stepctx, String node) {
+        WorkflowStepState step = findStepState(workflowState, stepIdentifierFromString(stepctx))
+        if (!step) {
+            return null
+        }
+        if (node) {
+            StepState nodeState = step.nodeStateMap?.get(node)
+            return nodeState ? [stepctx: stepctx, node: node] + mapOf(nodeState) : null
+        }
+        def map = [stepctx: stepctx, id: stepIdentifierToString(step.stepIdentifier), nodeStep: step.nodeStep]
+        if (step.hasSubWorkflow()) {
+            map.hasSubworkflow = true
+        }
+        map + mapOf(step.stepState)
+    }
+
+    private WorkflowStepState findStepState(WorkflowState workflowState, StepIdentifier ident) {
+        WorkflowState current = workflowState
+        WorkflowStepState found = null
+        for (int i = 0; i < ident.context.size(); i++) {
+            if (!current) {
+                return null
+            }
+            def ctx = ident.context[i]
+            int ndx = ctx.step - 1
+            if (ndx < 0 || ndx >= current.stepStates.size()) {
+                return null
+            }
+            found = current.stepStates[ndx]
+            if (ctx.params) {
+                found = found.parameterizedStateMap?.get(StateUtils.parameterString(ctx.params))
+                if (!found) {
+                    return null
+                }
+            }
+            current = found.hasSubWorkflow() ? found.subWorkflowState : null
+        }
+        found
+    }
+
     def Map mapOf(Long id, WorkflowState workflowState) {
         def nodestates = [:]
         def allNodes = []
@@ -16,16 +16,20 @@
 
 package rundeck.quartzjobs
 
+import com.dtolabs.rundeck.app.internal.logging.LogFileIndex
 import com.dtolabs.rundeck.app.support.ExecutionQuery
 import grails.gorm.transactions.Rollback
 import grails.testing.mixin.integration.Integration
 import groovy.mock.interceptor.MockFor
+import groovy.mock.interceptor.StubFor
 import org.grails.config.NavigableMap
 import org.junit.Assert
 import org.junit.Test
 import org.rundeck.app.services.ExecutionFile
 import rundeck.CommandExec
+import rundeck.ExecReport
 import rundeck.Execution
+import rundeck.ReferencedExecution
 import rundeck.ScheduledExecution
 import rundeck.Workflow
 import rundeck.services.ConfigurationService
@@ -107,6 +111,100 @@ class ExecutionsCleanUpTest extends GroovyTestCase{
         Assert.assertEquals(sucessTotal, execIdsToExclude.size())
     }
 
+    @Test
+    void testPurgeExecutionsInChunks(){
+        String projName = 'projectTest'
+        Date execDate = new Date(2015 - 1900, 02, 03)
+        ScheduledExecution se = setupJob(projName)
+        List<Execution> executions = (1..5).collect { setupExecution(se, projName, execDate, execDate) }
+        Execution retry = setupExecution(se, projName, execDate, execDate)
+        Execution.withNewTransaction {
+            retry = Execution.get(retry.id)
+            retry.retryExecution = Execution.get(executions[0].id)
+            retry.save()
+            new ReferencedExecution(execution: Execution.get(executions[1].id), status: 'success').save()
+            ExecReport.fromExec(Execution.get(executions[2].id)).save()
+        }
+        def logFileStorageService = new MockFor(LogFileStorageService)
+        logFileStorageService.demand.getExecutionFiles(1..999) { e, filters, endpoint -> [:] }
+        ExecutionsCleanUp job = new ExecutionsCleanUp()
+
+        int sucessTotal = job.purgeByExecutionList(
+                executions*.id, 2, 0, new FileUploadService(), logFileStorageService.proxyInstance())
+
+        Assert.assertEquals(5, sucessTotal)
+        Assert.assertEquals(0, Execution.countByIdInList(executions*.id))
+        Assert.assertEquals(0, ReferencedExecution.count())
+        Assert.assertEquals(0, ExecReport.countByJcExecId(executions[2].id.toString()))
+        Assert.assertNull(Execution.get(retry.id).retryExecution)
+    }
+
+    @Test
+    void testPurgeExecutionsRemovesLogFilesAfterDelete(){
+        String projName = 'projectTest'
+        Date execDate = new Date(2015 - 1900, 02, 03)
+        ScheduledExecution se = setupJob(projName)
+        List<Execution> executions = (1..3).collect { setupExecution(se, projName, execDate, execDate) }
+        File dir = File.createTempFile('purge', 'logs')
+        dir.delete()
+        dir.mkdirs()
+        List<File> logFiles = []
+        executions.each { Execution e ->
+            ['rdlog', 'state.json'].each { ftype ->
+                File file = new File(dir, "${e.id}.${ftype}")
+                File partial = new File(dir, "${e.id}.${ftype}.part")
+                file.text = 'data'
+                partial.text = 'data'
+                logFiles << file << partial
+            }
+            File index = LogFileIndex.indexFileFor(new File(dir, "${e.id}.rdlog"))
+            index.text = 'index'
+            logFiles << index
+        }
+        File kept = new File(dir, 'other.rdlog')
+        kept.text = 'data'
+
+        List<Long> prepared = Collections.synchronizedList([])
+        List<String> removed = Collections.synchronizedList([])
+        Thread caller = Thread.currentThread()
+        List<Thread> removalThreads = Collections.synchronizedList([])
+        def logFileStorageService = new StubFor(LogFileStorageService)
+        logFileStorageService.demand.getExecutionFiles(0..999) { e, filters, endpoint ->
+            ['rdlog': null, 'state.json': null]
+        }
+        logFileStorageService.demand.getFileForExecutionFiletype(0..999) { e, ftype, useStored, partial ->
+            new File(dir, "${e.id}.${ftype}${partial ? '.part' : ''}")
+        }
+        logFileStorageService.demand.prepareRemoteLogFileRemoval(0..999) { e, Collection filetypes ->
+            Long id = e.id
+            prepared << id
+            return {
+                removalThreads << Thread.currentThread()
+                filetypes.each { removed << "${id}.${it}".toString() }
+            } as Runnable
+        }
+        ExecutionsCleanUp job = new ExecutionsCleanUp()
+
+        int sucessTotal = job.purgeByExecutionList(
+                executions*.id, 2, 0, new FileUploadService(), logFileStorageService.proxyInstance())
+
+        long wait = System.currentTimeMillis() + 5000
+        while (removed.size() < 6 && System.currentTimeMillis() < wait) {
+            Thread.sleep(50)
+        }
+        Assert.assertEquals(3, sucessTotal)
+        Assert.assertEquals(0, Execution.countByIdInList(executions*.id))
+        Assert.assertEquals(executions*.id, prepared)
+        Assert.assertEquals(
+                executions*.id.collectMany { ["${it}.rdlog".toString(), "${it}.state.json".toString()] },
+                removed
+        )
+        Assert.assertFalse(removalThreads.contains(caller))
+        logFiles.each { Assert.assertFalse(it.absolutePath, it.exists()) }
+        Assert.assertTrue(kept.exists())
+        dir.deleteDir()
+    }
+
     FrameworkService initNonClusterFrameworkService() {
         NavigableMap cfg = new NavigableMap()
         cfg.setProperty("clusterMode.enabled",false)
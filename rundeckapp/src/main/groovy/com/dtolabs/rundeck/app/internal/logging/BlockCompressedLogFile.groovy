@@ -0,0 +1,374 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.app.internal.logging
+
+import groovy.transform.CompileStatic
+
+import java.util.zip.DataFormatException
+import java.util.zip.Deflater
+import java.util.zip.Inflater
+
+/**
+ * Block compressed variant of a log or state file. The content is split into blocks which are compressed as
+ * independent raw deflate frames, followed by a frame index, so that the content can be read starting at any
+ * uncompressed offset by inflating only the frames after it.
+ * <p>
+ * Layout: a header (magic, version, block size), the frames, the frame index with one record per frame (uncompressed
+ * offset, compressed offset, compressed length, uncompressed length), and a footer (index offset, uncompressed length,
+ * frame count, magic).
+ */
+@CompileStatic
+class BlockCompressedLogFile {
+    public static final int MAGIC = 0x52444c5a
+    public static final int VERSION = 1
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024
+    static final int HEADER_SIZE = 12
+    static final int RECORD_SIZE = 24
+    static final int FOOTER_SIZE = 24
+
+    final File file
+    final int blockSize
+    /**
+     * Total uncompressed length
+     */
+    final long length
+    private final long[] offsets
+    private final long[] compressedOffsets
+    private final int[] compressedLengths
+    private final int[] lengths
+
+    private BlockCompressedLogFile(File file, int blockSize, long length, int frames) {
+        this.file = file
+        this.blockSize = blockSize
+        this.length = length
+        this.offsets = new long[frames]
+        this.compressedOffsets = new long[frames]
+        this.compressedLengths = new int[frames]
+        this.lengths = new int[frames]
+    }
+
+    /**
+     * @return true if the file exists and starts with the block compressed header
+     */
+    static boolean isCompressed(File file) {
+        if (!file.isFile() || file.length() < HEADER_SIZE + FOOTER_SIZE) {
+            return false
+        }
+        def input = new DataInputStream(new FileInputStream(file))
+        try {
+            return input.readInt() == MAGIC
+        } catch (EOFException ignored) {
+            return false
+        } finally {
+            input.close()
+        }
+    }
+
+    /**
+     * Read the frame index of a block compressed file
+     * @param file file
+     * @return the compressed file
+     * @throws IOException if the file is not a valid block compressed file
+     */
+    static BlockCompressedLogFile open(File file) throws IOException {
+        def raf = new RandomAccessFile(file, 'r')
+        try {
+            if (raf.length() < HEADER_SIZE + FOOTER_SIZE || raf.readInt() != MAGIC) {
+                throw new IOException("Not a block compressed file: " + file)
+            }
+            int version = raf.readInt()
+            if (version != VERSION) {
+                throw new IOException("Unsupported block compressed file version " + version + ": " + file)
+            }
+            int blockSize = raf.readInt()
+            raf.seek(raf.length() - FOOTER_SIZE)
+            long indexOffset = raf.readLong()
+            long length = raf.readLong()
+            int frames = raf.readInt()
+            if (raf.readInt() != MAGIC || frames < 0 ||
+                indexOffset + ((long) frames) * RECORD_SIZE != raf.length() - FOOTER_SIZE) {
+                throw new IOException("Invalid block compressed file footer: " + file)
+            }
+            def compressed = new BlockCompressedLogFile(file, blockSize, length, frames)
+            def index = new byte[frames * RECORD_SIZE]
+            raf.seek(indexOffset)
+            raf.readFully(index)
+            def input = new DataInputStream(new ByteArrayInputStream(index))
+            for (int i = 0; i < frames; i++) {
+                compressed.offsets[i] = input.readLong()
+                compressed.compressedOffsets[i] = input.readLong()
+                compressed.compressedLengths[i] = input.readInt()
+                compressed.lengths[i] = input.readInt()
+            }
+            return compressed
+        } finally {
+            raf.close()
+        }
+    }
+
+    /**
+     * Open a stream of the uncompressed content of a file, which may or may not be block compressed
+     * @param file file
+     * @return input stream
+     */
+    static InputStream openInputStream(File file) throws IOException {
+        isCompressed(file) ? open(file).newInputStream(0) : new FileInputStream(file)
+    }
+
+    /**
+     * Write a block compressed copy of the source file
+     * @param source uncompressed file
+     * @param dest destination file
+     * @param blockSize uncompressed size of each frame
+     * @param level deflate compression level
+     * @return length of the compressed file
+     */
+    static long compress(
+            File source,
+            File dest,
+            int blockSize = DEFAULT_BLOCK_SIZE,
+            int level = Deflater.DEFAULT_COMPRESSION
+    ) throws IOException
+    {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be positive: " + blockSize)
+        }
+        def deflater = new Deflater(level, true)
+        def block = new byte[blockSize]
+        def buffer = new byte[blockSize + (blockSize >> 3) + 64]
+        def index = new ByteArrayOutputStream()
+        def records = new DataOutputStream(index)
+        def input = new FileInputStream(source)
+        def output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(dest), 64 * 1024))
+        try {
+            output.writeInt(MAGIC)
+            output.writeInt(VERSION)
+            output.writeInt(blockSize)
+            long position = HEADER_SIZE
+            long length = 0
+            int frames = 0
+            int read
+            while ((read = readBlock(input, block)) > 0) {
+                deflater.reset()
+                deflater.setInput(block, 0, read)
+                deflater.finish()
+                int compressedLength = 0
+                while (!deflater.finished()) {
+                    int count = deflater.deflate(buffer)
+                    output.write(buffer, 0, count)
+                    compressedLength += count
+                }
+                records.writeLong(length)
+                records.writeLong(position)
+                records.writeInt(compressedLength)
+                records.writeInt(read)
+                length += read
+                position += compressedLength
+                frames++
+            }
+            index.writeTo(output)
+            output.writeLong(position)
+            output.writeLong(length)
+            output.writeInt(frames)
+            output.writeInt(MAGIC)
+            output.flush()
+            return position + index.size() + FOOTER_SIZE
+        } finally {
+            deflater.end()
+            input.close()
+            output.close()
+        }
+    }
+
+    private static int readBlock(InputStream input, byte[] block) throws IOException {
+        int total = 0
+        while (total < block.length) {
+            int count = input.read(block, total, block.length - total)
+            if (count < 0) {
+                break
+            }
+            total += count
+        }
+        total
+    }
+
+    int getFrameCount() {
+        offsets.length
+    }
+
+    /**
+     * @param offset uncompressed offset
+     * @return index of the frame containing the offset
+     */
+    int frameFor(long offset) {
+        floorFrame(offsets, offset)
+    }
+
+    static int floorFrame(long[] offsets, long offset) {
+        int low = 0
+        int high = offsets.length - 1
+        int found = 0
+        while (low <= high) {
+            int mid = (low + high) >>> 1
+            if (offsets[mid] <= offset) {
+                found = mid
+                low = mid + 1
+            } else {
+                high = mid - 1
+            }
+        }
+        found
+    }
+
+    /**
+     * Open a stream of the uncompressed content
+     * @param offset uncompressed offset to start reading from
+     * @return input stream
+     */
+    InputStream newInputStream(long offset) throws IOException {
+        new FrameInputStream(file, length, offsets, compressedOffsets, compressedLengths, lengths, offset)
+    }
+
+    /**
+     * Reads the uncompressed content, inflating one frame at a time
+     */
+    private static class FrameInputStream extends InputStream {
+        private final File file
+        private final long length
+        private final long[] offsets
+        private final long[] compressedOffsets
+        private final int[] compressedLengths
+        private final int[] lengths
+        private final RandomAccessFile raf
+        private final Inflater inflater = new Inflater(true)
+        private byte[] compressed = new byte[0]
+        private byte[] buffer = new byte[0]
+        private int frame
+        private int pos
+        private int limit
+
+        FrameInputStream(
+                File file,
+                long length,
+                long[] offsets,
+                long[] compressedOffsets,
+                int[] compressedLengths,
+                int[] lengths,
+                long offset
+        ) throws IOException
+        {
+            this.file = file
+            this.length = length
+            this.offsets = offsets
+            this.compressedOffsets = compressedOffsets
+            this.compressedLengths = compressedLengths
+            this.lengths = lengths
+            this.raf = new RandomAccessFile(file, 'r')
+            if (offset >= length) {
+                frame = offsets.length
+                return
+            }
+            frame = floorFrame(offsets, Math.max(0L, offset))
+            try {
+                inflateFrame()
+            } catch (IOException e) {
+                close()
+                throw e
+            }
+            pos = (int) (Math.max(0L, offset) - offsets[frame])
+        }
+
+        private void inflateFrame() throws IOException {
+            int compressedLength = compressedLengths[frame]
+            int frameLength = lengths[frame]
+            //raw inflate may need an extra input byte to detect the end of the frame
+            if (compressed.length < compressedLength + 1) {
+                compressed = new byte[compressedLength + 1]
+            }
+            if (buffer.length < frameLength) {
+                buffer = new byte[frameLength]
+            }
+            raf.seek(compressedOffsets[frame])
+            raf.readFully(compressed, 0, compressedLength)
+            compressed[compressedLength] = 0
+            inflater.reset()
+            inflater.setInput(compressed, 0, compressedLength + 1)
+            int total = 0
+            try {
+                while (total < frameLength) {
+                    int count = inflater.inflate(buffer, total, frameLength - total)
+                    if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                        break
+                    }
+                    total += count
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Invalid compressed frame " + frame + " in file " + file + ": " + e.message, e)
+            }
+            if (total != frameLength) {
+                throw new IOException("Truncated compressed frame " + frame + " in file " + file)
+            }
+            pos = 0
+            limit = frameLength
+        }
+
+        private boolean fill() throws IOException {
+            while (pos >= limit) {
+                if (frame + 1 >= offsets.length) {
+                    frame = offsets.length
+                    return false
+                }
+                frame++
+                inflateFrame()
+            }
+            true
+        }
+
+        @Override
+        int read() throws IOException {
+            if (!fill()) {
+                return -1
+            }
+            return buffer[pos++] & 0xff
+        }
+
+        @Override
+        int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0
+            }
+            if (!fill()) {
+                return -1
+            }
+            int count = Math.min(len, limit - pos)
+            System.arraycopy(buffer, pos, b, off, count)
+            pos += count
+            count
+        }
+
+        @Override
+        int available() throws IOException {
+            limit - pos
+        }
+
+        @Override
+        void close() throws IOException {
+            inflater.end()
+            raf.close()
+        }
+    }
+}
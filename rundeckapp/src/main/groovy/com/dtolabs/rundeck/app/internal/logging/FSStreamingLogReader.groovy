@@ -16,11 +16,14 @@
 
 package com.dtolabs.rundeck.app.internal.logging
 
+import com.dtolabs.rundeck.core.logging.IndexedStreamingLogReader
 import com.dtolabs.rundeck.core.logging.LogEvent
 import com.dtolabs.rundeck.core.logging.LogEventIterator
-import com.dtolabs.rundeck.core.logging.ReverseSeekingStreamingLogReader
+import com.dtolabs.rundeck.core.logging.LogUtil
 import com.dtolabs.utils.StreamLineIterator
 
+import java.util.function.Predicate
+
 /*
  * FSStreamingLogReader.java
  * 
@@ -28,13 +31,24 @@ import com.dtolabs.utils.StreamLineIterator
  * Created: 1/23/13 7:40 PM
  * 
  */
-class FSStreamingLogReader implements ReverseSeekingStreamingLogReader {
+class FSStreamingLogReader implements IndexedStreamingLogReader {
     File file
     private String encoding
     RundeckLogFormat rundeckLogFormat
     private boolean detectedFormat
     private boolean detected
     private LogEventIterator iterator
+    private LogFileIndex index
+    private boolean indexLoaded
+    /**
+     * Frame index if the file is block compressed
+     */
+    private BlockCompressedLogFile compressed
+    /**
+     * Event read ahead of the iterator when seeking, and the offset before it
+     */
+    private LogEvent pending
+    private long pendingOffset
     /**
      * Optional date for resolving legacy unspecific timestamps
      */
@@ -45,11 +59,32 @@ class FSStreamingLogReader implements ReverseSeekingStreamingLogReader {
         this.rundeckLogFormat=rundeckLogFormat
     }
     private void detectLegacyLogFile(){
-        file.withReader('UTF-8') {reader->
+        openInput(0).withReader('UTF-8') {reader->
             detectedFormat=RundeckLogFormat.detectFormat(reader.readLine())
             detected=true
         }
     }
+
+    /**
+     * @return the frame index if the file is block compressed, checked again until found because a complete log
+     * file may be compressed while it is being read
+     */
+    private BlockCompressedLogFile getCompressed() {
+        if (null == compressed && BlockCompressedLogFile.isCompressed(file)) {
+            compressed = BlockCompressedLogFile.open(file)
+        }
+        return compressed
+    }
+
+    private InputStream openInput(long offset) {
+        def compressed = getCompressed()
+        if (null != compressed) {
+            return compressed.newInputStream(offset)
+        }
+        def raf = new FileInputStream(file)
+        raf.channel.position(offset)
+        return raf
+    }
     private LogEventIterator detectedIterator(StreamLineIterator fsiter){
         if(!detected){
             detectLegacyLogFile()
@@ -66,6 +101,9 @@ class FSStreamingLogReader implements ReverseSeekingStreamingLogReader {
         if (!detected) {
             detectLegacyLogFile()
         }
+        if (null != getCompressed()) {
+            return scanBackwards(offset)
+        }
 
         if (detectedFormat) {
             return LogEventLineIterator.seekBackwards(file, (int) offset, rundeckLogFormat)
@@ -74,8 +112,59 @@ class FSStreamingLogReader implements ReverseSeekingStreamingLogReader {
         }
     }
 
+    /**
+     * Find the offset of a log entry by reading forward, used when the file content cannot be searched in reverse
+     * @param count number of log entries from the end
+     * @return offset of the entry, or 0 if there are fewer entries
+     */
+    private long scanBackwards(int count) {
+        if (count < 1) {
+            return getTotalSize()
+        }
+        def offsets = new ArrayDeque<Long>(count)
+        def iterator = beginFromOffset(0)
+        try {
+            while (iterator.hasNext()) {
+                long offset = iterator.offset
+                def event = iterator.next()
+                if (event.eventType == LogUtil.EVENT_TYPE_LOG) {
+                    if (offsets.size() == count) {
+                        offsets.removeFirst()
+                    }
+                    offsets.addLast(offset)
+                }
+            }
+        } finally {
+            iterator.close()
+        }
+        return offsets.size() == count ? offsets.peekFirst() : 0
+    }
+
+    /**
+     * @return the index for the log file if it is available
+     */
+    private LogFileIndex getIndex() {
+        if (!indexLoaded) {
+            if (!detected) {
+                detectLegacyLogFile()
+            }
+            index = detectedFormat ? LogFileIndex.load(file, getTotalSize()) : null
+            indexLoaded = true
+        }
+        return index
+    }
+
+    @Override
+    boolean isIndexed() {
+        return null != getIndex()
+    }
+
+    /**
+     * @return length of the log content, the uncompressed length if the file is block compressed
+     */
     public long getTotalSize() {
-        return file.length()
+        def compressed = getCompressed()
+        return null != compressed ? compressed.length : file.length()
     }
 
     public Date getLastModified() {
@@ -95,13 +184,97 @@ class FSStreamingLogReader implements ReverseSeekingStreamingLogReader {
         if (null != iterator) {
             throw new IllegalStateException("Already open")
         }
+        def index = getIndex()
+        if (index?.complete) {
+            openStreamFromLogLine(index, index.totalLogLines - offset)
+            return
+        }
         this.iterator= beginFromOffset(detectedSeekBackwards((int) offset))
     }
 
+    /**
+     * Open the stream at a log event, counting only events of the log type, as {@link #detectedSeekBackwards(int)}
+     * does
+     * @param index index
+     * @param logLine log event number, or negative to open at the start if there are fewer log events
+     */
+    private void openStreamFromLogLine(LogFileIndex index, long logLine) {
+        if (logLine < 0) {
+            this.iterator = beginFromOffset(0)
+            return
+        }
+        def entry = index.floorLogLine(logLine)
+        this.iterator = beginFromOffset(entry.offset)
+        long count = entry.logLine
+        while (iterator.hasNext()) {
+            long before = iterator.offset
+            def event = iterator.next()
+            if (event.eventType == LogUtil.EVENT_TYPE_LOG) {
+                if (count == logLine) {
+                    pending = event
+                    pendingOffset = before
+                    break
+                }
+                count++
+            }
+        }
+    }
+
+    @Override
+    void openStreamFromLine(long line) {
+        if (null != iterator) {
+            throw new IllegalStateException("Already open")
+        }
+        def entry = getIndex()?.floorLine(line)
+        this.iterator = beginFromOffset(entry ? entry.offset : 0)
+        for (long i = entry ? entry.line : 0; i < line && iterator.hasNext(); i++) {
+            iterator.next()
+        }
+    }
+
+    @Override
+    void openStreamFromTime(Date time) {
+        if (null != iterator) {
+            throw new IllegalStateException("Already open")
+        }
+        def entry = getIndex()?.floorTime(time.time)
+        this.iterator = beginFromOffset(entry ? entry.offset : 0)
+        while (iterator.hasNext()) {
+            long before = iterator.offset
+            def event = iterator.next()
+            if (!event.datetime?.before(time)) {
+                pending = event
+                pendingOffset = before
+                break
+            }
+        }
+    }
+
+    @Override
+    void openStreamFromFirstMatch(String node, Predicate<String> stepctx) {
+        if (null != iterator) {
+            throw new IllegalStateException("Already open")
+        }
+        def entry = getIndex()?.firstMatch(node, stepctx)
+        this.iterator = beginFromOffset(entry ? entry.offset : 0)
+    }
+
+    /**
+     * Close the stream if open, and open it again at the offset, reusing the detected log format. Used to follow a log
+     * file which is still being written.
+     * @param offset byte offset
+     */
+    void reopenStream(long offset) {
+        if (null != iterator) {
+            iterator.close()
+            iterator = null
+        }
+        pending = null
+        this.iterator = beginFromOffset(offset)
+    }
+
     private LogEventIterator beginFromOffset(long offset) {
-        def raf = new FileInputStream(file)
-        raf.channel.position(offset)
-        def LogEventIterator iterator = detectedIterator(new StreamLineIterator(raf, encoding))
+        def LogEventIterator iterator = detectedIterator(new StreamLineIterator(openInput(offset), offset, encoding))
         return iterator
     }
 
@@ -110,7 +283,7 @@ class FSStreamingLogReader implements ReverseSeekingStreamingLogReader {
         if (null == iterator) {
             throw new IllegalStateException("Not open")
         }
-        return iterator.hasNext()
+        return null != pending || iterator.hasNext()
     }
 
     @Override
@@ -118,6 +291,11 @@ class FSStreamingLogReader implements ReverseSeekingStreamingLogReader {
         if (null == iterator) {
             throw new IllegalStateException("Not open")
         }
+        if (null != pending) {
+            def event = pending
+            pending = null
+            return event
+        }
         return iterator.next()
     }
 
@@ -142,7 +320,7 @@ class FSStreamingLogReader implements ReverseSeekingStreamingLogReader {
         if (null == iterator) {
             throw new IllegalStateException("Not open")
         }
-        return iterator.isComplete()
+        return null == pending && iterator.isComplete()
     }
 
     @Override
@@ -150,6 +328,6 @@ class FSStreamingLogReader implements ReverseSeekingStreamingLogReader {
         if (null == iterator) {
             throw new IllegalStateException("Not open")
         }
-        return iterator.getOffset()
+        return null != pending ? pendingOffset : iterator.getOffset()
     }
 }
@@ -29,6 +29,15 @@ class FSStreamingLogWriter implements StreamingLogWriter {
     private OutputLogFormat formatter
     private boolean started
     private volatile long bytesWritten
+    private long entriesWritten
+    /**
+     * Optional index writer, notified of each entry written
+     */
+    LogFileIndexWriter indexWriter
+    /**
+     * Optional listener, notified after each entry is written and when the log is closed
+     */
+    Runnable writeListener
 
     public long getBytesWritten(){
         return bytesWritten
@@ -71,15 +80,18 @@ class FSStreamingLogWriter implements StreamingLogWriter {
             if (null == output) {
                 throw new IllegalStateException("output was closed", closer)
             }
-            def event1 = formatter.outputEvent(new DefaultLogEvent(event, defaultMeta))
-            write(event1)
-            write(lineSep)
+            def logEvent = new DefaultLogEvent(event, defaultMeta)
+            long offset = bytesWritten
+            write(formatter.outputEvent(logEvent) + lineSep)
+            indexWriter?.entryWritten(entriesWritten++, offset, logEvent)
         }
+        writeListener?.run()
     }
 
     void close() {
         synchronized (this) {
             if (null != output) {
+                indexWriter?.finish(bytesWritten)
                 write(formatter.outputFinish())
                 write(lineSep)
                 output.flush()
@@ -89,5 +101,6 @@ class FSStreamingLogWriter implements StreamingLogWriter {
                 closer = new Exception()
             }
         }
+        writeListener?.run()
     }
 }
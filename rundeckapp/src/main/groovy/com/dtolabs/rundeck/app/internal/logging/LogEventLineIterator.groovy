@@ -34,6 +34,10 @@ class LogEventLineIterator implements LogEventIterator{
     private Deque<LogEvent> latest
     private Deque<Long> poslist
     private DefaultLogEvent eventBuf
+    /**
+     * Message of the buffered event, if continued by partial lines
+     */
+    private StringBuilder messageBuf
     private wasStarted = false
     private LineLogFormat lineLogFormat
     boolean closed=false
@@ -104,11 +108,32 @@ class LogEventLineIterator implements LogEventIterator{
     /**
      * drain buffers into item, save offset
      */
-    private void finishMessage(LogEvent event) {
+    private void finishMessage(DefaultLogEvent event) {
+        if (null != messageBuf) {
+            event.message = messageBuf.toString()
+            messageBuf = null
+        }
         poslist << iter.offset
         latest << event
         eventBuf=null
     }
+
+    /**
+     * Append a partial line to the buffered event message
+     */
+    private void appendPartial(String partial) {
+        if (null == messageBuf) {
+            messageBuf = new StringBuilder(eventBuf.message ?: '')
+        }
+        messageBuf.append(partial)
+    }
+
+    /**
+     * @return the parsed entry as a new buffered event, the entry is not retained by the format so it is used directly
+     */
+    private static DefaultLogEvent bufferEvent(LogEvent entry) {
+        entry instanceof DefaultLogEvent ? (DefaultLogEvent) entry : new DefaultLogEvent(entry)
+    }
     /**
      * Parse the log line, and if aany log entries are completed add them to the buffer
      * @param line
@@ -117,23 +142,23 @@ class LogEventLineIterator implements LogEventIterator{
         def LineLogFormat.FormatItem item = lineLogFormat.parseLine(line)
         if(item.lineComplete){
             if (!eventBuf && item.entry){
-                eventBuf=new DefaultLogEvent(item.entry)
+                eventBuf=bufferEvent(item.entry)
             }else if(!eventBuf){
                 //no entry, skip it
                 return
             }else if(item.partial){
                 //merge any partial
-                eventBuf.message+=item.partial
+                appendPartial(item.partial)
             }
             finishMessage(eventBuf)
         }else if(item.entry){
             if(eventBuf){
                 finishMessage(eventBuf)
             }
-            eventBuf= new DefaultLogEvent(item.entry)
+            eventBuf= bufferEvent(item.entry)
         } else if (item.partial && eventBuf) {
             //merge any partial
-            eventBuf.message += item.partial
+            appendPartial(item.partial)
         }else if(item.partial){
             //partial but no event
         }
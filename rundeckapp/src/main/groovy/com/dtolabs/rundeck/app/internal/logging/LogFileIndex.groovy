@@ -0,0 +1,254 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.app.internal.logging
+
+import java.util.function.Predicate
+
+/**
+ * Sidecar index for a {@link RundeckLogFormat} log file, mapping entry numbers to byte offsets in the log file. Each
+ * record also holds the number of preceding entries of the log event type, as other events such as step and node
+ * boundaries are not counted as log lines. The index contains a checkpoint record every N entries, a marker for the
+ * first entry of each node and step context, and an end record when the log is complete. The file is written by
+ * {@link LogFileIndexWriter}, and may be read while it is still being written: an incomplete trailing record is
+ * ignored.
+ */
+class LogFileIndex {
+    public static final String EXTENSION = 'idx'
+    public static final int MAGIC = 0x52444958
+    public static final int VERSION = 2
+    public static final byte TYPE_CHECKPOINT = 1
+    public static final byte TYPE_NODE = 2
+    public static final byte TYPE_STEP = 3
+    public static final byte TYPE_END = 4
+    public static final int MAX_VALUE_LENGTH = 1024
+
+    static class Entry {
+        long line
+        /**
+         * Number of log events before this entry
+         */
+        long logLine
+        long offset
+        long time
+
+        @Override
+        String toString() {
+            return "Entry{line=" + line + ", logLine=" + logLine + ", offset=" + offset + ", time=" + time + '}'
+        }
+    }
+
+    private final List<Entry> checkpoints = new ArrayList<>()
+    private final Map<String, Entry> nodes = new HashMap<>()
+    private final Map<String, Entry> steps = new HashMap<>()
+    /**
+     * Last record read from the index
+     */
+    private Entry last
+    /**
+     * End record, or null if the log is not complete
+     */
+    private Entry end
+
+    /**
+     * @return the index file for the log file
+     */
+    static File indexFileFor(File logfile) {
+        new File(logfile.parentFile, logfile.name + '.' + EXTENSION)
+    }
+
+    /**
+     * Load the index for the log file
+     * @param logfile log file
+     * @return the index, or null if no valid index is available
+     */
+    static LogFileIndex load(File logfile) {
+        load(logfile, logfile.length())
+    }
+
+    /**
+     * Load the index for the log file
+     * @param logfile log file
+     * @param logLength length of the log content, which differs from the file length if the log is compressed
+     * @return the index, or null if no valid index is available
+     */
+    static LogFileIndex load(File logfile, long logLength) {
+        File file = indexFileFor(logfile)
+        if (!file.isFile()) {
+            return null
+        }
+        file.withInputStream { InputStream stream ->
+            read(stream, logLength)
+        }
+    }
+
+    /**
+     * Read an index
+     * @param stream input
+     * @param logLength current length of the log file, records with an offset beyond it are ignored
+     * @return the index, or null if the header is invalid
+     */
+    static LogFileIndex read(InputStream stream, long logLength) {
+        def input = new DataInputStream(new BufferedInputStream(stream))
+        try {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                return null
+            }
+        } catch (EOFException ignored) {
+            return null
+        }
+        def index = new LogFileIndex()
+        try {
+            while (true) {
+                byte type = input.readByte()
+                def entry = new Entry(
+                        line: input.readLong(),
+                        logLine: input.readLong(),
+                        offset: input.readLong(),
+                        time: input.readLong()
+                )
+                String value = (type == TYPE_NODE || type == TYPE_STEP) ? input.readUTF() : null
+                if (entry.offset > logLength) {
+                    break
+                }
+                switch (type) {
+                    case TYPE_CHECKPOINT:
+                        index.checkpoints << entry
+                        break
+                    case TYPE_NODE:
+                        index.nodes[value] = entry
+                        break
+                    case TYPE_STEP:
+                        index.steps[value] = entry
+                        break
+                    case TYPE_END:
+                        index.end = entry
+                        break
+                    default:
+                        return null
+                }
+                index.last = entry
+            }
+        } catch (EOFException ignored) {
+            //end of the index, or incomplete trailing record
+        }
+        index.checkpoints ? index : null
+    }
+
+    /**
+     * @return true if the end of the log has been indexed
+     */
+    boolean isComplete() {
+        null != end
+    }
+
+    /**
+     * @return total number of entries if complete, otherwise -1
+     */
+    long getTotalLines() {
+        end ? end.line : -1
+    }
+
+    /**
+     * @return total number of log events if complete, otherwise -1
+     */
+    long getTotalLogLines() {
+        end ? end.logLine : -1
+    }
+
+    /**
+     * @param line entry number
+     * @return the nearest checkpoint at or before the entry
+     */
+    Entry floorLine(long line) {
+        floorCheckpoint { Entry entry -> entry.line <= line }
+    }
+
+    /**
+     * @param logLine log event number
+     * @return the nearest checkpoint at or before the log event
+     */
+    Entry floorLogLine(long logLine) {
+        floorCheckpoint { Entry entry -> entry.logLine <= logLine }
+    }
+
+    private Entry floorCheckpoint(Closure<Boolean> atOrBefore) {
+        int low = 0
+        int high = checkpoints.size() - 1
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1
+            if (atOrBefore(checkpoints[mid])) {
+                low = mid
+            } else {
+                high = mid - 1
+            }
+        }
+        checkpoints[low]
+    }
+
+    /**
+     * Entry times are only approximately ordered, so the result is one checkpoint earlier than the first one found at
+     * or after the time.
+     * @param time time in milliseconds
+     * @return a checkpoint before any entry at or after the time
+     */
+    Entry floorTime(long time) {
+        int low = 0
+        int high = checkpoints.size()
+        while (low < high) {
+            int mid = (low + high) >>> 1
+            if (checkpoints[mid].time < time) {
+                low = mid + 1
+            } else {
+                high = mid
+            }
+        }
+        checkpoints[Math.max(0, low - 2)]
+    }
+
+    /**
+     * @param node node name, or null
+     * @param stepctx step context predicate, or null
+     * @return an entry at or before the first log entry matching both the node and step context
+     */
+    Entry firstMatch(String node, Predicate<String> stepctx) {
+        Entry found = checkpoints[0]
+        if (node) {
+            found = later(found, nodes[node] ?: notFound())
+        }
+        if (null != stepctx) {
+            Entry stepFound = null
+            steps.each { String key, Entry entry ->
+                if (stepctx.test(key) && (null == stepFound || entry.offset < stepFound.offset)) {
+                    stepFound = entry
+                }
+            }
+            found = later(found, stepFound ?: notFound())
+        }
+        found
+    }
+
+    /**
+     * When no marker is present, the first match cannot occur before the last indexed record
+     */
+    private Entry notFound() {
+        end ?: last
+    }
+
+    private static Entry later(Entry a, Entry b) {
+        a.offset >= b.offset ? a : b
+    }
+}
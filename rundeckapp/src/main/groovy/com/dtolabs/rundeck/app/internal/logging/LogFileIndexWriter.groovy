@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.app.internal.logging
+
+import com.dtolabs.rundeck.core.logging.LogEvent
+import com.dtolabs.rundeck.core.logging.LogUtil
+
+/**
+ * Writes the sidecar index for a log file, see {@link LogFileIndex}. A checkpoint is recorded every {@link #interval}
+ * entries, and a marker is recorded at the first entry seen for each node and step context.
+ */
+class LogFileIndexWriter implements Closeable {
+    public static final int DEFAULT_INTERVAL = 1000
+    private DataOutputStream output
+    private final int interval
+    private final Set<String> seenNodes = new HashSet<>()
+    private final Set<String> seenSteps = new HashSet<>()
+    private long lastLine = -1
+    private long logLines = 0
+    private long lastOffset = 0
+    private long lastTime = 0
+
+    LogFileIndexWriter(OutputStream output, int interval = DEFAULT_INTERVAL) {
+        this.output = new DataOutputStream(new BufferedOutputStream(output))
+        this.interval = interval > 0 ? interval : DEFAULT_INTERVAL
+        this.output.writeInt(LogFileIndex.MAGIC)
+        this.output.writeInt(LogFileIndex.VERSION)
+        this.output.flush()
+    }
+
+    /**
+     * Record an entry written to the log
+     * @param line entry number
+     * @param offset byte offset of the start of the entry in the log file
+     * @param event the event
+     */
+    void entryWritten(long line, long offset, LogEvent event) {
+        if (null == output) {
+            return
+        }
+        long time = event.datetime?.time ?: lastTime
+        boolean flush = false
+        if (line % interval == 0) {
+            writeRecord(LogFileIndex.TYPE_CHECKPOINT, line, offset, time, null)
+            flush = true
+        }
+        String node = event.metadata?.get('node')
+        if (node && node.length() <= LogFileIndex.MAX_VALUE_LENGTH && seenNodes.add(node)) {
+            writeRecord(LogFileIndex.TYPE_NODE, line, offset, time, node)
+        }
+        String stepctx = event.metadata?.get('stepctx')
+        if (stepctx && stepctx.length() <= LogFileIndex.MAX_VALUE_LENGTH && seenSteps.add(stepctx)) {
+            writeRecord(LogFileIndex.TYPE_STEP, line, offset, time, stepctx)
+        }
+        if (flush) {
+            //make checkpoints visible to readers of a running execution
+            output.flush()
+        }
+        if (event.eventType == LogUtil.EVENT_TYPE_LOG) {
+            logLines++
+        }
+        lastLine = line
+        lastOffset = offset
+        lastTime = time
+    }
+
+    private void writeRecord(byte type, long line, long offset, long time, String value) {
+        output.writeByte(type)
+        output.writeLong(line)
+        output.writeLong(logLines)
+        output.writeLong(offset)
+        output.writeLong(time)
+        if (type == LogFileIndex.TYPE_NODE || type == LogFileIndex.TYPE_STEP) {
+            output.writeUTF(value)
+        }
+    }
+
+    /**
+     * Write the end record and close the index
+     * @param endOffset byte offset of the end of the last entry in the log file
+     */
+    void finish(long endOffset) {
+        if (null == output) {
+            return
+        }
+        writeRecord(LogFileIndex.TYPE_END, lastLine + 1, endOffset, lastTime, null)
+        close()
+    }
+
+    @Override
+    void close() throws IOException {
+        if (null != output) {
+            output.flush()
+            output.close()
+            output = null
+        }
+    }
+}
@@ -23,8 +23,11 @@ import com.dtolabs.rundeck.core.utils.Utility
 import com.google.common.base.Predicate
 import groovy.transform.CompileStatic
 
-import java.text.DateFormat
-import java.text.SimpleDateFormat
+import java.time.Instant
+import java.time.OffsetDateTime
+import java.time.ZoneOffset
+import java.time.format.DateTimeFormatter
+import java.util.function.Supplier
 
 /**
  * $INTERFACE is ...
@@ -41,13 +44,41 @@ class RundeckLogFormat implements OutputLogFormat, LineLogFormat {
     public static final LogLevel DEFAULT_LOG_LEVEL= LogLevel.NORMAL
 
     static final char BACKSLASH = '\\' as char
-    private static final ThreadLocal<DateFormat> w3cDateFormat = new ThreadLocal<DateFormat>() {
-        protected DateFormat initialValue() {
-            SimpleDateFormat fmt = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX", Locale.US);
-            fmt.setTimeZone(TimeZone.getTimeZone("GMT"));
-            return fmt;
+    static final String META_ESCAPED = '=|}'
+    private static final String META_VALID_ESCAPED = '=|}\\'
+    private static final String LOG_VALID_ESCAPED = '^\\'
+    private static final DateTimeFormatter W3C_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssXXX", Locale.US).withZone(ZoneOffset.UTC)
+    private static final LogLevel[] LOG_LEVELS = LogLevel.values()
+    /**
+     * Metadata keys and event types shared by most log entries, parsed values use these instances
+     */
+    private static final String[] COMMON_STRINGS = [
+            'node', 'stepctx', 'step', 'user', 'command', 'level', 'content-data-type',
+            LogUtil.EVENT_TYPE_LOG, 'stepbegin', 'stepend', 'nodebegin', 'nodeend',
+    ] as String[]
+    /**
+     * Reused builder for formatting and parsing, replaced if it grows beyond the maximum retained size
+     */
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(
+            { new StringBuilder(256) } as Supplier<StringBuilder>
+    )
+    private static final int MAX_RETAINED_BUILDER = 64 * 1024
+
+    /**
+     * A formatted timestamp, successive log entries usually share the same second
+     */
+    private static final class CachedTime {
+        final long epochSecond
+        final String text
+
+        CachedTime(long epochSecond, String text) {
+            this.epochSecond = epochSecond
+            this.text = text
         }
-    };
+    }
+    private volatile CachedTime lastFormatted
+    private volatile CachedTime lastParsed
 
     public RundeckLogFormat() {
 
@@ -74,6 +105,54 @@ class RundeckLogFormat implements OutputLogFormat, LineLogFormat {
     static boolean detectFormat(String firstLine){
         return firstLine?.startsWith(FILE_START)
     }
+
+    /**
+     * @param date date
+     * @return date formatted to the second in UTC
+     */
+    @CompileStatic
+    String formatDate(Date date) {
+        long second = Math.floorDiv(date.time, 1000L)
+        CachedTime cached = lastFormatted
+        if (null != cached && cached.epochSecond == second) {
+            return cached.text
+        }
+        String text = W3C_DATE_FORMAT.format(Instant.ofEpochSecond(second))
+        lastFormatted = new CachedTime(second, text)
+        return text
+    }
+
+    /**
+     * Parse a date within a line
+     * @param line line
+     * @param start start index
+     * @param end end index
+     * @return date
+     */
+    @CompileStatic
+    private Date parseDate(String line, int start, int end) {
+        CachedTime cached = lastParsed
+        int length = end - start
+        if (null != cached && cached.text.length() == length && line.regionMatches(start, cached.text, 0, length)) {
+            return new Date(cached.epochSecond * 1000L)
+        }
+        String text = line.substring(start, end)
+        long second = OffsetDateTime.parse(text, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toEpochSecond()
+        lastParsed = new CachedTime(second, text)
+        return new Date(second * 1000L)
+    }
+
+    @CompileStatic
+    private static StringBuilder builder() {
+        StringBuilder sb = BUILDER.get()
+        if (sb.capacity() > MAX_RETAINED_BUILDER) {
+            sb = new StringBuilder(256)
+            BUILDER.set(sb)
+        }
+        sb.setLength(0)
+        return sb
+    }
+
     /**
      * @param context data
      * @param message message
@@ -81,44 +160,61 @@ class RundeckLogFormat implements OutputLogFormat, LineLogFormat {
      * @return
      */
     @Override
+    @CompileStatic
     String outputEvent(LogEvent entry) {
-        def String date = w3cDateFormat.get().format(entry.datetime)
-        String dMesg = entry.message ?: '';
-        while (dMesg.endsWith('\r')) {
-            dMesg = dMesg.substring(0, dMesg.length() - 1)
-        }
-        StringBuffer sb = new StringBuffer()
+        StringBuilder sb = builder()
         sb.append(DELIM)
         //date
-        sb.append(date).append('|')
-        sb.append(entry.eventType&&entry.eventType!=DEFAULT_EVENT_TYPE?entry.eventType.replaceAll('\\|',''):'').append('|')
+        sb.append(formatDate(entry.datetime)).append('|' as char)
+        String eventType = entry.eventType
+        if (eventType && eventType != DEFAULT_EVENT_TYPE) {
+            for (int i = 0; i < eventType.length(); i++) {
+                char c = eventType.charAt(i)
+                if (c != ('|' as char)) {
+                    sb.append(c)
+                }
+            }
+        }
+        sb.append('|' as char)
         //level
-        sb.append(entry.loglevel==DEFAULT_LOG_LEVEL?'':entry.loglevel).append("|")
+        if (entry.loglevel != DEFAULT_LOG_LEVEL) {
+            sb.append(String.valueOf(entry.loglevel))
+        }
+        sb.append('|' as char)
 
         //metadata
-        def metadata = entry.metadata
+        Map<String, String> metadata = entry.metadata
         if (metadata) {
-            sb.append('{')
-            def sort = metadata.keySet().sort()
-            for (int i = 0; i < sort.size(); i++) {
-                def key = sort[i]
-                if(null==metadata[key]){
+            sb.append('{' as char)
+            String[] keys = metadata.keySet().toArray(new String[metadata.size()])
+            if (keys.length > 1) {
+                Arrays.sort(keys)
+            }
+            for (int i = 0; i < keys.length; i++) {
+                Object value = metadata.get(keys[i])
+                if (null == value) {
                     continue
                 }
+                //separator is based on position within all keys
                 if (i > 0) {
-                    sb.append('|')
+                    sb.append('|' as char)
                 }
-                sb.append(backslashEscape(key,'=|}'))
-                sb.append('=')
-                sb.append(backslashEscape(metadata[key],'=|}'))
+                appendEscaped(sb, keys[i], META_ESCAPED)
+                sb.append('=' as char)
+                appendEscaped(sb, value.toString(), META_ESCAPED)
             }
 
-            sb.append('}')
+            sb.append('}' as char)
         }
 
-        sb.append("|")
-        //mesg
-        sb.append(backslashEscape(dMesg, DELIM))
+        sb.append('|' as char)
+        //mesg, without trailing carriage returns
+        String message = entry.message
+        int end = message ? message.length() : 0
+        while (end > 0 && message.charAt(end - 1) == ('\r' as char)) {
+            end--
+        }
+        appendEscaped(sb, message, 0, end, DELIM)
         //end
         sb.append(DELIM)
 
@@ -129,6 +225,31 @@ class RundeckLogFormat implements OutputLogFormat, LineLogFormat {
         dMesg ? dMesg.replaceAll('([\\\\' + chars + '])', '\\\\$1') : ''
     }
 
+    /**
+     * Append the string, escaping backslash and the given chars with a backslash, equivalent to {@link
+     * #backslashEscape(java.lang.String, java.lang.String)}
+     */
+    @CompileStatic
+    static void appendEscaped(StringBuilder sb, String value, String chars) {
+        if (value) {
+            appendEscaped(sb, value, 0, value.length(), chars)
+        }
+    }
+
+    /**
+     * Append the characters from start to end of the string, escaping backslash and the given chars with a backslash
+     */
+    @CompileStatic
+    static void appendEscaped(StringBuilder sb, String value, int start, int end, String chars) {
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i)
+            if (c == BACKSLASH || chars.indexOf((int) c) >= 0) {
+                sb.append(BACKSLASH)
+            }
+            sb.append(c)
+        }
+    }
+
     static class RDFormatItem implements LineLogFormat.FormatItem {
         boolean fileEnd
         boolean lineComplete
@@ -182,73 +303,163 @@ class RundeckLogFormat implements OutputLogFormat, LineLogFormat {
         } else if (line == FILE_START) {
             return new RDFormatItem(fileStart: true)
         } else if (line.startsWith(DELIM)) {
-            def temp = line.substring(DELIM.length())
-            if (!temp) {
+            int len = line.length()
+            int start = DELIM.length()
+            if (start == len) {
                 //delim alone
                 return new RDFormatItem('', true)
             }
-            def item = new RDFormatItem()
-            def arr = temp.split("\\|", 4)
-
-            if (arr.length != 4) {
-                return RDFormatItem.error("Expected 4 sections: " + arr.length)
+            //date, event type and level sections
+            int d1 = line.indexOf('|', start)
+            if (d1 < 0) {
+                return RDFormatItem.error("Expected 4 sections: " + 1)
+            }
+            int d2 = line.indexOf('|', d1 + 1)
+            if (d2 < 0) {
+                return RDFormatItem.error("Expected 4 sections: " + 2)
             }
-            Date time = w3cDateFormat.get().parse(arr[0])
-            String eventType = arr[1] ?: DEFAULT_EVENT_TYPE
-            LogLevel level = arr[2]?LogLevel.valueOf(arr[2]):DEFAULT_LOG_LEVEL
-            String rest = arr[3]
-            Map<String, String> meta = [:]
-            if (rest.startsWith('{')) {
+            int d3 = line.indexOf('|', d2 + 1)
+            if (d3 < 0) {
+                return RDFormatItem.error("Expected 4 sections: " + 3)
+            }
+            Date time = parseDate(line, start, d1)
+            String eventType = d2 > d1 + 1 ? common(line, d1 + 1, d2) : DEFAULT_EVENT_TYPE
+            LogLevel level = d3 > d2 + 1 ? parseLevel(line, d2 + 1, d3) : DEFAULT_LOG_LEVEL
+
+            StringBuilder sb = builder()
+            int pos = d3 + 1
+            Map<String, String> meta = new LinkedHashMap<>()
+            if (pos < len && line.charAt(pos) == ('{' as char)) {
                 //parse meta
-                rest = rest.substring(1)
-                def done = false
+                pos++
+                boolean done = false
                 while (!done) {
-                    def decodedKey = decodeMetaKey(rest)
-                    def (String key, delim, newrest) = [decodedKey[0] as String, decodedKey[1], decodedKey[2] as String]
-                    if (!delim) {
-                        return RDFormatItem.error("Meta section invalid: " + rest)
+                    sb.setLength(0)
+                    int next = unescapeTo(line, pos, sb, META_VALID_ESCAPED, '=')
+                    if (next < 0) {
+                        return RDFormatItem.error("Meta section invalid: " + line.substring(pos))
                     }
-                    rest = newrest
-                    def decodedVal = decodeMetaValue(rest)
-                    def (String val, delim2, newrest2) = [decodedVal[0] as String, decodedVal[1], decodedVal[2] as String]
-                    if (!delim2) {
-                        return RDFormatItem.error("Meta section invalid: " + rest)
+                    String key = common(sb)
+                    pos = next
+                    sb.setLength(0)
+                    next = unescapeTo(line, pos, sb, META_VALID_ESCAPED, '|}')
+                    if (next < 0) {
+                        return RDFormatItem.error("Meta section invalid: " + line.substring(pos))
                     }
-                    if (delim2 == '}') {
+                    if (line.charAt(next - 1) == ('}' as char)) {
                         done = true
                     }
-                    meta.put(key, val)
-                    rest = newrest2
+                    meta.put(key, sb.toString())
+                    pos = next
                 }
-                if (rest.startsWith('|')) {
-                    rest = rest.substring(1)
+                if (pos < len && line.charAt(pos) == ('|' as char)) {
+                    pos++
                 } else {
-                    return RDFormatItem.error("Expected message section: " + rest)
+                    return RDFormatItem.error("Expected message section: " + line.substring(pos))
                 }
             } else {
-                arr = rest.substring(0).split('|', 2)
-                if (arr.length != 2) {
-                    return RDFormatItem.error("Expected message section: " + rest)
+                if (pos >= len) {
+                    return RDFormatItem.error("Expected message section: ")
                 }
-                rest = arr[1]
+                //the first character of the section is skipped
+                pos++
             }
 
-            def decoded = decodeLog(rest)
-            def (message, done) = [decoded[0] as String, decoded[1]]
-            item.lineComplete = done?true:false
+            sb.setLength(0)
+            boolean done = unescapeTo(line, pos, sb, LOG_VALID_ESCAPED, DELIM) >= 0
+            if (!done) {
+                sb.append('\n' as char)
+            }
+            def item = new RDFormatItem()
+            item.lineComplete = done
             item.entry = new DefaultLogEvent(
                     loglevel: level,
                     datetime: time,
-                    message: message + (done ? '' : '\n'),
+                    message: sb.toString(),
                     metadata: meta,
                     eventType: eventType
             )
             return item
         } else {
-             def decoded = decodeLog(line)
-             def (String temp, done) = [decoded[0] as String, decoded[1]]
-            return new RDFormatItem(temp + '\n', done ? true : false)
+            StringBuilder sb = builder()
+            boolean done = unescapeTo(line, 0, sb, LOG_VALID_ESCAPED, DELIM) >= 0
+            return new RDFormatItem(sb.append('\n' as char).toString(), done)
+        }
+    }
+
+    /**
+     * Unescape chars from the input into the builder until an unescaped delimiter char, equivalent to {@link
+     * #unescape(java.lang.String, char, java.lang.String, java.lang.String [ ])} with single char delimiters
+     * @param input input
+     * @param start start index
+     * @param sb builder for unescaped chars
+     * @param validEscaped chars allowed to be escaped, including the delimiters
+     * @param delimiters delimiter chars
+     * @return index after the delimiter, or -1 if no delimiter was found
+     */
+    @CompileStatic
+    private static int unescapeTo(String input, int start, StringBuilder sb, String validEscaped, String delimiters) {
+        boolean escaped = false
+        int len = input.length()
+        for (int i = start; i < len; i++) {
+            char c = input.charAt(i)
+            if (c == BACKSLASH) {
+                if (escaped) {
+                    sb.append(BACKSLASH)
+                }
+                escaped = !escaped
+            } else if (validEscaped.indexOf((int) c) >= 0) {
+                if (escaped) {
+                    sb.append(c)
+                    escaped = false
+                } else if (delimiters.indexOf((int) c) >= 0) {
+                    return i + 1
+                } else {
+                    sb.append(c)
+                }
+            } else {
+                if (escaped) {
+                    sb.append(BACKSLASH)
+                    escaped = false
+                }
+                sb.append(c)
+            }
+        }
+        return -1
+    }
+
+    @CompileStatic
+    private static LogLevel parseLevel(String line, int start, int end) {
+        for (LogLevel level : LOG_LEVELS) {
+            String name = level.name()
+            if (name.length() == end - start && line.regionMatches(start, name, 0, name.length())) {
+                return level
+            }
+        }
+        return LogLevel.valueOf(line.substring(start, end))
+    }
+
+    /**
+     * @return the common instance of the string, or a new string
+     */
+    @CompileStatic
+    private static String common(CharSequence chars) {
+        for (String value : COMMON_STRINGS) {
+            if (value.length() == chars.length() && value.contentEquals(chars)) {
+                return value
+            }
+        }
+        return chars.toString()
+    }
+
+    @CompileStatic
+    private static String common(String line, int start, int end) {
+        for (String value : COMMON_STRINGS) {
+            if (value.length() == end - start && line.regionMatches(start, value, 0, value.length())) {
+                return value
+            }
         }
+        return line.substring(start, end)
     }
 
     long seekBackwards(File file, int count) {
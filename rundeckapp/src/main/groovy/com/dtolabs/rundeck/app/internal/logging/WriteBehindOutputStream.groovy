@@ -0,0 +1,314 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.app.internal.logging
+
+import groovy.transform.CompileStatic
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.Executor
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.locks.LockSupport
+
+/**
+ * Output stream which queues writes in a lock-free queue, and writes them to the underlying stream with a task run by
+ * a writer pool shared by all streams. A drain task writes all queued writes at once and flushes them together. At
+ * most one drain task of a stream is scheduled at a time, so writes are written in the order they were queued. Writers
+ * block only when the queued writes or bytes exceed the limits.
+ * <p>
+ * An error writing to the underlying stream is thrown by the next write, flush or close.
+ */
+@CompileStatic
+class WriteBehindOutputStream extends OutputStream {
+    public static final int DEFAULT_CAPACITY = 8192
+    public static final long DEFAULT_MEMORY_LIMIT = 8L * 1024 * 1024
+    private static final long BLOCKED_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1)
+
+    private final BufferedOutputStream output
+    private final Executor writers
+    private final ConcurrentLinkedQueue<byte[]> queue = new ConcurrentLinkedQueue<>()
+    private final int capacity
+    private final long memoryLimit
+    /**
+     * Number of writes queued since creation
+     */
+    private final AtomicLong queued = new AtomicLong()
+    /**
+     * Number of writes written since creation
+     */
+    private final AtomicLong written = new AtomicLong()
+    private final AtomicLong queuedBytes = new AtomicLong()
+    /**
+     * Number of writes reserved and not yet written
+     */
+    private final AtomicInteger pendingWrites = new AtomicInteger()
+    private final AtomicLong flushCount = new AtomicLong()
+    /**
+     * Number of threads in a write call, close waits for them before draining the last writes
+     */
+    private final AtomicInteger activeWriters = new AtomicInteger()
+    private final AtomicBoolean scheduled = new AtomicBoolean()
+    /**
+     * Threads waiting for queued writes to be written
+     */
+    private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>()
+    private final Runnable drainTask = { drain() } as Runnable
+    private volatile boolean closed
+    private final AtomicBoolean outputClosed = new AtomicBoolean()
+    private volatile IOException failure
+    /**
+     * Optional listener, called by the writer pool after each group of writes is flushed
+     */
+    volatile Runnable flushListener
+
+    /**
+     * @param output underlying stream
+     * @param writers shared writer pool, which should have a bounded number of threads
+     * @param capacity maximum number of queued writes
+     * @param memoryLimit maximum bytes queued, a single larger write is allowed when nothing else is queued
+     */
+    WriteBehindOutputStream(
+            OutputStream output,
+            Executor writers,
+            int capacity = DEFAULT_CAPACITY,
+            long memoryLimit = DEFAULT_MEMORY_LIMIT
+    )
+    {
+        this.output = new BufferedOutputStream(output, 64 * 1024)
+        this.writers = writers
+        this.capacity = Math.max(1, capacity)
+        this.memoryLimit = Math.max(1L, memoryLimit)
+    }
+
+    /**
+     * @return number of group flushes performed
+     */
+    long getFlushCount() {
+        flushCount.get()
+    }
+
+    /**
+     * @return bytes queued and not yet written
+     */
+    long getQueuedBytes() {
+        queuedBytes.get()
+    }
+
+    @Override
+    void write(int b) throws IOException {
+        byte[] data = new byte[1]
+        data[0] = (byte) b
+        enqueue(data)
+    }
+
+    @Override
+    void write(byte[] b, int off, int len) throws IOException {
+        if (len < 1) {
+            return
+        }
+        enqueue(Arrays.copyOfRange(b, off, off + len))
+    }
+
+    private void enqueue(byte[] data) throws IOException {
+        activeWriters.incrementAndGet()
+        try {
+            checkState()
+            while (!reserve(data.length)) {
+                schedule()
+                awaitWritten { canReserve(data.length) }
+                checkState()
+            }
+            queue.offer(data)
+            queued.incrementAndGet()
+        } finally {
+            activeWriters.decrementAndGet()
+        }
+        schedule()
+    }
+
+    /**
+     * Reserve queue space with atomic counters, without locking
+     * @return true if the space was reserved
+     */
+    private boolean reserve(int length) {
+        if (pendingWrites.incrementAndGet() > capacity) {
+            pendingWrites.decrementAndGet()
+            return false
+        }
+        while (true) {
+            long current = queuedBytes.get()
+            if (!fitsMemoryLimit(current, length)) {
+                pendingWrites.decrementAndGet()
+                return false
+            }
+            if (queuedBytes.compareAndSet(current, current + length)) {
+                return true
+            }
+        }
+    }
+
+    private boolean canReserve(int length) {
+        pendingWrites.get() < capacity && fitsMemoryLimit(queuedBytes.get(), length)
+    }
+
+    private boolean fitsMemoryLimit(long current, int length) {
+        current == 0 || current + length <= memoryLimit
+    }
+
+    private void checkState() throws IOException {
+        if (null != failure) {
+            throw new IOException("Log writer failed: " + failure.message, failure)
+        }
+        if (closed) {
+            throw new IOException("Stream is closed")
+        }
+    }
+
+    /**
+     * Schedule a drain task if none is scheduled
+     */
+    private void schedule() {
+        if (queue.isEmpty() || !scheduled.compareAndSet(false, true)) {
+            return
+        }
+        try {
+            writers.execute(drainTask)
+        } catch (RejectedExecutionException e) {
+            scheduled.set(false)
+            fail(new IOException("Log writer pool rejected the write", e))
+        }
+    }
+
+    /**
+     * Write queued data, at most the capacity per run so that other streams can use the writer pool
+     */
+    private void drain() {
+        try {
+            if (null == failure) {
+                long bytes = 0
+                int count = 0
+                byte[] data
+                while (count < capacity && null != (data = queue.poll())) {
+                    output.write(data)
+                    bytes += data.length
+                    count++
+                }
+                if (count > 0) {
+                    //group commit
+                    output.flush()
+                    flushCount.incrementAndGet()
+                    written.addAndGet(count)
+                    pendingWrites.addAndGet(-count)
+                    queuedBytes.addAndGet(-bytes)
+                    notifyFlushed()
+                }
+            }
+        } catch (IOException e) {
+            fail(e)
+        } finally {
+            scheduled.set(false)
+            wakeWaiters()
+        }
+        //writes queued while draining, or beyond the capacity of this run
+        schedule()
+    }
+
+    private void fail(IOException e) {
+        failure = e
+        queue.clear()
+        closeOutput()
+        wakeWaiters()
+    }
+
+    private void closeOutput() {
+        if (!outputClosed.compareAndSet(false, true)) {
+            return
+        }
+        try {
+            output.close()
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void wakeWaiters() {
+        Thread waiter
+        while (null != (waiter = waiters.poll())) {
+            LockSupport.unpark(waiter)
+        }
+    }
+
+    /**
+     * Wait until the condition is true, the writer fails, or the next group of writes is written
+     */
+    private void awaitWritten(Closure<Boolean> condition) {
+        Thread current = Thread.currentThread()
+        waiters.offer(current)
+        if (!condition.call() && null == failure) {
+            LockSupport.parkNanos(this, BLOCKED_WAIT_NANOS)
+        }
+        waiters.remove(current)
+    }
+
+    private void notifyFlushed() {
+        try {
+            flushListener?.run()
+        } catch (RuntimeException ignored) {
+            //listener errors do not affect writing
+        }
+    }
+
+    /**
+     * Wait until all writes queued before this call have been written to the underlying stream
+     */
+    @Override
+    void flush() throws IOException {
+        long target = queued.get()
+        while (written.get() < target && null == failure) {
+            schedule()
+            awaitWritten { written.get() >= target }
+        }
+        if (null != failure) {
+            throw new IOException("Log writer failed: " + failure.message, failure)
+        }
+    }
+
+    /**
+     * Write all queued data and close the underlying stream
+     */
+    @Override
+    void close() throws IOException {
+        if (closed) {
+            return
+        }
+        closed = true
+        //writes in progress are queued before the final flush
+        while (activeWriters.get() > 0) {
+            Thread.yield()
+        }
+        try {
+            flush()
+            while (scheduled.get()) {
+                awaitWritten { !scheduled.get() }
+            }
+        } finally {
+            closeOutput()
+        }
+    }
+}
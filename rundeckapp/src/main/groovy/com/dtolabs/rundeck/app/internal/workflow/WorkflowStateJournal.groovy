@@ -0,0 +1,194 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.app.internal.workflow
+
+import com.dtolabs.rundeck.core.execution.workflow.state.ExecutionState
+import com.dtolabs.rundeck.core.execution.workflow.state.StateUtils
+import com.dtolabs.rundeck.core.execution.workflow.state.StepIdentifier
+import com.dtolabs.rundeck.core.execution.workflow.state.StepStateChange
+import com.dtolabs.rundeck.core.execution.workflow.state.WorkflowStateListener
+import groovy.transform.CompileStatic
+import groovy.transform.EqualsAndHashCode
+import groovy.transform.ToString
+
+/**
+ * Append-only journal of the parts of a workflow state changed by each state change event, identified by a sequence
+ * number. The journal is compacted when it grows beyond a threshold, by removing entries superseded by a later entry
+ * for the same step and node, so the changes since any sequence number remain available.
+ */
+@CompileStatic
+class WorkflowStateJournal implements WorkflowStateListener {
+    public static final int DEFAULT_COMPACT_THRESHOLD = 1000
+
+    /**
+     * A changed part of the state: the workflow itself if stepctx is null, a step if node is null, otherwise the state
+     * of a step on a node
+     */
+    @EqualsAndHashCode
+    @ToString(includeNames = true)
+    static class Change {
+        final String stepctx
+        final String node
+
+        Change(String stepctx, String node) {
+            this.stepctx = stepctx
+            this.node = node
+        }
+    }
+
+    private static class Entry {
+        final long sequence
+        final Change change
+
+        Entry(long sequence, Change change) {
+            this.sequence = sequence
+            this.change = change
+        }
+    }
+
+    private final List<Entry> entries = new ArrayList<>()
+    private final int compactThreshold
+    private int nextCompaction
+    private volatile long sequence
+
+    WorkflowStateJournal(int compactThreshold = DEFAULT_COMPACT_THRESHOLD) {
+        this.compactThreshold = Math.max(1, compactThreshold)
+        this.nextCompaction = this.compactThreshold
+    }
+
+    /**
+     * @return sequence number of the latest change, 0 if there are no changes
+     */
+    long getSequence() {
+        sequence
+    }
+
+    /**
+     * @return number of entries currently held
+     */
+    synchronized int size() {
+        entries.size()
+    }
+
+    /**
+     * @param since sequence number
+     * @return true if the changes since the sequence number can be returned
+     */
+    boolean isAvailableSince(long since) {
+        since >= 0 && since <= sequence
+    }
+
+    /**
+     * @param since sequence number
+     * @return distinct changes after the sequence number, in order of their latest change
+     */
+    synchronized List<Change> changesSince(long since) {
+        int low = 0
+        int high = entries.size()
+        while (low < high) {
+            int mid = (low + high) >>> 1
+            if (entries[mid].sequence <= since) {
+                low = mid + 1
+            } else {
+                high = mid
+            }
+        }
+        LinkedHashSet<Change> changes = new LinkedHashSet<>()
+        for (int i = entries.size() - 1; i >= low; i--) {
+            changes.add(entries[i].change)
+        }
+        List<Change> result = new ArrayList<>(changes)
+        Collections.reverse(result)
+        result
+    }
+
+    private synchronized void append(Collection<Change> changes) {
+        long seq = sequence + 1
+        for (Change change : changes) {
+            entries.add(new Entry(seq, change))
+        }
+        sequence = seq
+        if (entries.size() >= nextCompaction) {
+            compact()
+        }
+    }
+
+    /**
+     * Remove entries superseded by a later entry for the same change
+     */
+    synchronized void compact() {
+        Set<Change> seen = new HashSet<>()
+        List<Entry> kept = new ArrayList<>()
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            if (seen.add(entries[i].change)) {
+                kept.add(entries[i])
+            }
+        }
+        Collections.reverse(kept)
+        entries.clear()
+        entries.addAll(kept)
+        //compact again once the journal has grown by the threshold beyond the distinct changes
+        nextCompaction = entries.size() + compactThreshold
+    }
+
+    @Override
+    void stepStateChanged(StepIdentifier identifier, StepStateChange stepStateChange, Date timestamp) {
+        List<Change> changes = parentChanges(identifier)
+        String stepctx = StateUtils.stepIdentifierToString(identifier)
+        if (stepStateChange.nodeState) {
+            changes.add(new Change(stepctx, stepStateChange.nodeName))
+        }
+        changes.add(new Change(stepctx, null))
+        changes.add(new Change(null, null))
+        append(changes)
+    }
+
+    @Override
+    void workflowExecutionStateChanged(ExecutionState executionState, Date timestamp, List<String> nodeSet) {
+        append([new Change(null, null)])
+    }
+
+    @Override
+    void subWorkflowExecutionStateChanged(
+            StepIdentifier identifier,
+            ExecutionState executionState,
+            Date timestamp,
+            List<String> nodeSet
+    )
+    {
+        List<Change> changes = parentChanges(identifier)
+        changes.add(new Change(StateUtils.stepIdentifierToString(identifier), null))
+        changes.add(new Change(null, null))
+        append(changes)
+    }
+
+    /**
+     * @return changes for the parent steps of the identifier
+     */
+    private static List<Change> parentChanges(StepIdentifier identifier) {
+        List<Change> changes = new ArrayList<>()
+        for (int i = 1; i < identifier.context.size(); i++) {
+            changes.add(
+                    new Change(
+                            StateUtils.stepIdentifierToString(StateUtils.stepIdentifier(identifier.context.subList(0, i))),
+                            null
+                    )
+            )
+        }
+        changes
+    }
+}
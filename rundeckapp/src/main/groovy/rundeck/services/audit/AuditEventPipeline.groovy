@@ -0,0 +1,393 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rundeck.services.audit
+
+import com.codahale.metrics.Meter
+import com.codahale.metrics.Timer
+import com.dtolabs.rundeck.core.audit.AuditEvent
+import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
+import groovy.transform.CompileStatic
+import groovy.util.logging.Slf4j
+
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.TimeUnit
+import java.util.function.Consumer
+
+/**
+ * Delivers audit events to a sink in batches from a bounded queue, on a single worker thread.
+ * <p>
+ * A batch holds up to the batch size of queued events. If the linger time is set, the worker waits up to that time
+ * for a batch to fill before it delivers the batch. When the queue is full the overflow policy decides what happens
+ * to a new event:
+ * </p>
+ * <ul>
+ *     <li>DROP: the event is discarded</li>
+ *     <li>BLOCK: the publisher waits for space in the queue</li>
+ *     <li>SPILL: the event is appended to a file on disk. Spilled events can be delivered after events queued
+ *     later. Events still queued at shutdown are also spilled, and are delivered after the next start.</li>
+ * </ul>
+ * <p>
+ * Spilled events are read back by a separate replay thread, which only queues them while the queue is less than
+ * half full, so that replay does not delay delivery of new events or cause them to overflow.
+ * </p>
+ */
+@CompileStatic
+@Slf4j
+class AuditEventPipeline {
+    static final String SPILL_FILE_NAME = 'audit-events.spill'
+    static final long IDLE_POLL_MILLIS = 500
+
+    static enum OverflowPolicy {
+        DROP, BLOCK, SPILL
+
+        static OverflowPolicy forName(String name, OverflowPolicy defval) {
+            values().find { it.name().equalsIgnoreCase(name?.trim()) } ?: defval
+        }
+    }
+
+    private static class Queued {
+        final AuditEvent event
+        final long queued
+        final boolean replayed
+
+        Queued(AuditEvent event, long queued, boolean replayed = false) {
+            this.event = event
+            this.queued = queued
+            this.replayed = replayed
+        }
+    }
+
+    final int batchSize
+    final long lingerMillis
+    final OverflowPolicy overflowPolicy
+    final File spillFile
+    private final int replayThreshold
+    private final ArrayBlockingQueue<Queued> queue
+    private final Consumer<List<AuditEvent>> sink
+    private final Thread worker
+    private final Thread replayer
+    private final Object spillLock = new Object()
+    private volatile boolean running = true
+    /**
+     * Optional timer of the time from queueing until the event is delivered
+     */
+    Timer latencyTimer
+    /**
+     * Optional meter of events discarded when the queue is full
+     */
+    Meter droppedMeter
+    /**
+     * Optional meter of events written to disk when the queue is full
+     */
+    Meter spilledMeter
+
+    /**
+     * @param queueSize maximum queued events
+     * @param batchSize maximum events delivered in a batch
+     * @param lingerMillis time to wait for a batch to fill, or 0 to deliver the queued events immediately
+     * @param overflowPolicy policy when the queue is full
+     * @param spillDir directory for spilled events, required for the SPILL policy
+     * @param sink receives each batch
+     */
+    AuditEventPipeline(
+            int queueSize,
+            int batchSize,
+            long lingerMillis,
+            OverflowPolicy overflowPolicy,
+            File spillDir,
+            Consumer<List<AuditEvent>> sink
+    ) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize))
+        this.replayThreshold = Math.max(1, queueSize >> 1)
+        this.batchSize = Math.max(1, batchSize)
+        this.lingerMillis = Math.max(0L, lingerMillis)
+        this.overflowPolicy = overflowPolicy
+        this.spillFile = null != spillDir ? new File(spillDir, SPILL_FILE_NAME) : null
+        if (overflowPolicy == OverflowPolicy.SPILL && null == spillFile) {
+            throw new IllegalArgumentException('A spill directory is required for the SPILL overflow policy')
+        }
+        this.sink = sink
+        worker = new Thread({ processQueue() } as Runnable, 'AuditEventPipeline')
+        worker.daemon = true
+        worker.start()
+        if (null != spillFile) {
+            replayer = new Thread({ replaySpilled() } as Runnable, 'AuditEventPipeline-replay')
+            replayer.daemon = true
+            replayer.start()
+        } else {
+            replayer = null
+        }
+    }
+
+    /**
+     * Queue an event
+     * @param event event
+     * @return false if the event was dropped
+     */
+    boolean publish(AuditEvent event) {
+        def queued = new Queued(event, System.nanoTime())
+        if (running && queue.offer(queued)) {
+            return true
+        }
+        OverflowPolicy policy = running ? overflowPolicy : (null != spillFile ? OverflowPolicy.SPILL : OverflowPolicy.DROP)
+        switch (policy) {
+            case OverflowPolicy.BLOCK:
+                try {
+                    while (running) {
+                        if (queue.offer(queued, IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                            return true
+                        }
+                    }
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt()
+                }
+                return drop(event)
+            case OverflowPolicy.SPILL:
+                return spill([event])
+            default:
+                return drop(event)
+        }
+    }
+
+    private boolean drop(AuditEvent event) {
+        droppedMeter?.mark()
+        log.warn("Audit event queue is full, event dropped: ${event.actionType} ${event.resourceInfo?.name}")
+        false
+    }
+
+    private boolean spill(List<AuditEvent> events) {
+        synchronized (spillLock) {
+            try {
+                spillFile.parentFile?.mkdirs()
+                spillFile.withWriterAppend('UTF-8') { Writer writer ->
+                    for (AuditEvent event : events) {
+                        writer.write(JsonOutput.toJson(AuditEventRecord.toMap(event)))
+                        writer.write('\n')
+                    }
+                }
+                spilledMeter?.mark(events.size())
+                return true
+            } catch (IOException e) {
+                log.error("Unable to write audit events to ${spillFile}: ${e.message}", e)
+                droppedMeter?.mark(events.size())
+                return false
+            }
+        }
+    }
+
+    /**
+     * Append events which were already serialized back to the spill file
+     */
+    private void respill(List<String> lines) {
+        synchronized (spillLock) {
+            try {
+                spillFile.withWriterAppend('UTF-8') { Writer writer ->
+                    for (String line : lines) {
+                        writer.write(line)
+                        writer.write('\n')
+                    }
+                }
+            } catch (IOException e) {
+                log.error("Unable to write audit events to ${spillFile}: ${e.message}", e)
+                droppedMeter?.mark(lines.size())
+            }
+        }
+    }
+
+    private File getSpillReadFile() {
+        new File(spillFile.parentFile, spillFile.name + '.reading')
+    }
+
+    /**
+     * Replay thread: waits for the queue to have room, then queues the events spilled to disk, including any left by a
+     * previous run
+     */
+    private void replaySpilled() {
+        while (running) {
+            try {
+                if (queue.size() < replayThreshold) {
+                    replaySpillFile()
+                }
+                Thread.sleep(IDLE_POLL_MILLIS)
+            } catch (InterruptedException ignored) {
+                break
+            } catch (Throwable t) {
+                log.error("Error replaying spilled audit events: ${t.message}", t)
+            }
+        }
+    }
+
+    /**
+     * Queue the events from the spill file, waiting while the queue is at least half full. If the pipeline is stopped
+     * the unread events are written back to the spill file.
+     */
+    private void replaySpillFile() {
+        File reading = spillReadFile
+        synchronized (spillLock) {
+            if (!reading.exists()) {
+                if (!spillFile.exists()) {
+                    return
+                }
+                if (!spillFile.renameTo(reading)) {
+                    log.error("Unable to read spilled audit events from ${spillFile}")
+                    return
+                }
+            }
+        }
+        def slurper = new JsonSlurper()
+        List<String> unread = new ArrayList<>()
+        boolean stopped = false
+        BufferedReader lines = reading.newReader('UTF-8')
+        try {
+            String line
+            while ((line = lines.readLine()) != null) {
+                if (!line.trim()) {
+                    continue
+                }
+                if (stopped || !awaitReplayRoom()) {
+                    stopped = true
+                    unread.add(line)
+                    continue
+                }
+                AuditEvent event
+                try {
+                    event = AuditEventRecord.fromMap((Map) slurper.parseText(line))
+                } catch (Exception e) {
+                    log.error("Invalid spilled audit event: ${e.message}")
+                    continue
+                }
+                try {
+                    queue.put(new Queued(event, System.nanoTime(), true))
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt()
+                    stopped = true
+                    unread.add(line)
+                }
+            }
+        } finally {
+            lines.close()
+            if (unread) {
+                respill(unread)
+            }
+            if (!reading.delete()) {
+                log.error("Unable to remove spilled audit events file ${reading}")
+            }
+        }
+    }
+
+    /**
+     * Wait while the queue is at least half full
+     * @return false if the pipeline was stopped
+     */
+    private boolean awaitReplayRoom() {
+        try {
+            while (running && queue.size() >= replayThreshold) {
+                Thread.sleep(10)
+            }
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt()
+            return false
+        }
+        running
+    }
+
+    private void processQueue() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Queued first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS)
+                if (null == first) {
+                    continue
+                }
+                List<Queued> batch = new ArrayList<>(batchSize)
+                batch.add(first)
+                if (lingerMillis > 0) {
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis)
+                    while (batch.size() < batchSize) {
+                        queue.drainTo(batch, batchSize - batch.size())
+                        long remaining = deadline - System.nanoTime()
+                        if (batch.size() >= batchSize || remaining <= 0) {
+                            break
+                        }
+                        Queued next = queue.poll(remaining, TimeUnit.NANOSECONDS)
+                        if (null == next) {
+                            break
+                        }
+                        batch.add(next)
+                    }
+                } else {
+                    queue.drainTo(batch, batchSize - 1)
+                }
+                long now = System.nanoTime()
+                List<AuditEvent> events = new ArrayList<>(batch.size())
+                for (Queued queued : batch) {
+                    if (!queued.replayed) {
+                        latencyTimer?.update(now - queued.queued, TimeUnit.NANOSECONDS)
+                    }
+                    events.add(queued.event)
+                }
+                deliver(events)
+            } catch (InterruptedException ignored) {
+                break
+            } catch (Throwable t) {
+                log.error("Error in audit event pipeline: ${t.message}", t)
+            }
+        }
+    }
+
+    private void deliver(List<AuditEvent> events) {
+        try {
+            sink.accept(events)
+        } catch (Throwable t) {
+            log.error("Error delivering audit events: ${t.message}", t)
+        }
+    }
+
+    /**
+     * @return number of queued events
+     */
+    int getQueueDepth() {
+        queue.size()
+    }
+
+    /**
+     * Stop accepting events, and wait for queued events to be delivered. If the wait time passes, remaining events
+     * are spilled to disk if a spill directory is set, otherwise they are discarded.
+     * @param waitMillis maximum time to wait
+     */
+    void shutdown(long waitMillis) {
+        running = false
+        try {
+            replayer?.join(Math.max(1L, waitMillis))
+            worker.join(Math.max(1L, waitMillis))
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt()
+        }
+        replayer?.interrupt()
+        worker.interrupt()
+        List<Queued> remaining = new ArrayList<>()
+        queue.drainTo(remaining)
+        if (remaining) {
+            if (null != spillFile) {
+                spill(remaining.collect { it.event })
+            } else {
+                droppedMeter?.mark(remaining.size())
+                log.warn("Discarded ${remaining.size()} queued audit events at shutdown")
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rundeck.services.audit
+
+import com.dtolabs.rundeck.core.audit.AuditEvent
+import com.dtolabs.rundeck.core.audit.RequestInfo
+import com.dtolabs.rundeck.core.audit.ResourceInfo
+import com.dtolabs.rundeck.core.audit.UserInfo
+import groovy.transform.CompileStatic
+import groovy.transform.ToString
+
+/**
+ * Audit event data which can be converted to and from a map, used to write queued events to disk
+ */
+@CompileStatic
+@ToString(includeNames = true, includePackage = false)
+class AuditEventRecord implements AuditEvent {
+    Date timestamp
+    String actionType
+    UserInfo userInfo
+    RequestInfo requestInfo
+    ResourceInfo resourceInfo
+
+    @ToString(includeNames = true, includePackage = false)
+    static class User implements UserInfo {
+        String username
+        List<String> userRoles
+    }
+
+    @ToString(includeNames = true, includePackage = false)
+    static class Request implements RequestInfo {
+        String serverHostname
+        String serverUUID
+        String sessionID
+        String userAgent
+    }
+
+    @ToString(includeNames = true, includePackage = false)
+    static class Resource implements ResourceInfo {
+        String type
+        String name
+    }
+
+    /**
+     * @return map of the event data
+     */
+    static Map<String, Object> toMap(AuditEvent event) {
+        [
+                timestamp   : event.timestamp?.time,
+                actionType  : event.actionType,
+                username    : event.userInfo?.username,
+                userRoles   : event.userInfo?.userRoles,
+                serverHost  : event.requestInfo?.serverHostname,
+                serverUUID  : event.requestInfo?.serverUUID,
+                sessionID   : event.requestInfo?.sessionID,
+                userAgent   : event.requestInfo?.userAgent,
+                resourceType: event.resourceInfo?.type,
+                resourceName: event.resourceInfo?.name,
+        ] as Map<String, Object>
+    }
+
+    /**
+     * @return event from the map data
+     */
+    static AuditEventRecord fromMap(Map map) {
+        new AuditEventRecord(
+                timestamp: null != map.timestamp ? new Date(((Number) map.timestamp).longValue()) : null,
+                actionType: (String) map.actionType,
+                userInfo: new User(
+                        username: (String) map.username,
+                        userRoles: Collections.unmodifiableList(new ArrayList<String>((List<String>) map.userRoles ?: []))
+                ),
+                requestInfo: new Request(
+                        serverHostname: (String) map.serverHost,
+                        serverUUID: (String) map.serverUUID,
+                        sessionID: (String) map.sessionID,
+                        userAgent: (String) map.userAgent
+                ),
+                resourceInfo: new Resource(type: (String) map.resourceType, name: (String) map.resourceName)
+        )
+    }
+}
@@ -6,16 +6,18 @@ import com.dtolabs.rundeck.core.plugins.ConfiguredPlugin
 import com.dtolabs.rundeck.core.plugins.DescribedPlugin
 import com.dtolabs.rundeck.core.plugins.configuration.Description
 import com.dtolabs.rundeck.plugins.ServiceNameConstants
+import com.codahale.metrics.Gauge
+import com.codahale.metrics.MetricRegistry
 import com.dtolabs.rundeck.plugins.audit.AuditEventListener
 import com.dtolabs.rundeck.plugins.audit.AuditEventListenerPlugin
+import com.dtolabs.rundeck.plugins.audit.BatchAuditEventListener
 import groovy.transform.PackageScope
 import org.grails.web.servlet.mvc.GrailsWebRequest
 import org.grails.web.util.WebUtils
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.DisposableBean
 import org.springframework.context.event.EventListener
-import org.springframework.core.task.AsyncTaskExecutor
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor
 import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent
 import org.springframework.security.authentication.event.AuthenticationSuccessEvent
 import org.springframework.security.core.Authentication
@@ -36,23 +38,89 @@ import java.util.stream.Collectors
  *
  */
 class AuditEventsService
-        implements LogoutHandler {
+        implements LogoutHandler, DisposableBean {
 
     static final Logger LOG = LoggerFactory.getLogger(AuditEventsService.class)
 
     FrameworkService frameworkService
+    def configurationService
+    def metricService
 
-    protected AsyncTaskExecutor asyncTaskExecutor
+    private AuditEventPipeline pipeline
     protected final CopyOnWriteArrayList<AuditEventListener> internalListeners = new CopyOnWriteArrayList<>()
 
     protected volatile Map<String, DescribedPlugin> installedPlugins = null
 
     AuditEventsService() {
         LOG.info("Init auditing events service")
-        asyncTaskExecutor = new ThreadPoolTaskExecutor()
-        asyncTaskExecutor.setCorePoolSize(1)
-        asyncTaskExecutor.setMaxPoolSize(1)
-        asyncTaskExecutor.initialize()
+    }
+
+    @Override
+    void destroy() throws Exception {
+        synchronized (this) {
+            pipeline?.shutdown(configurationService?.getLong('audit.events.shutdownWait', 10000) ?: 0)
+            pipeline = null
+        }
+    }
+
+    /**
+     * @return pipeline delivering events to the listeners in batches, created when first used
+     */
+    synchronized AuditEventPipeline getPipeline() {
+        if (null == pipeline) {
+            def overflow = AuditEventPipeline.OverflowPolicy.forName(
+                    configurationService?.getString('audit.events.overflow', 'spill'),
+                    AuditEventPipeline.OverflowPolicy.SPILL
+            )
+            File spillDir = overflow == AuditEventPipeline.OverflowPolicy.SPILL ? getSpillDir() : null
+            if (overflow == AuditEventPipeline.OverflowPolicy.SPILL && null == spillDir) {
+                LOG.warn("No directory available for spilled audit events, events will be dropped when the queue is full")
+                overflow = AuditEventPipeline.OverflowPolicy.DROP
+            }
+            pipeline = new AuditEventPipeline(
+                    configurationService?.getInteger('audit.events.queueSize', 10000) ?: 10000,
+                    configurationService?.getInteger('audit.events.batchSize', 100) ?: 100,
+                    configurationService?.getLong('audit.events.lingerMillis', 0) ?: 0,
+                    overflow,
+                    spillDir,
+                    this.&dispatchBatch
+            )
+            pipeline.latencyTimer = metricService?.timer(this.class.name, 'auditEventQueueLatency')
+            pipeline.droppedMeter = metricService?.meter(this.class.name, 'auditEventDroppedMeter')
+            pipeline.spilledMeter = metricService?.meter(this.class.name, 'auditEventSpilledMeter')
+            registerQueueDepthGauge()
+        }
+        pipeline
+    }
+
+    private void registerQueueDepthGauge() {
+        MetricRegistry registry = metricService?.metricRegistry
+        String name = MetricRegistry.name(this.class.name, 'auditEventQueueDepth')
+        if (null == registry || registry.names.contains(name)) {
+            return
+        }
+        registry.register(name, new Gauge<Integer>() {
+            @Override
+            Integer getValue() {
+                AuditEventsService.this.@pipeline?.queueDepth ?: 0
+            }
+        })
+    }
+
+    /**
+     * @return directory for audit events spilled to disk, from config or under the framework var dir, or null if
+     * neither is available
+     */
+    private File getSpillDir() {
+        String dir = configurationService?.getString('audit.events.spillDir', null)
+        if (dir) {
+            return new File(dir)
+        }
+        def framework = frameworkService?.rundeckFramework
+        String vardir = framework?.hasProperty('framework.var.dir') ?
+                        framework.getProperty('framework.var.dir') :
+                        frameworkService?.getRundeckBase()?.concat("/var")
+        vardir ? new File(vardir, 'audit-events') : null
     }
 
 
@@ -215,26 +283,54 @@ class AuditEventsService
         if (LOG.isDebugEnabled())
             LOG.debug("Dispatching audit event: " + event)
 
-        asyncTaskExecutor.execute {
+        getPipeline().publish(event)
+    }
 
-            // dispatch internal listeners.
-            internalListeners.each { listener ->
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug("Dispatching event to internal listener {" + listener + "}: " + event)
-                }
-                dispatchToListener(event, listener)
+    /**
+     * Dispatch a batch of events to the internal listeners and plugins. Batch listeners receive the whole batch,
+     * other listeners receive each event.
+     */
+    @PackageScope
+    void dispatchBatch(List<AuditEvent> events) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Dispatching batch of " + events.size() + " audit events")
+        }
+
+        // dispatch internal listeners.
+        internalListeners.each { listener ->
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Dispatching events to internal listener {" + listener + "}")
             }
+            dispatchToListener(events, listener)
+        }
 
-            // dispatch to plugins
-            this.listenerPlugins
-                    .values().stream()
-                    .peek {
-                        if (LOG.isDebugEnabled()) {
-                            LOG.debug("Dispatching event to plugin handler {" + it.name + "}: " + event)
-                        }
+        // dispatch to plugins
+        this.listenerPlugins
+                .values().stream()
+                .peek {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Dispatching events to plugin handler {" + it.name + "}")
                     }
-                    .map { it.instance }
-                    .forEach { dispatchToListener(event, it) }
+                }
+                .map { it.instance }
+                .forEach { dispatchToListener(events, it) }
+    }
+
+    /**
+     * Dispatch a batch of events to a listener.
+     */
+    private static dispatchToListener(List<AuditEvent> events, AuditEventListener listener) {
+        if (listener instanceof BatchAuditEventListener) {
+            try {
+                ((BatchAuditEventListener) listener).onEvents(events)
+            }
+            catch (Exception e) {
+                LOG.error("Error dispatching events to handler plugin: " + e.getMessage(), e)
+            }
+            return
+        }
+        for (AuditEvent event : events) {
+            dispatchToListener(event, listener)
         }
     }
 
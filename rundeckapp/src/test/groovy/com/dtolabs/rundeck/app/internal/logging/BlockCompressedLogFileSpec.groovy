@@ -0,0 +1,239 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.app.internal.logging
+
+import com.dtolabs.rundeck.core.logging.LogLevel
+import com.dtolabs.rundeck.core.logging.LogUtil
+import spock.lang.Requires
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class BlockCompressedLogFileSpec extends Specification {
+    File dir
+
+    def setup() {
+        dir = File.createTempDir('BlockCompressedLogFileSpec', 'test')
+    }
+
+    def cleanup() {
+        dir.deleteDir()
+    }
+
+    private File writeLog(String name, int count) {
+        def file = new File(dir, name)
+        def writer = new FSStreamingLogWriter(new FileOutputStream(file), [:], new RundeckLogFormat())
+        writer.openStream()
+        for (int i = 0; i < count; i++) {
+            writer.addEvent(
+                    new DefaultLogEvent(
+                            loglevel: LogLevel.NORMAL,
+                            datetime: new Date(1000L * i),
+                            message: "output line ${i}",
+                            eventType: i % 10 == 0 ? 'stepbegin' : LogUtil.EVENT_TYPE_LOG,
+                            metadata: [node: 'node' + (i % 3), stepctx: '1']
+                    )
+            )
+        }
+        writer.close()
+        file
+    }
+
+    private File compressTo(File source, String name, int blockSize = BlockCompressedLogFile.DEFAULT_BLOCK_SIZE) {
+        def dest = new File(dir, name)
+        BlockCompressedLogFile.compress(source, dest, blockSize)
+        dest
+    }
+
+    private static List<String> readMessages(FSStreamingLogReader reader) {
+        def messages = []
+        while (reader.hasNext()) {
+            messages << reader.next().message
+        }
+        reader.close()
+        messages
+    }
+
+    @Unroll
+    def "compressed content reads from any offset, block size #blockSize"() {
+        given:
+        def random = new Random(1)
+        def bytes = new byte[size]
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (97 + random.nextInt(4))
+        }
+        def source = new File(dir, 'source')
+        source.bytes = bytes
+        def dest = new File(dir, 'dest')
+
+        when:
+        long length = BlockCompressedLogFile.compress(source, dest, blockSize)
+        def compressed = BlockCompressedLogFile.open(dest)
+
+        then:
+        length == dest.length()
+        BlockCompressedLogFile.isCompressed(dest)
+        !BlockCompressedLogFile.isCompressed(source)
+        compressed.length == size
+        compressed.frameCount == (int) ((size + blockSize - 1) / blockSize)
+        compressed.newInputStream(0).bytes == bytes
+        [0, 1, blockSize - 1, blockSize, blockSize + 1, size - 1, size].findAll { it >= 0 && it <= size }.each {
+            int offset ->
+            assert compressed.newInputStream(offset).bytes == Arrays.copyOfRange(bytes, offset, size)
+        }
+
+        where:
+        blockSize | size
+        1024      | 10000
+        100       | 100
+        65536     | 5
+        65536     | 0
+    }
+
+    def "open input stream reads plain and compressed files"() {
+        given:
+        def plain = new File(dir, 'state.json')
+        plain.text = '{"a":"b"}'
+
+        expect:
+        BlockCompressedLogFile.openInputStream(plain).text == '{"a":"b"}'
+
+        when:
+        def compressed = compressTo(plain, 'compressed.state.json')
+
+        then:
+        BlockCompressedLogFile.isCompressed(compressed)
+        BlockCompressedLogFile.openInputStream(compressed).text == '{"a":"b"}'
+    }
+
+    def "compressing leaves the source file unchanged"() {
+        given:
+        def file = writeLog('1.rdlog', 100)
+        file.setLastModified(1000000L)
+        def content = file.bytes
+
+        when:
+        def compressed = compressTo(file, '1.compressed.rdlog', 1024)
+
+        then:
+        file.bytes == content
+        file.lastModified() == 1000000L
+        !BlockCompressedLogFile.isCompressed(file)
+        BlockCompressedLogFile.open(compressed).length == content.length
+    }
+
+    def "reader returns the same entries for compressed log from offset"() {
+        given:
+        def plain = writeLog('plain.rdlog', 2000)
+        def file = compressTo(plain, 'compressed.rdlog', 4096)
+        def plainReader = new FSStreamingLogReader(plain, 'UTF-8', new RundeckLogFormat())
+        def reader = new FSStreamingLogReader(file, 'UTF-8', new RundeckLogFormat())
+
+        when:
+        plainReader.openStream(0)
+        for (int i = 0; i < 1234; i++) {
+            plainReader.next()
+        }
+        long offset = plainReader.offset
+        plainReader.close()
+        reader.openStream(offset)
+        def messages = readMessages(reader)
+
+        then:
+        reader.totalSize == plain.length()
+        file.length() < plain.length()
+        messages.size() == 2000 - 1234
+        messages.first() == 'output line 1234'
+        messages.last() == 'output line 1999'
+        reader.complete
+    }
+
+    @Unroll
+    def "reverse offset #count for compressed log matches uncompressed log"() {
+        given:
+        def plain = writeLog('plain.rdlog', 500)
+        def file = compressTo(plain, 'compressed.rdlog', 1024)
+        def plainReader = new FSStreamingLogReader(plain, 'UTF-8', new RundeckLogFormat())
+        def reader = new FSStreamingLogReader(file, 'UTF-8', new RundeckLogFormat())
+
+        when:
+        plainReader.openStreamFromReverseOffset(count)
+        reader.openStreamFromReverseOffset(count)
+
+        then:
+        readMessages(reader) == readMessages(plainReader)
+
+        where:
+        count << [1, 10, 99, 500, 1000]
+    }
+
+    def "sidecar index is used for compressed log"() {
+        given:
+        def source = new File(dir, 'source.rdlog')
+        def file = new File(dir, 'indexed.rdlog')
+        def writer = new FSStreamingLogWriter(new FileOutputStream(source), [:], new RundeckLogFormat())
+        writer.indexWriter = new LogFileIndexWriter(new FileOutputStream(LogFileIndex.indexFileFor(file)), 100)
+        writer.openStream()
+        1000.times {
+            writer.addEvent(
+                    new DefaultLogEvent(
+                            loglevel: LogLevel.NORMAL,
+                            datetime: new Date(),
+                            message: "line ${it}",
+                            eventType: LogUtil.EVENT_TYPE_LOG,
+                            metadata: [node: 'node1', stepctx: '1']
+                    )
+            )
+        }
+        writer.close()
+        BlockCompressedLogFile.compress(source, file)
+        def reader = new FSStreamingLogReader(file, 'UTF-8', new RundeckLogFormat())
+
+        when:
+        reader.openStreamFromLine(750)
+
+        then:
+        reader.indexed
+        reader.next().message == 'line 750'
+    }
+
+    def "repetitive log is compressed"() {
+        given:
+        def file = writeLog('small.rdlog', 1000)
+
+        when:
+        def compressed = compressTo(file, 'small.compressed.rdlog')
+
+        then:
+        compressed.length() * 4 < file.length()
+    }
+
+    /**
+     * Compresses a log of 50k events, and checks it shrinks to under an eighth of its size.
+     * Set the RUNDECK_LOG_COMPRESSION_BENCHMARK environment variable to run it.
+     */
+    @Requires({ env['RUNDECK_LOG_COMPRESSION_BENCHMARK'] })
+    def "benchmark compression ratio for repetitive log"() {
+        given:
+        def file = writeLog('ratio.rdlog', 50000)
+
+        when:
+        def compressed = compressTo(file, 'ratio.compressed.rdlog')
+
+        then:
+        compressed.length() * 8 < file.length()
+    }
+}
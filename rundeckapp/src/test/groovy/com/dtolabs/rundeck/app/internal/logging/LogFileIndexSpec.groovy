@@ -0,0 +1,233 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.app.internal.logging
+
+import com.dtolabs.rundeck.core.logging.LogLevel
+import com.dtolabs.rundeck.core.logging.LogUtil
+import spock.lang.Specification
+
+import java.util.function.Predicate
+
+class LogFileIndexSpec extends Specification {
+    File logfile
+
+    def setup() {
+        logfile = File.createTempFile('LogFileIndexSpec', '.rdlog')
+        logfile.deleteOnExit()
+        LogFileIndex.indexFileFor(logfile).deleteOnExit()
+    }
+
+    private void writeLog(int count, int interval, boolean finish = true) {
+        def writer = new FSStreamingLogWriter(new FileOutputStream(logfile), [:], new RundeckLogFormat())
+        writer.indexWriter = new LogFileIndexWriter(
+                new FileOutputStream(LogFileIndex.indexFileFor(logfile)),
+                interval
+        )
+        writer.openStream()
+        count.times { i ->
+            writer.addEvent(
+                    new DefaultLogEvent(
+                            loglevel: LogLevel.NORMAL,
+                            datetime: new Date(1000L * i),
+                            message: "message ${i}".toString(),
+                            eventType: LogUtil.EVENT_TYPE_LOG,
+                            metadata: [node: "node${(int) (i / 25)}".toString(), stepctx: "${(int) (i / 50) + 1}".toString()]
+                    )
+            )
+        }
+        if (finish) {
+            writer.close()
+        }
+    }
+
+    /**
+     * Write log events with a step begin and node begin event before every fifth log event
+     */
+    private void writeMixedLog(int count, int interval) {
+        def writer = new FSStreamingLogWriter(new FileOutputStream(logfile), [:], new RundeckLogFormat())
+        writer.indexWriter = new LogFileIndexWriter(
+                new FileOutputStream(LogFileIndex.indexFileFor(logfile)),
+                interval
+        )
+        writer.openStream()
+        count.times { i ->
+            def metadata = [node: "node${(int) (i / 5)}".toString(), stepctx: "${(int) (i / 5) + 1}".toString()]
+            if (i % 5 == 0) {
+                ['stepbegin', 'nodebegin'].each { type ->
+                    writer.addEvent(
+                            new DefaultLogEvent(
+                                    loglevel: LogLevel.NORMAL,
+                                    datetime: new Date(1000L * i),
+                                    message: "${type} ${i}".toString(),
+                                    eventType: type,
+                                    metadata: metadata
+                            )
+                    )
+                }
+            }
+            writer.addEvent(
+                    new DefaultLogEvent(
+                            loglevel: LogLevel.NORMAL,
+                            datetime: new Date(1000L * i),
+                            message: "message ${i}".toString(),
+                            eventType: LogUtil.EVENT_TYPE_LOG,
+                            metadata: metadata
+                    )
+            )
+        }
+        writer.close()
+    }
+
+    private static List<String> readAll(FSStreamingLogReader reader) {
+        def result = []
+        while (reader.hasNext()) {
+            result << reader.next().message
+        }
+        reader.close()
+        result
+    }
+
+    def "index records checkpoints, markers and end"() {
+        given:
+        writeLog(100, 10)
+
+        when:
+        def index = LogFileIndex.load(logfile)
+
+        then:
+        index != null
+        index.complete
+        index.totalLines == 100
+        index.totalLogLines == 100
+        index.floorLine(37).line == 30
+        index.floorLine(0).line == 0
+        index.firstMatch('node2', null).line == 50
+        index.firstMatch(null, { it == '2' } as Predicate<String>).line == 50
+    }
+
+    def "missing index is not used"() {
+        given:
+        writeLog(20, 10)
+        LogFileIndex.indexFileFor(logfile).delete()
+
+        when:
+        def reader = new FSStreamingLogReader(logfile, 'UTF-8', new RundeckLogFormat())
+        reader.openStreamFromLine(15)
+
+        then:
+        !reader.indexed
+        readAll(reader) == (15..19).collect { "message ${it}".toString() }
+    }
+
+    def "open from line"() {
+        given:
+        writeLog(100, 10)
+
+        when:
+        def reader = new FSStreamingLogReader(logfile, 'UTF-8', new RundeckLogFormat())
+        reader.openStreamFromLine(line)
+
+        then:
+        reader.indexed
+        readAll(reader) == (line..<100).collect { "message ${it}".toString() }
+
+        where:
+        line << [0, 9, 10, 55, 99]
+    }
+
+    def "open from reverse offset uses index"() {
+        given:
+        writeLog(100, 10)
+
+        when:
+        def reader = new FSStreamingLogReader(logfile, 'UTF-8', new RundeckLogFormat())
+        reader.openStreamFromReverseOffset(5)
+
+        then:
+        readAll(reader) == (95..99).collect { "message ${it}".toString() }
+    }
+
+    def "open from reverse offset counts only log events"() {
+        given:
+        writeMixedLog(100, 10)
+
+        when:
+        def reader = new FSStreamingLogReader(logfile, 'UTF-8', new RundeckLogFormat())
+        reader.openStreamFromReverseOffset(offset)
+        def indexed = readAll(reader)
+        LogFileIndex.indexFileFor(logfile).delete()
+        def scanner = new FSStreamingLogReader(logfile, 'UTF-8', new RundeckLogFormat())
+        scanner.openStreamFromReverseOffset(offset)
+        def scanned = readAll(scanner)
+
+        then:
+        LogFileIndex.load(logfile) == null
+        indexed.findAll { it.startsWith('message') } == expected.collect { "message ${it}".toString() }
+        indexed == scanned
+
+        where:
+        offset | expected
+        1      | [99]
+        7      | (93..99)
+        33     | (67..99)
+        100    | (0..99)
+        150    | (0..99)
+    }
+
+    def "open from time"() {
+        given:
+        writeLog(100, 10)
+
+        when:
+        def reader = new FSStreamingLogReader(logfile, 'UTF-8', new RundeckLogFormat())
+        reader.openStreamFromTime(new Date(42000L))
+        def first = reader.next()
+        def offset = reader.offset
+
+        then:
+        first.message == 'message 42'
+        reader.hasNext()
+        reader.next().message == 'message 43'
+        reader.offset > offset
+    }
+
+    def "open from first match of node and step"() {
+        given:
+        writeLog(100, 10)
+
+        when:
+        def reader = new FSStreamingLogReader(logfile, 'UTF-8', new RundeckLogFormat())
+        reader.openStreamFromFirstMatch('node1', { it == '1' } as Predicate<String>)
+
+        then:
+        reader.next().message == 'message 25'
+    }
+
+    def "incomplete index can be read"() {
+        given:
+        writeLog(100, 10, false)
+
+        when:
+        def index = LogFileIndex.load(logfile)
+
+        then:
+        index != null
+        !index.complete
+        index.totalLines == -1
+        index.floorLine(99).line == 90
+    }
+}
@@ -16,8 +16,13 @@
 
 package com.dtolabs.rundeck.app.internal.logging
 
+import com.dtolabs.rundeck.core.logging.LogEvent
+import com.dtolabs.rundeck.core.logging.LogLevel
+import spock.lang.Requires
 import spock.lang.Specification
 
+import java.text.SimpleDateFormat
+
 /**
  * @author greg
  * @since 5/26/17
@@ -78,4 +83,163 @@ class RundeckLogFormatSpec extends Specification {
 
 
     }
+
+    /**
+     * Previous implementation of outputEvent, for comparison
+     */
+    private static String legacyOutputEvent(LogEvent entry) {
+        def fmt = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX", Locale.US)
+        fmt.setTimeZone(TimeZone.getTimeZone("GMT"))
+        String date = fmt.format(entry.datetime)
+        String dMesg = entry.message ?: ''
+        while (dMesg.endsWith('\r')) {
+            dMesg = dMesg.substring(0, dMesg.length() - 1)
+        }
+        StringBuffer sb = new StringBuffer()
+        sb.append('^')
+        sb.append(date).append('|')
+        sb.append(entry.eventType && entry.eventType != 'log' ? entry.eventType.replaceAll('\\|', '') : '').append('|')
+        sb.append(entry.loglevel == LogLevel.NORMAL ? '' : entry.loglevel).append("|")
+        def metadata = entry.metadata
+        if (metadata) {
+            sb.append('{')
+            def sort = metadata.keySet().sort()
+            for (int i = 0; i < sort.size(); i++) {
+                def key = sort[i]
+                if (null == metadata[key]) {
+                    continue
+                }
+                if (i > 0) {
+                    sb.append('|')
+                }
+                sb.append(RundeckLogFormat.backslashEscape(key, '=|}'))
+                sb.append('=')
+                sb.append(RundeckLogFormat.backslashEscape(metadata[key], '=|}'))
+            }
+            sb.append('}')
+        }
+        sb.append("|")
+        sb.append(RundeckLogFormat.backslashEscape(dMesg, '^'))
+        sb.append('^')
+        sb.toString()
+    }
+
+    private static final List<String> SAMPLE_TEXT = [
+            '', 'plain', 'a|b', 'x=y', 'c}d', 'back\\slash', 'car^et', 'end\\', 'crlf\r\r', 'multi\nline', 'ünïcödé',
+    ]
+
+    private static DefaultLogEvent randomEvent(Random random) {
+        def meta = [:]
+        random.nextInt(4).times {
+            meta[SAMPLE_TEXT[random.nextInt(SAMPLE_TEXT.size())] + it] =
+                    random.nextInt(5) == 0 ? null : SAMPLE_TEXT[random.nextInt(SAMPLE_TEXT.size())]
+        }
+        new DefaultLogEvent(
+                loglevel: LogLevel.values()[random.nextInt(LogLevel.values().length)],
+                datetime: new Date(random.nextLong() % 4000000000000L),
+                message: random.nextInt(10) == 0 ? null : SAMPLE_TEXT[random.nextInt(SAMPLE_TEXT.size())],
+                eventType: ['log', null, 'stepbegin', 'a|b'][random.nextInt(4)],
+                metadata: random.nextInt(5) == 0 ? null : meta
+        )
+    }
+
+    def "outputEvent is identical to previous format"() {
+        given:
+        def format = new RundeckLogFormat()
+        def random = new Random(12345)
+
+        expect:
+        2000.times {
+            def event = randomEvent(random)
+            assert format.outputEvent(event) == legacyOutputEvent(event)
+        }
+    }
+
+    def "outputEvent skipped null first metadata value keeps separator"() {
+        given:
+        def format = new RundeckLogFormat()
+        def event = new DefaultLogEvent(
+                loglevel: LogLevel.NORMAL,
+                datetime: new Date(0),
+                message: 'msg',
+                eventType: 'log',
+                metadata: [a: null, b: '2']
+        )
+
+        expect:
+        format.outputEvent(event) == '^1970-01-01T00:00:00Z|||{|b=2}|msg^'
+    }
+
+    def "parseLine reads formatted events"() {
+        given:
+        def format = new RundeckLogFormat()
+        def random = new Random(54321)
+
+        expect:
+        1000.times {
+            def event = randomEvent(random)
+            def line = format.outputEvent(event)
+            if (line.contains('\n') || line.contains('\r') || line.contains('{|') || line.contains('{}')) {
+                //multiline messages and skipped metadata values are not parsed as single line entries
+                return
+            }
+            def item = format.parseLine(line)
+            assert item.lineComplete
+            assert item.entry.message == (event.message ?: '').replaceAll(/\r+$/, '')
+            assert item.entry.datetime.time == Math.floorDiv(event.datetime.time, 1000L) * 1000L
+            assert item.entry.loglevel == event.loglevel
+            assert item.entry.eventType == (event.eventType ? event.eventType.replace('|', '') : 'log')
+            assert item.entry.metadata == (event.metadata ?: [:]).findAll { it.value != null }
+        }
+    }
+
+    def "parseLine shares common metadata keys"() {
+        given:
+        def format = new RundeckLogFormat()
+
+        when:
+        def item1 = format.parseLine('^2013-05-24T01:31:02Z|||{node=a|stepctx=1}|message^')
+        def item2 = format.parseLine('^2013-05-24T01:31:02Z|||{node=b|stepctx=2}|message^')
+
+        then:
+        item1.entry.metadata == [node: 'a', stepctx: '1']
+        item1.entry.metadata.keySet()[0].is(item2.entry.metadata.keySet()[0])
+        item1.entry.eventType.is(item2.entry.eventType)
+    }
+
+    /**
+     * Formats 100k events and checks that formatting is faster per event than the previous format.
+     * Set the RUNDECK_LOG_FORMAT_BENCHMARK environment variable to run it.
+     */
+    @Requires({ env['RUNDECK_LOG_FORMAT_BENCHMARK'] })
+    def "benchmark format and parse"() {
+        given:
+        def format = new RundeckLogFormat()
+        int count = 100000
+        def event = new DefaultLogEvent(
+                loglevel: LogLevel.NORMAL,
+                datetime: new Date(),
+                message: 'line of script output with some text',
+                eventType: 'log',
+                metadata: [node: 'node1', stepctx: '1/2', user: 'admin']
+        )
+        def line = format.outputEvent(event)
+
+        when:
+        long start = System.nanoTime()
+        for (int i = 0; i < count; i++) {
+            format.outputEvent(event)
+        }
+        long formatNanos = System.nanoTime() - start
+        long legacyCount = count / 10
+        start = System.nanoTime()
+        for (int i = 0; i < legacyCount; i++) {
+            legacyOutputEvent(event)
+        }
+        long legacyNanos = System.nanoTime() - start
+
+        then:
+        format.parseLine(line).entry.message == event.message
+        formatNanos * legacyCount < legacyNanos * count
+    }
 }
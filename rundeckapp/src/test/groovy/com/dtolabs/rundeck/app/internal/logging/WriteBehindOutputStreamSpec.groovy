@@ -0,0 +1,228 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.app.internal.logging
+
+import com.dtolabs.rundeck.core.logging.LogLevel
+import com.dtolabs.rundeck.core.logging.LogUtil
+import spock.lang.Requires
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class WriteBehindOutputStreamSpec extends Specification {
+    ExecutorService writers = Executors.newFixedThreadPool(2)
+
+    def cleanup() {
+        writers.shutdownNow()
+    }
+
+    def "writes are written in order and flushed on close"() {
+        given:
+        def bytes = new ByteArrayOutputStream()
+        def stream = new WriteBehindOutputStream(bytes, writers, 16, 1024)
+
+        when:
+        1000.times {
+            stream.write("line ${it}\n".getBytes('UTF-8'))
+        }
+        stream.close()
+
+        then:
+        bytes.toString('UTF-8').readLines() == (0..<1000).collect { "line ${it}".toString() }
+        stream.queuedBytes == 0
+        stream.flushCount >= 1
+    }
+
+    def "streams share a single writer thread and keep the order of each writing thread"() {
+        given:
+        def pool = Executors.newSingleThreadExecutor()
+        def outputs = (0..<4).collect { new ByteArrayOutputStream() }
+        def streams = outputs.collect { new WriteBehindOutputStream(it, pool, 8, 1024) }
+
+        when:
+        def threads = (0..<8).collect { int t ->
+            Thread.start {
+                def stream = streams[t % streams.size()]
+                500.times { stream.write("${t}:${it}\n".getBytes('UTF-8')) }
+            }
+        }
+        threads*.join()
+        streams*.close()
+
+        then:
+        outputs.eachWithIndex { ByteArrayOutputStream output, int i ->
+            def lines = output.toString('UTF-8').readLines()
+            assert lines.size() == 1000
+            [i, i + streams.size()].each { int t ->
+                assert lines.findAll { it.startsWith("${t}:") } == (0..<500).collect { "${t}:${it}".toString() }
+            }
+        }
+
+        cleanup:
+        pool.shutdownNow()
+    }
+
+    def "flush waits for queued writes"() {
+        given:
+        def bytes = new ByteArrayOutputStream()
+        def stream = new WriteBehindOutputStream(bytes, writers)
+
+        when:
+        stream.write('abc'.getBytes('UTF-8'))
+        stream.flush()
+
+        then:
+        bytes.toString('UTF-8') == 'abc'
+
+        cleanup:
+        stream.close()
+    }
+
+    def "writer blocks when memory limit is reached"() {
+        given:
+        def release = new CountDownLatch(1)
+        def bytes = new ByteArrayOutputStream()
+        def slow = new FilterOutputStream(bytes) {
+            @Override
+            void write(byte[] b, int off, int len) throws IOException {
+                release.await(5, TimeUnit.SECONDS)
+                bytes.write(b, off, len)
+            }
+        }
+        def stream = new WriteBehindOutputStream(slow, writers, 1024, 100)
+
+        when:
+        def producer = Thread.start {
+            20.times {
+                stream.write(new byte[50])
+            }
+        }
+        Thread.sleep(200)
+
+        then:
+        producer.alive
+        stream.queuedBytes <= 100
+
+        when:
+        release.countDown()
+        producer.join(5000)
+        stream.close()
+
+        then:
+        !producer.alive
+        bytes.size() == 1000
+    }
+
+    def "write error is thrown to the writer"() {
+        given:
+        def failing = new OutputStream() {
+            @Override
+            void write(int b) throws IOException {
+                throw new IOException('disk full')
+            }
+        }
+        def stream = new WriteBehindOutputStream(failing, writers)
+
+        when:
+        stream.write('abc'.getBytes('UTF-8'))
+        stream.flush()
+
+        then:
+        IOException e = thrown()
+        e.cause.message == 'disk full'
+    }
+
+    def "log writer counts bytes when events are queued"() {
+        given:
+        def bytes = new ByteArrayOutputStream()
+        def stream = new WriteBehindOutputStream(bytes, writers)
+        def writer = new FSStreamingLogWriter(stream, [:], new RundeckLogFormat())
+
+        when:
+        writer.openStream()
+        100.times {
+            writer.addEvent(event("message ${it}"))
+        }
+        long counted = writer.bytesWritten
+        writer.close()
+
+        then:
+        counted + new RundeckLogFormat().outputFinish().length() + 1 == bytes.size()
+        bytes.toString('UTF-8').readLines().size() == 102
+    }
+
+    def "log writer output is the same direct and write-behind"() {
+        given:
+        def direct = new ByteArrayOutputStream()
+        def behind = new ByteArrayOutputStream()
+
+        when:
+        timeWrites(direct, 100)
+        timeWrites(new WriteBehindOutputStream(behind, writers), 100)
+
+        then:
+        behind.toString('UTF-8') == direct.toString('UTF-8')
+        direct.toString('UTF-8').readLines().size() == 102
+    }
+
+    /**
+     * Writes 50k events to a file directly and with write-behind. The log writer flushes each event, so write-behind
+     * must be faster than writing directly. Set the RUNDECK_LOG_WRITER_BENCHMARK environment variable to run it.
+     */
+    @Requires({ env['RUNDECK_LOG_WRITER_BENCHMARK'] })
+    def "benchmark write direct and write-behind"() {
+        given:
+        int count = 50000
+        def direct = File.createTempFile('WriteBehindOutputStreamSpec', '.rdlog')
+        def behind = File.createTempFile('WriteBehindOutputStreamSpec', '.rdlog')
+        direct.deleteOnExit()
+        behind.deleteOnExit()
+
+        when:
+        long directNanos = timeWrites(new FileOutputStream(direct), count)
+        long behindNanos = timeWrites(new WriteBehindOutputStream(new FileOutputStream(behind), writers), count)
+
+        then:
+        direct.length() == behind.length()
+        direct.readLines().size() == count + 2
+        behindNanos < directNanos
+    }
+
+    private static DefaultLogEvent event(String message) {
+        new DefaultLogEvent(
+                loglevel: LogLevel.NORMAL,
+                datetime: new Date(0),
+                message: message,
+                eventType: LogUtil.EVENT_TYPE_LOG,
+                metadata: [node: 'node1', stepctx: '1']
+        )
+    }
+
+    private static long timeWrites(OutputStream output, int count) {
+        def writer = new FSStreamingLogWriter(output, [:], new RundeckLogFormat())
+        long start = System.nanoTime()
+        writer.openStream()
+        for (int i = 0; i < count; i++) {
+            writer.addEvent(event("line of script output number ${i}"))
+        }
+        writer.close()
+        System.nanoTime() - start
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtolabs.rundeck.app.internal.workflow
+
+import com.dtolabs.rundeck.core.execution.workflow.state.ExecutionState
+import com.dtolabs.rundeck.core.execution.workflow.state.StateUtils
+import spock.lang.Specification
+
+import static com.dtolabs.rundeck.app.internal.workflow.WorkflowStateJournal.Change
+
+class WorkflowStateJournalSpec extends Specification {
+    private static void nodeStepChange(WorkflowStateJournal journal, String stepctx, String node) {
+        journal.stepStateChanged(
+                StateUtils.stepIdentifierFromString(stepctx),
+                StateUtils.stepStateChange(StateUtils.stepState(ExecutionState.RUNNING), node),
+                new Date()
+        )
+    }
+
+    def "changes since sequence"() {
+        given:
+        def journal = new WorkflowStateJournal()
+
+        when:
+        journal.workflowExecutionStateChanged(ExecutionState.RUNNING, new Date(), ['a', 'b'])
+        nodeStepChange(journal, '1', 'a')
+        long seq = journal.sequence
+        nodeStepChange(journal, '2/1', 'b')
+
+        then:
+        journal.sequence == 3
+        journal.changesSince(seq) == [
+                new Change('2', null),
+                new Change('2/1', 'b'),
+                new Change('2/1', null),
+                new Change(null, null),
+        ]
+        journal.changesSince(3) == []
+        journal.isAvailableSince(3)
+        !journal.isAvailableSince(4)
+    }
+
+    def "compaction keeps latest change for each part"() {
+        given:
+        def journal = new WorkflowStateJournal(10)
+
+        when:
+        20.times {
+            nodeStepChange(journal, '1', 'a')
+        }
+        nodeStepChange(journal, '1', 'b')
+        def expected = journal.changesSince(15)
+        journal.compact()
+
+        then:
+        journal.size() == 4
+        journal.changesSince(15) == expected
+        journal.changesSince(15) == [
+                new Change('1', 'a'),
+                new Change('1', 'b'),
+                new Change('1', null),
+                new Change(null, null),
+        ]
+        journal.changesSince(20) == [new Change('1', 'b'), new Change('1', null), new Change(null, null)]
+    }
+}
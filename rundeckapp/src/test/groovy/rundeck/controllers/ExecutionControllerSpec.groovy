@@ -18,9 +18,13 @@ package rundeck.controllers
 
 import asset.pipeline.grails.AssetMethodTagLib
 import asset.pipeline.grails.AssetProcessorService
+import com.dtolabs.rundeck.app.api.ApiVersions
 import com.dtolabs.rundeck.app.internal.logging.DefaultLogEvent
 import com.dtolabs.rundeck.app.internal.logging.FSStreamingLogReader
 import com.dtolabs.rundeck.app.internal.logging.RundeckLogFormat
+import com.dtolabs.rundeck.app.internal.workflow.MutableWorkflowStateImpl
+import com.dtolabs.rundeck.app.internal.workflow.MutableWorkflowStateListener
+import com.dtolabs.rundeck.app.internal.workflow.WorkflowStateJournal
 import com.dtolabs.rundeck.app.support.ExecutionQuery
 import com.dtolabs.rundeck.core.authorization.AuthContextEvaluator
 import com.dtolabs.rundeck.core.authorization.AuthContextProvider
@@ -29,6 +33,8 @@ import com.dtolabs.rundeck.core.common.Framework
 import com.dtolabs.rundeck.core.common.IRundeckProjectConfig
 import com.dtolabs.rundeck.core.common.ProjectManager
 import com.dtolabs.rundeck.core.execution.logstorage.ExecutionFileState
+import com.dtolabs.rundeck.core.execution.workflow.state.ExecutionState
+import com.dtolabs.rundeck.core.execution.workflow.state.StateUtils
 import com.dtolabs.rundeck.core.logging.LogEvent
 import com.dtolabs.rundeck.core.logging.LogLevel
 import com.dtolabs.rundeck.core.logging.LogUtil
@@ -915,6 +921,99 @@ class ExecutionControllerSpec extends HibernateSpec implements ControllerUnitTes
         null         | null
     }
 
+    @Unroll
+    def "api execution state since #since"() {
+        given:
+        Execution e1 = new Execution(
+            project: 'test1',
+            user: 'bob',
+            dateStarted: new Date(),
+            status: 'running'
+        )
+        e1.save() != null
+        def state = new MutableWorkflowStateImpl(['a', 'b'], 2)
+        def journal = new WorkflowStateJournal()
+        def listeners = [new MutableWorkflowStateListener(state), journal]
+        listeners*.workflowExecutionStateChanged(ExecutionState.RUNNING, new Date(), ['a', 'b'])
+        [['1', 'a'], ['1', 'b'], ['2', 'a']].each { stepctx, node ->
+            listeners*.stepStateChanged(
+                StateUtils.stepIdentifierFromString(stepctx),
+                StateUtils.stepStateChange(StateUtils.stepState(ExecutionState.RUNNING), node),
+                new Date()
+            )
+        }
+        controller.workflowService = new WorkflowService()
+        controller.workflowService.activeStates[e1.id] = state
+        controller.workflowService.activeJournals[e1.id] = journal
+        controller.rundeckAuthContextProcessor = Mock(AppAuthContextProcessor) {
+            authorizeProjectExecutionAny(*_) >> true
+        }
+        controller.apiService = Mock(ApiService) {
+            requireApi(*_) >> true
+            requireExists(*_) >> true
+            requireAuthorized(*_) >> true
+            requireVersion(_, _, ApiVersions.V39) >> true
+        }
+
+        when:
+        params.id = e1.id.toString()
+        params.since = since
+        request.api_version = ApiVersions.V39
+        response.format = 'json'
+        controller.apiExecutionState()
+        def json = response.json
+
+        then:
+        json.sequence == 4
+        json.executionState == 'RUNNING'
+        if (full) {
+            assert json.steps.size() == 2
+            assert json.nodes.keySet() == ['a', 'b'] as Set
+            assert null == json.changes
+        } else {
+            assert json.since == 3
+            assert json.changes.collect { [it.stepctx, it.node] } == [['2', 'a'], ['2', null]]
+            assert null == json.steps
+            assert null == json.nodes
+        }
+
+        where:
+        since | full
+        '3'   | false
+        '5'   | true
+    }
+
+    def "api execution state since requires api version 39"() {
+        given:
+        Execution e1 = new Execution(
+            project: 'test1',
+            user: 'bob',
+            dateStarted: new Date(),
+            status: 'running'
+        )
+        e1.save() != null
+        controller.workflowService = Mock(WorkflowService)
+        controller.rundeckAuthContextProcessor = Mock(AppAuthContextProcessor) {
+            authorizeProjectExecutionAny(*_) >> true
+        }
+        controller.apiService = Mock(ApiService) {
+            requireApi(*_) >> true
+            requireExists(*_) >> true
+            requireAuthorized(*_) >> true
+        }
+
+        when:
+        params.id = e1.id.toString()
+        params.since = '3'
+        request.api_version = ApiVersions.V38
+        response.format = 'json'
+        controller.apiExecutionState()
+
+        then:
+        1 * controller.apiService.requireVersion(_, _, ApiVersions.V39) >> false
+        0 * controller.workflowService._
+    }
+
     @Unroll
     def "checkAllowUnsanitized"() {
 
@@ -28,7 +28,11 @@ import com.dtolabs.rundeck.core.utils.NodeSet
 import com.dtolabs.rundeck.core.utils.OptsUtil
 import grails.test.hibernate.HibernateSpec
 import grails.testing.web.controllers.ControllerUnitTest
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
 import org.apache.commons.fileupload.FileItem
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager
+import org.grails.plugins.codecs.SHA1Codec
 import org.grails.plugins.codecs.URLCodec
 import org.grails.plugins.testing.GrailsMockMultipartFile
 import org.grails.web.servlet.mvc.SynchronizerTokensHolder
@@ -3414,4 +3418,43 @@ class ScheduledExecutionControllerSpec extends HibernateSpec implements Controll
         controller.modelAndView.model.scheduledExecution != null
     }
 
+    def "remote json conditional request on pooled connection"() {
+        given:
+        mockCodec(SHA1Codec)
+        MockWebServer httpServer = new MockWebServer()
+        httpServer.enqueue(
+                new MockResponse().
+                        setBody('["a","b"]').
+                        addHeader('Content-Type', 'application/json').
+                        addHeader('ETag', '"v1"').
+                        addHeader('Last-Modified', 'Mon, 05 Oct 2026 10:00:00 GMT')
+        )
+        httpServer.enqueue(new MockResponse().setResponseCode(304))
+        httpServer.start()
+        def url = httpServer.url('/options').toString()
+        def manager = new MultiThreadedHttpConnectionManager()
+
+        when:
+        def first = ScheduledExecutionController.getRemoteJSON(url, 10, 0, 5, false, null, manager)
+        def second = ScheduledExecutionController.getRemoteJSON(url, 10, 0, 5, false, first.validators, manager)
+        def request1 = httpServer.takeRequest()
+        def request2 = httpServer.takeRequest()
+
+        then:
+        first.json == ['a', 'b']
+        first.text == '["a","b"]'
+        first.validators == [etag: '"v1"', lastModified: 'Mon, 05 Oct 2026 10:00:00 GMT']
+        !first.noStore
+        second.notModified
+        second.json == null
+        second.stats.httpStatusCode == 304
+        request1.getHeader('If-None-Match') == null
+        request2.getHeader('If-None-Match') == '"v1"'
+        request2.getHeader('If-Modified-Since') == 'Mon, 05 Oct 2026 10:00:00 GMT'
+        request2.sequenceNumber == 1
+
+        cleanup:
+        httpServer.shutdown()
+        manager.shutdown()
+    }
 }
@@ -226,6 +226,18 @@ class ExecutionsCleanUpSpec extends Specification implements DataTest{
     }
 
 
+    def "bulk purge throttle delay"() {
+        expect:
+        ExecutionsCleanUp.throttleDelay(rows, rowsPerSecond, elapsed) == delay
+
+        where:
+        rows | rowsPerSecond | elapsed | delay
+        100  | 0             | 10      | 0
+        100  | 100           | 10      | 990
+        100  | 200           | 100     | 400
+        100  | 50            | 3000    | 0
+    }
+
     def createJob(){
         def se = new ScheduledExecution(
                 jobName: jobName,
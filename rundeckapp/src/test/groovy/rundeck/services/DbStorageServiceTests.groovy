@@ -571,6 +571,17 @@ class DbStorageServiceTests extends HibernateSpec implements ServiceUnitTest<DbS
         assertNotNull('xyz/pyx not found in '+res1.collect{it.path}.join("; "),found4)
         assertEquals(true, found4.directory)
     }
+    void testListDirectory_order() {
+        expect:
+        assertNotNull new Storage(data: 'abc2'.bytes, name: 'abc', dir: 'xyz', storageMeta: [abc: 'xyz2']).save(true)
+        assertNotNull new Storage(data: 'abc3'.bytes, name: 'abc3', dir: 'xyz', storageMeta: [abc: 'xyz3']).save(true)
+        assertNotNull new Storage(data: 'abc3'.bytes, name: 'banana.gif', dir: 'xyz/monkey/tree',
+                storageMeta: [abc: 'xyz3']).save(true)
+        assertNotNull new Storage(data: 'abc3'.bytes, name: 'def', dir: 'xyz/pyx',
+                storageMeta: [abc: 'xyz3']).save(true)
+        def res1 = service.listDirectory(null,'xyz')
+        assertEquals(['xyz/pyx', 'xyz/monkey', 'xyz/abc3', 'xyz/abc'], res1.collect { it.path.path })
+    }
     void testListDirectory_ns_ok() {
         expect:
         def storage1 = new Storage(namespace:'other', data: 'abc1'.bytes, name: 'abc', dir: '',
@@ -846,6 +857,47 @@ class DbStorageServiceTests extends HibernateSpec implements ServiceUnitTest<DbS
         assertEquals(false,found1.directory)
     }
 
+    void testListDirectoryResources_contentLoadedWhenRead() {
+        when:
+        def storage1 = new Storage(data: 'abc1'.bytes, name: 'abc', dir: 'xyz', storageMeta: [abc: 'xyz1']).save(flush: true)
+        assertNotNull storage1
+        def res1 = service.listDirectoryResources(null, 'xyz')
+
+        then:
+        assertEquals(1, res1.size())
+        def found1 = res1.find { it.path.path == 'xyz/abc' }
+        assertEquals([abc: 'xyz1'], found1.contents.meta)
+        assertEquals('abc1', found1.contents.getInputStream().text)
+        def out = new ByteArrayOutputStream()
+        assertEquals(4L, found1.contents.writeContent(out))
+        assertEquals('abc1', out.toString())
+    }
+
+    void testListDirectoryResources_contentModified() {
+        when:
+        def storage1 = new Storage(data: 'abc1'.bytes, name: 'abc', dir: 'xyz', storageMeta: [abc: 'xyz1']).save(flush: true)
+        assertNotNull storage1
+        def res1 = service.listDirectoryResources(null, 'xyz')
+        storage1.data = 'abc2'.bytes
+        storage1.storageMeta = [abc: 'xyz2']
+        storage1.save(flush: true)
+        res1.first().contents.getInputStream()
+
+        then:
+        thrown(IOException)
+    }
+
+    void testGetResource_contentDeleted() {
+        when:
+        def storage1 = new Storage(data: 'abc1'.bytes, name: 'abc', dir: 'xyz', storageMeta: [abc: 'xyz1']).save(flush: true)
+        assertNotNull storage1
+        def res1 = service.getResource(null, 'xyz/abc')
+        storage1.delete(flush: true)
+        res1.contents.getInputStream()
+
+        then:
+        thrown(IOException)
+    }
 
     InputStream bytes(String s) {
         return new ByteArrayInputStream(s.bytes)
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rundeck.services
+
+import com.dtolabs.rundeck.core.execution.ServiceThreadBase
+import rundeck.services.execution.WatchedExecution
+import spock.lang.Requires
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class ExecutionWatchdogServiceSpec extends Specification {
+    ExecutionWatchdogService service
+
+    def setup() {
+        service = new ExecutionWatchdogService()
+        service.afterPropertiesSet()
+    }
+
+    def cleanup() {
+        service.destroy()
+    }
+
+    /**
+     * Runs until released or aborted
+     */
+    static class TestThread extends ServiceThreadBase<String> {
+        final CountDownLatch release = new CountDownLatch(1)
+        final boolean notify
+
+        TestThread(boolean notify = true) {
+            this.notify = notify
+        }
+
+        @Override
+        void run() {
+            try {
+                release.await()
+            } catch (InterruptedException ignored) {
+            } finally {
+                if (notify) {
+                    fireComplete()
+                }
+            }
+        }
+    }
+
+    static class TestExecution implements WatchedExecution {
+        long executionId
+        ServiceThreadBase thread
+        List<Long> dueTimes = []
+        final AtomicInteger checks = new AtomicInteger()
+        final AtomicInteger completes = new AtomicInteger()
+        final List<Long> checkTimes = Collections.synchronizedList([])
+        volatile boolean interrupted
+
+        @Override
+        void check() {
+            checks.incrementAndGet()
+            checkTimes << System.currentTimeMillis()
+            if (interrupted) {
+                thread.abort()
+            }
+        }
+
+        @Override
+        void interrupt() {
+            interrupted = true
+        }
+
+        @Override
+        void complete() {
+            completes.incrementAndGet()
+        }
+    }
+
+    def "execution is finalized once when the thread completes"() {
+        given:
+        def thread = new TestThread()
+        def execution = new TestExecution(executionId: 1, thread: thread)
+        def conditions = new PollingConditions(timeout: 5)
+        thread.start()
+
+        when:
+        service.watch(execution)
+
+        then:
+        service.isWatching(1)
+        service.watchCount == 1
+        execution.completes.get() == 0
+
+        when:
+        thread.release.countDown()
+
+        then:
+        conditions.eventually {
+            assert execution.completes.get() == 1
+            assert !service.isWatching(1)
+        }
+        execution.checks.get() >= 1
+    }
+
+    def "check runs at the due time"() {
+        given:
+        service.checkIntervalMillis = 60000
+        def thread = new TestThread()
+        long due = System.currentTimeMillis() + 200
+        def execution = new TestExecution(executionId: 2, thread: thread, dueTimes: [due])
+        def conditions = new PollingConditions(timeout: 5)
+        thread.start()
+
+        when:
+        service.watch(execution)
+
+        then:
+        conditions.eventually {
+            assert execution.checks.get() == 1
+        }
+        execution.checkTimes[0] >= due - 10
+        execution.checkTimes[0] - due < 1000
+
+        cleanup:
+        thread.release.countDown()
+    }
+
+    def "abort interrupts the execution immediately"() {
+        given:
+        service.checkIntervalMillis = 60000
+        def thread = new TestThread()
+        def execution = new TestExecution(executionId: 3, thread: thread)
+        def conditions = new PollingConditions(timeout: 5)
+        thread.start()
+        service.watch(execution)
+
+        when:
+        def instanceId = service.instanceIdFor(3)
+        def result = service.abort(ExecutionWatchdogService.executionIdForInstance(instanceId))
+
+        then:
+        instanceId == ExecutionWatchdogService.INSTANCE_PREFIX + '3'
+        result
+        execution.interrupted
+        conditions.eventually {
+            assert thread.aborted
+            assert execution.completes.get() == 1
+            assert !service.isWatching(3)
+        }
+        !service.abort(3)
+        service.instanceIdFor(3) == null
+    }
+
+    def "thread without completion notification is detected by periodic check"() {
+        given:
+        service.checkIntervalMillis = 50
+        def thread = new TestThread(false)
+        def execution = new TestExecution(executionId: 4, thread: thread)
+        def conditions = new PollingConditions(timeout: 5)
+        thread.start()
+        service.watch(execution)
+
+        when:
+        thread.release.countDown()
+
+        then:
+        conditions.eventually {
+            assert execution.completes.get() == 1
+        }
+    }
+
+    def "execution cannot be watched twice"() {
+        given:
+        def thread = new TestThread()
+        thread.start()
+        service.watch(new TestExecution(executionId: 5, thread: thread))
+
+        when:
+        service.watch(new TestExecution(executionId: 5, thread: thread))
+
+        then:
+        thrown(IllegalStateException)
+
+        cleanup:
+        thread.release.countDown()
+    }
+
+    private List<TestExecution> watchAndRelease(int count) {
+        def threads = (1..count).collect { new TestThread() }
+        def executions = threads.withIndex().collect { TestThread thread, int i ->
+            new TestExecution(executionId: 1000 + i, thread: thread, dueTimes: [System.currentTimeMillis() + 100])
+        }
+        threads*.start()
+        executions.each { service.watch(it) }
+        threads*.release*.countDown()
+        executions
+    }
+
+    def "several executions are watched and finalized"() {
+        when:
+        def executions = watchAndRelease(20)
+        def conditions = new PollingConditions(timeout: 10)
+
+        then:
+        conditions.eventually {
+            assert service.watchCount == 0
+        }
+        executions.every { it.completes.get() == 1 }
+    }
+
+    def "shutdown waits for watched executions when configured"() {
+        given:
+        service.waitForExecutions = true
+        def thread = new TestThread()
+        def execution = new TestExecution(executionId: 7, thread: thread)
+        thread.start()
+        service.watch(execution)
+        def releaser = new Thread({
+            Thread.sleep(200)
+            thread.release.countDown()
+        } as Runnable)
+
+        when:
+        releaser.start()
+        service.destroy()
+
+        then:
+        execution.completes.get() == 1
+        service.watchCount == 0
+    }
+
+    /**
+     * Watches 500 executions, and checks all are finalized within one check interval of their threads completing,
+     * rather than waiting for a periodic check. Set the RUNDECK_WATCHDOG_BENCHMARK environment variable to run it.
+     */
+    @Requires({ env['RUNDECK_WATCHDOG_BENCHMARK'] })
+    def "benchmark many executions are watched and finalized"() {
+        given:
+        int count = 500
+        def conditions = new PollingConditions(timeout: 30, delay: 0.01)
+
+        when:
+        def executions = watchAndRelease(count)
+        long released = System.nanoTime()
+
+        then:
+        conditions.eventually {
+            assert service.watchCount == 0
+        }
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - released) < service.checkIntervalMillis
+        executions.every { it.completes.get() == 1 }
+    }
+}
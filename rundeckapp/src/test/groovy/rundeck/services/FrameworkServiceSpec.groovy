@@ -796,6 +796,27 @@ class FrameworkServiceSpec extends Specification implements ServiceUnitTest<Fram
             1 * service.scheduledExecutionService.deleteCleanerExecutionsJob(project)
             1 * service.scheduledExecutionService.scheduleCleanerExecutionsJob(project, 'cron1', { it.maxDaysToKeep==1 && it.maximumDeletionSize==2 && it.minimumExecutionToKeep==3 })
     }
+
+    def "scheduleCleanerExecutions enabled with bulk purge"() {
+        given:
+            def project = 'AProject'
+            def config = Mock(ExecutionCleanerConfig) {
+                isEnabled() >> true
+                getCronExpression()>>'cron1'
+            }
+            service.scheduledExecutionService = Mock(ScheduledExecutionService)
+            service.configurationService = Mock(ConfigurationService) {
+                getBoolean('execution.cleanup.bulkPurge.enabled', false) >> true
+                getInteger('execution.cleanup.bulkPurge.chunkSize', 100) >> 50
+                getInteger('execution.cleanup.bulkPurge.rowsPerSecond', 0) >> 200
+            }
+        when:
+            service.scheduleCleanerExecutions(project, config)
+        then:
+            1 * service.scheduledExecutionService.scheduleCleanerExecutionsJob(project, 'cron1', {
+                it.bulkPurge && it.bulkPurgeChunkSize == 50 && it.bulkPurgeRowsPerSecond == 200
+            })
+    }
     def "getProjectCleanerExecutionsScheduledConfig"(){
         given:
             def project='ProjectA'
@@ -17,6 +17,7 @@
 package rundeck.services
 
 import asset.pipeline.grails.LinkGenerator
+import com.dtolabs.rundeck.app.internal.logging.BlockCompressedLogFile
 import com.dtolabs.rundeck.core.execution.ExecutionReference
 import com.dtolabs.rundeck.core.execution.logstorage.ExecutionFileState
 import com.dtolabs.rundeck.core.logging.ExecutionFileStorageException
@@ -1288,4 +1289,67 @@ class LogFileStorageServiceSpec extends HibernateSpec implements ServiceUnitTest
             service.storageRequests.size()==1
 
     }
+
+    static class StoringEFSPlugin implements ExecutionFileStoragePlugin, ExecutionFileStorageOptions {
+        boolean retrieveSupported = true
+        boolean storeSupported = true
+        boolean blockCompressedStoreSupported
+        Map<String, byte[]> stored = [:]
+
+        @Override
+        void initialize(final Map<String, ?> context) {
+
+        }
+
+        @Override
+        boolean isAvailable(final String filetype) throws ExecutionFileStorageException {
+            return stored.containsKey(filetype)
+        }
+
+        @Override
+        boolean store(final String filetype, final InputStream stream, final long length, final Date lastModified)
+            throws IOException, ExecutionFileStorageException {
+            stored[filetype] = stream.bytes
+            return true
+        }
+
+        @Override
+        boolean retrieve(final String filetype, final OutputStream stream)
+            throws IOException, ExecutionFileStorageException {
+            stream.write(stored[filetype])
+            return true
+        }
+    }
+
+    @Unroll
+    def "complete log is stored compressed only if enabled and supported by the plugin #enabled #supported"() {
+        given:
+            def logfile = new File(tempDir, '1.rdlog')
+            logfile.text = (1..1000).collect { "^2020-01-01T00:00:00Z||output line ${it}^\n" }.join('')
+            def content = logfile.bytes
+            ExecutionFile file = Stub(ExecutionFile) {
+                getLocalFile() >> logfile
+                getFileDeletePolicy() >> ExecutionFile.DeletePolicy.NEVER
+            }
+            def plugin = new StoringEFSPlugin(blockCompressedStoreSupported: supported)
+            service.configurationService = Mock(ConfigurationService) {
+                getBoolean('execution.logs.fileStorage.compression.enabled', false) >> enabled
+                getFileSize('execution.logs.fileStorage.compression.blockSize', _) >> 1024
+                getInteger('execution.logs.fileStorage.compression.level', _) >> -1
+            }
+        when:
+            def (success, failures) = service.storeLogFiles(null, plugin, '1', [rdlog: file])
+        then:
+            success
+            logfile.bytes == content
+            (new DataInputStream(new ByteArrayInputStream(plugin.stored.rdlog)).readInt() ==
+             BlockCompressedLogFile.MAGIC) == compressed
+            !new File(tempDir, '1.rdlog.compress.tmp').exists()
+        where:
+            enabled | supported | compressed
+            false   | false     | false
+            false   | true      | false
+            true    | false     | false
+            true    | true      | true
+    }
 }
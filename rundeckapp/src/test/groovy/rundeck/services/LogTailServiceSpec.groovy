@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rundeck.services
+
+import com.dtolabs.rundeck.app.internal.logging.DefaultLogEvent
+import com.dtolabs.rundeck.app.internal.logging.FSStreamingLogReader
+import com.dtolabs.rundeck.app.internal.logging.FSStreamingLogWriter
+import com.dtolabs.rundeck.app.internal.logging.RundeckLogFormat
+import com.dtolabs.rundeck.core.logging.LogEvent
+import com.dtolabs.rundeck.core.logging.LogLevel
+import com.dtolabs.rundeck.core.logging.LogUtil
+import rundeck.services.logging.LogTailSink
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.function.Predicate
+
+class LogTailServiceSpec extends Specification {
+    File logfile
+    LogTailService service
+
+    def setup() {
+        logfile = File.createTempFile('LogTailServiceSpec', '.rdlog')
+        logfile.deleteOnExit()
+        service = new LogTailService()
+        service.afterPropertiesSet()
+    }
+
+    def cleanup() {
+        service.destroy()
+    }
+
+    static class CollectingSink implements LogTailSink {
+        List<String> messages = new CopyOnWriteArrayList<>()
+        volatile boolean completed
+
+        @Override
+        void events(final List<LogEvent> events, final long offset) throws IOException {
+            messages.addAll(events*.message)
+        }
+
+        @Override
+        void complete(final long offset) throws IOException {
+            completed = true
+        }
+
+        @Override
+        void heartbeat() throws IOException {
+        }
+    }
+
+    private FSStreamingLogWriter createWriter() {
+        def writer = new FSStreamingLogWriter(new FileOutputStream(logfile), [:], new RundeckLogFormat())
+        writer.writeListener = service.writeListenerFor(logfile)
+        writer.openStream()
+        writer
+    }
+
+    private static void addEvent(FSStreamingLogWriter writer, String message, String node) {
+        writer.addEvent(
+                new DefaultLogEvent(
+                        loglevel: LogLevel.NORMAL,
+                        datetime: new Date(),
+                        message: message,
+                        eventType: LogUtil.EVENT_TYPE_LOG,
+                        metadata: [node: node, stepctx: '1']
+                )
+        )
+    }
+
+    private FSStreamingLogReader reader() {
+        new FSStreamingLogReader(logfile, 'UTF-8', new RundeckLogFormat())
+    }
+
+    def "followers receive events as they are written"() {
+        given:
+        def writer = createWriter()
+        addEvent(writer, 'first', 'node1')
+        def conditions = new PollingConditions(timeout: 5)
+        def sink1 = new CollectingSink()
+        def sink2 = new CollectingSink()
+
+        when:
+        service.follow(logfile, reader(), 0, null, sink1)
+        service.follow(logfile, reader(), 0, null, sink2)
+
+        then:
+        service.watcherCount == 1
+        service.followerCount == 2
+        conditions.eventually {
+            sink1.messages == ['first']
+            sink2.messages == ['first']
+        }
+
+        when:
+        addEvent(writer, 'second', 'node1')
+        addEvent(writer, 'third', 'node1')
+        writer.close()
+
+        then:
+        conditions.eventually {
+            sink1.messages == ['first', 'second', 'third']
+            sink2.messages == ['first', 'second', 'third']
+            sink1.completed
+            sink2.completed
+            service.watcherCount == 0
+        }
+    }
+
+    def "follower filters events"() {
+        given:
+        def writer = createWriter()
+        def conditions = new PollingConditions(timeout: 5)
+        def sink = new CollectingSink()
+        def filter = { LogEvent event -> event.metadata.node == 'node2' } as Predicate<LogEvent>
+
+        when:
+        service.follow(logfile, reader(), 0, filter, sink)
+        addEvent(writer, 'a', 'node1')
+        addEvent(writer, 'b', 'node2')
+        addEvent(writer, 'c', 'node1')
+        addEvent(writer, 'd', 'node2')
+        writer.close()
+
+        then:
+        conditions.eventually {
+            sink.completed
+            sink.messages == ['b', 'd']
+        }
+    }
+
+    def "unfollow removes the shared watcher"() {
+        given:
+        def writer = createWriter()
+        addEvent(writer, 'first', 'node1')
+        def follower1 = service.follow(logfile, reader(), 0, null, new CollectingSink())
+        def follower2 = service.follow(logfile, reader(), 0, null, new CollectingSink())
+
+        when:
+        service.unfollow(follower1)
+
+        then:
+        follower1.closed
+        service.watcherCount == 1
+
+        when:
+        follower2.close()
+
+        then:
+        service.watcherCount == 0
+
+        cleanup:
+        writer.close()
+    }
+
+    def "sink error stops the follower"() {
+        given:
+        def writer = createWriter()
+        addEvent(writer, 'first', 'node1')
+        def conditions = new PollingConditions(timeout: 5)
+        def sink = Mock(LogTailSink) {
+            events(*_) >> { throw new IOException('disconnected') }
+        }
+
+        when:
+        def follower = service.follow(logfile, reader(), 0, null, sink)
+
+        then:
+        conditions.eventually {
+            follower.closed
+            service.watcherCount == 0
+        }
+
+        cleanup:
+        writer.close()
+    }
+}
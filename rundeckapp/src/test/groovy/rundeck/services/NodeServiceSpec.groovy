@@ -16,6 +16,7 @@
 
 package rundeck.services
 
+import com.dtolabs.rundeck.core.common.CompactNodeSet
 import com.dtolabs.rundeck.core.common.Framework
 import com.dtolabs.rundeck.core.common.INodeSet
 import com.dtolabs.rundeck.core.common.IRundeckProjectConfig
@@ -207,6 +208,77 @@ class NodeServiceSpec extends Specification implements ServiceUnitTest<NodeServi
         null      | 1
     }
 
+    @Unroll
+    def "get nodes when project cache #isenabled with compact nodes"() {
+        given:
+        service.frameworkService = Mock(FrameworkService)
+        service.configurationService = Mock(ConfigurationService) {
+            getCacheEnabledFor('nodeService', 'nodeCache', true) >> true
+            getBoolean('nodeService.nodeCache.compact', false) >> true
+        }
+        INodeSet nodeSet = new NodeSetImpl()
+        def node = new NodeEntryImpl('host1', 'anode')
+        node.setAttribute('env', 'prod')
+        nodeSet.putNode(node)
+        def properties = [
+                'framework.var.dir'                                  : RESOURCE_TMP_DIR,
+                'resources.source.1.type'                            : 'file',
+                'resources.source.1.config.file'                     : '/tmp/test.xml',
+                'resources.source.1.config.generateFileAutomatically': 'false',
+                'resources.source.1.config.includeServerNode'        : 'true',
+                'project.nodeCache.enabled'                          : isenabled,
+        ]
+        def projConfig = new PropsConfig(
+                projectProperties: properties,
+                properties: properties,
+                name: 'test1',
+                configLastModifiedTime: new Date()
+        )
+        def modelSource = Mock(ResourceModelSource)
+        def cacheModelsource = Mock(ResourceModelSource)
+
+        service.frameworkService.getRundeckFramework() >> Mock(Framework) {
+            getFrameworkProjectMgr() >> Mock(ProjectManager) {
+                existsFrameworkProject('test1') >> true
+                1 * loadProjectConfig('test1') >> projConfig
+            }
+            getResourceModelSourceService() >> Mock(ResourceModelSourceService) {
+                _ * getCloseableSourceForConfiguration('file', {args->
+                    args['file']!='/tmp/test.xml'
+                }) >> Closeables.closeableProvider(cacheModelsource)
+            }
+            getResourceFormatGeneratorService()>>Mock(ResourceFormatGeneratorService){
+                _ * getGeneratorForFormat('xml')>>Mock(ResourceFormatGenerator){
+
+                }
+            }
+        }
+        def modelSourceFactory = Mock(ResourceModelSourceFactory)
+        service.pluginService = Mock(PluginService)
+        1 * service.pluginService.retainPlugin('file', _) >> Closeables.closeableProvider(modelSourceFactory)
+        1 * modelSourceFactory.createResourceModelSource(_,{args->
+            args['file']=='/tmp/test.xml'
+        }) >> modelSource
+        _ * modelSource.getNodes() >> nodeSet
+
+        service.projectManagerService=Mock(ProjectManagerService)
+        service.rundeckSpiBaseServicesProvider = Mock(Services)
+        when:
+        def result = service.getNodes('test1')
+        def nodes = result.getNodeSet()
+
+        then:
+        result.compactNodes == compact
+        (nodes.getNode('anode') instanceof CompactNodeSet.Entry) == compact
+        nodes.getNode('anode').hostname == 'host1'
+        nodes.getNode('anode').attributes.env == 'prod'
+
+        where:
+        isenabled | compact
+        'true'    | true
+        'false'   | false
+    }
+
     @Unroll
     def "get nodes when project cache with preload #defFirstLoadAsynch ignores config asynch"() {
         given:
@@ -215,6 +287,7 @@ class NodeServiceSpec extends Specification implements ServiceUnitTest<NodeServi
         service.configurationService = Mock(ConfigurationService) {
             getCacheEnabledFor('nodeService', 'nodeCache', true) >> true
             getBoolean('nodeService.nodeCache.firstLoadAsynch', false) >> defFirstLoadAsynch
+            getBoolean('nodeService.nodeCache.compact', false) >> false
             0 * _(*_)
         }
         INodeSet preloadedNodes = new NodeSetImpl()
@@ -290,6 +363,7 @@ class NodeServiceSpec extends Specification implements ServiceUnitTest<NodeServi
         service.configurationService = Mock(ConfigurationService) {
             getCacheEnabledFor('nodeService', 'nodeCache', true) >> true
             getBoolean('nodeService.nodeCache.firstLoadAsynch', false) >> defAsynch
+            getBoolean('nodeService.nodeCache.compact', false) >> false
             0 * _(*_)
         }
         INodeSet preloadedNodes = new NodeSetImpl()
@@ -378,6 +452,7 @@ class NodeServiceSpec extends Specification implements ServiceUnitTest<NodeServi
         service.configurationService = Mock(ConfigurationService) {
             getCacheEnabledFor('nodeService', 'nodeCache', true) >> true
             getBoolean('nodeService.nodeCache.firstLoadAsynch', false) >> false
+            getBoolean('nodeService.nodeCache.compact', false) >> false
             0 * _(*_)
         }
         INodeSet modelNodes = new NodeSetImpl()
@@ -454,6 +529,7 @@ class NodeServiceSpec extends Specification implements ServiceUnitTest<NodeServi
         service.configurationService = Mock(ConfigurationService) {
             getCacheEnabledFor('nodeService', 'nodeCache', true) >> true
             getBoolean('nodeService.nodeCache.firstLoadAsynch', false) >> true
+            getBoolean('nodeService.nodeCache.compact', false) >> false
             0 * _(*_)
         }
         INodeSet modelNodes = new NodeSetImpl()
@@ -18,6 +18,7 @@ package rundeck.services
 
 import com.dtolabs.rundeck.app.internal.logging.DefaultLogEvent
 import com.dtolabs.rundeck.core.common.Framework
+import com.dtolabs.rundeck.core.config.Features
 import com.dtolabs.rundeck.core.common.PluginControlService
 import com.dtolabs.rundeck.core.data.BaseDataContext
 import com.dtolabs.rundeck.core.data.SharedDataContextUtils
@@ -55,11 +56,14 @@ import rundeck.ScheduledExecutionStats
 import rundeck.User
 import rundeck.Workflow
 import rundeck.services.logging.ExecutionLogReader
+import rundeck.services.notification.NotificationDispatcher
 import com.dtolabs.rundeck.core.execution.logstorage.ExecutionFileState
 import rundeck.services.logging.WorkflowStateFileLoader
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.util.concurrent.TimeUnit
+
 /**
  * Created by greg on 7/12/16.
  */
@@ -67,6 +71,10 @@ class NotificationServiceSpec extends HibernateSpec implements ServiceUnitTest<N
 
     List<Class> getDomainClasses() { [Execution, ScheduledExecution, Notification, Workflow, CommandExec, User, ScheduledExecutionStats] }
 
+    def cleanup() {
+        service.destroy()
+    }
+
 
     private List createTestJob() {
 
@@ -791,6 +799,52 @@ class NotificationServiceSpec extends HibernateSpec implements ServiceUnitTest<N
         null    | null       | "<xml></xml>"
     }
 
+    def "webhook notification pending retry is not reported as sent"() {
+        setup:
+        def (job, execution) = createTestJob()
+        def globalContext = new BaseDataContext([globals: [:]])
+        def shared = SharedDataContextUtils.sharedContext()
+        shared.merge(ContextView.global(), globalContext)
+        def content = [
+                execution: execution,
+                context  : Mock(ExecutionContext) {
+                    getSharedDataContext() >> shared
+                }
+        ]
+        service.frameworkService = Mock(FrameworkService) {
+            _ * getRundeckFramework() >> Mock(Framework) {
+                _ * getWorkflowStrategyService()
+            }
+            _ * getPluginControlService(_) >> Mock(PluginControlService)
+        }
+        service.configurationService = Mock(ConfigurationService) {
+            getInteger('notification.webhook.attempts', 3) >> 3
+            getLong('notification.webhook.retryDelay', 1000) >> 200
+            getLong('notification.webhook.maxRetryTime', _) >> 10000
+        }
+        service.metaClass.createJsonNotificationPayload = { String trigger, Execution exec -> '{}' }
+
+        MockWebServer httpServer = new MockWebServer()
+        httpServer.start()
+        httpServer.enqueue(new MockResponse().setResponseCode(503).setBody("unavailable"))
+        httpServer.enqueue(new MockResponse().setResponseCode(200).setBody("ok"))
+        String endpoint = httpServer.url("hook/endpoint").toString()
+
+        job.notifications = [new Notification(eventTrigger: "onsuccess", type: "url", format: "json", content: endpoint)]
+        job.save()
+
+        when:
+        def result = service.triggerJobNotification("success", job, content)
+
+        then:
+        !result
+        httpServer.takeRequest(10, TimeUnit.SECONDS) != null
+        httpServer.takeRequest(10, TimeUnit.SECONDS) != null
+
+        cleanup:
+        httpServer.shutdown()
+    }
+
     @Unroll
     def "postDataUrl tests"() {
         setup:
@@ -801,7 +855,7 @@ class NotificationServiceSpec extends HibernateSpec implements ServiceUnitTest<N
         String endpoint = httpServer.url("hook/endpoint").toString()
 
         when:
-        def result = NotificationService.postDataUrl(endpoint,format,payload,"success","suceeded","1234")
+        def result = service.postDataUrl(endpoint,format,payload,"success","suceeded","1234")
         RecordedRequest rq = httpServer.takeRequest()
 
         then:
@@ -829,7 +883,7 @@ class NotificationServiceSpec extends HibernateSpec implements ServiceUnitTest<N
         endpoint = endpoint.replaceAll('localhost', 'user:pswd@localhost')
 
         when:
-        def result = NotificationService.postDataUrl(endpoint,format,payload,"success","suceeded","1234")
+        def result = service.postDataUrl(endpoint,format,payload,"success","suceeded","1234")
         RecordedRequest rq = httpServer.takeRequest()
 
         then:
@@ -858,7 +912,7 @@ class NotificationServiceSpec extends HibernateSpec implements ServiceUnitTest<N
         String payload = '{"job":"1234"}'
 
         when:
-        def result = NotificationService.postDataUrl(endpoint,format,payload,"success","suceeded","1234", NotificationService.GET)
+        def result = service.postDataUrl(endpoint,format,payload,"success","suceeded","1234", NotificationService.GET)
         RecordedRequest rq = httpServer.takeRequest()
         rq.getMethod() == "GET"
 
@@ -878,7 +932,7 @@ class NotificationServiceSpec extends HibernateSpec implements ServiceUnitTest<N
         String payload = '{"job":"1234"}'
 
         when:
-        def result = NotificationService.postDataUrl(endpoint,format,payload,"success","suceeded","1234", NotificationService.GET)
+        def result = service.postDataUrl(endpoint,format,payload,"success","suceeded","1234", NotificationService.GET)
         RecordedRequest rq = httpServer.takeRequest()
         rq.getMethod() == "GET"
         rq.getHeader("Authorization")?.startsWith("Basic")
@@ -887,6 +941,134 @@ class NotificationServiceSpec extends HibernateSpec implements ServiceUnitTest<N
         result.success
     }
 
+    def "postDataUrl retries server errors with backoff"() {
+        setup:
+        MockWebServer httpServer = new MockWebServer()
+        httpServer.start()
+        httpServer.enqueue(new MockResponse().setResponseCode(503).setBody("unavailable"))
+        httpServer.enqueue(new MockResponse().setResponseCode(500).setBody("error"))
+        httpServer.enqueue(new MockResponse().setResponseCode(200).setBody("ok"))
+        String endpoint = httpServer.url("hook/endpoint").toString()
+
+        when:
+        def result = service.postDataUrl(endpoint, "json", '{"job":"1234"}', "success", "succeeded", "1234",
+                                                     NotificationService.POST, 3, 2, 10)
+
+        then:
+        result.success
+        httpServer.requestCount == 3
+
+        cleanup:
+        httpServer.shutdown()
+    }
+
+    def "postDataUrl does not retry client errors"() {
+        setup:
+        MockWebServer httpServer = new MockWebServer()
+        httpServer.start()
+        httpServer.enqueue(new MockResponse().setResponseCode(404).setBody("not found"))
+        httpServer.enqueue(new MockResponse().setResponseCode(200).setBody("ok"))
+        String endpoint = httpServer.url("hook/endpoint").toString()
+
+        when:
+        def result = service.postDataUrl(endpoint, "json", '{"job":"1234"}', "success", "succeeded", "1234",
+                                                     NotificationService.POST, 3, 2, 10)
+
+        then:
+        !result.success
+        result.error.contains('after 1 tries')
+        result.error.contains('404')
+        httpServer.requestCount == 1
+
+        cleanup:
+        httpServer.shutdown()
+    }
+
+    def "postDataUrl does not retry after the maximum retry time"() {
+        setup:
+        MockWebServer httpServer = new MockWebServer()
+        httpServer.start()
+        httpServer.enqueue(new MockResponse().setResponseCode(503).setBody("unavailable"))
+        httpServer.enqueue(new MockResponse().setResponseCode(200).setBody("ok"))
+        String endpoint = httpServer.url("hook/endpoint").toString()
+
+        when:
+        def result = service.postDataUrl(endpoint, "json", '{"job":"1234"}', "success", "succeeded", "1234",
+                                                     NotificationService.POST, 3, 2, 1000, 100)
+
+        then:
+        !result.success
+        result.error.contains('after 1 tries')
+        result.error.contains('503')
+        httpServer.requestCount == 1
+
+        cleanup:
+        httpServer.shutdown()
+    }
+
+    def "postDataUrlAsync returns before the retries are sent"() {
+        setup:
+        MockWebServer httpServer = new MockWebServer()
+        httpServer.start()
+        httpServer.enqueue(new MockResponse().setResponseCode(503).setBody("unavailable"))
+        httpServer.enqueue(new MockResponse().setResponseCode(200).setBody("ok"))
+        String endpoint = httpServer.url("hook/endpoint").toString()
+
+        when:
+        def result = service.postDataUrlAsync(endpoint, "json", '{"job":"1234"}', "success", "succeeded",
+                                              "1234", NotificationService.POST, 3, 2, 200)
+
+        then:
+        !result.done
+        httpServer.requestCount == 1
+        result.get(10, TimeUnit.SECONDS).success
+        httpServer.requestCount == 2
+
+        cleanup:
+        httpServer.shutdown()
+    }
+
+    def "postDataUrl reuses connections to the same host"() {
+        setup:
+        MockWebServer httpServer = new MockWebServer()
+        httpServer.start()
+        3.times {
+            httpServer.enqueue(new MockResponse().setResponseCode(200).setBody("ok"))
+        }
+        String endpoint = httpServer.url("hook/endpoint").toString()
+
+        when:
+        def results = (1..3).collect {
+            service.postDataUrl(endpoint, "json", '{"job":"1234"}', "success", "succeeded", "1234")
+        }
+        def requests = (1..3).collect { httpServer.takeRequest() }
+
+        then:
+        results.every { it.success }
+        requests*.sequenceNumber == [0, 1, 2]
+
+        cleanup:
+        httpServer.shutdown()
+    }
+
+    def "async notification is sent by the dispatcher"() {
+        given:
+        service.featureService = Mock(FeatureService) {
+            featurePresent(Features.NOTIFICATIONS_OWN_THREAD) >> true
+        }
+        def task = null
+        service.dispatcher = Mock(NotificationDispatcher)
+
+        when:
+        service.asyncTriggerJobNotification('success', 1L, [:])
+
+        then:
+        1 * service.dispatcher.dispatch(_, _) >> { args -> task = args[1] }
+        task instanceof NotificationTask
+        task.trigger == 'success'
+        task.schedId == 1L
+    }
+
     @Unroll
     def "get dynamic properties notification plugins tests"() {
         given:
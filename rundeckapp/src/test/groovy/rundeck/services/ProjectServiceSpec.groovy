@@ -16,6 +16,7 @@
 
 package rundeck.services
 
+import com.dtolabs.rundeck.app.internal.logging.BlockCompressedLogFile
 import com.dtolabs.rundeck.app.support.ProjectArchiveExportRequest
 import com.dtolabs.rundeck.app.support.ProjectArchiveImportRequest
 import com.dtolabs.rundeck.core.authorization.AuthContext
@@ -55,6 +56,7 @@ import spock.lang.Specification
 import spock.lang.Unroll
 
 import java.util.jar.JarOutputStream
+import java.util.zip.ZipInputStream
 import java.util.zip.ZipOutputStream
 
 import static org.junit.Assert.*
@@ -1958,6 +1960,90 @@ class ProjectServiceSpec extends Specification implements ServiceUnitTest<Projec
         assertEquals(2, filecalled)
         assertEquals EXEC_XML_TEST2, str
     }
+    def "export and import execution with block compressed log and state files"() {
+        given:
+        def dir = File.createTempDir('ProjectServiceSpec', '-test')
+        File plainlog = new File(dir, 'plain.rdlog')
+        plainlog.text = (1..2000).collect { "^2020-01-01T00:00:00Z||output line ${it}^\n" }.join('')
+        String logContent = plainlog.text
+        File plainstate = new File(dir, 'plain.state.json')
+        plainstate.text = '{"executionState":"SUCCEEDED","nodes":{}}'
+        String stateContent = plainstate.text
+        //retrieved from a storage plugin which supports the block compressed format
+        File logfile = new File(dir, 'local.rdlog')
+        File statefile = new File(dir, 'local.state.json')
+        BlockCompressedLogFile.compress(plainlog, logfile, 1024)
+        BlockCompressedLogFile.compress(plainstate, statefile, 1024)
+
+        Execution exec = new Execution(
+            argString: "-test args",
+            user: "testuser",
+            project: "testproj",
+            loglevel: 'WARN',
+            doNodedispatch: false,
+            dateStarted: new Date(0),
+            dateCompleted: new Date(3600000),
+            status: 'true',
+            outputfilepath: logfile.absolutePath,
+            workflow: new Workflow(commands: [new CommandExec(adhocRemoteString: 'exec command')])
+        )
+        assertNotNull exec.save()
+        service.loggingService = Mock(LoggingService) {
+            getLogFileForExecution(exec) >> logfile
+        }
+        service.workflowService = Mock(WorkflowService) {
+            getStateFileForExecution(exec) >> statefile
+        }
+        service.executionUtilService = new ExecutionUtilService()
+        service.executionUtilService.configurationService = Mock(ConfigurationService) {
+            getBoolean('execution.logs.fileStorage.generateExecutionXml', _) >> true
+        }
+        File importedLog = new File(dir, 'imported.rdlog')
+        File importedState = new File(dir, 'imported.state.json')
+        service.logFileStorageService = Mock(LogFileStorageService) {
+            getFileForExecutionFiletype(_, LoggingService.LOG_FILE_FILETYPE, false, false) >> importedLog
+            getFileForExecutionFiletype(_, WorkflowService.STATE_FILE_FILETYPE, false, false) >> importedState
+        }
+        def archive = new ByteArrayOutputStream()
+
+        when:
+        ZipBuilder.toOutputStream(archive) {
+            service.exportExecution(delegate, exec, 'execution-1.xml')
+        }
+        Map<String, File> entries = [:]
+        new ZipInputStream(new ByteArrayInputStream(archive.toByteArray())).withStream { ZipInputStream input ->
+            def entry
+            while ((entry = input.nextEntry)) {
+                File temp = new File(dir, 'archive-' + entry.name)
+                temp.withOutputStream { ZipBuilder.copyStream(input, it) }
+                entries[entry.name] = temp
+            }
+        }
+        def errors = []
+        def execidmap = service.importExecutionsToProject(
+            [entries['execution-1.xml']],
+            entries,
+            'testproj',
+            null,
+            [:],
+            [],
+            [:],
+            errors
+        )
+
+        then:
+        entries.keySet() == ['execution-1.xml', "output-${exec.id}.rdlog", "state-${exec.id}.state.json"]*.toString() as Set
+        entries["output-${exec.id}.rdlog".toString()].text == logContent
+        entries["state-${exec.id}.state.json".toString()].text == stateContent
+        errors == []
+        execidmap.size() == 1
+        importedLog.text == logContent
+        importedState.text == stateContent
+
+        cleanup:
+        dir.deleteDir()
+    }
+
     def testImportExecution(){
         when:
         def result = service.loadExecutions(EXEC_XML_TEST1,'AProject')
@@ -16,6 +16,11 @@
 
 package rundeck.services
 
+import com.dtolabs.rundeck.app.internal.workflow.MutableWorkflowStateImpl
+import com.dtolabs.rundeck.app.internal.workflow.MutableWorkflowStateListener
+import com.dtolabs.rundeck.app.internal.workflow.WorkflowStateJournal
+import com.dtolabs.rundeck.core.execution.workflow.state.ExecutionState
+import com.dtolabs.rundeck.core.execution.workflow.state.StateUtils
 import grails.test.hibernate.HibernateSpec
 import grails.testing.services.ServiceUnitTest
 import rundeck.CommandExec
@@ -23,6 +28,7 @@ import rundeck.Execution
 import rundeck.Workflow
 import rundeck.services.workflow.StateMapping
 import spock.lang.Specification
+import spock.lang.Unroll
 
 class WorkflowServiceSpec extends HibernateSpec implements ServiceUnitTest<WorkflowService>{
 
@@ -54,6 +60,79 @@ class WorkflowServiceSpec extends HibernateSpec implements ServiceUnitTest<Workf
         resp.nodeSteps.get('nodea').size()==5
     }
 
+    @Unroll
+    def "request state changes since #since"() {
+        given:
+        def e = new Execution()
+        e.id = 1L
+        def state = new MutableWorkflowStateImpl(['a'], 2)
+        def journal = new WorkflowStateJournal()
+        def listeners = [new MutableWorkflowStateListener(state), journal]
+        listeners*.workflowExecutionStateChanged(ExecutionState.RUNNING, new Date(), ['a'])
+        ['1', '2'].each { stepctx ->
+            listeners*.stepStateChanged(
+                    StateUtils.stepIdentifierFromString(stepctx),
+                    StateUtils.stepStateChange(StateUtils.stepState(ExecutionState.RUNNING), 'a'),
+                    new Date()
+            )
+        }
+        service.activeStates[1L] = state
+        service.activeJournals[1L] = journal
+
+        when:
+        def result = service.requestStateChanges(e, since)
+
+        then:
+        service.getStateSequence(e) == 3L
+        if (null == expected) {
+            assert null == result
+        } else {
+            assert result.since == since
+            assert result.sequence == 3L
+            assert result.changes.collect { it.stepctx + ':' + (it.node ?: '') } == expected
+        }
+
+        where:
+        since | expected
+        -1    | null
+        1     | ['1:a', '1:', '2:a', '2:']
+        2     | ['2:a', '2:']
+        3     | []
+        4     | null
+    }
+
+    def "mapped state of a running execution is reused but not shared"() {
+        given:
+        def state = new MutableWorkflowStateImpl(['a'], 1)
+        def journal = new WorkflowStateJournal()
+        def listeners = [new MutableWorkflowStateListener(state), journal]
+        listeners*.workflowExecutionStateChanged(ExecutionState.RUNNING, new Date(), ['a'])
+        service.stateMapping = Spy(StateMapping)
+        service.activeStates[3L] = state
+        service.activeJournals[3L] = journal
+
+        when:
+        def first = service.mapState(3L, state)
+        first.executionState = 'modified'
+        first.allNodes << 'b'
+        def second = service.mapState(3L, state)
+
+        then:
+        1 * service.stateMapping.mapOf(3L, state)
+        second.executionState == 'RUNNING'
+        !second.allNodes.contains('b')
+    }
+
+    def "request state changes of an execution which is not running"() {
+        given:
+        def e = new Execution()
+        e.id = 2L
+
+        expect:
+        null == service.requestStateChanges(e, 1)
+        null == service.getStateSequence(e)
+    }
+
     def "execute the correction of ruleset with errors when importing error"(){
         given:
         Workflow workflow = new Workflow(strategy:'ruleset',
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rundeck.services.audit
+
+import com.codahale.metrics.Meter
+import com.codahale.metrics.Timer
+import com.dtolabs.rundeck.core.audit.AuditEvent
+import groovy.json.JsonOutput
+import spock.lang.Specification
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.function.Consumer
+
+class AuditEventPipelineSpec extends Specification {
+    File tempDir = File.createTempDir()
+    AuditEventPipeline pipeline
+
+    def cleanup() {
+        pipeline?.shutdown(1000)
+        tempDir.deleteDir()
+    }
+
+    static AuditEvent event(String name) {
+        new AuditEventRecord(
+                timestamp: new Date(),
+                actionType: 'view',
+                userInfo: new AuditEventRecord.User(username: 'user1', userRoles: ['admin']),
+                requestInfo: new AuditEventRecord.Request(serverUUID: 'uuid'),
+                resourceInfo: new AuditEventRecord.Resource(type: 'project', name: name)
+        )
+    }
+
+    def "queued events are delivered in batches"() {
+        given:
+        def batches = new CopyOnWriteArrayList<List<AuditEvent>>()
+        def block = new CountDownLatch(1)
+        def done = new CountDownLatch(11)
+        pipeline = new AuditEventPipeline(100, 5, 0, AuditEventPipeline.OverflowPolicy.BLOCK, null, {
+            block.await(5, TimeUnit.SECONDS)
+            batches << it
+            it.each { done.countDown() }
+        } as Consumer<List<AuditEvent>>)
+        pipeline.latencyTimer = new Timer()
+
+        when:
+        (0..10).each { pipeline.publish(event("p$it")) }
+        block.countDown()
+        done.await(5, TimeUnit.SECONDS)
+
+        then:
+        batches.every { it.size() <= 5 }
+        batches.flatten()*.resourceInfo*.name == (0..10).collect { "p$it" }
+        pipeline.latencyTimer.count == 11
+    }
+
+    def "linger waits for a batch to fill"() {
+        given:
+        def batches = new CopyOnWriteArrayList<List<AuditEvent>>()
+        def done = new CountDownLatch(1)
+        pipeline = new AuditEventPipeline(100, 3, 2000, AuditEventPipeline.OverflowPolicy.BLOCK, null, {
+            batches << it
+            done.countDown()
+        } as Consumer<List<AuditEvent>>)
+
+        when:
+        pipeline.publish(event('a'))
+        Thread.sleep(100)
+        pipeline.publish(event('b'))
+        pipeline.publish(event('c'))
+        done.await(5, TimeUnit.SECONDS)
+
+        then:
+        batches.size() == 1
+        batches[0]*.resourceInfo*.name == ['a', 'b', 'c']
+    }
+
+    def "drop policy discards events when the queue is full"() {
+        given:
+        def block = new CountDownLatch(1)
+        def started = new CountDownLatch(1)
+        pipeline = new AuditEventPipeline(1, 1, 0, AuditEventPipeline.OverflowPolicy.DROP, null, {
+            started.countDown()
+            block.await(5, TimeUnit.SECONDS)
+        } as Consumer<List<AuditEvent>>)
+        pipeline.droppedMeter = new Meter()
+
+        when:
+        pipeline.publish(event('a'))
+        started.await(5, TimeUnit.SECONDS)
+        def queued = pipeline.publish(event('b'))
+        def dropped = pipeline.publish(event('c'))
+        block.countDown()
+
+        then:
+        queued
+        !dropped
+        pipeline.droppedMeter.count == 1
+    }
+
+    def "spill policy writes overflow to disk and delivers it later"() {
+        given:
+        def names = new CopyOnWriteArrayList<String>()
+        def block = new CountDownLatch(1)
+        def started = new CountDownLatch(1)
+        def done = new CountDownLatch(4)
+        pipeline = new AuditEventPipeline(1, 10, 0, AuditEventPipeline.OverflowPolicy.SPILL, tempDir, {
+            started.countDown()
+            block.await(5, TimeUnit.SECONDS)
+            it.each {
+                names << it.resourceInfo.name
+                done.countDown()
+            }
+        } as Consumer<List<AuditEvent>>)
+        pipeline.spilledMeter = new Meter()
+
+        when:
+        pipeline.publish(event('a'))
+        started.await(5, TimeUnit.SECONDS)
+        pipeline.publish(event('b'))
+        pipeline.publish(event('c'))
+        pipeline.publish(event('d'))
+        def spilled = pipeline.spillFile.readLines()
+        block.countDown()
+        done.await(5, TimeUnit.SECONDS)
+
+        then:
+        spilled.size() == 2
+        pipeline.spilledMeter.count == 2
+        names.sort() == ['a', 'b', 'c', 'd']
+    }
+
+    def "spilled events from a previous run are delivered"() {
+        given:
+        def spillFile = new File(tempDir, AuditEventPipeline.SPILL_FILE_NAME)
+        def first = new AuditEventPipeline(1, 10, 0, AuditEventPipeline.OverflowPolicy.SPILL, tempDir, {
+        } as Consumer<List<AuditEvent>>)
+        first.shutdown(1000)
+        first.publish(event('x'))
+        def received = new CopyOnWriteArrayList<AuditEvent>()
+        def done = new CountDownLatch(1)
+
+        when:
+        pipeline = new AuditEventPipeline(10, 10, 0, AuditEventPipeline.OverflowPolicy.SPILL, tempDir, {
+            received.addAll(it)
+            done.countDown()
+        } as Consumer<List<AuditEvent>>)
+        done.await(5, TimeUnit.SECONDS)
+
+        then:
+        received.size() == 1
+        received[0].resourceInfo.name == 'x'
+        received[0].userInfo.userRoles == ['admin']
+        received[0].requestInfo.serverUUID == 'uuid'
+        !spillFile.exists()
+    }
+
+    def "spilled events are replayed only while the queue is less than half full"() {
+        given:
+        def spillFile = new File(tempDir, AuditEventPipeline.SPILL_FILE_NAME)
+        spillFile.text = (0..9).collect { JsonOutput.toJson(AuditEventRecord.toMap(event("s$it"))) + '\n' }.join('')
+        def block = new CountDownLatch(1)
+        def started = new CountDownLatch(1)
+        def names = new CopyOnWriteArrayList<String>()
+        def done = new CountDownLatch(11)
+        pipeline = new AuditEventPipeline(4, 1, 0, AuditEventPipeline.OverflowPolicy.SPILL, tempDir, {
+            started.countDown()
+            block.await(5, TimeUnit.SECONDS)
+            it.each {
+                names << it.resourceInfo.name
+                done.countDown()
+            }
+        } as Consumer<List<AuditEvent>>)
+        pipeline.spilledMeter = new Meter()
+
+        when:
+        started.await(5, TimeUnit.SECONDS)
+        Thread.sleep(200)
+        def depth = pipeline.queueDepth
+        def queued = pipeline.publish(event('new'))
+        block.countDown()
+        done.await(5, TimeUnit.SECONDS)
+
+        then:
+        depth == 2
+        queued
+        pipeline.spilledMeter.count == 0
+        names.sort() == ((0..9).collect { "s$it" } + ['new']).sort()
+    }
+}
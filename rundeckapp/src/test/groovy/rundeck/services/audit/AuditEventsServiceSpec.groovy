@@ -4,6 +4,7 @@ import com.dtolabs.rundeck.core.audit.ActionTypes
 import com.dtolabs.rundeck.core.audit.AuditEvent
 import com.dtolabs.rundeck.core.audit.ResourceTypes
 import com.dtolabs.rundeck.plugins.audit.AuditEventListener
+import com.dtolabs.rundeck.plugins.audit.BatchAuditEventListener
 import grails.testing.services.ServiceUnitTest
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken
 import rundeck.services.FrameworkService
@@ -117,5 +118,46 @@ class AuditEventsServiceSpec extends Specification implements ServiceUnitTest<Au
         receivedEvent.requestInfo.serverUUID == uuid
     }
 
+    def "Test dispatching batches to batch listener"() {
+        given:
+        def frameMock = Mock(FrameworkService) {
+            getServerUUID() >> { "uuid" }
+            getServerHostname() >> { "server" }
+        }
+        service.frameworkService = frameMock
+        service.installedPlugins = new HashMap<>()
+        def received = []
+        def single = []
+        CountDownLatch latch = new CountDownLatch(3)
+        service.addListener(new BatchAuditEventListener() {
+            @Override
+            void onEvents(List<AuditEvent> events) {
+                received.addAll(events)
+                events.each { latch.countDown() }
+            }
+
+            @Override
+            void onEvent(AuditEvent event) {
+                single << event
+            }
+        })
+
+        when:
+        ['p1', 'p2', 'p3'].each {
+            service.eventBuilder()
+                    .setUsername("user")
+                    .setActionType(ActionTypes.VIEW)
+                    .setResourceType(ResourceTypes.PROJECT)
+                    .setResourceName(it)
+                    .publish()
+        }
+        latch.await(3, TimeUnit.SECONDS)
 
+        then:
+        received*.resourceInfo*.name == ['p1', 'p2', 'p3']
+        single.isEmpty()
+
+        cleanup:
+        service.destroy()
+    }
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rundeck.services.logging
+
+import com.dtolabs.rundeck.app.internal.logging.LogFileIndex
+import org.rundeck.app.services.ExecutionFile
+import spock.lang.Specification
+
+class ExecutionFileUtilSpec extends Specification {
+
+    def "delete removes the index file of the log"() {
+        given:
+        def dir = File.createTempDir('ExecutionFileUtilSpec', '-test')
+        def logfile = new File(dir, '1.rdlog')
+        logfile.text = 'log'
+        def indexFile = LogFileIndex.indexFileFor(logfile)
+        indexFile.text = 'index'
+        def file = Mock(ExecutionFile) {
+            getLocalFile() >> logfile
+            getFileDeletePolicy() >> policy
+        }
+
+        when:
+        ExecutionFileUtil.deleteExecutionFilePerPolicy(file, true)
+
+        then:
+        logfile.exists() == exists
+        indexFile.exists() == exists
+
+        cleanup:
+        dir.deleteDir()
+
+        where:
+        policy                            | exists
+        ExecutionFile.DeletePolicy.ALWAYS | false
+        ExecutionFile.DeletePolicy.NEVER  | true
+    }
+}
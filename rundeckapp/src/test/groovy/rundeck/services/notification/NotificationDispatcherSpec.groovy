@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rundeck.services.notification
+
+import com.codahale.metrics.Meter
+import com.codahale.metrics.Timer
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class NotificationDispatcherSpec extends Specification {
+    NotificationDispatcher dispatcher
+
+    def cleanup() {
+        dispatcher?.shutdown(1000)
+    }
+
+    def "notifications are sent on a bounded pool of workers"() {
+        given:
+        dispatcher = new NotificationDispatcher(4, 1000, 0)
+        dispatcher.latencyTimer = new Timer()
+        def threads = ConcurrentHashMap.newKeySet()
+        def done = new CountDownLatch(500)
+
+        when:
+        500.times {
+            dispatcher.dispatch("test ${it}") {
+                threads << Thread.currentThread()
+                done.countDown()
+            }
+        }
+
+        then:
+        done.await(10, TimeUnit.SECONDS)
+        threads.size() <= 4
+        !threads.contains(Thread.currentThread())
+        new PollingConditions(timeout: 5).eventually {
+            assert dispatcher.latencyTimer.count == 500
+        }
+    }
+
+    def "notification is sent on the caller thread when the queue is full"() {
+        given:
+        dispatcher = new NotificationDispatcher(1, 1, 0)
+        dispatcher.callerRunsMeter = new Meter()
+        def release = new CountDownLatch(1)
+        def started = new CountDownLatch(1)
+        Thread ranOn = null
+
+        when:
+        dispatcher.dispatch('blocking') {
+            started.countDown()
+            release.await()
+        }
+        started.await(5, TimeUnit.SECONDS)
+        dispatcher.dispatch('queued') {}
+        dispatcher.dispatch('overflow') { ranOn = Thread.currentThread() }
+
+        then:
+        ranOn == Thread.currentThread()
+        dispatcher.callerRunsMeter.count == 1
+        dispatcher.queueDepth == 1
+        dispatcher.activeCount == 1
+
+        cleanup:
+        release.countDown()
+    }
+
+    def "notification running past the timeout is interrupted"() {
+        given:
+        dispatcher = new NotificationDispatcher(1, 10, 100)
+        dispatcher.failureMeter = new Meter()
+        def interrupted = new CountDownLatch(1)
+        def next = new AtomicInteger()
+        def nextDone = new CountDownLatch(1)
+
+        when:
+        dispatcher.dispatch('slow') {
+            try {
+                Thread.sleep(10000)
+            } catch (InterruptedException ignored) {
+                interrupted.countDown()
+            }
+        }
+        dispatcher.dispatch('next') {
+            if (!Thread.currentThread().isInterrupted()) {
+                next.incrementAndGet()
+            }
+            nextDone.countDown()
+        }
+
+        then:
+        interrupted.await(5, TimeUnit.SECONDS)
+        nextDone.await(5, TimeUnit.SECONDS)
+        next.get() == 1
+        dispatcher.failureMeter.count == 1
+    }
+
+    def "failed notification does not stop the worker"() {
+        given:
+        dispatcher = new NotificationDispatcher(1, 10, 0)
+        dispatcher.failureMeter = new Meter()
+        def done = new CountDownLatch(1)
+
+        when:
+        dispatcher.dispatch('fails') { throw new RuntimeException('test') }
+        dispatcher.dispatch('succeeds') { done.countDown() }
+
+        then:
+        done.await(5, TimeUnit.SECONDS)
+        dispatcher.failureMeter.count == 1
+    }
+}
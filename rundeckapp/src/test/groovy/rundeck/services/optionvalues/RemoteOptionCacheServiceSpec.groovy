@@ -0,0 +1,240 @@
+/*
+ * Copyright 2026 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rundeck.services.optionvalues
+
+import grails.converters.JSON
+import rundeck.services.ConfigurationService
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class RemoteOptionCacheServiceSpec extends Specification {
+    static final String URL = 'http://example.com/options'
+    RemoteOptionCacheService service
+    List<Map> requests = Collections.synchronizedList([])
+
+    def setup() {
+        service = new RemoteOptionCacheService()
+    }
+
+    def cleanup() {
+        service.destroy()
+    }
+
+    def configure(long ttl, long stale) {
+        service.configurationService = Mock(ConfigurationService) {
+            getLong('jobs.options.remoteUrlCache.ttl', _) >> ttl
+            getLong('jobs.options.remoteUrlCache.staleWhileRevalidate', _) >> stale
+            getInteger(_, _) >> { it[1] }
+        }
+        service.afterPropertiesSet()
+    }
+
+    static Map response(String text, String etag = null) {
+        [
+                json      : JSON.parse(text),
+                text      : text,
+                stats     : [httpStatusCode: 200, url: URL],
+                validators: [etag: etag, lastModified: null],
+                noStore   : false
+        ]
+    }
+
+    def "entry within ttl is used without a request"() {
+        given:
+        configure(60, 0)
+        service.fetcher = { String url, int t, int c, int r, boolean d, Map v ->
+            requests << v
+            response('["a","b"]')
+        }
+
+        when:
+        def first = service.getRemoteJSON(URL, 'proj1', 'user1', ['role1'], 10, 0, 5, false)
+        def second = service.getRemoteJSON(URL, 'proj1', 'user1', ['role1'], 10, 0, 5, false)
+
+        then:
+        requests.size() == 1
+        first.json == ['a', 'b']
+        first.stats.cacheStatus == RemoteOptionCacheService.CACHE_MISS
+        second.json == ['a', 'b']
+        second.stats.cacheStatus == RemoteOptionCacheService.CACHE_HIT
+        second.stats.httpStatusCode == 200
+        !second.json.is(first.json)
+    }
+
+    def "entries are separate by user"() {
+        given:
+        configure(60, 0)
+        service.fetcher = { String url, int t, int c, int r, boolean d, Map v ->
+            requests << v
+            response('["a"]')
+        }
+
+        when:
+        service.getRemoteJSON(URL, 'proj1', 'user1', ['role1'], 10, 0, 5, false)
+        service.getRemoteJSON(URL, 'proj1', 'user2', ['role1'], 10, 0, 5, false)
+        service.getRemoteJSON(URL, 'proj1', 'user1', ['role1'], 10, 0, 5, false)
+
+        then:
+        requests.size() == 2
+    }
+
+    def "entries are separate by roles and project"() {
+        given:
+        configure(60, 0)
+        service.fetcher = { String url, int t, int c, int r, boolean d, Map v ->
+            requests << v
+            response('["a"]')
+        }
+
+        when:
+        service.getRemoteJSON(URL, 'proj1', 'user1', ['role1', 'role2'], 10, 0, 5, false)
+        service.getRemoteJSON(URL, 'proj1', 'user1', ['role2', 'role1'], 10, 0, 5, false)
+        service.getRemoteJSON(URL, 'proj1', 'user1', ['role1'], 10, 0, 5, false)
+        service.getRemoteJSON(URL, 'proj2', 'user1', ['role1', 'role2'], 10, 0, 5, false)
+
+        then:
+        requests.size() == 3
+    }
+
+    def "expired entry is revalidated with etag"() {
+        given:
+        configure(0, 0)
+        service.fetcher = { String url, int t, int c, int r, boolean d, Map v ->
+            requests << v
+            v?.etag ? [notModified: true, stats: [httpStatusCode: 304, url: URL]] : response('["a"]', '"v1"')
+        }
+
+        when:
+        def first = service.getRemoteJSON(URL, 'proj1', 'user1', ['role1'], 10, 0, 5, false)
+        def second = service.getRemoteJSON(URL, 'proj1', 'user1', ['role1'], 10, 0, 5, false)
+
+        then:
+        requests == [null, [etag: '"v1"', lastModified: null]]
+        first.stats.cacheStatus == RemoteOptionCacheService.CACHE_MISS
+        second.json == ['a']
+        second.stats.cacheStatus == RemoteOptionCacheService.CACHE_REVALIDATED
+        second.stats.httpStatusCode == 304
+    }
+
+    def "response without validators is not stored when ttl is zero"() {
+        given:
+        configure(0, 0)
+        service.fetcher = { String url, int t, int c, int r, boolean d, Map v ->
+            requests << v
+            response('["a"]')
+        }
+
+        when:
+        service.getRemoteJSON(URL, 'proj1', 'user1', ['role1'], 10, 0, 5, false)
+        service.getRemoteJSON(URL, 'proj1', 'user1', ['role1'], 10, 0, 5, false)
+
+        then:
+        requests == [null, null]
+        service.cacheSize == 0
+    }
+
+    def "error response is not stored"() {
+        given:
+        configure(60, 0)
+        service.fetcher = { String url, int t, int c, int r, boolean d, Map v ->
+            requests << v
+            [error: 'Server returned an error response: 500', stats: [httpStatusCode: 500]]
+        }
+
+        when:
+        def result = service.getRemoteJSON(URL, 'proj1', 'user1', ['role1'], 10, 0, 5, false)
+        service.getRemoteJSON(URL, 'proj1', 'user1', ['role1'], 10, 0, 5, false)
+
+        then:
+        result.error
+        requests.size() == 2
+        service.cacheSize == 0
+    }
+
+    def "stale entry is used while it is refreshed"() {
+        given:
+        configure(0, 60)
+        def count = new AtomicInteger()
+        service.fetcher = { String url, int t, int c, int r, boolean d, Map v ->
+            requests << v
+            response(count.incrementAndGet() == 1 ? '["old"]' : '["new"]')
+        }
+        service.getRemoteJSON(URL, 'proj1', 'user1', ['role1'], 10, 0, 5, false)
+
+        when:
+        def stale = service.getRemoteJSON(URL, 'proj1', 'user1', ['role1'], 10, 0, 5, false)
+
+        then:
+        stale.json == ['old']
+        stale.stats.cacheStatus == RemoteOptionCacheService.CACHE_STALE
+        new PollingConditions(timeout: 5).eventually {
+            assert service.getRemoteJSON(URL, 'proj1', 'user1', ['role1'], 10, 0, 5, false).json == ['new']
+        }
+    }
+
+    def "concurrent requests share a single fetch"() {
+        given:
+        configure(0, 0)
+        def release = new CountDownLatch(1)
+        service.fetcher = { String url, int t, int c, int r, boolean d, Map v ->
+            requests << v
+            release.await(5, TimeUnit.SECONDS)
+            response('["a"]')
+        }
+        def pool = Executors.newFixedThreadPool(20)
+
+        when:
+        def futures = (1..20).collect {
+            pool.submit({ service.getRemoteJSON(URL, 'proj1', 'user1', ['role1'], 10, 0, 5, false) } as java.util.concurrent.Callable)
+        }
+        new PollingConditions(timeout: 5).eventually {
+            assert requests.size() == 1
+        }
+        Thread.sleep(200)
+        release.countDown()
+        def results = futures*.get(5, TimeUnit.SECONDS)
+
+        then:
+        requests.size() == 1
+        results.every { it.json == ['a'] }
+        results*.json.collect { System.identityHashCode(it) }.unique().size() == 20
+
+        cleanup:
+        pool.shutdownNow()
+    }
+
+    def "file url is not cached"() {
+        given:
+        configure(60, 0)
+        service.fetcher = { String url, int t, int c, int r, boolean d, Map v ->
+            requests << v
+            [json: ['a'], stats: [:]]
+        }
+
+        when:
+        service.getRemoteJSON('file:/tmp/options.json', 'proj1', 'user1', ['role1'], 10, 0, 5, false)
+        service.getRemoteJSON('file:/tmp/options.json', 'proj1', 'user1', ['role1'], 10, 0, 5, false)
+
+        then:
+        requests.size() == 2
+    }
+}
@@ -16,6 +16,11 @@
 
 package rundeck.services.workflow
 
+import com.dtolabs.rundeck.app.internal.workflow.MutableWorkflowStateImpl
+import com.dtolabs.rundeck.app.internal.workflow.MutableWorkflowStateListener
+import com.dtolabs.rundeck.app.internal.workflow.WorkflowStateJournal
+import com.dtolabs.rundeck.core.execution.workflow.state.ExecutionState
+import com.dtolabs.rundeck.core.execution.workflow.state.StateUtils
 import grails.converters.JSON
 import spock.lang.Specification
 import spock.lang.Unroll
@@ -64,4 +69,73 @@ class StateMappingSpec extends Specification {
             'MissingNode' | [[stepctx: '1/1']]
 
     }
+
+    private static void nodeStepChange(List listeners, String stepctx, String node, ExecutionState state) {
+        def date = new Date()
+        listeners*.stepStateChanged(
+                StateUtils.stepIdentifierFromString(stepctx),
+                StateUtils.stepStateChange(StateUtils.stepState(state), node),
+                date
+        )
+    }
+
+    def "mapOfChanges contains only the steps and nodes changed since the sequence"() {
+        given:
+            def sut = new StateMapping()
+            def state = new MutableWorkflowStateImpl(['a', 'b'], 2)
+            def journal = new WorkflowStateJournal()
+            def listeners = [new MutableWorkflowStateListener(state), journal]
+            listeners*.workflowExecutionStateChanged(ExecutionState.RUNNING, new Date(), ['a', 'b'])
+            nodeStepChange(listeners, '1', 'a', ExecutionState.SUCCEEDED)
+            nodeStepChange(listeners, '1', 'b', ExecutionState.SUCCEEDED)
+            long since = journal.sequence
+            nodeStepChange(listeners, '2', 'a', ExecutionState.RUNNING)
+        when:
+            def result = sut.mapOfChanges(1L, state, since, journal.sequence, journal.changesSince(since))
+        then:
+            result.executionId == 1L
+            result.since == 3L
+            result.sequence == 4L
+            result.executionState == 'RUNNING'
+            result.stepCount == 2
+            !result.steps
+            !result.nodes
+            result.changes.collect { [it.stepctx, it.node] } == [['2', 'a'], ['2', null]]
+            result.changes[0].executionState == 'RUNNING'
+            result.changes[1].id == '2'
+    }
+
+    def "mapOfChanges since 0 contains every changed step and node"() {
+        given:
+            def sut = new StateMapping()
+            def state = new MutableWorkflowStateImpl(['a', 'b'], 2)
+            def journal = new WorkflowStateJournal()
+            def listeners = [new MutableWorkflowStateListener(state), journal]
+            listeners*.workflowExecutionStateChanged(ExecutionState.RUNNING, new Date(), ['a', 'b'])
+            nodeStepChange(listeners, '1', 'a', ExecutionState.SUCCEEDED)
+            nodeStepChange(listeners, '2', 'b', ExecutionState.FAILED)
+        when:
+            def result = sut.mapOfChanges(1L, state, 0, journal.sequence, journal.changesSince(0))
+        then:
+            result.sequence == 3L
+            result.changes.collect { [it.stepctx, it.node] } == [['1', 'a'], ['1', null], ['2', 'b'], ['2', null]]
+            result.changes[0].executionState == 'SUCCEEDED'
+            result.changes[2].executionState == 'FAILED'
+    }
+
+    def "mapOfChanges ignores changes to steps not in the state"() {
+        given:
+            def sut = new StateMapping()
+            def state = new MutableWorkflowStateImpl(['a'], 1)
+        when:
+            def result = sut.mapOfChanges(
+                    1L,
+                    state,
+                    0,
+                    1,
+                    [new WorkflowStateJournal.Change('3', 'a'), new WorkflowStateJournal.Change('1', 'a')]
+            )
+        then:
+            result.changes == []
+    }
 }